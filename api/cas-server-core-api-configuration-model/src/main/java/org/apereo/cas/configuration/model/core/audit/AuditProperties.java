@@ -128,6 +128,13 @@ public class AuditProperties implements Serializable {
     @NestedConfigurationProperty
     private AuditDynamoDbProperties dynamoDb = new AuditDynamoDbProperties();
 
+    /**
+     * Family of sub-properties pertaining to the queue
+     * that holds audit records which are saved asynchronously.
+     */
+    @NestedConfigurationProperty
+    private AuditQueueProperties queue = new AuditQueueProperties();
+
     /**
      * Indicates whether catastrophic audit failures should simply be logged
      * or whether errors should bubble up and thrown back.
@@ -0,0 +1,55 @@
+package org.apereo.cas.configuration.model.core.audit;
+
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link AuditQueueProperties}.
+ * Controls the queue that holds audit records which are saved asynchronously.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@RequiresModule(name = "cas-server-core-audit", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+public class AuditQueueProperties implements Serializable {
+
+    private static final long serialVersionUID = 2851420785630184397L;
+
+    /**
+     * Maximum number of audit records that may be waiting in the queue
+     * before the overflow policy kicks in.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Maximum number of audit records that are handed over to the audit storage
+     * in a single write operation.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Decide what should happen when the queue is full.
+     * Accepted values are:
+     * <ul>
+     * <li>{@code BLOCK}: The calling thread waits until space becomes available in the queue.</li>
+     * <li>{@code DROP_OLDEST}: The oldest queued record is discarded to make room for the new record.</li>
+     * <li>{@code SAMPLE}: Only one in every {@link #sampleRate} records
+     * is kept, replacing the oldest queued record; the rest are discarded.</li>
+     * </ul>
+     */
+    private String overflowPolicy = "BLOCK";
+
+    /**
+     * When the overflow policy is set to sample records,
+     * keep one record out of every number of overflowing records indicated here.
+     */
+    private int sampleRate = 10;
+}
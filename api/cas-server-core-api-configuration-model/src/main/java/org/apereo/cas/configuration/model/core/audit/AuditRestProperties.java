@@ -25,4 +25,11 @@ public class AuditRestProperties extends RestEndpointProperties {
      * Make storage requests asynchronously.
      */
     private boolean asynchronous = true;
+
+    /**
+     * When records are saved asynchronously, send each batch of queued
+     * records to the endpoint in a single request as a JSON array,
+     * rather than sending one request per record.
+     */
+    private boolean batchRequests;
 }
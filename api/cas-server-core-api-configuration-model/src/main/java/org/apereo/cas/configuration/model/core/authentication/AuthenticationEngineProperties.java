@@ -32,10 +32,47 @@ public class AuthenticationEngineProperties implements Serializable {
      */
     private Groovy groovyPostProcessor = new Groovy();
 
+    /**
+     * Control how authentication handlers that support the same credential
+     * are evaluated concurrently.
+     */
+    private Concurrency concurrency = new Concurrency();
+
     @RequiresModule(name = "cas-server-core-authentication", automated = true)
     @Getter
     @Setter
     public static class Groovy extends SpringResourceProperties {
         private static final long serialVersionUID = 8079027843747126083L;
     }
+
+    @RequiresModule(name = "cas-server-core-authentication", automated = true)
+    @Getter
+    @Setter
+    public static class Concurrency implements Serializable {
+        private static final long serialVersionUID = 4390262870395178423L;
+
+        /**
+         * Evaluate authentication handlers that support the credential concurrently.
+         * The first successful authentication that satisfies the authentication policy wins,
+         * and remaining handlers are cancelled. When disabled, handlers are evaluated in order.
+         */
+        private boolean enabled;
+
+        /**
+         * Number of threads dedicated to evaluating authentication handlers.
+         */
+        private int poolSize = 10;
+
+        /**
+         * Number of handler evaluations that may wait for a thread once all threads are busy.
+         * Once the queue is full, handlers are evaluated by the thread that processes the authentication request.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Maximum amount of time to wait for authentication handlers to produce a result.
+         * Handlers that fail to respond in time are recorded as failures.
+         */
+        private String timeout = "PT10S";
+    }
 }
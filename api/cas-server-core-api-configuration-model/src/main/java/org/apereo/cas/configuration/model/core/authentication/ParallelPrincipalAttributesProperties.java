@@ -0,0 +1,42 @@
+package org.apereo.cas.configuration.model.core.authentication;
+
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link ParallelPrincipalAttributesProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@RequiresModule(name = "cas-server-support-person-directory", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+public class ParallelPrincipalAttributesProperties implements Serializable {
+
+    private static final long serialVersionUID = 2354723188716264710L;
+
+    /**
+     * Number of threads dedicated to querying attribute repositories in parallel.
+     */
+    private int poolSize = 10;
+
+    /**
+     * Maximum number of attribute repository queries that may wait for a thread.
+     * Once the queue is full, queries are executed by the calling thread.
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Maximum amount of time to wait for attribute repositories to produce results.
+     * Results of attribute repositories that fail to respond in time are skipped,
+     * and the results of the remaining repositories are returned.
+     */
+    private String timeout = "PT5S";
+}
@@ -0,0 +1,35 @@
+package org.apereo.cas.configuration.model.core.authentication;
+
+import org.apereo.cas.configuration.model.support.redis.BaseRedisProperties;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link PrincipalAttributesCacheProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@RequiresModule(name = "cas-server-core-authentication", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+public class PrincipalAttributesCacheProperties implements Serializable {
+
+    private static final long serialVersionUID = -3317415765117208561L;
+
+    /**
+     * Share principal attributes cached for registered services
+     * across all CAS nodes via Redis. Attributes are kept
+     * in a local cache first, and Redis is consulted
+     * before attribute repositories are queried again.
+     */
+    @NestedConfigurationProperty
+    private BaseRedisProperties redis = new BaseRedisProperties();
+}
@@ -6,6 +6,7 @@ import org.apereo.cas.configuration.support.RequiresModule;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -76,10 +77,13 @@ public class PrincipalAttributesProperties implements Serializable {
 
     /**
      * Indicates how the results of multiple attribute repositories should
-     * be aggregated together. Accepted values are {@code MERGE}, or {@code CASCADE}.
+     * be aggregated together. Accepted values are {@code MERGE}, {@code PARALLEL} or {@code CASCADE}.
      * <ul>
      * <li>{@code MERGE}: Default. Designed to query multiple repositories
      * in order and merge the results into a single result set.</li>
+     * <li>{@code PARALLEL}: Query multiple repositories concurrently and merge the results
+     * into a single result set in the order in which repositories are defined.
+     * Repositories that fail to respond in time are skipped.</li>
      * <li>{@code CASCADE}: Query multiple repositories in order and merge the results into
      * a single result set. As each repository is queried
      * the attributes from the first query in the result set are
@@ -88,6 +92,20 @@ public class PrincipalAttributesProperties implements Serializable {
      */
     private String aggregation = "MERGE";
 
+    /**
+     * Settings that control how attribute repositories are queried
+     * when aggregation is set to {@code PARALLEL}.
+     */
+    @NestedConfigurationProperty
+    private ParallelPrincipalAttributesProperties parallel = new ParallelPrincipalAttributesProperties();
+
+    /**
+     * Settings that control how principal attributes cached
+     * for registered services are shared across nodes.
+     */
+    @NestedConfigurationProperty
+    private PrincipalAttributesCacheProperties cache = new PrincipalAttributesCacheProperties();
+
     /**
      * CAS provides the ability to release a bundle of principal attributes to all services by default.
      * This bundle is not defined on a per-service basis and is always combined with attributes
@@ -63,6 +63,14 @@ public class RiskBasedAuthenticationProperties implements Serializable {
      */
     private long daysInRecentHistory = 30;
 
+    /**
+     * Authentication risk profiles summarize the recent authentication history
+     * of each principal and are kept up to date as authentication events occur.
+     * This setting controls how long a profile may be kept before it is rebuilt
+     * from the events repository, which accounts for events that are recorded by other nodes.
+     */
+    private String profileExpiration = "PT1H";
+
     @Getter
     @Setter
     @Accessors(chain = true)
@@ -45,6 +45,11 @@ public class EventsProperties implements Serializable {
      */
     private boolean trackConfigurationModifications = true;
 
+    /**
+     * Track authentication events in memory.
+     */
+    private Memory memory = new Memory();
+
     /**
      * Track authentication events inside a database.
      */
@@ -65,6 +70,32 @@ public class EventsProperties implements Serializable {
      */
     private CouchDb couchDb = new CouchDb();
 
+    @RequiresModule(name = "cas-server-support-events-memory")
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Memory implements Serializable {
+
+        private static final long serialVersionUID = 5237128974321523641L;
+
+        /**
+         * Maximum number of events kept in memory.
+         * Once reached, the oldest events are evicted.
+         */
+        private long maxEvents = 1_000_000;
+
+        /**
+         * Maximum number of events kept in memory for each principal.
+         * Once reached, the oldest events of the principal are evicted.
+         */
+        private int maxEventsPerPrincipal = 1_000;
+
+        /**
+         * How long events are kept in memory after they are recorded.
+         */
+        private String expiration = "PT2H";
+    }
+
     @RequiresModule(name = "cas-server-support-events-jpa")
     @Getter
     @Setter
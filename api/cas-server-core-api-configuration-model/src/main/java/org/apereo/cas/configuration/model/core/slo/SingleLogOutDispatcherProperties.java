@@ -0,0 +1,69 @@
+package org.apereo.cas.configuration.model.core.slo;
+
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link SingleLogOutDispatcherProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@RequiresModule(name = "cas-server-core-logout", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+public class SingleLogOutDispatcherProperties implements Serializable {
+
+    private static final long serialVersionUID = -5219637829745124391L;
+
+    /**
+     * Whether asynchronous back-channel logout messages should be queued
+     * and delivered by the dispatcher, with retries, instead of being sent once
+     * without waiting for the result.
+     */
+    private boolean enabled;
+
+    /**
+     * Directory where pending logout messages are recorded so they
+     * survive restarts. If undefined, or if the directory cannot be used,
+     * pending messages are only kept in memory.
+     */
+    private String journalLocation;
+
+    /**
+     * Maximum number of logout messages that may be pending delivery.
+     * Messages submitted while the queue is full are rejected.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Maximum number of attempts to deliver a logout message before it is dropped.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Delay before the first retry. The delay doubles with every failed attempt.
+     */
+    private String initialBackoff = "PT1S";
+
+    /**
+     * Maximum delay between retries.
+     */
+    private String maxBackoff = "PT5M";
+
+    /**
+     * Maximum number of logout messages delivered to the same endpoint at the same time.
+     */
+    private int maxConcurrencyPerEndpoint = 4;
+
+    /**
+     * Number of threads that deliver logout messages.
+     */
+    private int threads = 8;
+}
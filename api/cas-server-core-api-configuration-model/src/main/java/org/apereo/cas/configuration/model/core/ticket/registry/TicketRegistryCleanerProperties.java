@@ -0,0 +1,35 @@
+package org.apereo.cas.configuration.model.core.ticket.registry;
+
+import org.apereo.cas.configuration.model.support.quartz.ScheduledJobProperties;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * This is {@link TicketRegistryCleanerProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@RequiresModule(name = "cas-server-core-tickets", automated = true)
+@Getter
+@Setter
+@NoArgsConstructor
+@Accessors(chain = true)
+public class TicketRegistryCleanerProperties extends ScheduledJobProperties {
+
+    private static final long serialVersionUID = 3417856213549821710L;
+
+    /**
+     * The maximum number of expiration candidates that are fetched
+     * from the ticket registry and cleaned up together as a single batch.
+     */
+    private int batchSize = 500;
+
+    public TicketRegistryCleanerProperties(final String startDelay, final String repeatInterval) {
+        super(startDelay, repeatInterval);
+    }
+}
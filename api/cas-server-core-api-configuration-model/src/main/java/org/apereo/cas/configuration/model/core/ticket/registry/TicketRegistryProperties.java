@@ -14,7 +14,6 @@ import org.apereo.cas.configuration.model.support.jms.JmsTicketRegistryPropertie
 import org.apereo.cas.configuration.model.support.jpa.ticketregistry.JpaTicketRegistryProperties;
 import org.apereo.cas.configuration.model.support.memcached.MemcachedTicketRegistryProperties;
 import org.apereo.cas.configuration.model.support.mongo.ticketregistry.MongoDbTicketRegistryProperties;
-import org.apereo.cas.configuration.model.support.quartz.ScheduledJobProperties;
 import org.apereo.cas.configuration.model.support.redis.RedisTicketRegistryProperties;
 import org.apereo.cas.configuration.support.RequiresModule;
 
@@ -130,11 +129,29 @@ public class TicketRegistryProperties implements Serializable {
     @NestedConfigurationProperty
     private CouchDbTicketRegistryProperties couchDb = new CouchDbTicketRegistryProperties();
 
+    /**
+     * The format used to serialize tickets before they are encrypted and signed
+     * by ticket registries that encode tickets. Accepted values are:
+     * <ul>
+     * <li>{@code JAVA}: Native Java serialization of the entire ticket object graph.</li>
+     * <li>{@code COMPACT}: Binary layout for core ticket types that records ticket state, authentication and services
+     * field by field, while still able to read tickets that were previously serialized using {@code JAVA}. Tickets that carry
+     * types without a compact layout are serialized using {@code JAVA}.</li>
+     * </ul>
+     */
+    private String serializer = "JAVA";
+
     /**
      * Ticket registry cleaner settings.
      */
     @NestedConfigurationProperty
-    private ScheduledJobProperties cleaner = new ScheduledJobProperties("PT10S", "PT1M");
+    private TicketRegistryCleanerProperties cleaner = new TicketRegistryCleanerProperties("PT10S", "PT1M");
+
+    /**
+     * Settings relevant for the near-cache of ticket-granting tickets
+     * that may be kept on each node in front of distributed ticket registries.
+     */
+    private NearCache nearCache = new NearCache();
 
     @RequiresModule(name = "cas-server-core-tickets", automated = true)
     @Getter
@@ -178,4 +195,38 @@ public class TicketRegistryProperties implements Serializable {
             crypto.setEnabled(false);
         }
     }
+
+    @RequiresModule(name = "cas-server-core-tickets", automated = true)
+    @Getter
+    @Setter
+    public static class NearCache implements Serializable {
+
+        private static final long serialVersionUID = 6282713851318212391L;
+
+        /**
+         * Keep decoded ticket-granting tickets in a local cache on each node,
+         * in front of the distributed ticket registry. Changes are announced to other nodes
+         * using the invalidation channel of the registry, if the registry offers one.
+         */
+        private boolean enabled;
+
+        /**
+         * Maximum number of ticket-granting tickets kept in the cache.
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * Maximum amount of time a ticket-granting ticket is kept in the cache
+         * after it was loaded from the registry. This bounds how long a node may use a stale ticket
+         * should an invalidation notice be lost.
+         */
+        private String timeToLive = "PT30S";
+
+        /**
+         * Keep tickets that are added or updated on this node in the cache,
+         * so that subsequent reads on this node observe the change without going back to the registry.
+         * Otherwise, such tickets are removed from the cache and are loaded again on the next read.
+         */
+        private boolean readYourWrites = true;
+    }
 }
@@ -48,6 +48,16 @@ public class WebflowSessionManagementProperties implements Serializable {
      */
     private boolean compress;
 
+    /**
+     * Whether flow state that is stored on the client should be encoded in a compact form,
+     * where serialized classes are only identified by name and the result is compressed using
+     * a preset dictionary of classes commonly found in flow state. Compact flow state may only be decoded
+     * by CAS nodes that run the same version of the software, while flow state that is not encoded
+     * in the compact form continues to be decoded.
+     * Only relevant if session storage is done on the client.
+     */
+    private boolean compact = true;
+
     /**
      * Controls whether spring webflow sessions are to be stored server-side or client side.
      * By default state is managed on the client side, that is also signed and encrypted.
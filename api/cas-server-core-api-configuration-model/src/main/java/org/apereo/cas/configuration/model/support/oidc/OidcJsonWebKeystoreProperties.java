@@ -28,6 +28,14 @@ public class OidcJsonWebKeystoreProperties implements Serializable {
      */
     private int jwksCacheInMinutes = 60;
 
+    /**
+     * Amount of time relying parties and intermediaries are allowed to cache
+     * the published JWKS document, conveyed via the {@code Cache-Control} header.
+     * The published document is built once and rebuilt when the keystore or
+     * the collection of registered services changes.
+     */
+    private String jwksPublicationMaxAge = "PT5M";
+
     /**
      * Path to the JWKS file resource used to handle signing/encryption of authentication tokens.
      */
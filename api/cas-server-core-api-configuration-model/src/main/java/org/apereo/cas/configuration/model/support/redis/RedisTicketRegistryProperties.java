@@ -28,6 +28,14 @@ public class RedisTicketRegistryProperties extends BaseRedisProperties {
     @NestedConfigurationProperty
     private EncryptionRandomizedSigningJwtCryptographyProperties crypto = new EncryptionRandomizedSigningJwtCryptographyProperties();
 
+    /**
+     * Number of ticket keys that are scanned, fetched or removed
+     * per round trip to the redis server when tickets are collectively
+     * retrieved or deleted. This value is also passed as the count hint
+     * to the {@code SCAN} command. Values lower than {@code 1} are treated as {@code 1}.
+     */
+    private long batchSize = 500;
+
     public RedisTicketRegistryProperties() {
         this.crypto.setEnabled(false);
     }
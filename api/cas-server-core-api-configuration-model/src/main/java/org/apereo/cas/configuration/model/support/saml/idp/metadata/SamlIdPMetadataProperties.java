@@ -50,6 +50,12 @@ public class SamlIdPMetadataProperties implements Serializable {
      */
     private long cacheExpirationMinutes = TimeUnit.DAYS.toMinutes(1);
 
+    /**
+     * Settings that control how expired metadata is refreshed in the background.
+     */
+    @NestedConfigurationProperty
+    private SamlIdPMetadataRefreshProperties refresh = new SamlIdPMetadataRefreshProperties();
+
     /**
      * Directory location of SAML metadata and signing/encryption keys.
      * This directory will be used to hold the configuration files.
@@ -0,0 +1,34 @@
+package org.apereo.cas.configuration.model.support.saml.idp.metadata;
+
+import org.apereo.cas.configuration.model.support.quartz.ScheduledJobProperties;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * This is {@link SamlIdPMetadataRefreshProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@RequiresModule(name = "cas-server-support-saml-idp")
+@Getter
+@Setter
+@Accessors(chain = true)
+public class SamlIdPMetadataRefreshProperties extends ScheduledJobProperties {
+
+    private static final long serialVersionUID = 3266735914280135628L;
+
+    /**
+     * How long cached metadata may continue to be served once it has expired,
+     * while it is refreshed in the background by the scheduler. Requests that arrive
+     * after this period wait for the metadata to be fetched again.
+     */
+    private String maxStale = "PT1H";
+
+    public SamlIdPMetadataRefreshProperties() {
+        super("PT1M", "PT1M");
+    }
+}
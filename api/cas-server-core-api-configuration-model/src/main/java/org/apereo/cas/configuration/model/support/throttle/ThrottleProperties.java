@@ -45,6 +45,11 @@ public class ThrottleProperties implements Serializable {
      */
     private Jdbc jdbc = new Jdbc();
 
+    /**
+     * Settings related to throttling failed submissions in memory.
+     */
+    private InMemory inMemory = new InMemory();
+
     /**
      * Settings related to throttling requests using bucket4j.
      */
@@ -109,6 +114,25 @@ public class ThrottleProperties implements Serializable {
         private int rangeSeconds = -1;
     }
 
+    /**
+     * In-memory throttling settings.
+     */
+    @RequiresModule(name = "cas-server-support-throttle", automated = true)
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class InMemory implements Serializable {
+
+        private static final long serialVersionUID = -3178344207543587742L;
+
+        /**
+         * Maximum number of throttling keys (i.e. IP addresses and usernames)
+         * tracked in memory. When this size is exceeded,
+         * entries that have been least recently used are evicted.
+         */
+        private long capacity = 100_000;
+    }
+
     @RequiresModule(name = "cas-server-support-throttle-jdbc")
     @Getter
     @Setter
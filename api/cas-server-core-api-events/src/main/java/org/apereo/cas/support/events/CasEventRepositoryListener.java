@@ -0,0 +1,21 @@
+package org.apereo.cas.support.events;
+
+import org.apereo.cas.support.events.dao.CasEvent;
+
+/**
+ * This is {@link CasEventRepositoryListener}, which is notified
+ * of events as they are saved into the {@link CasEventRepository}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@FunctionalInterface
+public interface CasEventRepositoryListener {
+
+    /**
+     * Handle the event that is saved.
+     *
+     * @param event the event
+     */
+    void onEventSaved(CasEvent event);
+}
@@ -0,0 +1,78 @@
+package org.apereo.cas.services;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link RegisteredServiceIndex}, which describes a secondary index
+ * of registered services keyed by an arbitrary property of the service definition,
+ * such as a client id or an entity id. Services managers that are able to do so
+ * maintain such indexes as service definitions are loaded, saved or deleted,
+ * allowing lookups by key without having to evaluate every service definition.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+public interface RegisteredServiceIndex {
+
+    /**
+     * Build an index from the given key extractor.
+     *
+     * @param name            the name of the index, which must be unique
+     * @param keyExtractor    the function that produces index keys for a registered service
+     * @param caseInsensitive whether keys should be compared regardless of case
+     * @return the index
+     */
+    static RegisteredServiceIndex of(final String name,
+                                     final Function<RegisteredService, Collection<String>> keyExtractor,
+                                     final boolean caseInsensitive) {
+        return new RegisteredServiceIndex() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Collection<String> getKeys(final RegisteredService registeredService) {
+                return keyExtractor.apply(registeredService)
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .map(this::normalize)
+                    .collect(Collectors.toSet());
+            }
+
+            @Override
+            public String normalize(final String key) {
+                return caseInsensitive ? key.toLowerCase(Locale.ENGLISH) : key;
+            }
+        };
+    }
+
+    /**
+     * Gets the name of the index.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Gets the normalized keys under which the registered service is indexed.
+     *
+     * @param registeredService the registered service
+     * @return the keys, or an empty collection if the service is not indexed.
+     */
+    Collection<String> getKeys(RegisteredService registeredService);
+
+    /**
+     * Normalize the key before it is used for lookups.
+     *
+     * @param key the key
+     * @return the normalized key
+     */
+    default String normalize(final String key) {
+        return key;
+    }
+}
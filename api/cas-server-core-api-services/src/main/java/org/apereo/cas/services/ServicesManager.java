@@ -4,9 +4,11 @@ import org.apereo.cas.authentication.principal.Service;
 
 import lombok.val;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -165,6 +167,47 @@ public interface ServicesManager {
         return null;
     }
 
+    /**
+     * Find registered services whose keys in the given index match the supplied key.
+     * Services managers that maintain the index can locate services without
+     * evaluating every service definition.
+     *
+     * @param index the index
+     * @param key   the key to match with
+     * @return the collection of registered services that match the key, sorted by evaluation order.
+     */
+    default Collection<RegisteredService> findServicesByIndex(final RegisteredServiceIndex index, final String key) {
+        if (key == null) {
+            return new ArrayList<>(0);
+        }
+        val normalized = index.normalize(key);
+        return getAllServices()
+            .stream()
+            .filter(service -> index.getKeys(service).contains(normalized))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Find the first registered service of the given type whose keys
+     * in the given index match the supplied key.
+     *
+     * @param <T>   the type parameter
+     * @param index the index
+     * @param key   the key to match with
+     * @param clazz the clazz
+     * @return the registered service, or null
+     */
+    default <T extends RegisteredService> T findServiceByIndex(final RegisteredServiceIndex index,
+                                                               final String key,
+                                                               final Class<T> clazz) {
+        return findServicesByIndex(index, key)
+            .stream()
+            .filter(clazz::isInstance)
+            .map(clazz::cast)
+            .findFirst()
+            .orElse(null);
+    }
+
     /**
      * Retrieve the collection of all registered services.
      * Services that are returned are valid, non-expired, etc.
@@ -1,7 +1,10 @@
 package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -106,6 +109,44 @@ public interface TicketRegistry {
      */
     Ticket updateTicket(Ticket ticket);
 
+    /**
+     * Update the existing tickets and add the new tickets to the registry as a single batch.
+     * Registries that are backed by a remote store may override this operation to submit
+     * all writes to the store at once, rather than one request per ticket.
+     * The default implementation updates and then adds each ticket in turn.
+     *
+     * @param ticketsToAdd    the new tickets to add
+     * @param ticketsToUpdate the existing tickets to update
+     */
+    default void addAndUpdate(final Collection<Ticket> ticketsToAdd, final Collection<Ticket> ticketsToUpdate) {
+        ticketsToUpdate.forEach(this::updateTicket);
+        ticketsToAdd.forEach(this::addTicket);
+    }
+
+    /**
+     * Consume the ticket by recording a use of the ticket and updating its state in the registry,
+     * provided the ticket can be found and is not yet expired. Registries are expected to carry out
+     * this operation atomically, such that concurrent attempts to consume the same ticket, whether
+     * on the same node or across nodes that share the registry, each observe the uses recorded by the others.
+     * This allows tickets whose expiration policy permits a single use to be consumed only once.
+     * The default implementation offers no such guarantees.
+     * <p>
+     * A null result must only indicate that the ticket is missing or expired, since callers may remove such tickets.
+     * Registries that fail to reach their store or to record the use should throw an exception instead.
+     *
+     * @param ticketId the ticket id
+     * @return the consumed ticket, or null if the ticket cannot be found or has already expired
+     */
+    default Ticket consumeTicket(final String ticketId) {
+        final Ticket ticket = getTicket(ticketId, t -> t != null && !t.isExpired());
+        if (!(ticket instanceof TicketState)) {
+            return null;
+        }
+        TicketState.class.cast(ticket).update();
+        updateTicket(ticket);
+        return ticket;
+    }
+
     /**
      * Computes the number of SSO sessions stored in the ticket registry.
      *
@@ -132,6 +173,23 @@ public interface TicketRegistry {
         return getTickets().stream();
     }
 
+    /**
+     * Gets the tickets that are candidates for expiration at the given instant,
+     * that is, tickets whose recorded expiration time is at or before the instant.
+     * Registries that keep track of the expiration time of tickets are able to
+     * answer this query without loading every ticket. The result only contains candidates,
+     * and callers must still verify whether each ticket is in fact {@link Ticket#isExpired() expired}.
+     * <p>
+     * The returning stream may be bound to an IO channel (such as database connection),
+     * so it should be properly closed after usage.
+     *
+     * @param instant the instant
+     * @return the tickets
+     */
+    default Stream<? extends Ticket> getTicketsExpiringBefore(final Instant instant) {
+        return getTickets(Ticket::isExpired);
+    }
+
     /**
      * Count the number of single sign-on sessions
      * that are recorded in the ticket registry for
@@ -141,4 +199,19 @@ public interface TicketRegistry {
      * @return the count
      */
     long countSessionsFor(String principalId);
+
+    /**
+     * Gets the single sign-on sessions, as ticket-granting tickets,
+     * that are recorded in the ticket registry for the given user name.
+     * <p>
+     * The returning stream may be bound to an IO channel (such as database connection),
+     * so it should be properly closed after usage.
+     *
+     * @param principalId the principal id
+     * @return the sessions
+     */
+    default Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        return getTickets(ticket -> ticket instanceof TicketGrantingTicket
+            && TicketGrantingTicket.class.cast(ticket).getAuthentication().getPrincipal().getId().equalsIgnoreCase(principalId));
+    }
 }
@@ -0,0 +1,29 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.ticket.Ticket;
+
+/**
+ * This is {@link TicketSerializer} that turns tickets into an array of bytes and back,
+ * typically used by ticket registries to encode tickets before they are encrypted and signed.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+public interface TicketSerializer {
+
+    /**
+     * Serialize the ticket.
+     *
+     * @param ticket the ticket
+     * @return the serialized ticket
+     */
+    byte[] serialize(Ticket ticket);
+
+    /**
+     * Deserialize the ticket.
+     *
+     * @param data the serialized ticket
+     * @return the ticket
+     */
+    Ticket deserialize(byte[] data);
+}
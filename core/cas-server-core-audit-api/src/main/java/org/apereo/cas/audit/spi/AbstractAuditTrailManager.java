@@ -1,16 +1,17 @@
 package org.apereo.cas.audit.spi;
 
-import lombok.AllArgsConstructor;
+import org.apereo.cas.configuration.model.core.audit.AuditQueueProperties;
+
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.val;
 import org.apereo.inspektr.audit.AuditActionContext;
 import org.apereo.inspektr.audit.AuditTrailManager;
 import org.springframework.beans.factory.DisposableBean;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.List;
 
 /**
  * This is {@link AbstractAuditTrailManager}.
@@ -21,7 +22,6 @@ import java.util.concurrent.ThreadFactory;
 @Setter
 @Getter
 @NoArgsConstructor
-@AllArgsConstructor
 public abstract class AbstractAuditTrailManager implements AuditTrailManager, DisposableBean {
 
     /**
@@ -29,18 +29,23 @@ public abstract class AbstractAuditTrailManager implements AuditTrailManager, Di
      */
     protected boolean asynchronous;
 
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor(
-        new ThreadFactory() {
-            @Override
-            public Thread newThread(final Runnable r) {
-                return new Thread(r, "AuditTrailManagerThread");
-            }
-        });
+    /**
+     * Settings for the queue that holds records which are saved asynchronously.
+     */
+    private AuditQueueProperties queue = new AuditQueueProperties();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile AsynchronousAuditTrailWriter asynchronousWriter;
+
+    protected AbstractAuditTrailManager(final boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
 
     @Override
     public void record(final AuditActionContext audit) {
         if (this.asynchronous) {
-            this.executorService.execute(() -> saveAuditRecord(audit));
+            getAsynchronousWriter().submit(audit);
         } else {
             saveAuditRecord(audit);
         }
@@ -48,7 +53,9 @@ public abstract class AbstractAuditTrailManager implements AuditTrailManager, Di
 
     @Override
     public void destroy() {
-        this.executorService.shutdown();
+        if (this.asynchronousWriter != null) {
+            this.asynchronousWriter.close();
+        }
     }
 
     /**
@@ -56,4 +63,31 @@ public abstract class AbstractAuditTrailManager implements AuditTrailManager, Di
      * @param audit Audit record to be saved.
      */
     protected abstract void saveAuditRecord(AuditActionContext audit);
+
+    /**
+     * Save a batch of audit records that were queued asynchronously.
+     * Storage implementations that are able to write multiple records in a single operation
+     * should override this method; by default, records are saved one at a time.
+     *
+     * @param audits Audit records to be saved.
+     */
+    protected void saveAuditRecords(final List<AuditActionContext> audits) {
+        audits.forEach(this::saveAuditRecord);
+    }
+
+    private AsynchronousAuditTrailWriter getAsynchronousWriter() {
+        var writer = this.asynchronousWriter;
+        if (writer == null) {
+            synchronized (this) {
+                writer = this.asynchronousWriter;
+                if (writer == null) {
+                    val policy = AsynchronousAuditTrailWriter.OverflowPolicy.valueOf(queue.getOverflowPolicy().trim().toUpperCase());
+                    writer = new AsynchronousAuditTrailWriter(getClass().getSimpleName(), queue.getCapacity(),
+                        queue.getBatchSize(), policy, queue.getSampleRate(), this::saveAuditRecords);
+                    this.asynchronousWriter = writer;
+                }
+            }
+        }
+        return writer;
+    }
 }
@@ -0,0 +1,232 @@
+package org.apereo.cas.audit.spi;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apereo.inspektr.audit.AuditActionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link AsynchronousAuditTrailWriter}. Audit records are held in a bounded queue
+ * and are drained by a single background thread in batches, each of which is handed over
+ * to the audit storage in one operation. When the queue is full, the configured
+ * {@link OverflowPolicy} decides the fate of incoming records.
+ * <p>
+ * The writer reports the following metrics, tagged by the writer name:
+ * <ul>
+ * <li>{@code cas.audit.queue.size}: number of records waiting in the queue.</li>
+ * <li>{@code cas.audit.queue.dropped}: number of records discarded due to overflow.</li>
+ * <li>{@code cas.audit.queue.latency}: time records spend in the queue before they are saved.</li>
+ * <li>{@code cas.audit.queue.write}: time it takes to save a batch of records.</li>
+ * </ul>
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class AsynchronousAuditTrailWriter implements AutoCloseable {
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final BlockingQueue<QueuedAuditActionContext> queue;
+
+    private final int batchSize;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final int sampleRate;
+
+    private final Consumer<List<AuditActionContext>> writer;
+
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    private final Counter droppedCounter;
+
+    private final Timer latencyTimer;
+
+    private final Timer writeTimer;
+
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    public AsynchronousAuditTrailWriter(final String name, final int capacity, final int batchSize,
+                                        final OverflowPolicy overflowPolicy, final int sampleRate,
+                                        final Consumer<List<AuditActionContext>> writer) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.batchSize = Math.max(batchSize, 1);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.writer = writer;
+
+        val registry = Metrics.globalRegistry;
+        Gauge.builder("cas.audit.queue.size", queue, BlockingQueue::size)
+            .tag("name", name)
+            .description("Number of audit records waiting in the queue")
+            .register(registry);
+        this.droppedCounter = Counter.builder("cas.audit.queue.dropped")
+            .tag("name", name)
+            .description("Number of audit records discarded due to queue overflow")
+            .register(registry);
+        this.latencyTimer = Timer.builder("cas.audit.queue.latency")
+            .tag("name", name)
+            .description("Time audit records spend in the queue before they are saved")
+            .register(registry);
+        this.writeTimer = Timer.builder("cas.audit.queue.write")
+            .tag("name", name)
+            .description("Time it takes to save a batch of audit records")
+            .register(registry);
+
+        this.worker = new Thread(this::drain, name + "AuditTrailWriterThread");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Put the audit record in the queue, subject to the overflow policy.
+     *
+     * @param audit the audit
+     * @return true if the record was queued.
+     */
+    public boolean submit(final AuditActionContext audit) {
+        if (!running) {
+            LOGGER.warn("Audit trail writer is shut down; audit record [{}] is discarded", audit);
+            droppedCounter.increment();
+            return false;
+        }
+        val record = new QueuedAuditActionContext(audit, System.nanoTime());
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                while (!queue.offer(record)) {
+                    discard(queue.poll());
+                }
+                return true;
+            case SAMPLE:
+                if (queue.offer(record)) {
+                    return true;
+                }
+                if (overflowCount.incrementAndGet() % sampleRate == 0) {
+                    discard(queue.poll());
+                    if (queue.offer(record)) {
+                        return true;
+                    }
+                }
+                discard(record);
+                return false;
+            case BLOCK:
+            default:
+                try {
+                    queue.put(record);
+                    return true;
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    discard(record);
+                    return false;
+                }
+        }
+    }
+
+    /**
+     * Number of audit records waiting in the queue.
+     *
+     * @return the size
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting records, and wait for the queued records to be saved.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            LOGGER.warn("[{}] audit record(s) could not be saved before shutdown", queue.size());
+        }
+    }
+
+    private void discard(final QueuedAuditActionContext record) {
+        if (record != null) {
+            LOGGER.debug("Audit queue is full; discarding audit record [{}]", record.getAudit());
+            droppedCounter.increment();
+        }
+    }
+
+    private void drain() {
+        val batch = new ArrayList<QueuedAuditActionContext>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                val first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                    batch.clear();
+                }
+            } catch (final InterruptedException e) {
+                LOGGER.trace("Audit trail writer is interrupted");
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(final List<QueuedAuditActionContext> batch) {
+        val records = batch.stream().map(QueuedAuditActionContext::getAudit).collect(Collectors.toList());
+        try {
+            LOGGER.trace("Saving [{}] audit record(s)", records.size());
+            writeTimer.record(() -> writer.accept(records));
+        } catch (final Exception e) {
+            LOGGER.error("Unable to save [{}] audit record(s): [{}]", records.size(), e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+        val now = System.nanoTime();
+        batch.forEach(record -> latencyTimer.record(now - record.getQueuedAt(), TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Decide what happens to audit records when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait until space becomes available in the queue.
+         */
+        BLOCK,
+        /**
+         * Discard the oldest queued record to make room.
+         */
+        DROP_OLDEST,
+        /**
+         * Keep a sample of the overflowing records, discarding the oldest queued records to make room.
+         */
+        SAMPLE
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class QueuedAuditActionContext {
+        private final AuditActionContext audit;
+
+        private final long queuedAt;
+    }
+}
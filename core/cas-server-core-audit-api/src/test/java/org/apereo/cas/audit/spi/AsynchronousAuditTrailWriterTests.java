@@ -0,0 +1,115 @@
+package org.apereo.cas.audit.spi;
+
+import lombok.val;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link AsynchronousAuditTrailWriterTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class AsynchronousAuditTrailWriterTests {
+
+    private static AuditActionContext getAuditActionContext(final int index) {
+        return new AuditActionContext("casuser-" + index, "TEST", "TEST",
+            "CAS", new Date(), "1.2.3.4", "1.2.3.4");
+    }
+
+    private static List<String> getPrincipals(final List<List<AuditActionContext>> batches) {
+        return batches.stream()
+            .flatMap(List::stream)
+            .map(AuditActionContext::getPrincipal)
+            .collect(Collectors.toList());
+    }
+
+    private static void waitUntilEmpty(final AsynchronousAuditTrailWriter writer) throws Exception {
+        val deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (writer.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, writer.size());
+    }
+
+    @Test
+    public void verifyBatches() {
+        val batches = new CopyOnWriteArrayList<List<AuditActionContext>>();
+        val writer = new AsynchronousAuditTrailWriter("verifyBatches", 100, 3,
+            AsynchronousAuditTrailWriter.OverflowPolicy.BLOCK, 1, batch -> batches.add(new ArrayList<>(batch)));
+        IntStream.range(0, 10).forEach(i -> assertTrue(writer.submit(getAuditActionContext(i))));
+        writer.close();
+        assertEquals(10, getPrincipals(batches).size());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 3));
+        assertFalse(writer.submit(getAuditActionContext(10)));
+    }
+
+    @Test
+    public void verifyDropOldest() throws Exception {
+        val latch = new CountDownLatch(1);
+        val batches = new CopyOnWriteArrayList<List<AuditActionContext>>();
+        val writer = new AsynchronousAuditTrailWriter("verifyDropOldest", 2, 10,
+            AsynchronousAuditTrailWriter.OverflowPolicy.DROP_OLDEST, 1, batch -> {
+                try {
+                    latch.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                batches.add(new ArrayList<>(batch));
+            });
+        writer.submit(getAuditActionContext(0));
+        waitUntilEmpty(writer);
+        IntStream.range(1, 4).forEach(i -> assertTrue(writer.submit(getAuditActionContext(i))));
+        assertEquals(2, writer.size());
+        latch.countDown();
+        writer.close();
+        assertEquals(List.of("casuser-0", "casuser-2", "casuser-3"), getPrincipals(batches));
+    }
+
+    @Test
+    public void verifySample() throws Exception {
+        val latch = new CountDownLatch(1);
+        val batches = new CopyOnWriteArrayList<List<AuditActionContext>>();
+        val writer = new AsynchronousAuditTrailWriter("verifySample", 2, 10,
+            AsynchronousAuditTrailWriter.OverflowPolicy.SAMPLE, 2, batch -> {
+                try {
+                    latch.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                batches.add(new ArrayList<>(batch));
+            });
+        writer.submit(getAuditActionContext(0));
+        waitUntilEmpty(writer);
+        assertTrue(writer.submit(getAuditActionContext(1)));
+        assertTrue(writer.submit(getAuditActionContext(2)));
+        assertFalse(writer.submit(getAuditActionContext(3)));
+        assertTrue(writer.submit(getAuditActionContext(4)));
+        latch.countDown();
+        writer.close();
+        assertEquals(List.of("casuser-0", "casuser-2", "casuser-4"), getPrincipals(batches));
+    }
+
+    @Test
+    public void verifyWriteFailure() {
+        val writer = new AsynchronousAuditTrailWriter("verifyWriteFailure", 10, 10,
+            AsynchronousAuditTrailWriter.OverflowPolicy.BLOCK, 1, batch -> {
+                throw new IllegalArgumentException("failed");
+            });
+        assertTrue(writer.submit(getAuditActionContext(0)));
+        assertDoesNotThrow(writer::close);
+    }
+}
@@ -21,7 +21,8 @@ import org.junit.runner.RunWith;
     TicketAsFirstParameterResourceResolverTests.class,
     ChainingAuditPrincipalIdProviderTests.class,
     FilterAndDelegateAuditTrailManagerTests.class,
-    MessageBundleAwareResourceResolverTests.class
+    MessageBundleAwareResourceResolverTests.class,
+    AsynchronousAuditTrailWriterTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class CoreAuditTestsSuite {
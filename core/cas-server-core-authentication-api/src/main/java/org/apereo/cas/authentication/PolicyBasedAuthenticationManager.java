@@ -13,20 +13,35 @@ import org.apereo.cas.support.events.authentication.CasAuthenticationTransaction
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apereo.inspektr.audit.annotation.Audit;
+import org.apereo.inspektr.common.web.ClientInfo;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.webflow.context.ExternalContext;
+import org.springframework.webflow.context.ExternalContextHolder;
+import org.springframework.webflow.execution.RequestContext;
 
 import java.lang.reflect.UndeclaredThrowableException;
 import java.security.GeneralSecurityException;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -47,6 +62,20 @@ public class PolicyBasedAuthenticationManager implements AuthenticationManager {
 
     private final ConfigurableApplicationContext applicationContext;
 
+    /**
+     * Executor used to evaluate authentication handlers that support
+     * the same credential concurrently. When undefined, handlers are
+     * evaluated sequentially in order.
+     */
+    @Setter
+    private ExecutorService authenticationHandlerExecutor;
+
+    /**
+     * Maximum amount of time to wait for handlers evaluated concurrently.
+     */
+    @Setter
+    private Duration authenticationHandlerTimeout = Duration.ofSeconds(10);
+
     @Override
     @Audit(
         action = "AUTHENTICATION",
@@ -194,6 +223,23 @@ public class PolicyBasedAuthenticationManager implements AuthenticationManager {
         publishEvent(new CasAuthenticationTransactionStartedEvent(this, credential));
 
         val result = handler.authenticate(credential);
+        processAuthenticationHandlerResult(builder, credential, resolver, handler, result);
+    }
+
+    /**
+     * Record the authentication handler result and resolve the principal.
+     *
+     * @param builder    the builder
+     * @param credential the credential
+     * @param resolver   the resolver
+     * @param handler    the handler
+     * @param result     the result produced by the handler
+     */
+    protected void processAuthenticationHandlerResult(final AuthenticationBuilder builder,
+                                                      final Credential credential,
+                                                      final PrincipalResolver resolver,
+                                                      final AuthenticationHandler handler,
+                                                      final AuthenticationHandlerExecutionResult result) {
         val authenticationHandlerName = handler.getName();
         builder.addSuccess(authenticationHandlerName, result);
         LOGGER.debug("Authentication handler [{}] successfully authenticated [{}]", authenticationHandlerName, credential);
@@ -290,35 +336,10 @@ public class PolicyBasedAuthenticationManager implements AuthenticationManager {
                 val credential = it.next();
                 LOGGER.debug("Attempting to authenticate credential [{}]", credential);
 
-                val itHandlers = handlerSet.iterator();
-                var proceedWithNextHandler = true;
-                while (proceedWithNextHandler && itHandlers.hasNext()) {
-                    val handler = itHandlers.next();
-                    if (handler.supports(credential)) {
-                        try {
-                            val resolver = getPrincipalResolverLinkedToHandlerIfAny(handler, transaction);
-                            LOGGER.debug("Attempting authentication of [{}] using [{}]", credential.getId(), handler.getName());
-                            authenticateAndResolvePrincipal(builder, credential, resolver, handler);
-
-                            val authnResult = builder.build();
-                            AuthenticationCredentialsThreadLocalBinder.bindInProgress(authnResult);
-                            val failures = evaluateAuthenticationPolicies(authnResult, transaction, handlerSet);
-                            proceedWithNextHandler = !failures.getKey();
-                        } catch (final GeneralSecurityException e) {
-                            handleAuthenticationException(e, handler.getName(), builder);
-                            proceedWithNextHandler = true;
-                        } catch (final Exception e) {
-                            LOGGER.error("Authentication has failed. Credentials may be incorrect or CAS cannot "
-                                + "find authentication handler that supports [{}] of type [{}]. Examine the configuration to "
-                                + "ensure a method of authentication is defined and analyze CAS logs at DEBUG level to trace "
-                                + "the authentication event.", credential, credential.getClass().getSimpleName());
-
-                            handleAuthenticationException(e, handler.getName(), builder);
-                            proceedWithNextHandler = true;
-                        }
-                    } else {
-                        LOGGER.debug("Authentication handler [{}] does not support the credential type [{}]. Trying next...", handler.getName(), credential);
-                    }
+                if (authenticationHandlerExecutor != null) {
+                    authenticateConcurrently(builder, credential, transaction, handlerSet);
+                } else {
+                    authenticateSequentially(builder, credential, transaction, handlerSet);
                 }
             }
             evaluateFinalAuthentication(builder, transaction, handlerSet);
@@ -328,6 +349,161 @@ public class PolicyBasedAuthenticationManager implements AuthenticationManager {
         }
     }
 
+    /**
+     * Evaluate authentication handlers that support the credential in order,
+     * until the authentication policy is satisfied.
+     *
+     * @param builder     the builder
+     * @param credential  the credential
+     * @param transaction the transaction
+     * @param handlerSet  the authentication handlers
+     */
+    protected void authenticateSequentially(final AuthenticationBuilder builder,
+                                            final Credential credential,
+                                            final AuthenticationTransaction transaction,
+                                            final Set<AuthenticationHandler> handlerSet) {
+        val itHandlers = handlerSet.iterator();
+        var proceedWithNextHandler = true;
+        while (proceedWithNextHandler && itHandlers.hasNext()) {
+            val handler = itHandlers.next();
+            if (handler.supports(credential)) {
+                try {
+                    val resolver = getPrincipalResolverLinkedToHandlerIfAny(handler, transaction);
+                    LOGGER.debug("Attempting authentication of [{}] using [{}]", credential.getId(), handler.getName());
+                    authenticateAndResolvePrincipal(builder, credential, resolver, handler);
+
+                    val authnResult = builder.build();
+                    AuthenticationCredentialsThreadLocalBinder.bindInProgress(authnResult);
+                    val failures = evaluateAuthenticationPolicies(authnResult, transaction, handlerSet);
+                    proceedWithNextHandler = !failures.getKey();
+                } catch (final GeneralSecurityException e) {
+                    handleAuthenticationException(e, handler.getName(), builder);
+                    proceedWithNextHandler = true;
+                } catch (final Exception e) {
+                    LOGGER.error("Authentication has failed. Credentials may be incorrect or CAS cannot "
+                        + "find authentication handler that supports [{}] of type [{}]. Examine the configuration to "
+                        + "ensure a method of authentication is defined and analyze CAS logs at DEBUG level to trace "
+                        + "the authentication event.", credential, credential.getClass().getSimpleName());
+
+                    handleAuthenticationException(e, handler.getName(), builder);
+                    proceedWithNextHandler = true;
+                }
+            } else {
+                LOGGER.debug("Authentication handler [{}] does not support the credential type [{}]. Trying next...", handler.getName(), credential);
+            }
+        }
+    }
+
+    /**
+     * Evaluate authentication handlers that support the credential concurrently.
+     * Results are processed in the order in which handlers complete; the first successful
+     * result that satisfies the authentication policy wins and remaining handlers are cancelled.
+     * Failures of handlers that complete, or fail to complete in time, are recorded on the builder.
+     *
+     * @param builder     the builder
+     * @param credential  the credential
+     * @param transaction the transaction
+     * @param handlerSet  the authentication handlers
+     */
+    protected void authenticateConcurrently(final AuthenticationBuilder builder,
+                                            final Credential credential,
+                                            final AuthenticationTransaction transaction,
+                                            final Set<AuthenticationHandler> handlerSet) {
+        val completionService = new ExecutorCompletionService<AuthenticationHandlerOutcome>(authenticationHandlerExecutor);
+        val threadBoundContext = ThreadBoundContext.capture(transaction);
+        val futures = new LinkedHashMap<AuthenticationHandler, Future<AuthenticationHandlerOutcome>>();
+        handlerSet
+            .stream()
+            .filter(handler -> handler.supports(credential))
+            .forEach(handler -> {
+                LOGGER.debug("Attempting authentication of [{}] using [{}]", credential.getId(), handler.getName());
+                publishEvent(new CasAuthenticationTransactionStartedEvent(this, credential));
+                futures.put(handler, completionService.submit(() -> {
+                    val bound = threadBoundContext.bind();
+                    try {
+                        return new AuthenticationHandlerOutcome(handler, handler.authenticate(credential), null);
+                    } catch (final Exception e) {
+                        return new AuthenticationHandlerOutcome(handler, null, e);
+                    } finally {
+                        if (bound) {
+                            ThreadBoundContext.clear();
+                        }
+                    }
+                }));
+            });
+
+        val deadline = System.nanoTime() + authenticationHandlerTimeout.toNanos();
+        var satisfied = false;
+        try {
+            var pending = futures.size();
+            while (!satisfied && pending > 0) {
+                val completed = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (completed == null) {
+                    break;
+                }
+                pending--;
+                satisfied = processAuthenticationHandlerOutcome(builder, credential, transaction, handlerSet, completed.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting for authentication handlers to authenticate [{}]", credential);
+        } catch (final ExecutionException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+
+        for (val entry : futures.entrySet()) {
+            val future = entry.getValue();
+            if (!future.isDone()) {
+                future.cancel(true);
+                val handlerName = entry.getKey().getName();
+                if (satisfied) {
+                    LOGGER.debug("Cancelled authentication handler [{}] since authentication policy is satisfied", handlerName);
+                } else {
+                    handleAuthenticationException(new PreventedException("Authentication handler " + handlerName
+                        + " did not complete within " + authenticationHandlerTimeout), handlerName, builder);
+                }
+            }
+        }
+    }
+
+    /**
+     * Process the outcome of an authentication handler evaluated concurrently.
+     *
+     * @param builder     the builder
+     * @param credential  the credential
+     * @param transaction the transaction
+     * @param handlerSet  the authentication handlers
+     * @param outcome     the outcome
+     * @return true if the authentication policy is satisfied
+     */
+    protected boolean processAuthenticationHandlerOutcome(final AuthenticationBuilder builder,
+                                                          final Credential credential,
+                                                          final AuthenticationTransaction transaction,
+                                                          final Set<AuthenticationHandler> handlerSet,
+                                                          final AuthenticationHandlerOutcome outcome) {
+        val handler = outcome.getHandler();
+        try {
+            if (outcome.getException() != null) {
+                throw outcome.getException();
+            }
+            val resolver = getPrincipalResolverLinkedToHandlerIfAny(handler, transaction);
+            processAuthenticationHandlerResult(builder, credential, resolver, handler, outcome.getResult());
+
+            val authnResult = builder.build();
+            AuthenticationCredentialsThreadLocalBinder.bindInProgress(authnResult);
+            return evaluateAuthenticationPolicies(authnResult, transaction, handlerSet).getKey();
+        } catch (final GeneralSecurityException e) {
+            handleAuthenticationException(e, handler.getName(), builder);
+        } catch (final Exception e) {
+            LOGGER.error("Authentication has failed. Credentials may be incorrect or CAS cannot "
+                + "find authentication handler that supports [{}] of type [{}]. Examine the configuration to "
+                + "ensure a method of authentication is defined and analyze CAS logs at DEBUG level to trace "
+                + "the authentication event.", credential, credential.getClass().getSimpleName());
+            handleAuthenticationException(e, handler.getName(), builder);
+        }
+        return false;
+    }
+
     /**
      * Evaluate produced authentication context.
      * We apply an implicit security policy of at least one successful authentication.
@@ -417,4 +593,84 @@ public class PolicyBasedAuthenticationManager implements AuthenticationManager {
             builder.addFailure(name, e);
         }
     }
+
+    /**
+     * The outcome of an authentication handler evaluated concurrently,
+     * carrying either the result or the failure.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    protected static class AuthenticationHandlerOutcome {
+        private final AuthenticationHandler handler;
+
+        private final AuthenticationHandlerExecutionResult result;
+
+        private final Exception exception;
+    }
+
+    /**
+     * State bound to the thread that evaluates the authentication transaction,
+     * such as the current request and client info, which is carried over to
+     * the threads that evaluate authentication handlers concurrently.
+     */
+    @RequiredArgsConstructor
+    private static class ThreadBoundContext {
+        private final Thread thread;
+
+        private final Collection<Credential> credentials;
+
+        private final Authentication authentication;
+
+        private final Authentication inProgressAuthentication;
+
+        private final AuthenticationBuilder authenticationBuilder;
+
+        private final ClientInfo clientInfo;
+
+        private final RequestAttributes requestAttributes;
+
+        private final ExternalContext externalContext;
+
+        private final RequestContext requestContext;
+
+        static ThreadBoundContext capture(final AuthenticationTransaction transaction) {
+            return new ThreadBoundContext(Thread.currentThread(), transaction.getCredentials(),
+                AuthenticationCredentialsThreadLocalBinder.getCurrentAuthentication(),
+                AuthenticationCredentialsThreadLocalBinder.getInProgressAuthentication(),
+                AuthenticationCredentialsThreadLocalBinder.getCurrentAuthenticationBuilder(),
+                ClientInfoHolder.getClientInfo(),
+                RequestContextHolder.getRequestAttributes(),
+                ExternalContextHolder.getExternalContext(),
+                org.springframework.webflow.execution.RequestContextHolder.getRequestContext());
+        }
+
+        static void clear() {
+            AuthenticationCredentialsThreadLocalBinder.clear();
+            ClientInfoHolder.clear();
+            RequestContextHolder.resetRequestAttributes();
+            ExternalContextHolder.setExternalContext(null);
+            org.springframework.webflow.execution.RequestContextHolder.setRequestContext(null);
+        }
+
+        /**
+         * Bind the captured state to the current thread, unless the handler
+         * is evaluated by the thread that captured the state in the first place.
+         *
+         * @return true if state was bound and should be cleared afterwards
+         */
+        boolean bind() {
+            if (Thread.currentThread() == thread) {
+                return false;
+            }
+            AuthenticationCredentialsThreadLocalBinder.bindCurrent(credentials);
+            AuthenticationCredentialsThreadLocalBinder.bindCurrent(authentication);
+            AuthenticationCredentialsThreadLocalBinder.bindInProgress(inProgressAuthentication);
+            AuthenticationCredentialsThreadLocalBinder.bindCurrent(authenticationBuilder);
+            ClientInfoHolder.setClientInfo(clientInfo);
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            ExternalContextHolder.setExternalContext(externalContext);
+            org.springframework.webflow.execution.RequestContextHolder.setRequestContext(requestContext);
+            return true;
+        }
+    }
 }
@@ -5,6 +5,7 @@ import org.apereo.cas.authentication.CredentialMetaData;
 import org.apereo.cas.util.serialization.SerializationUtils;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,6 +19,7 @@ import lombok.NoArgsConstructor;
  */
 @Getter
 @NoArgsConstructor(force = true)
+@AllArgsConstructor
 @EqualsAndHashCode
 public class BasicCredentialMetaData implements CredentialMetaData {
 
@@ -7,6 +7,7 @@ import org.apereo.cas.util.spring.ApplicationContextProvider;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,6 +16,7 @@ import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
+import javax.persistence.Transient;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +48,13 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
      */
     protected String timeUnit;
 
+    @JsonIgnore
+    @Transient
+    @org.springframework.data.annotation.Transient
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient PrincipalAttributesRepositoryCache cacheInstance;
 
     @JsonCreator
     public CachingPrincipalAttributesRepository(@JsonProperty("timeUnit") final String timeUnit,
@@ -56,15 +65,32 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
 
     @Override
     public Map<String, List<Object>> getAttributes(final Principal principal, final RegisteredService registeredService) {
+        try {
+            val cache = getCacheInstance();
+            val attributes = cache.getCachedAttributesFor(registeredService, this, principal, this::fetchPrincipalAttributes);
+            LOGGER.debug("Found [{}] attributes for principal [{}] that are [{}]", attributes.size(), principal.getId(), attributes);
+            return attributes;
+        } catch (final Exception e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.error(e.getMessage(), e);
+            } else {
+                LOGGER.error(e.getMessage());
+            }
+        }
+        return fetchPrincipalAttributes(principal);
+    }
+
+    /**
+     * Fetch principal attributes from the principal and the attribute repository, if any,
+     * and merge them together.
+     *
+     * @param principal the principal
+     * @return the attributes
+     */
+    protected Map<String, List<Object>> fetchPrincipalAttributes(final Principal principal) {
         val mergeStrategy = determineMergingStrategy();
         LOGGER.trace("Determined merging strategy as [{}]", mergeStrategy);
 
-        val cachedAttributes = getCachedPrincipalAttributes(principal, registeredService);
-        if (cachedAttributes != null && !cachedAttributes.isEmpty()) {
-            LOGGER.debug("Found [{}] cached attributes for principal [{}] that are [{}]", cachedAttributes.size(), principal.getId(), cachedAttributes);
-            return cachedAttributes;
-        }
-
         val principalAttributes = getPrincipalAttributes(principal);
         LOGGER.trace("Principal attributes extracted for [{}] are [{}]", principal.getId(), principalAttributes);
 
@@ -74,16 +100,16 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
 
             LOGGER.debug("Merging current principal attributes with that of the repository via strategy [{}]", mergeStrategy);
             val mergedAttributes = mergeStrategy.getAttributeMerger().mergeAttributes(principalAttributes, personDirectoryAttributes);
-            return convertAttributesToPrincipalAttributesAndCache(principal, mergedAttributes, registeredService);
+            return convertPersonAttributesToPrincipalAttributes(mergedAttributes);
         }
-        return convertAttributesToPrincipalAttributesAndCache(principal, principalAttributes, registeredService);
+        return convertPersonAttributesToPrincipalAttributes(principalAttributes);
     }
 
     @Override
     protected void addPrincipalAttributes(final String id, final Map<String, List<Object>> attributes,
                                           final RegisteredService registeredService) {
         try {
-            val cache = getCacheInstanceFromApplicationContext();
+            val cache = getCacheInstance();
             cache.putCachedAttributesFor(registeredService, this, id, attributes);
             LOGGER.trace("Cached attributes for [{}]", id);
         } catch (final Exception e) {
@@ -105,7 +131,7 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
     @JsonIgnore
     protected Map<String, List<Object>> getCachedPrincipalAttributes(final Principal principal, final RegisteredService registeredService) {
         try {
-            val cache = getCacheInstanceFromApplicationContext();
+            val cache = getCacheInstance();
             return cache.getCachedAttributesFor(registeredService, this, principal);
         } catch (final Exception e) {
             if (LOGGER.isDebugEnabled()) {
@@ -117,6 +143,19 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
         return new HashMap<>(0);
     }
 
+    /**
+     * Gets cache instance, looked up once from the application context.
+     *
+     * @return the cache instance
+     */
+    @JsonIgnore
+    protected PrincipalAttributesRepositoryCache getCacheInstance() {
+        if (cacheInstance == null) {
+            cacheInstance = getCacheInstanceFromApplicationContext();
+        }
+        return cacheInstance;
+    }
+
     /**
      * Gets cache instance from application context.
      *
@@ -6,19 +6,30 @@ import org.apereo.cas.util.DigestUtils;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.Closeable;
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * This is {@link PrincipalAttributesRepositoryCache}.
+ * Attributes are cached per registered service in a node-local cache, which is backed
+ * by a shared {@link PrincipalAttributesRepositoryCacheStore} so nodes in a cluster may reuse
+ * attributes fetched by one another. Concurrent misses for the same principal are collapsed
+ * into a single fetch, which runs outside of any cache locks so that a slow attribute source
+ * does not hold up lookups for other principals.
  *
  * @author Misagh Moayyed
  * @since 6.1.0
@@ -29,7 +40,21 @@ public class PrincipalAttributesRepositoryCache implements Closeable {
 
     private static final String DEFAULT_CACHE_EXPIRATION_UNIT = TimeUnit.HOURS.name();
 
-    private final Map<String, Cache<String, Map<String, List<Object>>>> registeredServicesCache = new HashMap<>(0);
+    private static final String METRIC_NAME = "cas.principal.attributes.cache";
+
+    private final Map<String, Cache<String, Map<String, List<Object>>>> registeredServicesCache = new ConcurrentHashMap<>(0);
+
+    private final Map<String, CompletableFuture<Map<String, List<Object>>>> pendingLoads = new ConcurrentHashMap<>();
+
+    private final PrincipalAttributesRepositoryCacheStore cacheStore;
+
+    public PrincipalAttributesRepositoryCache() {
+        this(PrincipalAttributesRepositoryCacheStore.noOp());
+    }
+
+    public PrincipalAttributesRepositoryCache(final PrincipalAttributesRepositoryCacheStore cacheStore) {
+        this.cacheStore = cacheStore;
+    }
 
     @Override
     public void close() {
@@ -61,6 +86,47 @@ public class PrincipalAttributesRepositoryCache implements Closeable {
         });
     }
 
+    /**
+     * Gets cached attributes, or fetch and cache them if none can be found.
+     * The node-local cache is consulted first, followed by the shared cache store;
+     * if neither can produce attributes, they are fetched via the loader once,
+     * regardless of how many threads ask for the same principal concurrently.
+     *
+     * @param registeredService the registered service
+     * @param repository        the repository
+     * @param principal         the principal
+     * @param loader            the loader that fetches attributes from the source
+     * @return the attributes
+     */
+    public Map<String, List<Object>> getCachedAttributesFor(final RegisteredService registeredService,
+                                                            final CachingPrincipalAttributesRepository repository,
+                                                            final Principal principal,
+                                                            final Function<Principal, Map<String, List<Object>>> loader) {
+        val cache = getRegisteredServiceCacheInstance(registeredService, repository);
+        val cached = cache.getIfPresent(principal.getId());
+        if (cached != null && !cached.isEmpty()) {
+            recordCacheAccess("hit", "local");
+            return cached;
+        }
+        val storeKey = buildRegisteredServiceCacheKey(registeredService) + ':' + principal.getId();
+        val pending = new CompletableFuture<Map<String, List<Object>>>();
+        val existing = pendingLoads.putIfAbsent(storeKey, pending);
+        if (existing != null) {
+            LOGGER.trace("Waiting for attributes of [{}] to be fetched by another request", principal.getId());
+            return Optional.ofNullable(existing.join()).orElseGet(() -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+        }
+        try {
+            val attributes = fetchAttributes(cache, repository, principal, storeKey, loader);
+            pending.complete(attributes);
+            return Optional.ofNullable(attributes).orElseGet(() -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+        } catch (final RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingLoads.remove(storeKey, pending);
+        }
+    }
+
     /**
      * Put cached attributes.
      *
@@ -74,6 +140,51 @@ public class PrincipalAttributesRepositoryCache implements Closeable {
                                        final String id, final Map<String, List<Object>> attributes) {
         val cache = getRegisteredServiceCacheInstance(registeredService, repository);
         cache.put(id, attributes);
+        cacheStore.put(buildRegisteredServiceCacheKey(registeredService) + ':' + id, attributes, getExpiration(repository));
+    }
+
+    private Map<String, List<Object>> fetchAttributes(final Cache<String, Map<String, List<Object>>> cache,
+                                                      final CachingPrincipalAttributesRepository repository,
+                                                      final Principal principal,
+                                                      final String storeKey,
+                                                      final Function<Principal, Map<String, List<Object>>> loader) {
+        val current = cache.getIfPresent(principal.getId());
+        if (current != null && !current.isEmpty()) {
+            recordCacheAccess("hit", "local");
+            return current;
+        }
+        if (cacheStore.isShared()) {
+            val stored = cacheStore.get(storeKey);
+            if (stored.isPresent() && !stored.get().isEmpty()) {
+                recordCacheAccess("hit", "shared");
+                cache.put(principal.getId(), stored.get());
+                return stored.get();
+            }
+            recordCacheAccess("miss", "shared");
+        } else {
+            recordCacheAccess("miss", "local");
+        }
+        val startTime = System.nanoTime();
+        val loaded = loader.apply(principal);
+        Timer.builder(METRIC_NAME + ".load")
+            .description("Time it takes to fetch principal attributes on a cache miss")
+            .register(Metrics.globalRegistry)
+            .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        if (loaded == null || loaded.isEmpty()) {
+            return null;
+        }
+        cache.put(principal.getId(), loaded);
+        cacheStore.put(storeKey, loaded, getExpiration(repository));
+        return loaded;
+    }
+
+    private static void recordCacheAccess(final String result, final String tier) {
+        Metrics.globalRegistry.counter(METRIC_NAME, "result", result, "tier", tier).increment();
+    }
+
+    private static Duration getExpiration(final CachingPrincipalAttributesRepository repository) {
+        val unit = TimeUnit.valueOf(StringUtils.defaultString(repository.getTimeUnit(), DEFAULT_CACHE_EXPIRATION_UNIT));
+        return Duration.ofMillis(unit.toMillis(repository.getExpiration()));
     }
 
     /**
@@ -97,12 +208,7 @@ public class PrincipalAttributesRepositoryCache implements Closeable {
     private Cache<String, Map<String, List<Object>>> getRegisteredServiceCacheInstance(final RegisteredService registeredService,
                                                                                        final CachingPrincipalAttributesRepository repository) {
         val key = buildRegisteredServiceCacheKey(registeredService);
-        if (registeredServicesCache.containsKey(key)) {
-            return registeredServicesCache.get(key);
-        }
-        val cache = initializeCache(repository);
-        registeredServicesCache.put(key, cache);
-        return cache;
+        return registeredServicesCache.computeIfAbsent(key, k -> initializeCache(repository));
     }
 
     /**
@@ -0,0 +1,66 @@
+package org.apereo.cas.authentication.principal.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This is {@link PrincipalAttributesRepositoryCacheStore}, which describes
+ * a shared, second-level store for cached principal attributes that sits
+ * behind the node-local {@link PrincipalAttributesRepositoryCache}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+public interface PrincipalAttributesRepositoryCacheStore {
+
+    /**
+     * Store that does not share or keep any attributes.
+     *
+     * @return the store
+     */
+    static PrincipalAttributesRepositoryCacheStore noOp() {
+        return new PrincipalAttributesRepositoryCacheStore() {
+            @Override
+            public Optional<Map<String, List<Object>>> get(final String key) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void put(final String key, final Map<String, List<Object>> attributes, final Duration expiration) {
+            }
+
+            @Override
+            public boolean isShared() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Whether attributes are actually kept and shared by this store.
+     *
+     * @return true/false
+     */
+    default boolean isShared() {
+        return true;
+    }
+
+    /**
+     * Gets cached attributes.
+     *
+     * @param key the key
+     * @return the attributes, if any
+     */
+    Optional<Map<String, List<Object>>> get(String key);
+
+    /**
+     * Put attributes into the store.
+     *
+     * @param key        the key
+     * @param attributes the attributes
+     * @param expiration the expiration
+     */
+    void put(String key, Map<String, List<Object>> attributes, Duration expiration);
+}
@@ -1,5 +1,6 @@
 package org.apereo.cas;
 
+import org.apereo.cas.authentication.principal.cache.PrincipalAttributesRepositoryCacheTests;
 import org.apereo.cas.services.ChainingAttributeReleasePolicyTests;
 import org.apereo.cas.services.DefaultRegisteredServiceAcceptableUsagePolicyTests;
 import org.apereo.cas.services.DenyAllAttributeReleasePolicyTests;
@@ -33,7 +34,8 @@ import org.junit.runner.RunWith;
     ReturnAllowedAttributeReleasePolicyTests.class,
     ChainingAttributeReleasePolicyTests.class,
     DefaultRegisteredServiceAcceptableUsagePolicyTests.class,
-    DefaultRegisteredServiceConsentPolicyTests.class
+    DefaultRegisteredServiceConsentPolicyTests.class,
+    PrincipalAttributesRepositoryCacheTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllAuthenticationAttributesTestsSuite {
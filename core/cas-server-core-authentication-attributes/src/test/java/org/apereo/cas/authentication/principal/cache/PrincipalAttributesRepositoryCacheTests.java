@@ -0,0 +1,143 @@
+package org.apereo.cas.authentication.principal.cache;
+
+import org.apereo.cas.CoreAttributesTestUtils;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link PrincipalAttributesRepositoryCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class PrincipalAttributesRepositoryCacheTests {
+
+    private static final Map<String, List<Object>> ATTRIBUTES = Map.of("mail", List.of("casuser@example.org"));
+
+    @Test
+    public void verifySharedStore() {
+        val store = new InMemoryCacheStore();
+        val registeredService = CoreAttributesTestUtils.getRegisteredService();
+        val repository = new CachingPrincipalAttributesRepository(TimeUnit.MINUTES.name(), 5);
+        val principal = CoreAttributesTestUtils.getPrincipal("casuser", Map.of());
+        val loads = new AtomicInteger();
+
+        val first = new PrincipalAttributesRepositoryCache(store);
+        assertEquals(ATTRIBUTES, first.getCachedAttributesFor(registeredService, repository, principal, p -> {
+            loads.incrementAndGet();
+            return ATTRIBUTES;
+        }));
+        assertEquals(1, store.attributes.size());
+
+        val second = new PrincipalAttributesRepositoryCache(store);
+        assertEquals(ATTRIBUTES, second.getCachedAttributesFor(registeredService, repository, principal, p -> {
+            loads.incrementAndGet();
+            return ATTRIBUTES;
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void verifyEmptyAttributesAreNotCached() {
+        val registeredService = CoreAttributesTestUtils.getRegisteredService();
+        val repository = new CachingPrincipalAttributesRepository(TimeUnit.MINUTES.name(), 5);
+        val principal = CoreAttributesTestUtils.getPrincipal("casuser", Map.of());
+        val cache = new PrincipalAttributesRepositoryCache();
+        assertTrue(cache.getCachedAttributesFor(registeredService, repository, principal, p -> Map.of()).isEmpty());
+        assertEquals(ATTRIBUTES, cache.getCachedAttributesFor(registeredService, repository, principal, p -> ATTRIBUTES));
+    }
+
+    @Test
+    public void verifyConcurrentMissesAreCollapsed() throws Exception {
+        val registeredService = CoreAttributesTestUtils.getRegisteredService();
+        val repository = new CachingPrincipalAttributesRepository(TimeUnit.MINUTES.name(), 5);
+        val principal = CoreAttributesTestUtils.getPrincipal("casuser", Map.of());
+        val cache = new PrincipalAttributesRepositoryCache();
+        val loads = new AtomicInteger();
+        val latch = new CountDownLatch(1);
+
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            val results = new ArrayList<Future<Map<String, List<Object>>>>();
+            for (var i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    latch.await();
+                    return cache.getCachedAttributesFor(registeredService, repository, principal, p -> {
+                        loads.incrementAndGet();
+                        return ATTRIBUTES;
+                    });
+                }));
+            }
+            latch.countDown();
+            for (val result : results) {
+                assertEquals(ATTRIBUTES, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void verifySlowLoadDoesNotBlockOtherPrincipals() throws Exception {
+        val registeredService = CoreAttributesTestUtils.getRegisteredService();
+        val repository = new CachingPrincipalAttributesRepository(TimeUnit.MINUTES.name(), 5);
+        val cache = new PrincipalAttributesRepositoryCache();
+        val loading = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+
+        val executor = Executors.newSingleThreadExecutor();
+        try {
+            val slow = executor.submit(() -> cache.getCachedAttributesFor(registeredService, repository,
+                CoreAttributesTestUtils.getPrincipal("slowuser", Map.of()), p -> {
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ATTRIBUTES;
+                }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (var i = 0; i < 100; i++) {
+                val principal = CoreAttributesTestUtils.getPrincipal("casuser" + i, Map.of());
+                assertEquals(ATTRIBUTES, cache.getCachedAttributesFor(registeredService, repository, principal, p -> ATTRIBUTES));
+            }
+            release.countDown();
+            assertEquals(ATTRIBUTES, slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class InMemoryCacheStore implements PrincipalAttributesRepositoryCacheStore {
+        private final Map<String, Map<String, List<Object>>> attributes = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<Map<String, List<Object>>> get(final String key) {
+            return Optional.ofNullable(attributes.get(key));
+        }
+
+        @Override
+        public void put(final String key, final Map<String, List<Object>> attributes, final Duration expiration) {
+            this.attributes.put(key, attributes);
+        }
+    }
+}
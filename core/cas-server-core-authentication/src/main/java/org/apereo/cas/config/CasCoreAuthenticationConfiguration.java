@@ -9,6 +9,7 @@ import org.apereo.cas.authentication.DefaultAuthenticationEventExecutionPlan;
 import org.apereo.cas.authentication.DefaultAuthenticationTransactionManager;
 import org.apereo.cas.authentication.PolicyBasedAuthenticationManager;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.validation.AuthenticationAttributeReleasePolicy;
 
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +18,7 @@ import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -26,6 +28,11 @@ import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This is {@link CasCoreAuthenticationConfiguration}.
@@ -59,11 +66,33 @@ public class CasCoreAuthenticationConfiguration {
     @Bean
     @RefreshScope
     public AuthenticationManager casAuthenticationManager() {
-        return new PolicyBasedAuthenticationManager(
+        val manager = new PolicyBasedAuthenticationManager(
             authenticationEventExecutionPlan.getObject(),
             casProperties.getPersonDirectory().isPrincipalResolutionFailureFatal(),
             applicationContext
         );
+        val concurrency = casProperties.getAuthn().getCore().getEngine().getConcurrency();
+        if (concurrency.isEnabled()) {
+            manager.setAuthenticationHandlerExecutor(authenticationHandlerExecutor());
+            manager.setAuthenticationHandlerTimeout(Beans.newDuration(concurrency.getTimeout()));
+        }
+        return manager;
+    }
+
+    @ConditionalOnMissingBean(name = "authenticationHandlerExecutor")
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(name = "cas.authn.core.engine.concurrency.enabled", havingValue = "true")
+    public ExecutorService authenticationHandlerExecutor() {
+        val concurrency = casProperties.getAuthn().getCore().getEngine().getConcurrency();
+        val threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(concurrency.getPoolSize(), concurrency.getPoolSize(), 1, TimeUnit.MINUTES,
+            new LinkedBlockingQueue<>(Math.max(1, concurrency.getQueueCapacity())),
+            r -> {
+                val thread = new Thread(r, "AuthenticationHandlerExecutorThread-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
     }
 
     @ConditionalOnMissingBean(name = "authenticationEventExecutionPlan")
@@ -15,6 +15,7 @@ import org.apereo.cas.authentication.handler.GroovyAuthenticationHandlerResolver
 import org.apereo.cas.authentication.handler.RegisteredServiceAuthenticationHandlerResolver;
 import org.apereo.cas.authentication.policy.RegisteredServiceAuthenticationPolicyResolver;
 import org.apereo.cas.authentication.principal.cache.PrincipalAttributesRepositoryCache;
+import org.apereo.cas.authentication.principal.cache.PrincipalAttributesRepositoryCacheStore;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.services.ServicesManager;
 
@@ -54,6 +55,10 @@ public class CasCoreAuthenticationSupportConfiguration {
     @Qualifier("authenticationTransactionManager")
     private ObjectProvider<AuthenticationTransactionManager> authenticationTransactionManager;
 
+    @Autowired
+    @Qualifier("principalAttributesRepositoryCacheStore")
+    private ObjectProvider<PrincipalAttributesRepositoryCacheStore> principalAttributesRepositoryCacheStore;
+
     @Autowired
     @Qualifier("authenticationServiceSelectionPlan")
     private ObjectProvider<AuthenticationServiceSelectionPlan> authenticationServiceSelectionPlan;
@@ -132,6 +137,7 @@ public class CasCoreAuthenticationSupportConfiguration {
     @ConditionalOnMissingBean(name = "principalAttributesRepositoryCache")
     @Bean
     public PrincipalAttributesRepositoryCache principalAttributesRepositoryCache() {
-        return new PrincipalAttributesRepositoryCache();
+        return new PrincipalAttributesRepositoryCache(
+            principalAttributesRepositoryCacheStore.getIfAvailable(PrincipalAttributesRepositoryCacheStore::noOp));
     }
 }
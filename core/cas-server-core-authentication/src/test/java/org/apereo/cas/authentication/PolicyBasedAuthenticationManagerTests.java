@@ -12,17 +12,23 @@ import org.apereo.cas.services.ServicesManager;
 
 import lombok.SneakyThrows;
 import lombok.val;
+import org.apereo.inspektr.common.web.ClientInfo;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.annotation.DirtiesContext;
 
 import javax.security.auth.login.FailedLoginException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -262,4 +268,86 @@ public class PolicyBasedAuthenticationManagerTests {
         assertEquals(1, auth.getFailures().size());
         assertEquals(2, auth.getCredentials().size());
     }
+
+    @Test
+    public void verifyAuthenticateConcurrentlyAnySuccess() {
+        val map = new LinkedHashMap<AuthenticationHandler, PrincipalResolver>();
+        map.put(newMockHandler(HANDLER_A, false), null);
+        map.put(newMockHandler(HANDLER_B, true), null);
+
+        val authenticationExecutionPlan = getAuthenticationExecutionPlan(map);
+        authenticationExecutionPlan.registerAuthenticationPolicy(new AtLeastOneCredentialValidatedAuthenticationPolicy());
+        val manager = new PolicyBasedAuthenticationManager(authenticationExecutionPlan,
+            false, mock(ConfigurableApplicationContext.class));
+        val executor = Executors.newFixedThreadPool(2);
+        manager.setAuthenticationHandlerExecutor(executor);
+        try {
+            val auth = manager.authenticate(transaction);
+            assertTrue(auth.getSuccesses().containsKey(HANDLER_B));
+            assertEquals(2, auth.getCredentials().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void verifyAuthenticateConcurrentlyWithClientInfo() {
+        val handler = newMockHandler(HANDLER_A, true);
+        val result = handler.authenticate(mock(Credential.class));
+        val clientInfo = new ClientInfo(new MockHttpServletRequest());
+        val handlerClientInfo = new AtomicReference<ClientInfo>();
+        when(handler.authenticate(any(Credential.class))).thenAnswer(invocation -> {
+            handlerClientInfo.set(ClientInfoHolder.getClientInfo());
+            return result;
+        });
+        val map = new LinkedHashMap<AuthenticationHandler, PrincipalResolver>();
+        map.put(handler, null);
+
+        val authenticationExecutionPlan = getAuthenticationExecutionPlan(map);
+        authenticationExecutionPlan.registerAuthenticationPolicy(new AtLeastOneCredentialValidatedAuthenticationPolicy());
+        val manager = new PolicyBasedAuthenticationManager(authenticationExecutionPlan,
+            false, mock(ConfigurableApplicationContext.class));
+        val executor = Executors.newSingleThreadExecutor();
+        manager.setAuthenticationHandlerExecutor(executor);
+        ClientInfoHolder.setClientInfo(clientInfo);
+        try {
+            manager.authenticate(transaction);
+            assertSame(clientInfo, handlerClientInfo.get());
+            assertSame(clientInfo, ClientInfoHolder.getClientInfo());
+            assertNull(executor.submit(ClientInfoHolder::getClientInfo).get());
+        } finally {
+            ClientInfoHolder.clear();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void verifyAuthenticateConcurrentlyTimeout() {
+        val slowHandler = newMockHandler(HANDLER_A, true);
+        val result = slowHandler.authenticate(mock(Credential.class));
+        when(slowHandler.authenticate(any(Credential.class))).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return result;
+        });
+        val map = new LinkedHashMap<AuthenticationHandler, PrincipalResolver>();
+        map.put(slowHandler, null);
+        map.put(newMockHandler(HANDLER_B, false), null);
+
+        val authenticationExecutionPlan = getAuthenticationExecutionPlan(map);
+        authenticationExecutionPlan.registerAuthenticationPolicy(new AtLeastOneCredentialValidatedAuthenticationPolicy());
+        val manager = new PolicyBasedAuthenticationManager(authenticationExecutionPlan,
+            false, mock(ConfigurableApplicationContext.class));
+        val executor = Executors.newFixedThreadPool(2);
+        manager.setAuthenticationHandlerExecutor(executor);
+        manager.setAuthenticationHandlerTimeout(Duration.ofMillis(200));
+        try {
+            val ex = assertThrows(AuthenticationException.class, () -> manager.authenticate(transaction));
+            assertTrue(ex.getHandlerErrors().get(HANDLER_A) instanceof PreventedException);
+            assertTrue(ex.getHandlerErrors().get(HANDLER_B) instanceof FailedLoginException);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.apereo.cas.support.events.listener;
 
 import org.apereo.cas.support.events.AbstractCasEvent;
 import org.apereo.cas.support.events.CasEventRepository;
+import org.apereo.cas.support.events.CasEventRepositoryListener;
 import org.apereo.cas.support.events.authentication.CasAuthenticationPolicyFailureEvent;
 import org.apereo.cas.support.events.authentication.CasAuthenticationTransactionFailureEvent;
 import org.apereo.cas.support.events.authentication.adaptive.CasRiskyAuthenticationDetectedEvent;
@@ -10,6 +11,7 @@ import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
 import org.apereo.cas.util.DateTimeUtils;
 import org.apereo.cas.util.HttpRequestUtils;
 import org.apereo.cas.util.serialization.TicketIdSanitizationUtils;
+
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
@@ -18,11 +20,13 @@ import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * This is {@link DefaultCasEventListener} that attempts to consume CAS events
  * upon various authentication events. Event data is persisted into a repository
- * via {@link CasEventRepository}.
+ * via {@link CasEventRepository}, and saved events are then passed onto
+ * the registered {@link CasEventRepositoryListener}s.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -33,6 +37,8 @@ public class DefaultCasEventListener {
 
     private final CasEventRepository casEventRepository;
 
+    private final List<CasEventRepositoryListener> casEventRepositoryListeners;
+
     private static CasEvent prepareCasEvent(final AbstractCasEvent event) {
         val dto = new CasEvent();
         dto.setType(event.getClass().getCanonicalName());
@@ -49,6 +55,11 @@ public class DefaultCasEventListener {
         return dto;
     }
 
+    private void saveEvent(final CasEvent dto) {
+        this.casEventRepository.save(dto);
+        this.casEventRepositoryListeners.forEach(listener -> listener.onEventSaved(dto));
+    }
+
     /**
      * Handle TGT creation event.
      *
@@ -62,7 +73,7 @@ public class DefaultCasEventListener {
             dto.setCreationTime(event.getTicketGrantingTicket().getCreationTime().toString());
             dto.putEventId(TicketIdSanitizationUtils.sanitize(event.getTicketGrantingTicket().getId()));
             dto.setPrincipalId(event.getTicketGrantingTicket().getAuthentication().getPrincipal().getId());
-            this.casEventRepository.save(dto);
+            saveEvent(dto);
         }
     }
 
@@ -78,7 +89,7 @@ public class DefaultCasEventListener {
             val dto = prepareCasEvent(event);
             dto.setPrincipalId(event.getCredential().getId());
             dto.putEventId(CasAuthenticationPolicyFailureEvent.class.getSimpleName());
-            this.casEventRepository.save(dto);
+            saveEvent(dto);
         }
     }
 
@@ -94,7 +105,7 @@ public class DefaultCasEventListener {
             val dto = prepareCasEvent(event);
             dto.setPrincipalId(event.getAuthentication().getPrincipal().getId());
             dto.putEventId(CasAuthenticationPolicyFailureEvent.class.getSimpleName());
-            this.casEventRepository.save(dto);
+            saveEvent(dto);
         }
     }
 
@@ -110,7 +121,7 @@ public class DefaultCasEventListener {
             val dto = prepareCasEvent(event);
             dto.putEventId(event.getService().getName());
             dto.setPrincipalId(event.getAuthentication().getPrincipal().getId());
-            this.casEventRepository.save(dto);
+            saveEvent(dto);
         }
     }
 }
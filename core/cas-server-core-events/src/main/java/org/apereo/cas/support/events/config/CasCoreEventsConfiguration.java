@@ -2,11 +2,13 @@ package org.apereo.cas.support.events.config;
 
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.support.events.CasEventRepository;
+import org.apereo.cas.support.events.CasEventRepositoryListener;
 import org.apereo.cas.support.events.dao.NoOpCasEventRepository;
 import org.apereo.cas.support.events.listener.DefaultCasEventListener;
 import org.apereo.cas.support.events.listener.LoggingCasEventListener;
 import org.apereo.cas.support.events.web.CasEventsReportEndpoint;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -15,6 +17,9 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * This is {@link CasCoreEventsConfiguration}.
  *
@@ -29,10 +34,13 @@ public class CasCoreEventsConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired
+    private ObjectProvider<List<CasEventRepositoryListener>> casEventRepositoryListeners;
+
     @ConditionalOnMissingBean(name = "defaultCasEventListener")
     @Bean
     public DefaultCasEventListener defaultCasEventListener() {
-        return new DefaultCasEventListener(casEventRepository());
+        return new DefaultCasEventListener(casEventRepository(), casEventRepositoryListeners.getIfAvailable(ArrayList::new));
     }
 
     @ConditionalOnMissingBean(name = "casEventRepository")
@@ -13,6 +13,7 @@ import org.apereo.cas.util.http.HttpClient;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -45,6 +46,12 @@ public abstract class BaseSingleLogoutServiceMessageHandler implements SingleLog
 
     private final AuthenticationServiceSelectionPlan authenticationRequestServiceSelectionStrategies;
 
+    /**
+     * Delivers asynchronous logout messages, if defined.
+     */
+    @Setter
+    private SingleLogoutMessageDispatcher messageDispatcher;
+
     @Override
     public Collection<SingleLogoutRequest> handle(final WebApplicationService singleLogoutService, final String ticketId,
                                                   final TicketGrantingTicket ticketGrantingTicket) {
@@ -205,6 +212,9 @@ public abstract class BaseSingleLogoutServiceMessageHandler implements SingleLog
      * @return true/false
      */
     protected boolean sendMessageToEndpoint(final LogoutHttpMessage msg, final SingleLogoutRequest request, final SingleLogoutMessage logoutMessage) {
+        if (msg.isAsynchronous() && this.messageDispatcher != null) {
+            return this.messageDispatcher.dispatch(request, msg);
+        }
         return this.httpClient.sendMessageToEndPoint(msg);
     }
 
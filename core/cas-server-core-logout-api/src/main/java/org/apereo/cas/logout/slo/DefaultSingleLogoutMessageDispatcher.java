@@ -0,0 +1,347 @@
+package org.apereo.cas.logout.slo;
+
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.apereo.cas.util.serialization.SerializationUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.File;
+import java.io.Serializable;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This is {@link DefaultSingleLogoutMessageDispatcher}. Logout messages are queued and delivered
+ * by a fixed number of worker threads, instead of being handed to the shared HTTP executor without
+ * waiting for the result. The dispatcher:
+ * <ul>
+ * <li>bounds the number of pending messages and rejects messages once the queue is full,</li>
+ * <li>caps the number of concurrent deliveries to the same endpoint,</li>
+ * <li>retries failed deliveries with exponential backoff, up to a maximum number of attempts,</li>
+ * <li>records pending messages in a journal directory, if one is given, so that they
+ * are delivered after a restart.</li>
+ * </ul>
+ * Delivery outcomes are recorded as {@code cas.slo.dispatch.*} metrics tagged by the registered service.
+ * Messages are delivered once {@link #initialize()} is invoked.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class DefaultSingleLogoutMessageDispatcher implements SingleLogoutMessageDispatcher, DisposableBean {
+    private static final String JOURNAL_FILE_EXTENSION = ".slo";
+
+    private static final String UNKNOWN_SERVICE = "unknown";
+
+    private final HttpClient httpClient;
+
+    private final DelayQueue<DispatchTask> queue = new DelayQueue<>();
+
+    private final Map<String, DispatchRecord> pending = new ConcurrentHashMap<>();
+
+    private final Map<String, Semaphore> endpoints = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    private final ExecutorService workers;
+
+    private final int workerCount;
+
+    private final File journalDirectory;
+
+    @Setter
+    private int capacity = 10_000;
+
+    @Setter
+    private int maxAttempts = 5;
+
+    @Setter
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    @Setter
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    @Setter
+    private int maxConcurrencyPerEndpoint = 4;
+
+    public DefaultSingleLogoutMessageDispatcher(final HttpClient httpClient, final int threads, final File journalDirectory) {
+        this.httpClient = httpClient;
+        this.journalDirectory = prepareJournalDirectory(journalDirectory);
+        this.workerCount = Math.max(threads, 1);
+        this.workers = Executors.newFixedThreadPool(this.workerCount, r -> {
+            val thread = new Thread(r, "SingleLogoutMessageDispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static File prepareJournalDirectory(final File directory) {
+        if (directory == null) {
+            return null;
+        }
+        if (directory.isDirectory() || directory.mkdirs()) {
+            LOGGER.debug("Pending logout messages are recorded at [{}]", directory);
+            return directory;
+        }
+        LOGGER.warn("Unable to use [{}] to record pending logout messages; pending messages are only kept in memory", directory);
+        return null;
+    }
+
+    private static String getServiceName(final SingleLogoutRequest request) {
+        return Optional.ofNullable(request.getRegisteredService())
+            .map(service -> StringUtils.defaultIfBlank(service.getName(), String.valueOf(service.getId())))
+            .orElse(UNKNOWN_SERVICE);
+    }
+
+    private static void count(final String name, final String description, final DispatchRecord record) {
+        Counter.builder(name)
+            .description(description)
+            .tag("service", record.getService())
+            .register(Metrics.globalRegistry)
+            .increment();
+    }
+
+    @Override
+    public boolean dispatch(final SingleLogoutRequest request, final HttpMessage message) {
+        val url = message.getUrl().toExternalForm();
+        val record = new DispatchRecord(UUID.randomUUID().toString(),
+            url, message.getMessage(), message.getContentType(), getServiceName(request), Instant.now());
+
+        if (!running.get() || pending.size() >= capacity) {
+            LOGGER.warn("Logout message to [{}] is rejected; [{}] message(s) are pending delivery", url, pending.size());
+            count("cas.slo.dispatch.rejected", "Number of logout messages rejected by the dispatcher", record);
+            return false;
+        }
+        pending.put(record.getId(), record);
+        writeJournal(record);
+        queue.offer(new DispatchTask(record, System.nanoTime()));
+        LOGGER.trace("Queued logout message [{}] to [{}]", record.getId(), url);
+        return true;
+    }
+
+    /**
+     * Recover pending messages from the journal and start delivering messages.
+     */
+    public void initialize() {
+        Metrics.globalRegistry.gauge("cas.slo.dispatch.pending", pending, Map::size);
+        recoverJournal();
+        for (var i = 0; i < workerCount; i++) {
+            workers.execute(this::processQueue);
+        }
+    }
+
+    /**
+     * Gets the number of logout messages pending delivery.
+     *
+     * @return the count
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void destroy() {
+        running.set(false);
+        workers.shutdownNow();
+    }
+
+    private void processQueue() {
+        while (running.get()) {
+            try {
+                val task = queue.poll(1, TimeUnit.SECONDS);
+                if (task != null) {
+                    deliver(task.getRecord());
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final Exception e) {
+                LOGGER.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void deliver(final DispatchRecord record) throws Exception {
+        val url = new URL(record.getUrl());
+        val endpoint = url.getProtocol() + "://" + url.getAuthority();
+        val permits = endpoints.computeIfAbsent(endpoint, k -> new Semaphore(Math.max(maxConcurrencyPerEndpoint, 1)));
+        if (!permits.tryAcquire()) {
+            LOGGER.trace("Endpoint [{}] is busy; postponing logout message [{}]", endpoint, record.getId());
+            queue.offer(new DispatchTask(record, System.nanoTime() + initialBackoff.toNanos()));
+            return;
+        }
+        var delivered = false;
+        try {
+            record.setAttempts(record.getAttempts() + 1);
+            val message = new PreparedHttpMessage(url, record.getMessage());
+            message.setContentType(record.getContentType());
+            delivered = httpClient.sendMessageToEndPoint(message);
+        } catch (final Exception e) {
+            LOGGER.debug(e.getMessage(), e);
+        } finally {
+            permits.release();
+        }
+
+        if (delivered) {
+            LOGGER.debug("Delivered logout message [{}] to [{}] after [{}] attempt(s)", record.getId(), record.getUrl(), record.getAttempts());
+            complete(record);
+            count("cas.slo.dispatch.delivered", "Number of logout messages delivered", record);
+            Timer.builder("cas.slo.dispatch.latency")
+                .description("Time it takes to deliver a logout message once it is queued")
+                .tag("service", record.getService())
+                .register(Metrics.globalRegistry)
+                .record(Duration.between(record.getCreatedAt(), Instant.now()));
+        } else if (record.getAttempts() >= maxAttempts) {
+            LOGGER.warn("Unable to deliver logout message [{}] to [{}] after [{}] attempt(s)", record.getId(), record.getUrl(), record.getAttempts());
+            complete(record);
+            count("cas.slo.dispatch.failed", "Number of logout messages dropped after all delivery attempts failed", record);
+        } else {
+            val backoff = getBackoff(record.getAttempts());
+            LOGGER.debug("Unable to deliver logout message [{}] to [{}]; retrying in [{}]", record.getId(), record.getUrl(), backoff);
+            writeJournal(record);
+            queue.offer(new DispatchTask(record, System.nanoTime() + backoff.toNanos()));
+            count("cas.slo.dispatch.retried", "Number of logout message deliveries that are retried", record);
+        }
+    }
+
+    private Duration getBackoff(final int attempts) {
+        val exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        val backoff = initialBackoff.multipliedBy(1L << exponent);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void complete(final DispatchRecord record) {
+        if (journalDirectory != null) {
+            val file = new File(journalDirectory, record.getId() + JOURNAL_FILE_EXTENSION);
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (final Exception e) {
+                LOGGER.warn("Unable to remove journal file [{}]: [{}]", file, e.getMessage());
+            }
+        }
+        pending.remove(record.getId());
+    }
+
+    private void writeJournal(final DispatchRecord record) {
+        if (journalDirectory != null) {
+            val file = new File(journalDirectory, record.getId() + JOURNAL_FILE_EXTENSION);
+            try {
+                val temp = Files.createTempFile(journalDirectory.toPath(), record.getId(), ".tmp");
+                Files.write(temp, SerializationUtils.serialize(record));
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final Exception e) {
+                LOGGER.warn("Unable to record logout message [{}] at [{}]: [{}]", record.getId(), file, e.getMessage());
+            }
+        }
+    }
+
+    private void recoverJournal() {
+        if (journalDirectory == null) {
+            return;
+        }
+        val files = journalDirectory.listFiles((dir, name) -> name.endsWith(JOURNAL_FILE_EXTENSION));
+        if (files == null) {
+            return;
+        }
+        for (val file : files) {
+            try {
+                val record = SerializationUtils.deserialize(Files.readAllBytes(file.toPath()), DispatchRecord.class);
+                if (pending.putIfAbsent(record.getId(), record) == null) {
+                    queue.offer(new DispatchTask(record, System.nanoTime()));
+                } else {
+                    Files.deleteIfExists(file.toPath());
+                }
+            } catch (final Exception e) {
+                LOGGER.warn("Unable to recover logout message from [{}]: [{}]", file, e.getMessage());
+            }
+        }
+        LOGGER.info("Recovered [{}] pending logout message(s) from [{}]", pending.size(), journalDirectory);
+    }
+
+    /**
+     * A logout message pending delivery.
+     */
+    @Getter
+    @Setter
+    @ToString(exclude = "message")
+    @RequiredArgsConstructor
+    public static class DispatchRecord implements Serializable {
+        private static final long serialVersionUID = 5305614637491529118L;
+
+        private final String id;
+
+        private final String url;
+
+        private final String message;
+
+        private final String contentType;
+
+        private final String service;
+
+        private final Instant createdAt;
+
+        private int attempts;
+    }
+
+    /**
+     * A message whose body is already formatted for delivery.
+     */
+    private static class PreparedHttpMessage extends HttpMessage {
+        private static final long serialVersionUID = -2469375602816257498L;
+
+        PreparedHttpMessage(final URL url, final String message) {
+            super(url, message, false);
+        }
+
+        @Override
+        protected String formatOutputMessageInternal(final String message) {
+            return message;
+        }
+    }
+
+    /**
+     * Schedules a delivery attempt for a pending message.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class DispatchTask implements Delayed {
+        private final DispatchRecord record;
+
+        private final long dueTime;
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(dueTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.apereo.cas.logout.slo;
+
+import org.apereo.cas.util.http.HttpMessage;
+
+/**
+ * This is {@link SingleLogoutMessageDispatcher} that takes over the delivery
+ * of back-channel logout messages to their logout endpoints.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@FunctionalInterface
+public interface SingleLogoutMessageDispatcher {
+
+    /**
+     * Queue the logout message for delivery.
+     *
+     * @param request the logout request
+     * @param message the message to send to the logout endpoint
+     * @return true if the message is accepted for delivery
+     */
+    boolean dispatch(SingleLogoutRequest request, HttpMessage message);
+}
@@ -2,24 +2,30 @@ package org.apereo.cas.logout.config;
 
 import org.apereo.cas.authentication.AuthenticationServiceSelectionPlan;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.logout.DefaultLogoutExecutionPlan;
 import org.apereo.cas.logout.DefaultLogoutManager;
 import org.apereo.cas.logout.DefaultSingleLogoutMessageCreator;
 import org.apereo.cas.logout.LogoutExecutionPlan;
 import org.apereo.cas.logout.LogoutExecutionPlanConfigurer;
 import org.apereo.cas.logout.LogoutManager;
+import org.apereo.cas.logout.slo.DefaultSingleLogoutMessageDispatcher;
 import org.apereo.cas.logout.slo.DefaultSingleLogoutServiceLogoutUrlBuilder;
 import org.apereo.cas.logout.slo.DefaultSingleLogoutServiceMessageHandler;
 import org.apereo.cas.logout.slo.SingleLogoutMessageCreator;
+import org.apereo.cas.logout.slo.SingleLogoutMessageDispatcher;
 import org.apereo.cas.logout.slo.SingleLogoutServiceLogoutUrlBuilder;
 import org.apereo.cas.logout.slo.SingleLogoutServiceMessageHandler;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.util.ResourceUtils;
 import org.apereo.cas.util.http.HttpClient;
 import org.apereo.cas.web.UrlValidator;
 
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -74,12 +80,33 @@ public class CasCoreLogoutConfiguration {
     @ConditionalOnMissingBean(name = "defaultSingleLogoutServiceMessageHandler")
     @Bean
     public SingleLogoutServiceMessageHandler defaultSingleLogoutServiceMessageHandler() {
-        return new DefaultSingleLogoutServiceMessageHandler(httpClient.getObject(),
+        val handler = new DefaultSingleLogoutServiceMessageHandler(httpClient.getObject(),
             defaultSingleLogoutMessageCreator(),
             servicesManager.getObject(),
             singleLogoutServiceLogoutUrlBuilder(),
             casProperties.getSlo().isAsynchronous(),
             authenticationServiceSelectionPlan.getObject());
+        if (casProperties.getSlo().getDispatcher().isEnabled()) {
+            handler.setMessageDispatcher(singleLogoutMessageDispatcher());
+        }
+        return handler;
+    }
+
+    @ConditionalOnMissingBean(name = "singleLogoutMessageDispatcher")
+    @Bean(initMethod = "initialize", destroyMethod = "destroy")
+    @SneakyThrows
+    public SingleLogoutMessageDispatcher singleLogoutMessageDispatcher() {
+        val props = casProperties.getSlo().getDispatcher();
+        val journal = StringUtils.isNotBlank(props.getJournalLocation())
+            ? ResourceUtils.getRawResourceFrom(props.getJournalLocation()).getFile()
+            : null;
+        val dispatcher = new DefaultSingleLogoutMessageDispatcher(httpClient.getObject(), props.getThreads(), journal);
+        dispatcher.setCapacity(props.getCapacity());
+        dispatcher.setMaxAttempts(props.getMaxAttempts());
+        dispatcher.setInitialBackoff(Beans.newDuration(props.getInitialBackoff()));
+        dispatcher.setMaxBackoff(Beans.newDuration(props.getMaxBackoff()));
+        dispatcher.setMaxConcurrencyPerEndpoint(props.getMaxConcurrencyPerEndpoint());
+        return dispatcher;
     }
 
     @ConditionalOnMissingBean(name = "logoutManager")
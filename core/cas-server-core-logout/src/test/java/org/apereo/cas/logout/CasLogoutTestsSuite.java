@@ -12,6 +12,7 @@ import org.junit.runner.RunWith;
  */
 @SelectClasses({
     DefaultLogoutManagerTests.class,
+    DefaultSingleLogoutMessageDispatcherTests.class,
     DefaultSingleLogoutServiceLogoutUrlBuilderTests.class,
     LogoutHttpMessageTests.class,
     SamlCompliantLogoutMessageCreatorTests.class
@@ -0,0 +1,111 @@
+package org.apereo.cas.logout;
+
+import org.apereo.cas.logout.slo.DefaultSingleLogoutMessageDispatcher;
+import org.apereo.cas.logout.slo.SingleLogoutRequest;
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URL;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link DefaultSingleLogoutMessageDispatcherTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class DefaultSingleLogoutMessageDispatcherTests {
+
+    @SneakyThrows
+    private static LogoutHttpMessage getMessage(final String payload) {
+        return new LogoutHttpMessage(new URL("https://app.example.org/logout"), payload, true);
+    }
+
+    @SneakyThrows
+    private static void await(final BooleanSupplier condition) {
+        val deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static DefaultSingleLogoutMessageDispatcher getDispatcher(final HttpClient httpClient, final File journal) {
+        val dispatcher = new DefaultSingleLogoutMessageDispatcher(httpClient, 2, journal);
+        dispatcher.setInitialBackoff(Duration.ofMillis(10));
+        dispatcher.setMaxBackoff(Duration.ofMillis(50));
+        return dispatcher;
+    }
+
+    @Test
+    public void verifyRetriesUntilDelivered() {
+        val httpClient = mock(HttpClient.class);
+        when(httpClient.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(false, false, true);
+        val dispatcher = getDispatcher(httpClient, null);
+        dispatcher.initialize();
+        assertTrue(dispatcher.dispatch(mock(SingleLogoutRequest.class), getMessage("ST-1")));
+        await(() -> dispatcher.getPendingCount() == 0);
+        verify(httpClient, times(3)).sendMessageToEndPoint(any(HttpMessage.class));
+        dispatcher.destroy();
+    }
+
+    @Test
+    public void verifyDropsAfterMaxAttempts() {
+        val httpClient = mock(HttpClient.class);
+        when(httpClient.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(false);
+        val dispatcher = getDispatcher(httpClient, null);
+        dispatcher.setMaxAttempts(2);
+        dispatcher.initialize();
+        assertTrue(dispatcher.dispatch(mock(SingleLogoutRequest.class), getMessage("ST-1")));
+        await(() -> dispatcher.getPendingCount() == 0);
+        verify(httpClient, times(2)).sendMessageToEndPoint(any(HttpMessage.class));
+        dispatcher.destroy();
+    }
+
+    @Test
+    public void verifyRejectsWhenFull() {
+        val httpClient = mock(HttpClient.class);
+        when(httpClient.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(true);
+        val dispatcher = getDispatcher(httpClient, null);
+        dispatcher.setCapacity(2);
+        val request = mock(SingleLogoutRequest.class);
+        assertTrue(dispatcher.dispatch(request, getMessage("ST-1")));
+        assertTrue(dispatcher.dispatch(request, getMessage("ST-2")));
+        assertFalse(dispatcher.dispatch(request, getMessage("ST-3")));
+        assertEquals(2, dispatcher.getPendingCount());
+
+        dispatcher.initialize();
+        await(() -> dispatcher.getPendingCount() == 0);
+        verify(httpClient, times(2)).sendMessageToEndPoint(any(HttpMessage.class));
+        dispatcher.destroy();
+    }
+
+    @Test
+    public void verifyRecoversFromJournal(@TempDir final File journal) {
+        val httpClient = mock(HttpClient.class);
+        when(httpClient.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(true);
+        val first = getDispatcher(httpClient, journal);
+        assertTrue(first.dispatch(mock(SingleLogoutRequest.class), getMessage("ST-1")));
+        first.destroy();
+        assertEquals(1, journal.listFiles().length);
+
+        val second = getDispatcher(httpClient, journal);
+        second.initialize();
+        await(() -> second.getPendingCount() == 0);
+        verify(httpClient).sendMessageToEndPoint(argThat(msg -> msg.getMessage().equals(getMessage("ST-1").getMessage())));
+        assertEquals(0, journal.listFiles().length);
+        second.destroy();
+    }
+}
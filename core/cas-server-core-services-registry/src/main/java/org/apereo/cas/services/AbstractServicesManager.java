@@ -10,6 +10,7 @@ import org.apereo.cas.support.events.service.CasRegisteredServicesDeletedEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServicesLoadedEvent;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,9 +21,12 @@ import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -47,6 +51,9 @@ public abstract class AbstractServicesManager implements ServicesManager {
 
     private final Cache<Long, RegisteredService> services;
 
+    @Getter(AccessLevel.NONE)
+    private final Map<String, RegisteredServiceKeyIndex> keyIndexes = new ConcurrentHashMap<>();
+
     @Override
     public RegisteredService save(final RegisteredService registeredService) {
         return save(registeredService, true);
@@ -57,7 +64,8 @@ public abstract class AbstractServicesManager implements ServicesManager {
         publishEvent(new CasRegisteredServicePreSaveEvent(this, registeredService));
         val r = this.serviceRegistry.save(registeredService);
         this.services.put(r.getId(), r);
-        saveInternal(registeredService);
+        updateKeyIndexes(index -> index.index(r));
+        saveInternal(r);
 
         if (publishEvent) {
             publishEvent(new CasRegisteredServiceSavedEvent(this, r));
@@ -84,6 +92,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
             publishEvent(new CasRegisteredServicePreDeleteEvent(this, service));
             this.serviceRegistry.delete(service);
             this.services.invalidate(service.getId());
+            updateKeyIndexes(index -> index.remove(service));
             deleteInternal(service);
             publishEvent(new CasRegisteredServiceDeletedEvent(this, service));
         }
@@ -96,17 +105,14 @@ public abstract class AbstractServicesManager implements ServicesManager {
             return null;
         }
 
-        var service = getCandidateServicesToMatch(serviceId)
-                .filter(r -> r.matches(serviceId))
-                .findFirst()
-                .orElse(null);
+        var service = findMatchingService(serviceId);
 
         if (service == null) {
             LOGGER.trace("The service that matches the serviceId [{}] is not found in the cache, trying to find it from [{}]",
                     serviceId, serviceRegistry.getName());
             service = serviceRegistry.findServiceBy(serviceId);
             if (service != null) {
-                services.put(service.getId(), service);
+                cacheRegisteredService(service);
                 LOGGER.trace("The service is found in [{}] and populated to the cache [{}]  ", serviceRegistry.getName(), 
                         service);
             }
@@ -137,7 +143,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
                 collect(Collectors.toMap(r -> {
                     return r.getId();
                 }, Function.identity(), (r, s) -> s));
-        services.putAll(results);
+        results.values().forEach(this::cacheRegisteredService);
         return results.values();
     }
 
@@ -189,7 +195,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
                     name, serviceRegistry.getName());
             service = serviceRegistry.findServiceByExactServiceName(name);
             if (service != null) {
-                services.put(service.getId(), service);
+                cacheRegisteredService(service);
                 LOGGER.trace("The service is found in [{}] and populated to the cache [{}]  ", serviceRegistry.getName(),
                         service);
             }
@@ -214,7 +220,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
                     name, clazz, serviceRegistry.getName());
             service = this.serviceRegistry.findServiceByExactServiceName(name, clazz);
             if (service != null) {
-                services.put(service.getId(), service);
+                cacheRegisteredService(service);
                 LOGGER.trace("The service is found in [{}] and populated to the cache [{}]  ",
                         serviceRegistry.getName(), service);
             }
@@ -238,7 +244,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
                     serviceId, serviceRegistry.getName());
             service = serviceRegistry.findServiceByExactServiceId(serviceId);
             if (service != null) {
-                services.put(service.getId(), service);
+                cacheRegisteredService(service);
                 LOGGER.trace("The service is found in [{}] and populated to the cache [{}]  ", serviceRegistry.getName(),
                         service);
             }
@@ -250,6 +256,21 @@ public abstract class AbstractServicesManager implements ServicesManager {
         return validateRegisteredService(service);      
     }
     
+    @Override
+    public Collection<RegisteredService> findServicesByIndex(final RegisteredServiceIndex index, final String key) {
+        if (StringUtils.isBlank(key)) {
+            return new ArrayList<>(0);
+        }
+        return getKeyIndex(index).getServices(key)
+                .stream()
+                .map(this.services::getIfPresent)
+                .filter(Objects::nonNull)
+                .filter(this::validateAndFilterServiceByEnvironment)
+                .sorted()
+                .peek(RegisteredService::initialize)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Collection<RegisteredService> getAllServices() {
         return this.services.asMap().values().
@@ -277,6 +298,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
                             r.getServiceId(), r.getName(), r.getId());
                     return r.getId();
                 }, Function.identity(), (r, s) -> s)));
+        rebuildKeyIndexes();
         loadInternal();
         publishEvent(new CasRegisteredServicesLoadedEvent(this, getAllServices()));
         evaluateExpiredServiceDefinitions();
@@ -339,6 +361,30 @@ public abstract class AbstractServicesManager implements ServicesManager {
         return registeredService;
     }
 
+    /**
+     * Find the first service definition, in order of evaluation, that matches the service id.
+     *
+     * @param serviceId the service id
+     * @return the matching registered service, or null
+     */
+    protected RegisteredService findMatchingService(final String serviceId) {
+        return getCandidateServicesToMatch(serviceId)
+            .filter(r -> r.matches(serviceId))
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * Put the service definition that is found in the service registry
+     * into the cache.
+     *
+     * @param service the service
+     */
+    protected void cacheRegisteredService(final RegisteredService service) {
+        this.services.put(service.getId(), service);
+        updateKeyIndexes(index -> index.index(service));
+    }
+
     /**
      * Gets candidate services to match the service id.
      *
@@ -393,6 +439,37 @@ public abstract class AbstractServicesManager implements ServicesManager {
                 .anyMatch(this.environments::contains);
     }
     
+    private RegisteredServiceKeyIndex getKeyIndex(final RegisteredServiceIndex index) {
+        val keyIndex = keyIndexes.get(index.getName());
+        if (keyIndex != null) {
+            return keyIndex;
+        }
+        synchronized (keyIndexes) {
+            return keyIndexes.computeIfAbsent(index.getName(), name -> {
+                val result = new RegisteredServiceKeyIndex(index);
+                services.asMap().values().forEach(result::index);
+                LOGGER.trace("Indexed [{}] service definition(s) by [{}]", result.size(), name);
+                return result;
+            });
+        }
+    }
+
+    private void updateKeyIndexes(final Consumer<RegisteredServiceKeyIndex> update) {
+        synchronized (keyIndexes) {
+            keyIndexes.values().forEach(update);
+        }
+    }
+
+    private void rebuildKeyIndexes() {
+        synchronized (keyIndexes) {
+            keyIndexes.replaceAll((name, keyIndex) -> {
+                val result = new RegisteredServiceKeyIndex(keyIndex.getIndex());
+                services.asMap().values().forEach(result::index);
+                return result;
+            });
+        }
+    }
+
     private RegisteredService getService(final String name, final long id) {
         return services.asMap().values().stream().filter(r -> name != null
                 ? r.getServiceId().equals(name) : r.getId() == id).findFirst().orElse(null);
@@ -164,6 +164,13 @@ public class ChainingServicesManager implements ServicesManager, DomainAwareServ
                 .orElse(null);
     }
 
+    @Override
+    public Collection<RegisteredService> findServicesByIndex(final RegisteredServiceIndex index, final String key) {
+        return serviceManagers.stream()
+                .flatMap(s -> s.findServicesByIndex(index, key).stream())
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Stream<String> getDomains() {
         return serviceManagers.stream()
@@ -1,30 +1,103 @@
 package org.apereo.cas.services;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Comparator;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Stream;
 
 /**
  * Default implementation of the {@link ServicesManager} interface.
+ * Service definitions are tracked by a {@link RegisteredServiceMatchingIndex}
+ * to narrow down the candidates that must be evaluated for a given service,
+ * and the results of successful matches are cached by service url
+ * until the collection of service definitions changes.
  *
  * @author Scott Battaglia
  * @since 3.1
  */
+@Slf4j
 public class DefaultServicesManager extends AbstractServicesManager {
+    private static final long DEFAULT_MATCH_RESULTS_CACHE_SIZE = 10_000L;
+
+    private final Cache<String, Long> matchResults;
+
+    private volatile RegisteredServiceMatchingIndex matchingIndex = new RegisteredServiceMatchingIndex();
 
     public DefaultServicesManager(final ServiceRegistry serviceRegistry,
             final ApplicationEventPublisher eventPublisher,
             final Set<String> environments,
             final Cache<Long, RegisteredService> services) {
+        this(serviceRegistry, eventPublisher, environments, services, DEFAULT_MATCH_RESULTS_CACHE_SIZE);
+    }
+
+    public DefaultServicesManager(final ServiceRegistry serviceRegistry,
+            final ApplicationEventPublisher eventPublisher,
+            final Set<String> environments,
+            final Cache<Long, RegisteredService> services,
+            final long matchResultsCacheSize) {
         super(serviceRegistry, eventPublisher, environments, services);
+        this.matchResults = Caffeine.newBuilder().maximumSize(matchResultsCacheSize).build();
     }
 
     @Override
     protected Stream<RegisteredService> getCandidateServicesToMatch(final String serviceId) {
-        return getServices().asMap().values().stream().sorted(Comparator.naturalOrder());
+        val cache = getServices();
+        return matchingIndex.getCandidates(serviceId)
+            .stream()
+            .map(cache::getIfPresent)
+            .filter(Objects::nonNull)
+            .sorted(Comparator.naturalOrder());
     }
 
+    @Override
+    protected RegisteredService findMatchingService(final String serviceId) {
+        val id = matchResults.getIfPresent(serviceId);
+        if (id != null) {
+            val service = getServices().getIfPresent(id);
+            if (service != null) {
+                LOGGER.trace("Located cached match [{}] for service [{}]", service.getName(), serviceId);
+                return service;
+            }
+            matchResults.invalidate(serviceId);
+        }
+        val service = super.findMatchingService(serviceId);
+        if (service != null) {
+            matchResults.put(serviceId, service.getId());
+        }
+        return service;
+    }
+
+    @Override
+    protected void cacheRegisteredService(final RegisteredService service) {
+        super.cacheRegisteredService(service);
+        matchingIndex.index(service);
+        matchResults.invalidateAll();
+    }
+
+    @Override
+    protected void saveInternal(final RegisteredService service) {
+        matchingIndex.index(service);
+        matchResults.invalidateAll();
+    }
+
+    @Override
+    protected void deleteInternal(final RegisteredService service) {
+        matchingIndex.remove(service);
+        matchResults.invalidateAll();
+    }
+
+    @Override
+    protected void loadInternal() {
+        val index = new RegisteredServiceMatchingIndex();
+        getServices().asMap().values().forEach(index::index);
+        this.matchingIndex = index;
+        matchResults.invalidateAll();
+        LOGGER.trace("Indexed [{}] service definition(s) for matching", index.size());
+    }
 }
@@ -0,0 +1,80 @@
+package org.apereo.cas.services;
+
+import lombok.Getter;
+import lombok.val;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This is {@link RegisteredServiceKeyIndex}. It tracks the identifiers of registered services
+ * by the keys that are produced for each service definition by a {@link RegisteredServiceIndex},
+ * along with the keys under which each service is currently indexed, so that stale
+ * entries can be removed once a service definition is changed or deleted.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+public class RegisteredServiceKeyIndex {
+    @Getter
+    private final RegisteredServiceIndex index;
+
+    private final Map<String, Set<Long>> services = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<String>> indexedKeys = new ConcurrentHashMap<>();
+
+    public RegisteredServiceKeyIndex(final RegisteredServiceIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Add the registered service to the index, replacing any previous
+     * entry that was indexed under the same identifier.
+     *
+     * @param registeredService the registered service
+     */
+    public synchronized void index(final RegisteredService registeredService) {
+        remove(registeredService);
+        val keys = Set.copyOf(index.getKeys(registeredService));
+        if (!keys.isEmpty()) {
+            indexedKeys.put(registeredService.getId(), keys);
+            keys.forEach(key -> services.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(registeredService.getId()));
+        }
+    }
+
+    /**
+     * Remove the registered service from the index.
+     *
+     * @param registeredService the registered service
+     */
+    public synchronized void remove(final RegisteredService registeredService) {
+        val id = registeredService.getId();
+        val keys = indexedKeys.remove(id);
+        if (keys != null) {
+            keys.forEach(key -> services.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            }));
+        }
+    }
+
+    /**
+     * Gets identifiers of registered services indexed under the given key.
+     *
+     * @param key the key, which is normalized by the index
+     * @return the registered service identifiers
+     */
+    public Set<Long> getServices(final String key) {
+        return Set.copyOf(services.getOrDefault(index.normalize(key), Set.of()));
+    }
+
+    /**
+     * Number of service definitions tracked by the index.
+     *
+     * @return the size
+     */
+    public int size() {
+        return indexedKeys.size();
+    }
+}
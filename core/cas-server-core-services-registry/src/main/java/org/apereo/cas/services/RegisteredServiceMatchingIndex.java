@@ -0,0 +1,275 @@
+package org.apereo.cas.services;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This is {@link RegisteredServiceMatchingIndex}. It organizes registered services
+ * into matching tiers so that only a handful of definitions need to be evaluated
+ * for a given service url, rather than the entire collection:
+ * <ul>
+ * <li>Exact: service definitions whose pattern is a plain literal, keyed by the literal value.</li>
+ * <li>Prefix: service definitions whose pattern starts with a literal value (i.e. scheme and host),
+ * stored in a character trie that is walked using the requested service url.</li>
+ * <li>Fallback: all other service definitions that must always be evaluated.</li>
+ * </ul>
+ * The index only narrows down the list of candidates; it does not decide on the match itself,
+ * nor does it dictate the evaluation order of the candidates, which remains the responsibility of the caller.
+ * Since pattern matching of regular expressions is case-insensitive for US-ASCII characters,
+ * keys and lookups are normalized to lower-case US-ASCII characters.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class RegisteredServiceMatchingIndex {
+    private static final String REGEX_METACHARACTERS = ".[]{}()*+?|^$\\";
+
+    private final Map<Long, String> indexedServiceIds = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Long>> serviceIds = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Long>> exactMatches = new ConcurrentHashMap<>();
+
+    private final Set<Long> fallbackMatches = ConcurrentHashMap.newKeySet();
+
+    private final PrefixNode prefixMatches = new PrefixNode();
+
+    /**
+     * Calculate the literal prefix of the given pattern that any matching
+     * service url must begin with.
+     *
+     * @param pattern the pattern
+     * @return the literal prefix, or blank if no prefix can be determined.
+     */
+    static String getLiteralPrefix(final String pattern) {
+        if (StringUtils.isBlank(pattern) || pattern.contains("\\Q") || hasTopLevelAlternation(pattern)) {
+            return StringUtils.EMPTY;
+        }
+        val prefix = new StringBuilder(pattern.length());
+        var lastAtomStart = 0;
+        var i = pattern.startsWith("^") ? 1 : 0;
+        while (i < pattern.length()) {
+            val c = pattern.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= pattern.length() || Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                    break;
+                }
+                lastAtomStart = prefix.length();
+                prefix.append(pattern.charAt(i + 1));
+                i += 2;
+            } else if (REGEX_METACHARACTERS.indexOf(c) >= 0) {
+                if (c == '*' || c == '?' || c == '{') {
+                    prefix.setLength(lastAtomStart);
+                }
+                break;
+            } else {
+                lastAtomStart = prefix.length();
+                prefix.append(c);
+                i++;
+            }
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * Determine whether the pattern is a plain literal value, optionally anchored at both ends.
+     *
+     * @param pattern the pattern
+     * @return the literal value, or blank if the pattern contains regex constructs.
+     */
+    static String getLiteralValue(final String pattern) {
+        val prefix = getLiteralPrefix(pattern);
+        if (StringUtils.isBlank(prefix)) {
+            return StringUtils.EMPTY;
+        }
+        var body = StringUtils.removeStart(pattern, "^");
+        if (body.endsWith("$") && !body.endsWith("\\$")) {
+            body = StringUtils.removeEnd(body, "$");
+        }
+        return StringUtils.containsAny(body, REGEX_METACHARACTERS) ? StringUtils.EMPTY : prefix;
+    }
+
+    private static boolean hasTopLevelAlternation(final String pattern) {
+        var groupDepth = 0;
+        var classDepth = 0;
+        for (var i = 0; i < pattern.length(); i++) {
+            val c = pattern.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                classDepth++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+            } else if (classDepth == 0) {
+                if (c == '(') {
+                    groupDepth++;
+                } else if (c == ')' && groupDepth > 0) {
+                    groupDepth--;
+                } else if (c == '|' && groupDepth == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(final String value) {
+        val chars = value.toCharArray();
+        for (var i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] = (char) (chars[i] + ('a' - 'A'));
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Add the registered service to the index, replacing any previous
+     * entry that was indexed under the same identifier.
+     *
+     * @param registeredService the registered service
+     */
+    public synchronized void index(final RegisteredService registeredService) {
+        remove(registeredService.getId());
+        val id = registeredService.getId();
+        val serviceId = StringUtils.defaultString(registeredService.getServiceId());
+        indexedServiceIds.put(id, serviceId);
+        serviceIds.computeIfAbsent(serviceId, k -> ConcurrentHashMap.newKeySet()).add(id);
+
+        if (registeredService instanceof RegexRegisteredService) {
+            val literal = getLiteralValue(serviceId);
+            if (StringUtils.isNotBlank(literal)) {
+                LOGGER.trace("Indexed service [{}] as an exact match for [{}]", id, literal);
+                exactMatches.computeIfAbsent(normalize(literal), k -> ConcurrentHashMap.newKeySet()).add(id);
+                return;
+            }
+            val prefix = getLiteralPrefix(serviceId);
+            if (StringUtils.isNotBlank(prefix)) {
+                LOGGER.trace("Indexed service [{}] as a prefix match for [{}]", id, prefix);
+                prefixMatches.add(normalize(prefix), id);
+                return;
+            }
+        }
+        LOGGER.trace("Indexed service [{}] as a fallback match", id);
+        fallbackMatches.add(id);
+    }
+
+    /**
+     * Remove the registered service from the index.
+     *
+     * @param registeredService the registered service
+     */
+    public synchronized void remove(final RegisteredService registeredService) {
+        remove(registeredService.getId());
+    }
+
+    /**
+     * Remove all entries from the index.
+     */
+    public synchronized void clear() {
+        indexedServiceIds.clear();
+        serviceIds.clear();
+        exactMatches.clear();
+        fallbackMatches.clear();
+        prefixMatches.clear();
+    }
+
+    /**
+     * Gets identifiers of registered services that could possibly match the given service url.
+     * This includes service definitions whose service id is exactly equal to the given value.
+     *
+     * @param serviceId the service id
+     * @return the candidate registered service identifiers
+     */
+    public Set<Long> getCandidates(final String serviceId) {
+        val results = new HashSet<Long>(fallbackMatches);
+        val normalized = normalize(serviceId);
+        results.addAll(exactMatches.getOrDefault(normalized, Set.of()));
+        results.addAll(serviceIds.getOrDefault(serviceId, Set.of()));
+        prefixMatches.collect(normalized, results);
+        return results;
+    }
+
+    /**
+     * Number of service definitions tracked by the index.
+     *
+     * @return the size
+     */
+    public int size() {
+        return indexedServiceIds.size();
+    }
+
+    private void remove(final long id) {
+        val serviceId = indexedServiceIds.remove(id);
+        if (serviceId == null) {
+            return;
+        }
+        removeFrom(serviceIds, serviceId, id);
+        fallbackMatches.remove(id);
+        val literal = getLiteralValue(serviceId);
+        if (StringUtils.isNotBlank(literal)) {
+            removeFrom(exactMatches, normalize(literal), id);
+        }
+        val prefix = getLiteralPrefix(serviceId);
+        if (StringUtils.isNotBlank(prefix)) {
+            prefixMatches.remove(normalize(prefix), id);
+        }
+    }
+
+    private static void removeFrom(final Map<String, Set<Long>> map, final String key, final long id) {
+        map.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * A node in the character trie of literal prefixes.
+     */
+    private static class PrefixNode {
+        private final Map<Character, PrefixNode> children = new ConcurrentHashMap<>();
+
+        private final Set<Long> services = ConcurrentHashMap.newKeySet();
+
+        void add(final String prefix, final long id) {
+            var node = this;
+            for (var i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), k -> new PrefixNode());
+            }
+            node.services.add(id);
+        }
+
+        void remove(final String prefix, final long id) {
+            var node = this;
+            for (var i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node != null) {
+                node.services.remove(id);
+            }
+        }
+
+        void collect(final String value, final Set<Long> results) {
+            var node = this;
+            for (var i = 0; i < value.length(); i++) {
+                node = node.children.get(value.charAt(i));
+                if (node == null) {
+                    return;
+                }
+                results.addAll(node.services);
+            }
+        }
+
+        void clear() {
+            children.clear();
+            services.clear();
+        }
+    }
+}
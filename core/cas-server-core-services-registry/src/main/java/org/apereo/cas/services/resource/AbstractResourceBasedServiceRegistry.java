@@ -10,6 +10,7 @@ import org.apereo.cas.support.events.service.CasRegisteredServiceDeletedEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServiceLoadedEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServicePreDeleteEvent;
 import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.DigestUtils;
 import org.apereo.cas.util.RegexUtils;
 import org.apereo.cas.util.ResourceUtils;
 import org.apereo.cas.util.io.PathWatcherService;
@@ -17,13 +18,16 @@ import org.apereo.cas.util.io.WatcherService;
 import org.apereo.cas.util.serialization.StringSerializer;
 
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -42,6 +46,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -56,6 +61,12 @@ import java.util.stream.Stream;
 @Slf4j
 @ToString
 public abstract class AbstractResourceBasedServiceRegistry extends AbstractServiceRegistry implements ResourceBasedServiceRegistry, DisposableBean {
+    /**
+     * Files modified this close to the time they were loaded may be modified again without a visible change
+     * in their modification time, given the resolution of some file systems, and are verified by their contents.
+     */
+    private static final long MODIFICATION_TIME_RESOLUTION_MILLIS = 2_000;
+
     /**
      * The Service registry directory.
      */
@@ -64,9 +75,10 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
 
     /**
      * Map of service ID to registered service.
+     * Loading services replaces the map as a whole, so that readers never observe a partially loaded registry.
      */
     @Getter
-    protected Map<Long, RegisteredService> services = new ConcurrentHashMap<>();
+    protected volatile Map<Long, RegisteredService> services = new ConcurrentHashMap<>();
 
     /**
      * The Registered service json serializers.
@@ -82,6 +94,17 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
 
     private Pattern serviceFileNamePattern;
 
+    /**
+     * Number of service definition files that are parsed in parallel when loading services.
+     */
+    @Setter
+    private int loadParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Files loaded from the service registry directory, along with the services parsed from each.
+     */
+    private volatile Map<Path, ServiceDefinitionResource> loadedResources = new ConcurrentHashMap<>();
+
     public AbstractResourceBasedServiceRegistry(final Resource configDirectory,
                                                 final Collection<StringSerializer<RegisteredService>> serializers,
                                                 final ConfigurableApplicationContext applicationContext,
@@ -214,6 +237,7 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
             if (!result) {
                 throw new IOException("The service definition file could not be saved at " + f.getCanonicalPath());
             }
+            this.loadedResources.remove(f.toPath());
             if (this.services.containsKey(service.getId())) {
                 LOGGER.debug("Found existing service definition by id [{}]. Saving...", service.getId());
             }
@@ -236,22 +260,31 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
             LOGGER.warn("Failed to delete service definition file [{}]", f.getCanonicalPath());
         } else {
             removeRegisteredService(service);
+            this.loadedResources.remove(f.toPath());
             LOGGER.debug("Successfully deleted service definition file [{}]", f.getCanonicalPath());
         }
         publishEvent(new CasRegisteredServiceDeletedEvent(this, service));
         return result;
     }
 
+    /**
+     * Load services from the service registry directory.
+     * Files are parsed in parallel, and files that have not changed since they were last loaded
+     * are not parsed again; their services are reused instead. Once all files are processed,
+     * the loaded services replace the existing services at once.
+     *
+     * @return the loaded services
+     */
     @Override
     public synchronized Collection<RegisteredService> load() {
         LOGGER.trace("Loading files from [{}]", this.serviceRegistryDirectory);
         val files = FileUtils.listFiles(this.serviceRegistryDirectory.toFile(), getExtensions(), true);
         LOGGER.trace("Located [{}] files from [{}] are [{}]", getExtensions(), this.serviceRegistryDirectory, files);
 
-        this.services = files
+        val resources = loadServiceDefinitionResources(files);
+        val loadedServices = resources.values()
             .stream()
-            .map(this::load)
-            .filter(Objects::nonNull)
+            .map(ServiceDefinitionResource::getServices)
             .flatMap(Collection::stream)
             .sorted()
             .collect(Collectors.toMap(RegisteredService::getId, Function.identity(),
@@ -259,7 +292,9 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
                     BaseResourceBasedRegisteredServiceWatcher.LOG_SERVICE_DUPLICATE.accept(s2);
                     return s1;
                 }, LinkedHashMap::new));
-        val listedServices = new ArrayList<RegisteredService>(this.services.values());
+        this.loadedResources = resources;
+        this.services = new ConcurrentHashMap<>(loadedServices);
+        val listedServices = new ArrayList<RegisteredService>(loadedServices.values());
         val results = this.registeredServiceReplicationStrategy.updateLoadedRegisteredServicesFromCache(listedServices, this);
         results.forEach(service -> publishEvent(new CasRegisteredServiceLoadedEvent(this, service)));
         return results;
@@ -315,6 +350,60 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
         return new ArrayList<>(0);
     }
 
+    /**
+     * Load the given files using a dedicated fork-join pool.
+     *
+     * @param files the files
+     * @return the loaded resources keyed by file path
+     */
+    @SneakyThrows
+    private Map<Path, ServiceDefinitionResource> loadServiceDefinitionResources(final Collection<File> files) {
+        val pool = new ForkJoinPool(Math.max(1, this.loadParallelism));
+        try {
+            return pool.submit(() -> files
+                .parallelStream()
+                .map(this::loadServiceDefinitionResource)
+                .collect(Collectors.toConcurrentMap(ServiceDefinitionResource::getPath, Function.identity())))
+                .get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Load the file, unless it matches the file that was last loaded from the same path
+     * by its modification time and length, or otherwise by its contents.
+     *
+     * @param file the file
+     * @return the loaded resource
+     */
+    private ServiceDefinitionResource loadServiceDefinitionResource(final File file) {
+        val path = file.toPath();
+        val loadedAt = System.currentTimeMillis();
+        val lastModified = file.lastModified();
+        val length = file.length();
+        val previous = this.loadedResources.get(path);
+        if (previous != null && previous.isUnchanged(lastModified, length)) {
+            LOGGER.trace("[{}] is unchanged since it was last loaded", path);
+            return previous;
+        }
+        val digest = digest(path);
+        if (previous != null && StringUtils.isNotBlank(digest) && digest.equals(previous.getDigest())) {
+            LOGGER.trace("Contents of [{}] are unchanged since it was last loaded", path);
+            return new ServiceDefinitionResource(path, lastModified, length, digest, loadedAt, previous.getServices());
+        }
+        return new ServiceDefinitionResource(path, lastModified, length, digest, loadedAt, load(file));
+    }
+
+    private static String digest(final Path path) {
+        try {
+            return DigestUtils.digest(MessageDigestAlgorithms.SHA_256, Files.readAllBytes(path));
+        } catch (final IOException e) {
+            LOGGER.debug("Unable to read [{}]: [{}]", path, e.getMessage());
+            return StringUtils.EMPTY;
+        }
+    }
+
     @Override
     public Stream<? extends RegisteredService> getServicesStream() {
         return this.services.values().stream();
@@ -397,4 +486,28 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
         this.serviceRegistryWatcherService.close();
     }
 
+    /**
+     * A service definition file, as it was last loaded.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class ServiceDefinitionResource {
+        private final Path path;
+
+        private final long lastModified;
+
+        private final long length;
+
+        private final String digest;
+
+        private final long loadedAt;
+
+        private final Collection<RegisteredService> services;
+
+        boolean isUnchanged(final long lastModified, final long length) {
+            return this.lastModified == lastModified && this.length == length
+                && this.loadedAt - this.lastModified > MODIFICATION_TIME_RESOLUTION_MILLIS;
+        }
+    }
+
 }
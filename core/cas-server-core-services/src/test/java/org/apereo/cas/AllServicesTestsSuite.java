@@ -31,6 +31,7 @@ import org.apereo.cas.services.RegexRegisteredServiceTests;
 import org.apereo.cas.services.RegisteredServiceAccessStrategyUtilsTests;
 import org.apereo.cas.services.RegisteredServiceAuthenticationHandlerResolverTests;
 import org.apereo.cas.services.RegisteredServiceAuthenticationPolicyResolverTests;
+import org.apereo.cas.services.RegisteredServiceMatchingIndexTests;
 import org.apereo.cas.services.RegisteredServicePublicKeyImplTests;
 import org.apereo.cas.services.RegisteredServicesEventListenerTests;
 import org.apereo.cas.services.RemoteEndpointServiceAccessStrategyTests;
@@ -110,7 +111,8 @@ import org.junit.runner.RunWith;
     RegisteredServiceScriptedAttributeFilterTests.class,
     GroovyRegisteredServiceAccessStrategyTests.class,
     ChainingServicesManagerTests.class,
-    RegisteredServiceJsonSerializerTests.class
+    RegisteredServiceJsonSerializerTests.class,
+    RegisteredServiceMatchingIndexTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllServicesTestsSuite {
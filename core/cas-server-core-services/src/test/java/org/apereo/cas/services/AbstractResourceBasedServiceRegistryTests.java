@@ -66,6 +66,29 @@ public abstract class AbstractResourceBasedServiceRegistryTests extends Abstract
         assertTrue(dao.load(file).isEmpty());
     }
 
+    @Test
+    @SneakyThrows
+    public void verifyUnchangedFilesAreNotLoadedAgain() {
+        val r = buildRegisteredServiceInstance(RandomUtils.nextInt(), RegexRegisteredService.class);
+        dao.save(r);
+        dao.load();
+        val loaded = dao.findServiceById(r.getId());
+        assertNotNull(loaded);
+        dao.load();
+        assertSame(loaded, dao.findServiceById(r.getId()));
+
+        r.setDescription("The new description");
+        dao.save(r);
+        dao.load();
+        val updated = dao.findServiceById(r.getId());
+        assertNotSame(loaded, updated);
+        assertEquals(r.getDescription(), updated.getDescription());
+
+        FileUtils.cleanDirectory(RESOURCE.getFile());
+        assertTrue(dao.load().isEmpty());
+        assertNull(dao.findServiceById(r.getId()));
+    }
+
     @Override
     public ServiceRegistry getNewServiceRegistry() {
         return this.dao;
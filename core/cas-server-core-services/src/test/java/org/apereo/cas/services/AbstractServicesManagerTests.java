@@ -144,6 +144,31 @@ public abstract class AbstractServicesManagerTests<T extends ServicesManager> {
         assertNull(this.servicesManager.findServiceBy(r.getServiceId()));
     }
 
+    @Test
+    public void verifyFindServicesByIndex() {
+        val index = RegisteredServiceIndex.of("description",
+            svc -> svc.getDescription() == null ? List.of() : List.of(svc.getDescription()), true);
+        assertTrue(servicesManager.findServicesByIndex(index, "indexed").isEmpty());
+
+        val r = new RegexRegisteredService();
+        r.setId(3001);
+        r.setName(TEST);
+        r.setServiceId("https://indexed.example.org");
+        r.setDescription("Indexed");
+        servicesManager.save(r);
+        assertEquals(List.of(r), new ArrayList<>(servicesManager.findServicesByIndex(index, "INDEXED")));
+        assertEquals(r, servicesManager.findServiceByIndex(index, "indexed", RegexRegisteredService.class));
+
+        r.setDescription("Changed");
+        servicesManager.save(r);
+        assertTrue(servicesManager.findServicesByIndex(index, "indexed").isEmpty());
+        assertEquals(1, servicesManager.findServicesByIndex(index, "changed").size());
+
+        servicesManager.delete(r);
+        assertTrue(servicesManager.findServicesByIndex(index, "changed").isEmpty());
+        assertTrue(servicesManager.findServicesByIndex(index, null).isEmpty());
+    }
+
     protected boolean isServiceInCache(final String serviceId, final long id) {
         return servicesManager.getAllServices().stream().filter(r -> serviceId != null
                 ? r.getServiceId().equals(serviceId) : r.getId() == id).findFirst().isPresent();
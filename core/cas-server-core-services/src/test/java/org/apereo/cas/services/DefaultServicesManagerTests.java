@@ -4,6 +4,7 @@ import lombok.val;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -30,4 +31,40 @@ public class DefaultServicesManagerTests extends AbstractServicesManagerTests {
         Thread.sleep(5_000);
         assertFalse(isServiceInCache(null, 4100));
     }
+
+    @Test
+    public void verifyMatchingByEvaluationOrder() {
+        val fallback = new RegexRegisteredService();
+        fallback.setId(5100);
+        fallback.setName("fallback");
+        fallback.setServiceId("^(https|imaps)://.*");
+        fallback.setEvaluationOrder(100);
+        servicesManager.save(fallback);
+
+        val prefix = new RegexRegisteredService();
+        prefix.setId(5200);
+        prefix.setName("prefix");
+        prefix.setServiceId("^https://app\\.example\\.org/.*");
+        prefix.setEvaluationOrder(10);
+        servicesManager.save(prefix);
+
+        val exact = new RegexRegisteredService();
+        exact.setId(5300);
+        exact.setName("exact");
+        exact.setServiceId("https://app.example.org/login");
+        exact.setEvaluationOrder(1);
+        servicesManager.save(exact);
+
+        assertEquals(exact, servicesManager.findServiceBy("https://app.example.org/login"));
+        assertEquals(prefix, servicesManager.findServiceBy("https://APP.example.org/other"));
+        assertEquals(fallback, servicesManager.findServiceBy("https://other.example.org"));
+
+        prefix.setEvaluationOrder(0);
+        servicesManager.save(prefix);
+        assertEquals(prefix, servicesManager.findServiceBy("https://app.example.org/login"));
+
+        servicesManager.delete(prefix);
+        assertEquals(exact, servicesManager.findServiceBy("https://app.example.org/login"));
+        assertEquals(fallback, servicesManager.findServiceBy("https://app.example.org/other"));
+    }
 }
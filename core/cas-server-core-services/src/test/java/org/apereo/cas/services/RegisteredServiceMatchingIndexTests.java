@@ -0,0 +1,78 @@
+package org.apereo.cas.services;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link RegisteredServiceMatchingIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class RegisteredServiceMatchingIndexTests {
+
+    private static RegisteredService getRegisteredService(final long id, final String serviceId) {
+        val service = new RegexRegisteredService();
+        service.setId(id);
+        service.setName("Service" + id);
+        service.setServiceId(serviceId);
+        return service;
+    }
+
+    @Test
+    public void verifyLiteralPrefix() {
+        assertEquals("https://app.example.org/", RegisteredServiceMatchingIndex.getLiteralPrefix("^https://app\\.example\\.org/.*"));
+        assertEquals("https://app", RegisteredServiceMatchingIndex.getLiteralPrefix("https://app.example.org"));
+        assertEquals("http", RegisteredServiceMatchingIndex.getLiteralPrefix("https?://.+"));
+        assertEquals("https://", RegisteredServiceMatchingIndex.getLiteralPrefix("https://(a|b)\\.org"));
+        assertEquals("https://", RegisteredServiceMatchingIndex.getLiteralPrefix("https://\\w+"));
+        assertTrue(RegisteredServiceMatchingIndex.getLiteralPrefix("https://a.org|https://b.org").isEmpty());
+        assertTrue(RegisteredServiceMatchingIndex.getLiteralPrefix("(?i)https://.*").isEmpty());
+        assertTrue(RegisteredServiceMatchingIndex.getLiteralPrefix("\\Qhttps://a.org\\E").isEmpty());
+        assertTrue(RegisteredServiceMatchingIndex.getLiteralPrefix("^.*").isEmpty());
+    }
+
+    @Test
+    public void verifyLiteralValue() {
+        assertEquals("test", RegisteredServiceMatchingIndex.getLiteralValue("test"));
+        assertEquals("https://app", RegisteredServiceMatchingIndex.getLiteralValue("^https://app$"));
+        assertTrue(RegisteredServiceMatchingIndex.getLiteralValue("https://app.+").isEmpty());
+        assertTrue(RegisteredServiceMatchingIndex.getLiteralValue("https://app\\.org").isEmpty());
+    }
+
+    @Test
+    public void verifyCandidates() {
+        val index = new RegisteredServiceMatchingIndex();
+        index.index(getRegisteredService(1, "https://app.example.org/login"));
+        index.index(getRegisteredService(2, "^https://app\\.example\\.org/.*"));
+        index.index(getRegisteredService(3, "^https://other\\.example\\.org/.*"));
+        index.index(getRegisteredService(4, "^(https|imaps)://.*"));
+        assertEquals(4, index.size());
+
+        var candidates = index.getCandidates("HTTPS://App.Example.org/login");
+        assertTrue(candidates.containsAll(List.of(1L, 2L, 4L)));
+        assertFalse(candidates.contains(3L));
+
+        candidates = index.getCandidates("https://app.example.org/other");
+        assertFalse(candidates.contains(1L));
+        assertTrue(candidates.contains(2L));
+
+        candidates = index.getCandidates("^https://other\\.example\\.org/.*");
+        assertTrue(candidates.contains(3L));
+
+        index.index(getRegisteredService(2, "^https://changed\\.example\\.org/.*"));
+        assertFalse(index.getCandidates("https://app.example.org/other").contains(2L));
+        assertTrue(index.getCandidates("https://changed.example.org/other").contains(2L));
+
+        index.remove(getRegisteredService(4, "^(https|imaps)://.*"));
+        assertFalse(index.getCandidates("https://app.example.org/other").contains(4L));
+        index.clear();
+        assertEquals(0, index.size());
+    }
+}
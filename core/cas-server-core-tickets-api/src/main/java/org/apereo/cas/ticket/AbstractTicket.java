@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -97,6 +98,16 @@ public abstract class AbstractTicket implements Ticket, TicketState {
     @Column(name = "EXPIRED", nullable = false)
     private Boolean expired = Boolean.FALSE;
 
+    /**
+     * The earliest time at which this ticket may be considered expired,
+     * as recorded by ticket registries that are able to query for expired tickets.
+     * The column is maintained by the registry and is never written from the ticket itself.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "EXPIRATION_TIME", insertable = false, updatable = false)
+    private ZonedDateTime expirationTime;
+
 
     public AbstractTicket(final String id, final ExpirationPolicy expirationPolicy) {
         this.id = id;
@@ -142,8 +153,14 @@ public abstract class AbstractTicket implements Ticket, TicketState {
         return this.expirationPolicy.isExpired(this) || isExpiredInternal();
     }
 
+    /**
+     * Whether this ticket was explicitly marked as expired,
+     * regardless of its expiration policy.
+     *
+     * @return true if the ticket was marked as expired
+     */
     @JsonIgnore
-    protected boolean isExpiredInternal() {
+    public boolean isExpiredInternal() {
         return this.expired;
     }
 
@@ -18,6 +18,7 @@ import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
@@ -25,6 +26,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Concrete implementation of a TicketGrantingTicket. A TicketGrantingTicket is
@@ -37,7 +39,10 @@ import java.util.List;
  * @since 3.0.0
  */
 @Entity
-@Table(name = "TICKETGRANTINGTICKET")
+@Table(name = "TICKETGRANTINGTICKET", indexes = {
+    @Index(name = "IDX_TGT_PRINCIPAL_ID", columnList = "PRINCIPAL_ID"),
+    @Index(name = "IDX_TGT_EXPIRATION_TIME", columnList = "EXPIRATION_TIME")
+})
 @DiscriminatorColumn(name = "TYPE")
 @DiscriminatorValue(TicketGrantingTicket.PREFIX)
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -92,6 +97,14 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
     @Column(name = "DESCENDANT_TICKETS", nullable = false, length = Integer.MAX_VALUE)
     private HashSet<String> descendantTickets = new HashSet<>(0);
 
+    /**
+     * The principal id of the authentication, in lower-case, kept separately
+     * so that sessions of a given principal may be queried without examining the authentication.
+     */
+    @JsonIgnore
+    @Column(name = "PRINCIPAL_ID", length = 1024)
+    private String principalId;
+
     /**
      * Constructs a new TicketGrantingTicket.
      * May throw an {@link IllegalArgumentException} if the Authentication object is null.
@@ -114,6 +127,9 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
         this.ticketGrantingTicket = parentTicketGrantingTicket;
         this.authentication = authentication;
         this.proxiedBy = proxiedBy;
+        if (authentication.getPrincipal() != null) {
+            this.principalId = StringUtils.lowerCase(authentication.getPrincipal().getId(), Locale.ROOT);
+        }
     }
 
     /**
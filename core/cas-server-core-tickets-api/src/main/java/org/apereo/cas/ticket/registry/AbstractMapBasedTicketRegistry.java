@@ -1,6 +1,7 @@
 package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.util.crypto.CipherExecutor;
 
 import lombok.NoArgsConstructor;
@@ -11,10 +12,20 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * This is {@link AbstractMapBasedTicketRegistry}.
+ * Ticket-granting tickets are additionally indexed by their principal
+ * so that single sign-on sessions of a given user can be located
+ * without examining every ticket in the map.
+ * Tickets are consumed atomically by computing the new state of the ticket
+ * within the map, which requires the map instance to be a concurrent map.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
@@ -23,6 +34,10 @@ import java.util.function.Predicate;
 @NoArgsConstructor
 public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegistry {
 
+    private final Map<String, Set<String>> principalSessions = new ConcurrentHashMap<>();
+
+    private final Map<String, String> sessionPrincipals = new ConcurrentHashMap<>();
+
     /**
      * Creates a new, empty registry with the cipher.
      *
@@ -37,6 +52,9 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         val encTicket = encodeTicket(ticket);
         LOGGER.debug("Added ticket [{}] to registry.", ticket.getId());
         getMapInstance().put(encTicket.getId(), encTicket);
+        if (ticket instanceof TicketGrantingTicket) {
+            addSessionToPrincipalIndex(encTicket.getId(), (TicketGrantingTicket) ticket);
+        }
     }
 
     @Override
@@ -63,16 +81,56 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
         val encTicketId = encodeTicketId(ticketId);
-        return !StringUtils.isBlank(encTicketId) && getMapInstance().remove(encTicketId) != null;
+        if (StringUtils.isBlank(encTicketId)) {
+            return false;
+        }
+        removeSessionFromPrincipalIndex(encTicketId);
+        return getMapInstance().remove(encTicketId) != null;
+    }
+
+    @Override
+    public Ticket consumeTicket(final String ticketId) {
+        val encTicketId = encodeTicketId(ticketId);
+        if (StringUtils.isBlank(encTicketId)) {
+            return null;
+        }
+        val consumed = new AtomicReference<Ticket>();
+        getMapInstance().computeIfPresent(encTicketId, (key, found) -> {
+            val ticket = decodeTicket(found);
+            if (!consumeTicketState(ticket)) {
+                return found;
+            }
+            consumed.set(ticket);
+            return encodeTicket(ticket);
+        });
+        return consumed.get();
     }
 
     @Override
     public long deleteAll() {
         val size = getMapInstance().size();
         getMapInstance().clear();
+        principalSessions.clear();
+        sessionPrincipals.clear();
         return size;
     }
 
+    @Override
+    public long countSessionsFor(final String principalId) {
+        return getIndexedSessionsFor(principalId)
+            .filter(getMapInstance()::containsKey)
+            .count();
+    }
+
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        return getIndexedSessionsFor(principalId)
+            .map(getMapInstance()::get)
+            .filter(Objects::nonNull)
+            .map(this::decodeTicket)
+            .filter(TicketGrantingTicket.class::isInstance);
+    }
+
     @Override
     public Collection<? extends Ticket> getTickets() {
         return decodeTickets(getMapInstance().values());
@@ -84,6 +142,42 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         return ticket;
     }
 
+    /**
+     * Remove the ticket from the principal session index.
+     *
+     * @param encodedTicketId the encoded ticket id
+     */
+    protected void removeSessionFromPrincipalIndex(final String encodedTicketId) {
+        val principal = sessionPrincipals.remove(encodedTicketId);
+        if (principal != null) {
+            principalSessions.computeIfPresent(principal, (key, sessions) -> {
+                sessions.remove(encodedTicketId);
+                return sessions.isEmpty() ? null : sessions;
+            });
+        }
+    }
+
+    private void addSessionToPrincipalIndex(final String encodedTicketId, final TicketGrantingTicket ticket) {
+        val principal = encodePrincipalId(getPrincipalId(ticket));
+        if (StringUtils.isBlank(principal)) {
+            return;
+        }
+        sessionPrincipals.put(encodedTicketId, principal);
+        principalSessions.compute(principal, (key, sessions) -> {
+            val results = sessions == null ? ConcurrentHashMap.<String>newKeySet() : sessions;
+            results.add(encodedTicketId);
+            return results;
+        });
+    }
+
+    private Stream<String> getIndexedSessionsFor(final String principalId) {
+        val principal = encodePrincipalId(principalId);
+        if (StringUtils.isBlank(principal)) {
+            return Stream.empty();
+        }
+        return principalSessions.getOrDefault(principal, Set.of()).stream();
+    }
+
     /**
      * Create map instance, which must ben created during initialization phases
      * and always be the same instance.
@@ -3,25 +3,34 @@ package org.apereo.cas.ticket.registry;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.serialization.JavaTicketSerializer;
+import org.apereo.cas.ticket.serialization.TicketSerializer;
 import org.apereo.cas.util.DigestUtils;
 import org.apereo.cas.util.crypto.CipherExecutor;
-import org.apereo.cas.util.serialization.SerializationUtils;
 
 import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.Striped;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Predicate;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,11 +48,20 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     private static final String MESSAGE = "Ticket encryption is not enabled. Falling back to default behavior";
 
+    private static final int TICKET_LOCK_STRIPES = 256;
+
+    private final Striped<Lock> ticketLocks = Striped.lazyWeakLock(TICKET_LOCK_STRIPES);
+
     /**
      * The cipher executor for ticket objects.
      */
     protected CipherExecutor cipherExecutor;
 
+    /**
+     * The serializer that turns tickets into bytes before they are encoded.
+     */
+    protected TicketSerializer ticketSerializer = new JavaTicketSerializer();
+
     @Override
     public Ticket getTicket(final String ticketId) {
         return getTicket(ticketId, ticket -> {
@@ -68,6 +86,32 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         return clazz.cast(ticket);
     }
 
+    /**
+     * {@inheritDoc}
+     * Attempts to consume the same ticket are serialized on this node using a lock
+     * that is specific to the ticket; attempts to consume other tickets proceed concurrently.
+     * Registries that are shared across nodes should override this operation
+     * to consume the ticket atomically in the underlying store.
+     */
+    @Override
+    public Ticket consumeTicket(final String ticketId) {
+        if (StringUtils.isBlank(ticketId)) {
+            return null;
+        }
+        val lock = ticketLocks.get(ticketId);
+        lock.lock();
+        try {
+            val ticket = getTicket(ticketId, t -> true);
+            if (!consumeTicketState(ticket)) {
+                return null;
+            }
+            updateTicket(ticket);
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Override
     public long sessionCount() {
         try (val tgtStream = getTicketsStream().filter(TicketGrantingTicket.class::isInstance)) {
@@ -81,14 +125,9 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     @Override
     public long countSessionsFor(final String principalId) {
-        val ticketPredicate = (Predicate<Ticket>) t -> {
-            if (t instanceof TicketGrantingTicket) {
-                val ticket = TicketGrantingTicket.class.cast(t);
-                return ticket.getAuthentication().getPrincipal().getId().equalsIgnoreCase(principalId);
-            }
-            return false;
-        };
-        return getTickets(ticketPredicate).count();
+        try (val sessions = getSessionsFor(principalId)) {
+            return sessions.count();
+        }
     }
     
     @Override
@@ -221,6 +260,94 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         return encodedId;
     }
 
+    /**
+     * Encode principal id into a key that can be used to index
+     * single sign-on sessions for the principal. Principal ids are matched
+     * case-insensitively, and are digested into a SHA-512 if encryption is enabled
+     * so the principal is not kept in the clear by the underlying store.
+     *
+     * @param principalId the principal id
+     * @return the encoded principal id
+     */
+    protected String encodePrincipalId(final String principalId) {
+        val id = StringUtils.lowerCase(principalId, Locale.ROOT);
+        if (!isCipherExecutorEnabled() || StringUtils.isBlank(id)) {
+            return id;
+        }
+        return DigestUtils.sha512(id);
+    }
+
+    /**
+     * Gets the principal id of the given ticket-granting ticket, if it can be determined.
+     *
+     * @param ticket the ticket
+     * @return the principal id or null
+     */
+    protected static String getPrincipalId(final TicketGrantingTicket ticket) {
+        val authentication = ticket.getAuthentication();
+        if (authentication == null || authentication.getPrincipal() == null) {
+            return null;
+        }
+        return authentication.getPrincipal().getId();
+    }
+
+    /**
+     * Gets the earliest instant at which the ticket may be considered expired by its expiration policy,
+     * which is the earliest of the creation time plus the time-to-live and the last-used time
+     * plus the time-to-idle. Tickets that are already expired, or whose expiration policy
+     * does not define either duration, report their last-used time
+     * so they always remain candidates for expiration.
+     *
+     * @param ticket the ticket
+     * @return the expiration time
+     */
+    protected static Instant getExpirationTime(final Ticket ticket) {
+        val creationTime = Optional.ofNullable(ticket.getCreationTime()).map(ZonedDateTime::toInstant).orElse(Instant.EPOCH);
+        val lastTimeUsed = ticket instanceof TicketState
+            ? Optional.ofNullable(((TicketState) ticket).getLastTimeUsed()).map(ZonedDateTime::toInstant).orElse(creationTime)
+            : creationTime;
+        val policy = ticket.getExpirationPolicy();
+        if (policy == null || ticket.isExpired()) {
+            return lastTimeUsed;
+        }
+        val timeToLive = ticket instanceof TicketState ? policy.getTimeToLive((TicketState) ticket) : policy.getTimeToLive();
+        val expirationTimes = Stream.of(plusSeconds(creationTime, timeToLive), plusSeconds(lastTimeUsed, policy.getTimeToIdle()))
+            .flatMap(Optional::stream)
+            .min(Instant::compareTo);
+        return expirationTimes.orElse(lastTimeUsed);
+    }
+
+    /**
+     * Record a use of the ticket, provided the ticket is present and not yet expired.
+     *
+     * @param ticket the ticket
+     * @return true if the ticket was consumed, false otherwise
+     */
+    protected static boolean consumeTicketState(final Ticket ticket) {
+        if (!(ticket instanceof TicketState)) {
+            LOGGER.debug("Ticket [{}] cannot be found or does not track its usage, and cannot be consumed", ticket);
+            return false;
+        }
+        if (ticket.isExpired()) {
+            LOGGER.debug("Ticket [{}] has expired and cannot be consumed", ticket.getId());
+            return false;
+        }
+        ((TicketState) ticket).update();
+        return true;
+    }
+
+    private static Optional<Instant> plusSeconds(final Instant instant, final Long seconds) {
+        if (seconds == null || seconds <= 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(instant.plusSeconds(seconds));
+        } catch (final DateTimeException | ArithmeticException e) {
+            LOGGER.trace("Unable to calculate expiration time of [{}] seconds: [{}]", seconds, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     /**
      * Encode ticket.
      *
@@ -238,7 +365,7 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
             return null;
         }
         LOGGER.debug("Encoding ticket [{}]", ticket);
-        val encodedTicketObject = SerializationUtils.serializeAndEncodeObject(this.cipherExecutor, ticket);
+        val encodedTicketObject = (byte[]) this.cipherExecutor.encode(ticketSerializer.serialize(ticket), ArrayUtils.EMPTY_OBJECT_ARRAY);
         val encodedTicketId = encodeTicketId(ticket.getId());
         val encodedTicket = new EncodedTicket(encodedTicketId,
             ByteSource.wrap(encodedTicketObject).read(), ticket.getPrefix());
@@ -268,7 +395,8 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         }
         LOGGER.debug("Attempting to decode [{}]", result);
         val encodedTicket = (EncodedTicket) result;
-        val ticket = SerializationUtils.decodeAndDeserializeObject(encodedTicket.getEncodedTicket(), this.cipherExecutor, Ticket.class);
+        val decoded = (byte[]) this.cipherExecutor.decode(encodedTicket.getEncodedTicket(), ArrayUtils.EMPTY_OBJECT_ARRAY);
+        val ticket = ticketSerializer.deserialize(decoded);
         LOGGER.debug("Decoded ticket to [{}]", ticket);
         return ticket;
     }
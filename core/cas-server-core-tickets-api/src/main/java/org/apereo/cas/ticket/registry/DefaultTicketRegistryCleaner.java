@@ -5,28 +5,55 @@ import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
 
-import lombok.RequiredArgsConstructor;
+import com.google.common.collect.Iterators;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link DefaultTicketRegistryCleaner}.
+ * The cleaner asks the ticket registry for tickets that are candidates for expiration,
+ * and processes them in bounded batches. The cost of each run, i.e. the number of candidates
+ * examined, the number of tickets removed and the duration of the run, is recorded as metrics.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
 @Transactional(transactionManager = "ticketTransactionManager")
 @Slf4j
-@RequiredArgsConstructor
 public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner, Serializable {
     private static final long serialVersionUID = -8581398063126547772L;
 
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String METRIC_NAME_PREFIX = "cas.ticket.registry.cleaner.";
+
     private final transient LockingStrategy lockingStrategy;
     private final transient LogoutManager logoutManager;
     private final transient TicketRegistry ticketRegistry;
+    private final int batchSize;
+
+    public DefaultTicketRegistryCleaner(final LockingStrategy lockingStrategy,
+                                        final LogoutManager logoutManager,
+                                        final TicketRegistry ticketRegistry) {
+        this(lockingStrategy, logoutManager, ticketRegistry, DEFAULT_BATCH_SIZE);
+    }
+
+    public DefaultTicketRegistryCleaner(final LockingStrategy lockingStrategy,
+                                        final LogoutManager logoutManager,
+                                        final TicketRegistry ticketRegistry,
+                                        final int batchSize) {
+        this.lockingStrategy = lockingStrategy;
+        this.logoutManager = logoutManager;
+        this.ticketRegistry = ticketRegistry;
+        this.batchSize = Math.max(batchSize, 1);
+    }
 
     @Override
     public int clean() {
@@ -63,13 +90,45 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner, Seri
      * @return the int
      */
     protected int cleanInternal() {
-        try (val expiredTickets = ticketRegistry.getTicketsStream().filter(Ticket::isExpired)) {
-            val ticketsDeleted = expiredTickets
-                .mapToInt(this::cleanTicket)
-                .sum();
-            LOGGER.info("[{}] expired tickets removed.", ticketsDeleted);
-            return ticketsDeleted;
+        val startTime = System.nanoTime();
+        var candidatesExamined = 0;
+        var ticketsDeleted = 0;
+        try (val candidates = ticketRegistry.getTicketsExpiringBefore(Instant.now())) {
+            val batches = Iterators.partition(candidates.iterator(), batchSize);
+            while (batches.hasNext()) {
+                val batch = batches.next();
+                candidatesExamined += batch.size();
+                val deleted = batch.stream()
+                    .filter(Ticket::isExpired)
+                    .mapToInt(this::cleanTicket)
+                    .sum();
+                LOGGER.debug("Examined [{}] ticket(s) as expiration candidates and removed [{}] ticket(s)", batch.size(), deleted);
+                ticketsDeleted += deleted;
+            }
+        } finally {
+            val duration = System.nanoTime() - startTime;
+            recordMetrics(candidatesExamined, ticketsDeleted, duration);
         }
+        LOGGER.info("[{}] expired tickets removed.", ticketsDeleted);
+        return ticketsDeleted;
+    }
+
+    /**
+     * Record the cost of the cleaner run as metrics.
+     *
+     * @param candidatesExamined the candidates examined
+     * @param ticketsDeleted     the tickets deleted
+     * @param duration           the duration in nanoseconds
+     */
+    protected void recordMetrics(final int candidatesExamined, final int ticketsDeleted, final long duration) {
+        LOGGER.debug("Ticket registry cleaner examined [{}] candidate(s) and removed [{}] ticket(s) in [{}] ms",
+            candidatesExamined, ticketsDeleted, TimeUnit.NANOSECONDS.toMillis(duration));
+        Metrics.counter(METRIC_NAME_PREFIX + "candidates").increment(candidatesExamined);
+        Metrics.counter(METRIC_NAME_PREFIX + "removed").increment(ticketsDeleted);
+        Timer.builder(METRIC_NAME_PREFIX + "duration")
+            .description("Duration of ticket registry cleaner runs")
+            .register(Metrics.globalRegistry)
+            .record(duration, TimeUnit.NANOSECONDS);
     }
 
     @Override
@@ -0,0 +1,311 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link NearCacheTicketRegistry}, which decorates a distributed ticket registry
+ * with a bounded local cache of decoded ticket-granting tickets. Ticket-granting tickets are read
+ * far more often than they are changed, and the cache allows reads to skip the round-trip
+ * to the underlying store as well as decoding the ticket.
+ * <p>
+ * Changes to ticket-granting tickets made on this node are announced to other nodes
+ * using the {@link TicketRegistryInvalidationChannel}, and notices received from other nodes evict the ticket
+ * from the cache. Every invalidation records a new stamp for the ticket, and a ticket is only cached
+ * if its stamp did not change while the ticket was loaded, so that a stale copy does not replace the invalidated one.
+ * Invalidations of other tickets do not prevent a ticket from being cached.
+ * Entries are also dropped once they reach their time-to-live, which bounds staleness should a notice be lost.
+ * <p>
+ * Similar to the default in-memory registry, cached tickets are shared by the callers on this node.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+@Getter
+public class NearCacheTicketRegistry implements TicketRegistry, DisposableBean {
+    private static final String METRIC_NAME_PREFIX = "cas.ticket.registry.near-cache.";
+
+    private final TicketRegistry delegate;
+
+    private final TicketRegistryInvalidationChannel invalidationChannel;
+
+    private final boolean readYourWrites;
+
+    private final Cache<String, CachedTicket> cache;
+
+    private final Cache<String, Long> stamps;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong clearedAt = new AtomicLong();
+
+    public NearCacheTicketRegistry(final TicketRegistry delegate,
+                                   final TicketRegistryInvalidationChannel invalidationChannel,
+                                   final long maxSize,
+                                   final Duration timeToLive,
+                                   final boolean readYourWrites) {
+        this.delegate = delegate;
+        this.invalidationChannel = invalidationChannel;
+        this.readYourWrites = readYourWrites;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(timeToLive)
+            .build();
+        this.stamps = Caffeine.newBuilder()
+            .expireAfterWrite(timeToLive)
+            .build();
+        this.invalidationChannel.subscribe(ticketId -> {
+            LOGGER.trace("Received invalidation notice for ticket [{}]", ticketId);
+            Metrics.counter(METRIC_NAME_PREFIX + "invalidations", "source", "remote").increment();
+            evict(ticketId);
+        });
+    }
+
+    private static boolean isCacheable(final Ticket ticket) {
+        return ticket instanceof TicketGrantingTicket && !(ticket instanceof ProxyGrantingTicket);
+    }
+
+    private static boolean isCacheable(final String ticketId) {
+        return StringUtils.startsWith(ticketId, TicketGrantingTicket.PREFIX);
+    }
+
+    @Override
+    public void addTicket(final Ticket ticket) {
+        delegate.addTicket(ticket);
+        written(ticket);
+    }
+
+    @Override
+    public Ticket updateTicket(final Ticket ticket) {
+        val result = delegate.updateTicket(ticket);
+        written(ticket);
+        return result;
+    }
+
+    @Override
+    public void addAndUpdate(final Collection<Ticket> ticketsToAdd, final Collection<Ticket> ticketsToUpdate) {
+        delegate.addAndUpdate(ticketsToAdd, ticketsToUpdate);
+        ticketsToUpdate.forEach(this::written);
+        ticketsToAdd.forEach(this::written);
+    }
+
+    @Override
+    public Ticket consumeTicket(final String ticketId) {
+        val ticket = delegate.consumeTicket(ticketId);
+        if (ticket != null) {
+            written(ticket);
+        }
+        return ticket;
+    }
+
+    @Override
+    public Ticket getTicket(final String ticketId) {
+        val cached = getCachedTicket(ticketId);
+        if (cached != null) {
+            return cached;
+        }
+        return load(ticketId, () -> delegate.getTicket(ticketId));
+    }
+
+    @Override
+    public <T extends Ticket> T getTicket(final String ticketId, final @NonNull Class<T> clazz) {
+        val ticket = getTicket(ticketId);
+        if (ticket == null) {
+            return null;
+        }
+        if (!clazz.isAssignableFrom(ticket.getClass())) {
+            throw new ClassCastException("Ticket [" + ticket.getId() + " is of type " + ticket.getClass() + " when we were expecting " + clazz);
+        }
+        return clazz.cast(ticket);
+    }
+
+    @Override
+    public Ticket getTicket(final String ticketId, final Predicate<Ticket> predicate) {
+        val cached = getCachedTicket(ticketId);
+        if (cached != null && predicate.test(cached)) {
+            return cached;
+        }
+        return load(ticketId, () -> delegate.getTicket(ticketId, predicate));
+    }
+
+    @Override
+    public int deleteTicket(final String ticketId) {
+        val count = delegate.deleteTicket(ticketId);
+        invalidate(ticketId);
+        return count;
+    }
+
+    @Override
+    public int deleteTicket(final Ticket ticket) {
+        val count = delegate.deleteTicket(ticket);
+        invalidate(ticket.getId());
+        return count;
+    }
+
+    @Override
+    public long deleteAll() {
+        val count = delegate.deleteAll();
+        clearedAt.set(sequence.incrementAndGet());
+        stamps.invalidateAll();
+        cache.invalidateAll();
+        return count;
+    }
+
+    @Override
+    public Collection<? extends Ticket> getTickets() {
+        return delegate.getTickets();
+    }
+
+    @Override
+    public Stream<? extends Ticket> getTickets(final Predicate<Ticket> predicate) {
+        return delegate.getTickets(predicate);
+    }
+
+    @Override
+    public Stream<? extends Ticket> getTicketsStream() {
+        return delegate.getTicketsStream();
+    }
+
+    @Override
+    public Stream<? extends Ticket> getTicketsExpiringBefore(final Instant instant) {
+        return delegate.getTicketsExpiringBefore(instant);
+    }
+
+    @Override
+    public long sessionCount() {
+        return delegate.sessionCount();
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return delegate.serviceTicketCount();
+    }
+
+    @Override
+    public long countSessionsFor(final String principalId) {
+        return delegate.countSessionsFor(principalId);
+    }
+
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        return delegate.getSessionsFor(principalId);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (invalidationChannel instanceof AutoCloseable) {
+            ((AutoCloseable) invalidationChannel).close();
+        }
+        if (delegate instanceof DisposableBean) {
+            ((DisposableBean) delegate).destroy();
+        } else if (delegate instanceof AutoCloseable) {
+            ((AutoCloseable) delegate).close();
+        }
+    }
+
+    private Ticket getCachedTicket(final String ticketId) {
+        if (!isCacheable(ticketId)) {
+            return null;
+        }
+        val cached = cache.getIfPresent(ticketId);
+        if (cached == null) {
+            Metrics.counter(METRIC_NAME_PREFIX + "misses").increment();
+            return null;
+        }
+        if (cached.getTicket().isExpired()) {
+            LOGGER.trace("Cached ticket [{}] has expired and will be loaded from the registry", ticketId);
+            cache.asMap().remove(ticketId, cached);
+            Metrics.counter(METRIC_NAME_PREFIX + "misses").increment();
+            return null;
+        }
+        Metrics.counter(METRIC_NAME_PREFIX + "hits").increment();
+        Timer.builder(METRIC_NAME_PREFIX + "staleness")
+            .description("Age of ticket-granting tickets served from the near-cache")
+            .register(Metrics.globalRegistry)
+            .record(System.nanoTime() - cached.getLoadedAt(), TimeUnit.NANOSECONDS);
+        return cached.getTicket();
+    }
+
+    private Ticket load(final String ticketId, final Supplier<Ticket> loader) {
+        val loadedStamp = getStamp(ticketId);
+        val ticket = loader.get();
+        if (isCacheable(ticket) && !ticket.isExpired() && isCacheable(ticketId)) {
+            cache.asMap().compute(ticketId, (id, current) -> {
+                if (getStamp(ticketId) != loadedStamp) {
+                    LOGGER.trace("Ticket [{}] was invalidated while it was loaded and will not be cached", ticketId);
+                    return current;
+                }
+                return new CachedTicket(ticket, System.nanoTime());
+            });
+        }
+        return ticket;
+    }
+
+    /**
+     * Gets the stamp of the latest invalidation of the ticket. Stamps are taken from a single sequence,
+     * so that the stamp of a ticket changes with every invalidation of the ticket and with every removal of all tickets.
+     * Stamps are kept for as long as cached tickets, and a ticket whose stamp is dropped while it is loaded is simply not cached.
+     *
+     * @param ticketId the ticket id
+     * @return the stamp
+     */
+    private long getStamp(final String ticketId) {
+        val stamp = stamps.getIfPresent(ticketId);
+        return stamp != null ? stamp : clearedAt.get();
+    }
+
+    private void written(final Ticket ticket) {
+        if (!isCacheable(ticket)) {
+            return;
+        }
+        val ticketId = ticket.getId();
+        invalidate(ticketId);
+        if (readYourWrites && !ticket.isExpired()) {
+            cache.put(ticketId, new CachedTicket(ticket, System.nanoTime()));
+        }
+    }
+
+    private void invalidate(final String ticketId) {
+        if (isCacheable(ticketId)) {
+            Metrics.counter(METRIC_NAME_PREFIX + "invalidations", "source", "local").increment();
+            evict(ticketId);
+            invalidationChannel.publish(ticketId);
+        }
+    }
+
+    private void evict(final String ticketId) {
+        stamps.put(ticketId, sequence.incrementAndGet());
+        cache.invalidate(ticketId);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class CachedTicket {
+        private final Ticket ticket;
+
+        private final long loadedAt;
+    }
+}
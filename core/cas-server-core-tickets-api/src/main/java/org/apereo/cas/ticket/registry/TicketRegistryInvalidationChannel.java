@@ -0,0 +1,46 @@
+package org.apereo.cas.ticket.registry;
+
+import java.util.function.Consumer;
+
+/**
+ * This is {@link TicketRegistryInvalidationChannel}, which carries notices of ticket changes
+ * between the nodes that share a ticket registry, so that each node is able to
+ * discard the copies of the ticket it may have cached locally.
+ * Channels are expected to deliver notices to other nodes only, and not back to the publishing node.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+public interface TicketRegistryInvalidationChannel {
+
+    /**
+     * Channel that does not deliver notices to any other node.
+     *
+     * @return the ticket registry invalidation channel
+     */
+    static TicketRegistryInvalidationChannel noOp() {
+        return new TicketRegistryInvalidationChannel() {
+            @Override
+            public void publish(final String ticketId) {
+            }
+
+            @Override
+            public void subscribe(final Consumer<String> listener) {
+            }
+        };
+    }
+
+    /**
+     * Publish a notice that the ticket has changed or was removed.
+     *
+     * @param ticketId the ticket id
+     */
+    void publish(String ticketId);
+
+    /**
+     * Subscribe to notices published by other nodes.
+     *
+     * @param listener the listener that receives the ticket id
+     */
+    void subscribe(Consumer<String> listener);
+}
@@ -0,0 +1,792 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.DefaultMessageDescriptor;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.AuthenticationHandlerExecutionResult;
+import org.apereo.cas.authentication.Credential;
+import org.apereo.cas.authentication.CredentialMetaData;
+import org.apereo.cas.authentication.DefaultAuthentication;
+import org.apereo.cas.authentication.DefaultAuthenticationHandlerExecutionResult;
+import org.apereo.cas.authentication.MessageDescriptor;
+import org.apereo.cas.authentication.metadata.BasicCredentialMetaData;
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.authentication.principal.PrincipalFactory;
+import org.apereo.cas.authentication.principal.PrincipalFactoryUtils;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.authentication.principal.SimplePrincipal;
+import org.apereo.cas.authentication.principal.SimpleWebApplicationServiceImpl;
+import org.apereo.cas.ticket.AbstractTicket;
+import org.apereo.cas.ticket.ExpirationPolicy;
+import org.apereo.cas.ticket.ProxyGrantingTicketImpl;
+import org.apereo.cas.ticket.ProxyTicketImpl;
+import org.apereo.cas.ticket.ServiceTicketImpl;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.TransientSessionTicketImpl;
+import org.apereo.cas.ticket.expiration.AbstractCasExpirationPolicy;
+import org.apereo.cas.ticket.expiration.AlwaysExpiresExpirationPolicy;
+import org.apereo.cas.ticket.expiration.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.expiration.RememberMeDelegatingExpirationPolicy;
+import org.apereo.cas.ticket.expiration.ThrottledUseAndTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.TicketGrantingTicketExpirationPolicy;
+import org.apereo.cas.ticket.expiration.TimeoutExpirationPolicy;
+import org.apereo.cas.validation.ValidationResponseType;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This is {@link CompactTicketSerializer} that serializes the core ticket types
+ * (ticket-granting, proxy-granting, service, proxy and transient session tickets)
+ * using a fixed binary schema. The ticket state along with its authentication, principal, attributes,
+ * services and expiration policy is written field by field in a known order, which avoids the class
+ * descriptors, field names and collection internals that native Java serialization records for every ticket.
+ * <p>
+ * Only the types that have a schema here are written in the compact format. Tickets whose object graph
+ * carries any other type, such as ticket types, principals, services or expiration policies provided by
+ * other modules, authentication failures or attribute values that are not simple scalars, are written entirely
+ * using Java serialization instead. Compact data starts with a header that identifies the format and its version;
+ * data that does not carry the header is read as a natively-serialized ticket, so tickets stored prior to
+ * switching the format can still be read.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class CompactTicketSerializer implements TicketSerializer {
+    private static final byte[] HEADER = {(byte) 0xCA, (byte) 0x5C};
+
+    private static final byte VERSION = 2;
+
+    private static final byte TYPE_NONE = 0;
+
+    private static final byte TYPE_TICKET_GRANTING_TICKET = 2;
+
+    private static final byte TYPE_PROXY_GRANTING_TICKET = 3;
+
+    private static final byte TYPE_SERVICE_TICKET = 4;
+
+    private static final byte TYPE_PROXY_TICKET = 5;
+
+    private static final byte TYPE_TRANSIENT_SESSION_TICKET = 6;
+
+    private static final Map<Class<?>, Byte> TICKET_TYPES = Map.of(
+        TicketGrantingTicketImpl.class, TYPE_TICKET_GRANTING_TICKET,
+        ProxyGrantingTicketImpl.class, TYPE_PROXY_GRANTING_TICKET,
+        ServiceTicketImpl.class, TYPE_SERVICE_TICKET,
+        ProxyTicketImpl.class, TYPE_PROXY_TICKET,
+        TransientSessionTicketImpl.class, TYPE_TRANSIENT_SESSION_TICKET);
+
+    private static final byte POLICY_NONE = 0;
+
+    private static final byte POLICY_NEVER_EXPIRES = 1;
+
+    private static final byte POLICY_ALWAYS_EXPIRES = 2;
+
+    private static final byte POLICY_HARD_TIMEOUT = 3;
+
+    private static final byte POLICY_TIMEOUT = 4;
+
+    private static final byte POLICY_MULTI_TIME_USE_OR_TIMEOUT = 5;
+
+    private static final byte POLICY_SERVICE_TICKET = 6;
+
+    private static final byte POLICY_PROXY_TICKET = 7;
+
+    private static final byte POLICY_TICKET_GRANTING_TICKET = 8;
+
+    private static final byte POLICY_THROTTLED_USE_AND_TIMEOUT = 9;
+
+    private static final byte POLICY_REMEMBER_ME = 10;
+
+    private static final Map<Class<?>, Byte> EXPIRATION_POLICY_TYPES = Map.of(
+        NeverExpiresExpirationPolicy.class, POLICY_NEVER_EXPIRES,
+        AlwaysExpiresExpirationPolicy.class, POLICY_ALWAYS_EXPIRES,
+        HardTimeoutExpirationPolicy.class, POLICY_HARD_TIMEOUT,
+        TimeoutExpirationPolicy.class, POLICY_TIMEOUT,
+        MultiTimeUseOrTimeoutExpirationPolicy.class, POLICY_MULTI_TIME_USE_OR_TIMEOUT,
+        MultiTimeUseOrTimeoutExpirationPolicy.ServiceTicketExpirationPolicy.class, POLICY_SERVICE_TICKET,
+        MultiTimeUseOrTimeoutExpirationPolicy.ProxyTicketExpirationPolicy.class, POLICY_PROXY_TICKET,
+        TicketGrantingTicketExpirationPolicy.class, POLICY_TICKET_GRANTING_TICKET,
+        ThrottledUseAndTimeoutExpirationPolicy.class, POLICY_THROTTLED_USE_AND_TIMEOUT,
+        RememberMeDelegatingExpirationPolicy.class, POLICY_REMEMBER_ME);
+
+    private static final byte VALUE_NULL = 0;
+
+    private static final byte VALUE_STRING = 1;
+
+    private static final byte VALUE_BOOLEAN = 2;
+
+    private static final byte VALUE_INTEGER = 3;
+
+    private static final byte VALUE_LONG = 4;
+
+    private static final byte VALUE_DOUBLE = 5;
+
+    private static final byte VALUE_DATE_TIME = 6;
+
+    private static final PrincipalFactory PRINCIPAL_FACTORY = PrincipalFactoryUtils.newPrincipalFactory();
+
+    private final TicketSerializer javaTicketSerializer = new JavaTicketSerializer();
+
+    private static boolean hasHeader(final byte[] data) {
+        return data.length > HEADER.length && data[0] == HEADER[0] && data[1] == HEADER[1];
+    }
+
+    private static void ensureType(final Object value, final Class<?> type) {
+        if (value.getClass() != type) {
+            throw new UnsupportedTypeException(value.getClass());
+        }
+    }
+
+    private static void writeTicket(final DataOutput out, final Ticket ticket) throws IOException {
+        if (ticket == null) {
+            out.writeByte(TYPE_NONE);
+            return;
+        }
+        val type = Optional.ofNullable(TICKET_TYPES.get(ticket.getClass()))
+            .orElseThrow(() -> new UnsupportedTypeException(ticket.getClass()));
+        out.writeByte(type);
+        switch (type) {
+            case TYPE_TICKET_GRANTING_TICKET:
+            case TYPE_PROXY_GRANTING_TICKET:
+                writeTicketGrantingTicket(out, (TicketGrantingTicketImpl) ticket);
+                break;
+            case TYPE_SERVICE_TICKET:
+            case TYPE_PROXY_TICKET:
+                writeServiceTicket(out, (ServiceTicketImpl) ticket);
+                break;
+            default:
+                writeTransientSessionTicket(out, (TransientSessionTicketImpl) ticket);
+                break;
+        }
+    }
+
+    private static Ticket readTicket(final DataInput in) throws IOException, ClassNotFoundException {
+        val type = in.readByte();
+        switch (type) {
+            case TYPE_NONE:
+                return null;
+            case TYPE_TICKET_GRANTING_TICKET:
+            case TYPE_PROXY_GRANTING_TICKET:
+                return readTicketGrantingTicket(in, type == TYPE_PROXY_GRANTING_TICKET);
+            case TYPE_SERVICE_TICKET:
+            case TYPE_PROXY_TICKET:
+                return readServiceTicket(in, type == TYPE_PROXY_TICKET);
+            case TYPE_TRANSIENT_SESSION_TICKET:
+                return readTransientSessionTicket(in);
+            default:
+                throw new IOException("Unrecognized ticket type " + type);
+        }
+    }
+
+    private static void writeTicketGrantingTicket(final DataOutput out, final TicketGrantingTicketImpl ticket) throws IOException {
+        writeTicketState(out, ticket);
+        writeAuthentication(out, ticket.getAuthentication());
+        writeService(out, ticket.getProxiedBy());
+        writeTicket(out, ticket.getTicketGrantingTicket());
+        writeServices(out, ticket.getServices());
+        writeServices(out, ticket.getProxyGrantingTickets());
+        writeStrings(out, ticket.getDescendantTickets());
+    }
+
+    private static TicketGrantingTicketImpl readTicketGrantingTicket(final DataInput in, final boolean proxyGrantingTicket)
+        throws IOException, ClassNotFoundException {
+        val state = readTicketState(in);
+        val authentication = readAuthentication(in);
+        val proxiedBy = readService(in);
+        val parent = (TicketGrantingTicket) readTicket(in);
+        val ticket = proxyGrantingTicket
+            ? new ProxyGrantingTicketImpl(state.id, proxiedBy, parent, authentication, state.expirationPolicy)
+            : new TicketGrantingTicketImpl(state.id, proxiedBy, parent, authentication, state.expirationPolicy);
+        readServices(in, ticket.getServices());
+        readServices(in, ticket.getProxyGrantingTickets());
+        readStrings(in, ticket.getDescendantTickets());
+        return state.applyTo(ticket);
+    }
+
+    private static void writeServiceTicket(final DataOutput out, final ServiceTicketImpl ticket) throws IOException {
+        writeTicketState(out, ticket);
+        writeTicket(out, ticket.getTicketGrantingTicket());
+        writeService(out, ticket.getService());
+        out.writeBoolean(ticket.isFromNewLogin());
+        out.writeBoolean(Boolean.TRUE.equals(ticket.getGrantedTicketAlready()));
+    }
+
+    private static ServiceTicketImpl readServiceTicket(final DataInput in, final boolean proxyTicket)
+        throws IOException, ClassNotFoundException {
+        val state = readTicketState(in);
+        val parent = (TicketGrantingTicket) readTicket(in);
+        val service = readService(in);
+        val fromNewLogin = in.readBoolean();
+        val ticket = proxyTicket
+            ? new ProxyTicketImpl(state.id, parent, service, fromNewLogin, state.expirationPolicy)
+            : new ServiceTicketImpl(state.id, parent, service, fromNewLogin, state.expirationPolicy);
+        ticket.setFromNewLogin(fromNewLogin);
+        ticket.setGrantedTicketAlready(in.readBoolean());
+        return state.applyTo(ticket);
+    }
+
+    private static void writeTransientSessionTicket(final DataOutput out, final TransientSessionTicketImpl ticket) throws IOException {
+        writeTicketState(out, ticket);
+        writeService(out, ticket.getService());
+        val properties = ticket.getProperties();
+        out.writeInt(properties.size());
+        for (val entry : properties.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static TransientSessionTicketImpl readTransientSessionTicket(final DataInput in) throws IOException, ClassNotFoundException {
+        val state = readTicketState(in);
+        val service = readService(in);
+        val ticket = new TransientSessionTicketImpl(state.id, state.expirationPolicy, service);
+        val size = in.readInt();
+        for (var i = 0; i < size; i++) {
+            val key = readString(in);
+            ticket.put(key, (Serializable) readValue(in));
+        }
+        return state.applyTo(ticket);
+    }
+
+    private static void writeTicketState(final DataOutput out, final AbstractTicket ticket) throws IOException {
+        writeString(out, ticket.getId());
+        writeExpirationPolicy(out, ticket.getExpirationPolicy());
+        writeDateTime(out, ticket.getCreationTime());
+        writeDateTime(out, ticket.getLastTimeUsed());
+        writeDateTime(out, ticket.getPreviousTimeUsed());
+        out.writeInt(ticket.getCountOfUses());
+        out.writeBoolean(ticket.isExpiredInternal());
+    }
+
+    private static TicketStateFields readTicketState(final DataInput in) throws IOException {
+        val state = new TicketStateFields();
+        state.id = readString(in);
+        state.expirationPolicy = readExpirationPolicy(in);
+        state.creationTime = readDateTime(in);
+        state.lastTimeUsed = readDateTime(in);
+        state.previousTimeUsed = readDateTime(in);
+        state.countOfUses = in.readInt();
+        state.expired = in.readBoolean();
+        return state;
+    }
+
+    private static void writeAuthentication(final DataOutput out, final Authentication authentication) throws IOException {
+        out.writeBoolean(authentication != null);
+        if (authentication == null) {
+            return;
+        }
+        ensureType(authentication, DefaultAuthentication.class);
+        val failures = authentication.getFailures();
+        if (failures != null && !failures.isEmpty()) {
+            throw new UnsupportedTypeException(Throwable.class);
+        }
+        writeDateTime(out, authentication.getAuthenticationDate());
+        writePrincipal(out, authentication.getPrincipal());
+        writeAttributes(out, authentication.getAttributes());
+
+        val credentials = authentication.getCredentials();
+        out.writeInt(credentials == null ? -1 : credentials.size());
+        if (credentials != null) {
+            for (val credential : credentials) {
+                writeCredentialMetaData(out, credential);
+            }
+        }
+        val successes = authentication.getSuccesses();
+        out.writeInt(successes.size());
+        for (val entry : successes.entrySet()) {
+            writeString(out, entry.getKey());
+            writeHandlerResult(out, entry.getValue());
+        }
+        writeWarnings(out, authentication.getWarnings());
+    }
+
+    private static Authentication readAuthentication(final DataInput in) throws IOException, ClassNotFoundException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        val authenticationDate = readDateTime(in);
+        val principal = readPrincipal(in);
+        val attributes = readAttributes(in, new LinkedHashMap<String, List<Object>>());
+
+        val credentialCount = in.readInt();
+        val credentials = credentialCount < 0 ? null : new ArrayList<CredentialMetaData>(credentialCount);
+        for (var i = 0; i < credentialCount; i++) {
+            credentials.add(readCredentialMetaData(in));
+        }
+        val successCount = in.readInt();
+        val successes = new LinkedHashMap<String, AuthenticationHandlerExecutionResult>(successCount);
+        for (var i = 0; i < successCount; i++) {
+            val key = readString(in);
+            successes.put(key, readHandlerResult(in));
+        }
+        val warnings = readWarnings(in);
+        if (credentials == null) {
+            return new DefaultAuthentication(authenticationDate, principal, attributes, successes, warnings);
+        }
+        return new DefaultAuthentication(authenticationDate, credentials, principal, attributes,
+            successes, new LinkedHashMap<>(0), warnings);
+    }
+
+    private static void writePrincipal(final DataOutput out, final Principal principal) throws IOException {
+        out.writeBoolean(principal != null);
+        if (principal != null) {
+            ensureType(principal, SimplePrincipal.class);
+            writeString(out, principal.getId());
+            writeAttributes(out, principal.getAttributes());
+        }
+    }
+
+    private static Principal readPrincipal(final DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        val id = readString(in);
+        return PRINCIPAL_FACTORY.createPrincipal(id, readAttributes(in, new HashMap<String, List<Object>>()));
+    }
+
+    private static void writeCredentialMetaData(final DataOutput out, final CredentialMetaData metadata) throws IOException {
+        out.writeBoolean(metadata != null);
+        if (metadata != null) {
+            ensureType(metadata, BasicCredentialMetaData.class);
+            val basic = (BasicCredentialMetaData) metadata;
+            writeString(out, basic.getId());
+            writeString(out, basic.getCredentialClass() == null ? null : basic.getCredentialClass().getName());
+            writeBytes(out, basic.getCredentialInstance());
+        }
+    }
+
+    private static CredentialMetaData readCredentialMetaData(final DataInput in) throws IOException, ClassNotFoundException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        val id = readString(in);
+        val className = readString(in);
+        val credentialClass = className == null ? null : getCredentialClass(className);
+        return new BasicCredentialMetaData(id, credentialClass, readBytes(in));
+    }
+
+    private static Class<? extends Credential> getCredentialClass(final String className) throws ClassNotFoundException, InvalidClassException {
+        val clazz = Class.forName(className, false, CompactTicketSerializer.class.getClassLoader());
+        if (!Credential.class.isAssignableFrom(clazz)) {
+            throw new InvalidClassException(className, "Class is not a credential type");
+        }
+        return clazz.asSubclass(Credential.class);
+    }
+
+    private static void writeHandlerResult(final DataOutput out, final AuthenticationHandlerExecutionResult result) throws IOException {
+        ensureType(result, DefaultAuthenticationHandlerExecutionResult.class);
+        writeString(out, result.getHandlerName());
+        writeCredentialMetaData(out, result.getCredentialMetaData());
+        writePrincipal(out, result.getPrincipal());
+        writeWarnings(out, result.getWarnings());
+    }
+
+    private static AuthenticationHandlerExecutionResult readHandlerResult(final DataInput in) throws IOException, ClassNotFoundException {
+        val handlerName = readString(in);
+        val metadata = readCredentialMetaData(in);
+        val principal = readPrincipal(in);
+        return new DefaultAuthenticationHandlerExecutionResult(handlerName, metadata, principal, readWarnings(in));
+    }
+
+    private static void writeWarnings(final DataOutput out, final List<MessageDescriptor> warnings) throws IOException {
+        out.writeInt(warnings.size());
+        for (val warning : warnings) {
+            ensureType(warning, DefaultMessageDescriptor.class);
+            writeString(out, warning.getCode());
+            writeString(out, warning.getDefaultMessage());
+            val params = warning.getParams();
+            out.writeInt(params == null ? -1 : params.length);
+            if (params != null) {
+                for (val param : params) {
+                    writeValue(out, param);
+                }
+            }
+        }
+    }
+
+    private static List<MessageDescriptor> readWarnings(final DataInput in) throws IOException {
+        val size = in.readInt();
+        val warnings = new ArrayList<MessageDescriptor>(size);
+        for (var i = 0; i < size; i++) {
+            val code = readString(in);
+            val defaultMessage = readString(in);
+            val paramCount = in.readInt();
+            val params = paramCount < 0 ? null : new Serializable[paramCount];
+            for (var j = 0; j < paramCount; j++) {
+                params[j] = (Serializable) readValue(in);
+            }
+            warnings.add(new DefaultMessageDescriptor(code, defaultMessage, params));
+        }
+        return warnings;
+    }
+
+    private static void writeService(final DataOutput out, final Service service) throws IOException {
+        out.writeBoolean(service != null);
+        if (service == null) {
+            return;
+        }
+        ensureType(service, SimpleWebApplicationServiceImpl.class);
+        val webApplicationService = (SimpleWebApplicationServiceImpl) service;
+        writeString(out, webApplicationService.getId());
+        writeString(out, webApplicationService.getOriginalUrl());
+        writeString(out, webApplicationService.getArtifactId());
+        writeString(out, webApplicationService.getPrincipal());
+        writeString(out, webApplicationService.getSource());
+        out.writeBoolean(webApplicationService.isLoggedOutAlready());
+        writeString(out, webApplicationService.getFormat() == null ? null : webApplicationService.getFormat().name());
+        writeAttributes(out, webApplicationService.getAttributes());
+    }
+
+    private static Service readService(final DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        val service = new SimpleWebApplicationServiceImpl();
+        service.setId(readString(in));
+        service.setOriginalUrl(readString(in));
+        service.setArtifactId(readString(in));
+        service.setPrincipal(readString(in));
+        service.setSource(readString(in));
+        service.setLoggedOutAlready(in.readBoolean());
+        val format = readString(in);
+        service.setFormat(format == null ? null : ValidationResponseType.valueOf(format));
+        service.setAttributes(readAttributes(in, new HashMap<String, List<Object>>()));
+        return service;
+    }
+
+    private static void writeServices(final DataOutput out, final Map<String, Service> services) throws IOException {
+        out.writeInt(services.size());
+        for (val entry : services.entrySet()) {
+            writeString(out, entry.getKey());
+            writeService(out, entry.getValue());
+        }
+    }
+
+    private static void readServices(final DataInput in, final Map<String, Service> services) throws IOException {
+        val size = in.readInt();
+        for (var i = 0; i < size; i++) {
+            val key = readString(in);
+            services.put(key, readService(in));
+        }
+    }
+
+    private static void writeExpirationPolicy(final DataOutput out, final ExpirationPolicy policy) throws IOException {
+        if (policy == null) {
+            out.writeByte(POLICY_NONE);
+            return;
+        }
+        val type = Optional.ofNullable(EXPIRATION_POLICY_TYPES.get(policy.getClass()))
+            .orElseThrow(() -> new UnsupportedTypeException(policy.getClass()));
+        if (!Clock.systemUTC().equals(policy.getClock())) {
+            throw new UnsupportedTypeException(policy.getClock().getClass());
+        }
+        out.writeByte(type);
+        writeString(out, policy.getName());
+        switch (type) {
+            case POLICY_HARD_TIMEOUT:
+                out.writeLong(policy.getTimeToLive());
+                break;
+            case POLICY_TIMEOUT:
+                out.writeLong(policy.getTimeToIdle());
+                break;
+            case POLICY_MULTI_TIME_USE_OR_TIMEOUT:
+            case POLICY_SERVICE_TICKET:
+            case POLICY_PROXY_TICKET:
+                out.writeLong(((MultiTimeUseOrTimeoutExpirationPolicy) policy).getNumberOfUses());
+                out.writeLong(policy.getTimeToLive());
+                break;
+            case POLICY_TICKET_GRANTING_TICKET:
+            case POLICY_THROTTLED_USE_AND_TIMEOUT:
+                out.writeLong(policy.getTimeToLive());
+                out.writeLong(policy.getTimeToIdle());
+                break;
+            case POLICY_REMEMBER_ME:
+                val policies = ((RememberMeDelegatingExpirationPolicy) policy).getPolicies();
+                out.writeInt(policies.size());
+                for (val entry : policies.entrySet()) {
+                    writeString(out, entry.getKey());
+                    writeExpirationPolicy(out, entry.getValue());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static ExpirationPolicy readExpirationPolicy(final DataInput in) throws IOException {
+        val type = in.readByte();
+        if (type == POLICY_NONE) {
+            return null;
+        }
+        val name = readString(in);
+        val policy = newExpirationPolicy(in, type);
+        policy.setName(name);
+        return policy;
+    }
+
+    private static AbstractCasExpirationPolicy newExpirationPolicy(final DataInput in, final byte type) throws IOException {
+        switch (type) {
+            case POLICY_NEVER_EXPIRES:
+                return new NeverExpiresExpirationPolicy();
+            case POLICY_ALWAYS_EXPIRES:
+                return new AlwaysExpiresExpirationPolicy();
+            case POLICY_HARD_TIMEOUT:
+                return new HardTimeoutExpirationPolicy(in.readLong());
+            case POLICY_TIMEOUT:
+                return new TimeoutExpirationPolicy(in.readLong());
+            case POLICY_MULTI_TIME_USE_OR_TIMEOUT:
+                return new MultiTimeUseOrTimeoutExpirationPolicy(in.readLong(), in.readLong());
+            case POLICY_SERVICE_TICKET:
+                return new MultiTimeUseOrTimeoutExpirationPolicy.ServiceTicketExpirationPolicy(in.readLong(), in.readLong());
+            case POLICY_PROXY_TICKET:
+                return new MultiTimeUseOrTimeoutExpirationPolicy.ProxyTicketExpirationPolicy(in.readLong(), in.readLong());
+            case POLICY_TICKET_GRANTING_TICKET:
+                return new TicketGrantingTicketExpirationPolicy(in.readLong(), in.readLong());
+            case POLICY_THROTTLED_USE_AND_TIMEOUT:
+                return new ThrottledUseAndTimeoutExpirationPolicy(in.readLong(), in.readLong());
+            case POLICY_REMEMBER_ME:
+                val policy = new RememberMeDelegatingExpirationPolicy();
+                val size = in.readInt();
+                for (var i = 0; i < size; i++) {
+                    val name = readString(in);
+                    policy.addPolicy(name, readExpirationPolicy(in));
+                }
+                return policy;
+            default:
+                throw new IOException("Unrecognized expiration policy type " + type);
+        }
+    }
+
+    private static void writeAttributes(final DataOutput out, final Map<String, List<Object>> attributes) throws IOException {
+        out.writeInt(attributes.size());
+        for (val entry : attributes.entrySet()) {
+            writeString(out, entry.getKey());
+            val values = entry.getValue();
+            out.writeInt(values == null ? -1 : values.size());
+            if (values != null) {
+                for (val value : values) {
+                    writeValue(out, value);
+                }
+            }
+        }
+    }
+
+    private static <T extends Map<String, List<Object>>> T readAttributes(final DataInput in, final T attributes) throws IOException {
+        val size = in.readInt();
+        for (var i = 0; i < size; i++) {
+            val key = readString(in);
+            val count = in.readInt();
+            val values = count < 0 ? null : new ArrayList<Object>(count);
+            for (var j = 0; j < count; j++) {
+                values.add(readValue(in));
+            }
+            attributes.put(key, values);
+        }
+        return attributes;
+    }
+
+    private static void writeValue(final DataOutput out, final Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(VALUE_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(VALUE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(VALUE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof ZonedDateTime) {
+            out.writeByte(VALUE_DATE_TIME);
+            writeDateTime(out, (ZonedDateTime) value);
+        } else {
+            throw new UnsupportedTypeException(value.getClass());
+        }
+    }
+
+    private static Object readValue(final DataInput in) throws IOException {
+        val type = in.readByte();
+        switch (type) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return readString(in);
+            case VALUE_BOOLEAN:
+                return in.readBoolean();
+            case VALUE_INTEGER:
+                return in.readInt();
+            case VALUE_LONG:
+                return in.readLong();
+            case VALUE_DOUBLE:
+                return in.readDouble();
+            case VALUE_DATE_TIME:
+                return readDateTime(in);
+            default:
+                throw new IOException("Unrecognized value type " + type);
+        }
+    }
+
+    private static void writeDateTime(final DataOutput out, final ZonedDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond());
+            out.writeInt(value.getNano());
+            writeString(out, value.getZone().getId());
+        }
+    }
+
+    private static ZonedDateTime readDateTime(final DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        val instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        return ZonedDateTime.ofInstant(instant, ZoneId.of(readString(in)));
+    }
+
+    private static void writeStrings(final DataOutput out, final Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (val value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void readStrings(final DataInput in, final Collection<String> values) throws IOException {
+        val size = in.readInt();
+        for (var i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+    }
+
+    private static void writeString(final DataOutput out, final String value) throws IOException {
+        writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(final DataInput in) throws IOException {
+        val bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(final DataOutput out, final byte[] value) throws IOException {
+        out.writeInt(value == null ? -1 : value.length);
+        if (value != null) {
+            out.write(value);
+        }
+    }
+
+    private static byte[] readBytes(final DataInput in) throws IOException {
+        val length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        val bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    @Override
+    @SneakyThrows
+    public byte[] serialize(final Ticket ticket) {
+        val bytes = new ByteArrayOutputStream();
+        bytes.write(HEADER);
+        bytes.write(VERSION);
+        try (val out = new DataOutputStream(bytes)) {
+            writeTicket(out, ticket);
+        } catch (final UnsupportedTypeException e) {
+            LOGGER.debug("Ticket [{}] cannot be written in the compact format and will be serialized using Java serialization: [{}]",
+                ticket.getId(), e.getMessage());
+            return javaTicketSerializer.serialize(ticket);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    @SneakyThrows
+    public Ticket deserialize(final byte[] data) {
+        if (!hasHeader(data)) {
+            LOGGER.trace("Serialized data does not carry a compact ticket header; deserializing using Java serialization");
+            return javaTicketSerializer.deserialize(data);
+        }
+        val version = data[HEADER.length];
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported compact ticket serialization version " + version);
+        }
+        val offset = HEADER.length + 1;
+        try (val in = new DataInputStream(new ByteArrayInputStream(data, offset, data.length - offset))) {
+            return readTicket(in);
+        }
+    }
+
+    /**
+     * Indicates that part of the ticket has no compact schema.
+     */
+    private static class UnsupportedTypeException extends IllegalArgumentException {
+        private static final long serialVersionUID = -2164207853641718826L;
+
+        UnsupportedTypeException(final Class<?> type) {
+            super("No compact schema is defined for " + type.getName());
+        }
+    }
+
+    /**
+     * State shared by all core ticket types.
+     */
+    private static class TicketStateFields {
+        private String id;
+
+        private ExpirationPolicy expirationPolicy;
+
+        private ZonedDateTime creationTime;
+
+        private ZonedDateTime lastTimeUsed;
+
+        private ZonedDateTime previousTimeUsed;
+
+        private int countOfUses;
+
+        private boolean expired;
+
+        <T extends AbstractTicket> T applyTo(final T ticket) {
+            ticket.setCreationTime(creationTime);
+            ticket.setLastTimeUsed(lastTimeUsed);
+            ticket.setPreviousTimeUsed(previousTimeUsed);
+            ticket.setCountOfUses(countOfUses);
+            ticket.setExpired(expired);
+            return ticket;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.util.serialization.SerializationUtils;
+
+/**
+ * This is {@link JavaTicketSerializer} that uses native Java serialization
+ * to serialize the entire ticket object graph.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+public class JavaTicketSerializer implements TicketSerializer {
+
+    @Override
+    public byte[] serialize(final Ticket ticket) {
+        return SerializationUtils.serialize(ticket);
+    }
+
+    @Override
+    public Ticket deserialize(final byte[] data) {
+        return SerializationUtils.deserializeAndCheckObject(data, Ticket.class);
+    }
+}
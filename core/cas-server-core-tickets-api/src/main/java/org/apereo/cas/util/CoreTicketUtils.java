@@ -1,6 +1,14 @@
 package org.apereo.cas.util;
 
+import org.apereo.cas.configuration.model.core.ticket.registry.TicketRegistryProperties;
 import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.ticket.registry.NearCacheTicketRegistry;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.TicketRegistryInvalidationChannel;
+import org.apereo.cas.ticket.serialization.CompactTicketSerializer;
+import org.apereo.cas.ticket.serialization.JavaTicketSerializer;
+import org.apereo.cas.ticket.serialization.TicketSerializer;
 import org.apereo.cas.util.cipher.DefaultTicketCipherExecutor;
 import org.apereo.cas.util.crypto.CipherExecutor;
 import org.apereo.cas.util.function.FunctionUtils;
@@ -10,6 +18,8 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.function.Supplier;
+
 /**
  * This is {@link CoreTicketUtils}.
  *
@@ -71,4 +81,38 @@ public class CoreTicketUtils {
         return CipherExecutor.noOp();
     }
 
+    /**
+     * New ticket serializer.
+     *
+     * @param registry the registry
+     * @return the ticket serializer
+     */
+    public static TicketSerializer newTicketSerializer(final TicketRegistryProperties registry) {
+        if ("COMPACT".equalsIgnoreCase(registry.getSerializer())) {
+            LOGGER.debug("Ticket registry will serialize core ticket types using a compact binary layout");
+            return new CompactTicketSerializer();
+        }
+        return new JavaTicketSerializer();
+    }
+
+    /**
+     * Decorate the ticket registry with a near-cache of ticket-granting tickets, if the near-cache is enabled.
+     *
+     * @param ticketRegistry      the ticket registry
+     * @param registry            the registry properties
+     * @param invalidationChannel the invalidation channel, created only if the near-cache is enabled
+     * @return the ticket registry
+     */
+    public static TicketRegistry newNearCacheTicketRegistry(final TicketRegistry ticketRegistry,
+                                                            final TicketRegistryProperties registry,
+                                                            final Supplier<TicketRegistryInvalidationChannel> invalidationChannel) {
+        val nearCache = registry.getNearCache();
+        if (!nearCache.isEnabled()) {
+            return ticketRegistry;
+        }
+        LOGGER.debug("Ticket-granting tickets will be cached in front of [{}] for [{}]", ticketRegistry.getClass().getSimpleName(), nearCache.getTimeToLive());
+        return new NearCacheTicketRegistry(ticketRegistry, invalidationChannel.get(), nearCache.getMaxSize(),
+            Beans.newDuration(nearCache.getTimeToLive()), nearCache.isReadYourWrites());
+    }
+
 }
@@ -278,12 +278,17 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
         val mem = casProperties.getTicket().getRegistry().getInMemory();
         val cipher = CoreTicketUtils.newTicketRegistryCipherExecutor(mem.getCrypto(), "inMemory");
 
+        val serializer = CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry());
         if (mem.isCache()) {
             val logoutManager = applicationContext.getBean("logoutManager", LogoutManager.class);
-            return new CachingTicketRegistry(cipher, logoutManager);
+            val registry = new CachingTicketRegistry(cipher, logoutManager);
+            registry.setTicketSerializer(serializer);
+            return registry;
         }
         val storageMap = new ConcurrentHashMap<String, Ticket>(mem.getInitialCapacity(), mem.getLoadFactor(), mem.getConcurrency());
-        return new DefaultTicketRegistry(storageMap, cipher);
+        val registry = new DefaultTicketRegistry(storageMap, cipher);
+        registry.setTicketSerializer(serializer);
+        return registry;
     }
 
     @ConditionalOnMissingBean(name = "defaultTicketRegistrySupport")
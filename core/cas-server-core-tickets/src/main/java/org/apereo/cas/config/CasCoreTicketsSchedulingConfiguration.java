@@ -59,11 +59,11 @@ public class CasCoreTicketsSchedulingConfiguration {
     @Bean
     @RefreshScope
     public TicketRegistryCleaner ticketRegistryCleaner() {
-        val isCleanerEnabled = casProperties.getTicket().getRegistry().getCleaner().getSchedule().isEnabled();
-        if (isCleanerEnabled) {
+        val cleaner = casProperties.getTicket().getRegistry().getCleaner();
+        if (cleaner.getSchedule().isEnabled()) {
             LOGGER.debug("Ticket registry cleaner is enabled.");
             return new DefaultTicketRegistryCleaner(lockingStrategy.getObject(),
-                logoutManager.getObject(), ticketRegistry.getObject());
+                logoutManager.getObject(), ticketRegistry.getObject(), cleaner.getBatchSize());
         }
         LOGGER.debug("Ticket registry cleaner is not enabled. "
             + "Expired tickets are not forcefully collected and cleaned by CAS. It is up to the ticket registry itself to "
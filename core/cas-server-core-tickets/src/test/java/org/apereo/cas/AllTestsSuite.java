@@ -27,6 +27,8 @@ import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleanerTests;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistrySupportTests;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistryTests;
 import org.apereo.cas.ticket.registry.DistributedTicketRegistryTests;
+import org.apereo.cas.ticket.registry.NearCacheTicketRegistryTests;
+import org.apereo.cas.ticket.serialization.CompactTicketSerializerTests;
 import org.apereo.cas.ticket.serialization.DefaultTicketStringSerializationManagerTests;
 import org.apereo.cas.util.DefaultUniqueTicketIdGeneratorTests;
 import org.apereo.cas.util.GroovyUniqueTicketIdGeneratorTests;
@@ -73,7 +75,9 @@ import org.junit.runner.RunWith;
     TicketSerializersTests.class,
     Cas20ProxyHandlerTests.class,
     GroovyUniqueTicketIdGeneratorTests.class,
-    DefaultTicketCatalogTests.class
+    DefaultTicketCatalogTests.class,
+    CompactTicketSerializerTests.class,
+    NearCacheTicketRegistryTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllTestsSuite {
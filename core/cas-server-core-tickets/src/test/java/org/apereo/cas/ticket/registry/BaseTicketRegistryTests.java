@@ -33,6 +33,7 @@ import org.apereo.cas.ticket.TicketGrantingTicketImpl;
 import org.apereo.cas.ticket.TransientSessionTicket;
 import org.apereo.cas.ticket.TransientSessionTicketImpl;
 import org.apereo.cas.ticket.expiration.AlwaysExpiresExpirationPolicy;
+import org.apereo.cas.ticket.expiration.MultiTimeUseOrTimeoutExpirationPolicy;
 import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
 import org.apereo.cas.ticket.expiration.TimeoutExpirationPolicy;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
@@ -61,9 +62,14 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.util.AopTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -171,6 +177,40 @@ public abstract class BaseTicketRegistryTests {
         assertTrue(count > 0);
     }
 
+    @RepeatedTest(2)
+    public void verifyGetSessionsPerUser() {
+        assumeTrue(isIterableRegistry());
+        val id = UUID.randomUUID().toString();
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(id),
+            NeverExpiresExpirationPolicy.INSTANCE));
+        try (val sessions = ticketRegistry.getSessionsFor(id.toUpperCase())) {
+            assertEquals(1, sessions.count());
+        }
+        assertEquals(1, ticketRegistry.countSessionsFor(id));
+        ticketRegistry.deleteTicket(ticketGrantingTicketId);
+        assertEquals(0, ticketRegistry.countSessionsFor(id));
+        try (val sessions = ticketRegistry.getSessionsFor(id)) {
+            assertEquals(0, sessions.count());
+        }
+    }
+
+
+    @RepeatedTest(2)
+    public void verifyGetTicketsExpiringBefore() {
+        assumeTrue(isIterableRegistry());
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(),
+            NeverExpiresExpirationPolicy.INSTANCE));
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(
+            new TicketGrantingTicketIdGenerator(10, StringUtils.EMPTY).getNewTicketId(TicketGrantingTicket.PREFIX),
+            CoreAuthenticationTestUtils.getAuthentication(),
+            new AlwaysExpiresExpirationPolicy()));
+        try (val candidates = ticketRegistry.getTicketsExpiringBefore(Instant.now())) {
+            val ids = candidates.map(Ticket::getId).collect(Collectors.toSet());
+            assertFalse(ids.contains(ticketGrantingTicketId));
+        }
+    }
 
     @RepeatedTest(2)
     public void verifyGetExistingTicketWithImproperClass() {
@@ -223,6 +263,24 @@ public abstract class BaseTicketRegistryTests {
         assertEquals(Collections.singleton("ST1"), tgt.getServices().keySet());
     }
 
+    @RepeatedTest(2)
+    public void verifyAddAndUpdateTicketsInBatch() {
+        val tgt = new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(),
+            NeverExpiresExpirationPolicy.INSTANCE);
+        ticketRegistry.addTicket(tgt);
+
+        val st = tgt.grantServiceTicket(serviceTicketId, RegisteredServiceTestUtils.getService("TGT_BATCH_TEST"),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        ticketRegistry.addAndUpdate(List.of(st), List.of(tgt));
+
+        val updated = ticketRegistry.getTicket(ticketGrantingTicketId, TicketGrantingTicket.class);
+        assertNotNull(updated, () -> "Ticket is null. useEncryption[" + useEncryption + ']');
+        assertEquals(Collections.singleton(serviceTicketId), updated.getServices().keySet());
+        assertNotNull(ticketRegistry.getTicket(serviceTicketId, ServiceTicket.class),
+            () -> "Ticket is null. useEncryption[" + useEncryption + ']');
+    }
+
     @RepeatedTest(2)
     public void verifyDeleteAllExistingTickets() {
         assumeTrue(isIterableRegistry());
@@ -410,6 +468,37 @@ public abstract class BaseTicketRegistryTests {
         assertNull(tgt);
     }
 
+    @RepeatedTest(2)
+    public void verifyConsumeTicketOnce() throws Exception {
+        val authn = CoreAuthenticationTestUtils.getAuthentication();
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId, authn, NeverExpiresExpirationPolicy.INSTANCE));
+        val tgt = ticketRegistry.getTicket(ticketGrantingTicketId, TicketGrantingTicket.class);
+        val service = RegisteredServiceTestUtils.getService("TGT_CONSUME_TEST");
+        val st = tgt.grantServiceTicket(serviceTicketId, service, new MultiTimeUseOrTimeoutExpirationPolicy(1, 60), false, true);
+        ticketRegistry.addTicket(st);
+        ticketRegistry.updateTicket(tgt);
+
+        val attempts = IntStream.range(0, 8)
+            .mapToObj(i -> (Callable<Ticket>) () -> ticketRegistry.consumeTicket(serviceTicketId))
+            .collect(Collectors.toList());
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            var consumed = 0;
+            for (val result : executor.invokeAll(attempts)) {
+                val ticket = result.get();
+                if (ticket != null) {
+                    assertTrue(ticket.isExpired());
+                    consumed++;
+                }
+            }
+            assertEquals(1, consumed, () -> "Ticket should be consumed once. useEncryption[" + useEncryption + ']');
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNull(ticketRegistry.consumeTicket(serviceTicketId));
+        assertNull(ticketRegistry.consumeTicket("ST-FALALALALALAL"));
+    }
+
     @RepeatedTest(2)
     @Transactional
     public void verifyDeleteTicketWithPGT() {
@@ -8,6 +8,8 @@ import lombok.val;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +35,21 @@ public class DefaultTicketRegistryCleanerTests {
         assertTrue(ticketRegistry.sessionCount() == 0);
     }
 
+    @Test
+    public void verifyActionInBatches() {
+        val logoutManager = mock(LogoutManager.class);
+        val ticketRegistry = new DefaultTicketRegistry();
+        IntStream.range(0, 5).forEach(i -> {
+            val ticket = new MockTicketGrantingTicket("casuser" + i);
+            ticket.markTicketExpired();
+            ticketRegistry.addTicket(ticket);
+        });
+        ticketRegistry.addTicket(new MockTicketGrantingTicket("casuser"));
+        val c = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(), logoutManager, ticketRegistry, 2);
+        assertEquals(5, c.clean());
+        assertEquals(1, ticketRegistry.sessionCount());
+    }
+
     @Test
     public void verifyNoLock() {
         val logoutManager = mock(LogoutManager.class);
@@ -47,7 +64,7 @@ public class DefaultTicketRegistryCleanerTests {
     public void verifyCleanFail() {
         val logoutManager = mock(LogoutManager.class);
         val ticketRegistry = mock(TicketRegistry.class);
-        when(ticketRegistry.getTicketsStream()).thenThrow(IllegalArgumentException.class);
+        when(ticketRegistry.getTicketsExpiringBefore(any())).thenThrow(IllegalArgumentException.class);
         val c = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(), logoutManager, ticketRegistry);
         assertTrue(c.clean() == 0);
     }
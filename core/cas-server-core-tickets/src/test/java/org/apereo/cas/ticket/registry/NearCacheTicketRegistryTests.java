@@ -0,0 +1,140 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.crypto.CipherExecutor;
+
+import lombok.Getter;
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link NearCacheTicketRegistryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class NearCacheTicketRegistryTests {
+    private static final String TGT_ID = "TGT-1-near-cache";
+
+    private TicketRegistry delegate;
+
+    private TestInvalidationChannel channel;
+
+    private static TicketGrantingTicket getTicketGrantingTicket() {
+        return new TicketGrantingTicketImpl(TGT_ID, CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+    }
+
+    @BeforeEach
+    public void initialize() {
+        delegate = spy(new DefaultTicketRegistry(new ConcurrentHashMap<>(), CipherExecutor.noOp()));
+        channel = new TestInvalidationChannel();
+    }
+
+    @Test
+    public void verifyTicketGrantingTicketCached() {
+        val registry = new NearCacheTicketRegistry(delegate, channel, 100, Duration.ofMinutes(1), false);
+        registry.addTicket(getTicketGrantingTicket());
+        assertEquals(List.of(TGT_ID), channel.getPublished());
+
+        val tgt = registry.getTicket(TGT_ID, TicketGrantingTicket.class);
+        assertNotNull(tgt);
+        assertSame(tgt, registry.getTicket(TGT_ID));
+        verify(delegate, times(1)).getTicket(eq(TGT_ID));
+        assertThrows(ClassCastException.class, () -> registry.getTicket(TGT_ID, TransientTicket.class));
+    }
+
+    @Test
+    public void verifyRemoteInvalidation() {
+        val registry = new NearCacheTicketRegistry(delegate, channel, 100, Duration.ofMinutes(1), false);
+        registry.addTicket(getTicketGrantingTicket());
+        registry.getTicket(TGT_ID);
+        channel.getListeners().forEach(listener -> listener.accept(TGT_ID));
+        registry.getTicket(TGT_ID);
+        verify(delegate, times(2)).getTicket(eq(TGT_ID));
+    }
+
+    @Test
+    public void verifyInvalidationWhileLoading() {
+        val registry = new NearCacheTicketRegistry(delegate, channel, 100, Duration.ofMinutes(1), false);
+        registry.addTicket(getTicketGrantingTicket());
+        doAnswer(invocation -> {
+            channel.getListeners().forEach(listener -> listener.accept(TGT_ID));
+            return invocation.callRealMethod();
+        }).doAnswer(invocation -> {
+            channel.getListeners().forEach(listener -> listener.accept("TGT-2-near-cache"));
+            return invocation.callRealMethod();
+        }).when(delegate).getTicket(eq(TGT_ID));
+
+        assertNotNull(registry.getTicket(TGT_ID));
+        assertNotNull(registry.getTicket(TGT_ID));
+        assertNotNull(registry.getTicket(TGT_ID));
+        verify(delegate, times(2)).getTicket(eq(TGT_ID));
+    }
+
+    @Test
+    public void verifyReadYourWrites() {
+        val registry = new NearCacheTicketRegistry(delegate, channel, 100, Duration.ofMinutes(1), true);
+        val tgt = getTicketGrantingTicket();
+        registry.addTicket(tgt);
+        assertSame(tgt, registry.getTicket(TGT_ID));
+        registry.updateTicket(tgt);
+        assertSame(tgt, registry.getTicket(TGT_ID));
+        verify(delegate, never()).getTicket(eq(TGT_ID));
+        assertEquals(List.of(TGT_ID, TGT_ID), channel.getPublished());
+
+        registry.deleteTicket(TGT_ID);
+        assertNull(registry.getTicket(TGT_ID));
+        assertEquals(3, channel.getPublished().size());
+    }
+
+    @Test
+    public void verifyOtherTicketsNotCached() {
+        val registry = new NearCacheTicketRegistry(delegate, channel, 100, Duration.ofMinutes(1), true);
+        val tgt = getTicketGrantingTicket();
+        registry.addTicket(tgt);
+        val st = tgt.grantServiceTicket("ST-1-near-cache", CoreAuthenticationTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        registry.addTicket(st);
+        assertNotNull(registry.getTicket(st.getId()));
+        assertNotNull(registry.getTicket(st.getId()));
+        verify(delegate, times(2)).getTicket(eq(st.getId()));
+        assertEquals(List.of(TGT_ID), channel.getPublished());
+    }
+
+    private interface TransientTicket extends Ticket {
+    }
+
+    @Getter
+    private static class TestInvalidationChannel implements TicketRegistryInvalidationChannel {
+        private final List<String> published = new ArrayList<>();
+
+        private final List<Consumer<String>> listeners = new ArrayList<>();
+
+        @Override
+        public void publish(final String ticketId) {
+            published.add(ticketId);
+        }
+
+        @Override
+        public void subscribe(final Consumer<String> listener) {
+            listeners.add(listener);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicketImpl;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.TransientSessionTicket;
+import org.apereo.cas.ticket.TransientSessionTicketImpl;
+import org.apereo.cas.ticket.expiration.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.expiration.RememberMeDelegatingExpirationPolicy;
+import org.apereo.cas.ticket.expiration.TicketGrantingTicketExpirationPolicy;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyTicket;
+import org.apereo.cas.util.CollectionUtils;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link CompactTicketSerializerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class CompactTicketSerializerTests {
+    private final CompactTicketSerializer serializer = new CompactTicketSerializer();
+
+    private static TicketGrantingTicketImpl getTicketGrantingTicket() {
+        return new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication(),
+            NeverExpiresExpirationPolicy.INSTANCE);
+    }
+
+    private static boolean isCompact(final byte[] data) {
+        return data[0] == (byte) 0xCA && data[1] == (byte) 0x5C;
+    }
+
+    @Test
+    public void verifyTicketGrantingTicket() {
+        val tgt = getTicketGrantingTicket();
+        tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        tgt.getDescendantTickets().add("PGT-1");
+
+        val data = serializer.serialize(tgt);
+        assertTrue(isCompact(data));
+        val result = (TicketGrantingTicketImpl) serializer.deserialize(data);
+        assertEquals(tgt, result);
+        assertEquals(tgt.getAuthentication(), result.getAuthentication());
+        assertEquals(tgt.getAuthentication().getPrincipal().getAttributes(), result.getAuthentication().getPrincipal().getAttributes());
+        assertEquals(tgt.getCreationTime(), result.getCreationTime());
+        assertEquals(tgt.getLastTimeUsed(), result.getLastTimeUsed());
+        assertEquals(tgt.getCountOfUses(), result.getCountOfUses());
+        assertEquals(tgt.getServices(), result.getServices());
+        assertEquals(tgt.getDescendantTickets(), result.getDescendantTickets());
+        assertEquals(tgt.getExpirationPolicy(), result.getExpirationPolicy());
+    }
+
+    @Test
+    public void verifyAuthenticationAttributesAndPolicies() {
+        val attributes = Map.<String, List<Object>>of(
+            "rememberMe", CollectionUtils.wrapList(Boolean.TRUE),
+            "count", CollectionUtils.wrapList(1, 2L, 3.5D),
+            "date", CollectionUtils.wrapList(ZonedDateTime.now()),
+            "names", new ArrayList<>(List.of("one", "two")));
+        val policy = new RememberMeDelegatingExpirationPolicy();
+        policy.addPolicy(RememberMeDelegatingExpirationPolicy.POLICY_NAME_REMEMBER_ME, new HardTimeoutExpirationPolicy(100));
+        policy.addPolicy(RememberMeDelegatingExpirationPolicy.POLICY_NAME_DEFAULT, new TicketGrantingTicketExpirationPolicy(100, 10));
+        val tgt = new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication("casuser", attributes), policy);
+        val st = (ServiceTicketImpl) tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new MultiTimeUseOrTimeoutExpirationPolicy.ServiceTicketExpirationPolicy(2, 30), false, true);
+
+        val data = serializer.serialize(st);
+        assertTrue(isCompact(data));
+        val result = (ServiceTicketImpl) serializer.deserialize(data);
+        assertEquals(st.getExpirationPolicy(), result.getExpirationPolicy());
+        assertEquals(policy, result.getTicketGrantingTicket().getExpirationPolicy());
+        assertEquals(tgt.getAuthentication(), result.getTicketGrantingTicket().getAuthentication());
+        assertEquals(attributes, result.getTicketGrantingTicket().getAuthentication().getAttributes());
+    }
+
+    @Test
+    public void verifyServiceTicket() {
+        val tgt = getTicketGrantingTicket();
+        val st = (ServiceTicketImpl) tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new HardTimeoutExpirationPolicy(30), true, true);
+
+        val result = (ServiceTicketImpl) serializer.deserialize(serializer.serialize(st));
+        assertEquals(st, result);
+        assertEquals(st.getService(), result.getService());
+        assertTrue(result.isFromNewLogin());
+        assertEquals(tgt, result.getTicketGrantingTicket());
+        assertEquals(st.getExpirationPolicy(), result.getExpirationPolicy());
+    }
+
+    @Test
+    public void verifyProxyTickets() {
+        val tgt = getTicketGrantingTicket();
+        val st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        val pgt = st.grantProxyGrantingTicket("PGT-1", CoreAuthenticationTestUtils.getAuthentication(),
+            NeverExpiresExpirationPolicy.INSTANCE);
+        val pt = pgt.grantProxyTicket("PT-1", RegisteredServiceTestUtils.getService("proxy"),
+            NeverExpiresExpirationPolicy.INSTANCE, true);
+
+        val pgtResult = (ProxyGrantingTicket) serializer.deserialize(serializer.serialize(pgt));
+        assertEquals(pgt, pgtResult);
+        assertEquals(pgt.getProxiedBy(), pgtResult.getProxiedBy());
+        assertEquals(tgt, pgtResult.getTicketGrantingTicket());
+
+        val ptResult = (ProxyTicket) serializer.deserialize(serializer.serialize(pt));
+        assertEquals(pt, ptResult);
+        assertEquals(pt.getService(), ptResult.getService());
+        assertEquals(pgt, ptResult.getTicketGrantingTicket());
+    }
+
+    @Test
+    public void verifyTransientSessionTicket() {
+        val ticket = new TransientSessionTicketImpl("TST-1", NeverExpiresExpirationPolicy.INSTANCE,
+            RegisteredServiceTestUtils.getService(), Map.of("key", "value"));
+        ticket.markTicketExpired();
+
+        val data = serializer.serialize(ticket);
+        assertTrue(isCompact(data));
+        val result = (TransientSessionTicket) serializer.deserialize(data);
+        assertEquals(ticket, result);
+        assertEquals("value", result.get("key", String.class));
+        assertEquals(ticket.getService(), result.getService());
+        assertTrue(result.isExpired());
+    }
+
+    @Test
+    public void verifyUnsupportedTypesUseJavaSerialization() {
+        val attributes = Map.<String, List<Object>>of("id", CollectionUtils.wrapList(UUID.randomUUID()));
+        val tgt = new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication("casuser", attributes),
+            NeverExpiresExpirationPolicy.INSTANCE);
+
+        val data = serializer.serialize(tgt);
+        assertFalse(isCompact(data));
+        val result = serializer.deserialize(data);
+        assertEquals(tgt, result);
+        assertEquals(tgt.getAuthentication(), ((TicketGrantingTicketImpl) result).getAuthentication());
+    }
+
+    @Test
+    public void verifyUnsupportedVersion() {
+        val data = serializer.serialize(getTicketGrantingTicket());
+        data[2] = 1;
+        assertThrows(IllegalArgumentException.class, () -> serializer.deserialize(data));
+    }
+
+    @Test
+    public void verifyJavaSerializedTicket() {
+        val tgt = getTicketGrantingTicket();
+        val data = new JavaTicketSerializer().serialize(tgt);
+        assertEquals(tgt, serializer.deserialize(data));
+    }
+
+    @Test
+    public void verifyCompactSize() {
+        val tgt = getTicketGrantingTicket();
+        val st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        val java = new JavaTicketSerializer();
+        assertTrue(serializer.serialize(tgt).length < java.serialize(tgt).length);
+        assertTrue(serializer.serialize(st).length < java.serialize(st).length);
+    }
+}
@@ -0,0 +1,218 @@
+package org.apereo.cas.web.flow.executor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.ArrayUtils;
+import org.cryptacular.bean.CipherBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes flow state in a compact form before it is encrypted. Rather than the full descriptor of each
+ * serialized class, which carries field names and types, only the class name is written to the stream
+ * along with a fingerprint of its serializable fields, and the descriptor is looked up locally when the state
+ * is decoded. The stream is then compressed with a preset dictionary made up of the class names that are commonly
+ * found in CAS flow executions, so that even their first occurrence in the stream is cheap to encode.
+ * <p>
+ * Since class descriptors are not recorded, flow state may only be decoded by nodes that run the same version
+ * of the serialized classes; state that carries a class whose fingerprint does not match the local class
+ * is rejected. The format is prefixed with a version marker that must change whenever the
+ * dictionary changes. State that does not carry the version marker is decoded in the format
+ * of the {@link EncryptedTranscoder}, so that flow executions started before the compact format was enabled,
+ * or by nodes that do not use it, can be resumed. The size of the encoded state and the time it takes to encode and decode it are
+ * recorded as {@code cas.webflow.state.size}, {@code cas.webflow.state.encode} and {@code cas.webflow.state.decode}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class CompactEncryptedTranscoder extends EncryptedTranscoder {
+    private static final byte FORMAT_VERSION = 2;
+
+    private static final List<String> DICTIONARY_CLASS_NAMES = List.of(
+        "java.lang.Boolean",
+        "java.lang.Integer",
+        "java.lang.Long",
+        "java.lang.Number",
+        "java.lang.Enum",
+        "java.util.ArrayList",
+        "java.util.HashMap",
+        "java.util.HashSet",
+        "java.util.LinkedHashMap",
+        "java.util.LinkedHashSet",
+        "java.util.LinkedList",
+        "java.util.TreeMap",
+        "java.util.Collections$EmptyMap",
+        "java.util.Collections$UnmodifiableMap",
+        "java.util.concurrent.ConcurrentHashMap",
+        "java.time.Ser",
+        "java.net.URL",
+        "org.springframework.webflow.core.collection.LocalAttributeMap",
+        "org.springframework.webflow.core.collection.LocalSharedAttributeMap",
+        "org.springframework.webflow.engine.impl.FlowExecutionImpl",
+        "org.springframework.webflow.engine.impl.FlowSessionImpl",
+        "org.springframework.webflow.execution.FlowExecutionOutcome",
+        "org.springframework.binding.message.DefaultMessageContext",
+        "org.springframework.binding.message.Message",
+        "org.springframework.binding.message.Severity",
+        "org.springframework.context.support.DefaultMessageSourceResolvable",
+        "org.springframework.validation.BeanPropertyBindingResult",
+        "org.apereo.cas.authentication.DefaultAuthentication",
+        "org.apereo.cas.authentication.DefaultAuthenticationHandlerExecutionResult",
+        "org.apereo.cas.authentication.BasicCredentialMetaData",
+        "org.apereo.cas.authentication.credential.UsernamePasswordCredential",
+        "org.apereo.cas.authentication.credential.RememberMeUsernamePasswordCredential",
+        "org.apereo.cas.authentication.principal.SimplePrincipal",
+        "org.apereo.cas.authentication.principal.SimpleWebApplicationServiceImpl",
+        "org.apereo.cas.services.RegexRegisteredService",
+        "org.apereo.cas.services.DefaultRegisteredServiceAccessStrategy",
+        "org.apereo.cas.services.DefaultRegisteredServiceMultifactorPolicy",
+        "org.apereo.cas.services.ReturnAllowedAttributeReleasePolicy",
+        "org.apereo.cas.web.flow.executor.ClientFlowExecutionRepository$SerializedFlowExecutionState");
+
+    private static final byte[] DICTIONARY = buildDictionary();
+
+    public CompactEncryptedTranscoder(final CipherBean cipherBean) {
+        super(cipherBean, true);
+    }
+
+    @SneakyThrows
+    private static byte[] buildDictionary() {
+        val buffer = new ByteArrayOutputStream();
+        try (val out = new DataOutputStream(buffer)) {
+            for (val name : DICTIONARY_CLASS_NAMES) {
+                out.writeUTF(name);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    private static long getFingerprint(final ObjectStreamClass desc) {
+        var fingerprint = desc.getSerialVersionUID();
+        for (val field : desc.getFields()) {
+            fingerprint = 31 * fingerprint + field.getName().hashCode();
+            fingerprint = 31 * fingerprint + field.getType().getName().hashCode();
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public byte[] encode(final Object o) throws IOException {
+        if (o == null) {
+            return ArrayUtils.EMPTY_BYTE_ARRAY;
+        }
+        val startTime = System.nanoTime();
+        val outBuffer = new ByteArrayOutputStream();
+        outBuffer.write(FORMAT_VERSION);
+        val deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setDictionary(DICTIONARY);
+        try (val out = new CompactObjectOutputStream(new DeflaterOutputStream(outBuffer, deflater))) {
+            writeObjectToOutputStream(o, out);
+        } catch (final NotSerializableException e) {
+            LOGGER.warn(e.getMessage(), e);
+        } finally {
+            deflater.end();
+        }
+        val encoded = encrypt(outBuffer);
+        Timer.builder("cas.webflow.state.encode")
+            .description("Time it takes to encode flow state")
+            .register(Metrics.globalRegistry)
+            .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("cas.webflow.state.size")
+            .description("Size of encoded flow state")
+            .baseUnit("bytes")
+            .register(Metrics.globalRegistry)
+            .record(encoded == null ? 0 : encoded.length);
+        return encoded;
+    }
+
+    @Override
+    public Object decode(final byte[] encoded) throws IOException {
+        val startTime = System.nanoTime();
+        val data = decrypt(encoded);
+        if (data == null || data.length == 0) {
+            throw new IOException("Flow state is not encoded in a supported format");
+        }
+        if (data[0] != FORMAT_VERSION) {
+            LOGGER.trace("Flow state is not encoded in the compact format and will be decoded as-is");
+            return super.decode(encoded);
+        }
+        val inflater = new Inflater(true);
+        inflater.setDictionary(DICTIONARY);
+        /*
+         * Raw inflation requires an extra trailing byte as input, which is appended as padding.
+         */
+        try (val inBuffer = new ByteArrayInputStream(Arrays.copyOfRange(data, 1, data.length + 1));
+             val in = new CompactObjectInputStream(new InflaterInputStream(inBuffer, inflater))) {
+            return in.readObject();
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+            throw new IOException("Deserialization error", e);
+        } finally {
+            inflater.end();
+            Timer.builder("cas.webflow.state.decode")
+                .description("Time it takes to decode flow state")
+                .register(Metrics.globalRegistry)
+                .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Writes class descriptors as class names and fingerprints only.
+     */
+    private static class CompactObjectOutputStream extends ObjectOutputStream {
+        CompactObjectOutputStream(final OutputStream out) throws IOException {
+            super(out);
+        }
+
+        @Override
+        protected void writeClassDescriptor(final ObjectStreamClass desc) throws IOException {
+            writeUTF(desc.getName());
+            writeLong(getFingerprint(desc));
+        }
+    }
+
+    /**
+     * Reads class descriptors written as class names and fingerprints and looks them up locally.
+     */
+    private static class CompactObjectInputStream extends ObjectInputStream {
+        CompactObjectInputStream(final InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            val name = readUTF();
+            val fingerprint = readLong();
+            val classLoader = Optional.ofNullable(Thread.currentThread().getContextClassLoader())
+                .orElseGet(CompactEncryptedTranscoder.class::getClassLoader);
+            val desc = ObjectStreamClass.lookupAny(Class.forName(name, false, classLoader));
+            if (getFingerprint(desc) != fingerprint) {
+                throw new InvalidClassException(name, "Local class does not match the class found in the flow state");
+            }
+            return desc;
+        }
+    }
+}
@@ -105,7 +105,7 @@ public class EncryptedTranscoder implements Transcoder {
         }
     }
 
-    private byte[] decrypt(final byte[] encoded) throws IOException {
+    protected byte[] decrypt(final byte[] encoded) throws IOException {
         try {
             return cipherBean.decrypt(encoded);
         } catch (final Exception e) {
@@ -76,6 +76,9 @@ public class WebflowExecutorFactory {
     @SneakyThrows
     private Transcoder getWebflowStateTranscoder() {
         val cipherBean = new WebflowCipherBean(this.webflowCipherExecutor);
+        if (webflowProperties.getSession().isCompact()) {
+            return new CompactEncryptedTranscoder(cipherBean);
+        }
         return new EncryptedTranscoder(cipherBean);
     }
 }
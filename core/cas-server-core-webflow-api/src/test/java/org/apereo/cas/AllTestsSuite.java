@@ -4,6 +4,7 @@ package org.apereo.cas;
 import org.apereo.cas.web.flow.decorator.GroovyLoginWebflowDecoratorTests;
 import org.apereo.cas.web.flow.decorator.RestfulLoginWebflowDecoratorTests;
 import org.apereo.cas.web.flow.executor.ClientFlowExecutionRepositoryTests;
+import org.apereo.cas.web.flow.executor.CompactEncryptedTranscoderTests;
 import org.apereo.cas.web.flow.executor.EncryptedTranscoderTests;
 
 import org.junit.platform.runner.JUnitPlatform;
@@ -20,7 +21,8 @@ import org.junit.runner.RunWith;
     GroovyLoginWebflowDecoratorTests.class,
     RestfulLoginWebflowDecoratorTests.class,
     ClientFlowExecutionRepositoryTests.class,
-    EncryptedTranscoderTests.class
+    EncryptedTranscoderTests.class,
+    CompactEncryptedTranscoderTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllTestsSuite {
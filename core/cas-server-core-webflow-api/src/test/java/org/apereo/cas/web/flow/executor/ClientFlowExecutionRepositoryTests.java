@@ -2,6 +2,7 @@ package org.apereo.cas.web.flow.executor;
 
 import lombok.val;
 import org.cryptacular.bean.AEADBlockCipherBean;
+import org.cryptacular.bean.CipherBean;
 import org.cryptacular.bean.KeyStoreFactoryBean;
 import org.cryptacular.generator.sp80038d.RBGNonce;
 import org.cryptacular.io.ClassPathResource;
@@ -55,6 +56,10 @@ public class ClientFlowExecutionRepositoryTests {
     @Qualifier("flowExecutor")
     private FlowExecutor flowExecutor;
 
+    @Autowired
+    @Qualifier("compactFlowExecutor")
+    private FlowExecutor compactFlowExecutor;
+
     @Test
     public void verifyBadKey() {
         val factory = new ClientFlowExecutionRepository(mock(FlowExecutionFactory.class), mock(FlowDefinitionLocator.class), mock(Transcoder.class));
@@ -86,6 +91,28 @@ public class ClientFlowExecutionRepositoryTests {
         assertEquals("lasagnaDinner", resumeResult.getOutcome().getId());
     }
 
+    @Test
+    public void verifyLaunchAndResumeFlowWithCompactTranscoder() {
+        val launchResult = compactFlowExecutor.launchExecution("test-flow", new LocalAttributeMap<>(), new MockExternalContext());
+        assertNotNull(launchResult.getPausedKey());
+        val context = new MockExternalContext();
+        context.setEventId("submit");
+        context.getRequestMap().put("vegan", "0");
+        val resumeResult = compactFlowExecutor.resumeExecution(launchResult.getPausedKey(), context);
+        assertEquals("lasagnaDinner", resumeResult.getOutcome().getId());
+    }
+
+    @Test
+    public void verifyResumeLegacyFlowWithCompactTranscoder() {
+        val launchResult = flowExecutor.launchExecution("test-flow", new LocalAttributeMap<>(), new MockExternalContext());
+        assertNotNull(launchResult.getPausedKey());
+        val context = new MockExternalContext();
+        context.setEventId("submit");
+        context.getRequestMap().put("vegan", "0");
+        val resumeResult = compactFlowExecutor.resumeExecution(launchResult.getPausedKey(), context);
+        assertEquals("lasagnaDinner", resumeResult.getOutcome().getId());
+    }
+
     @TestConfiguration("WebflowTestConfiguration")
     @Lazy(false)
     public static class WebflowTestConfiguration {
@@ -100,6 +127,17 @@ public class ClientFlowExecutionRepositoryTests {
             return new FlowExecutorImpl(flowRegistry(), flowExecutionFactory(), repo);
         }
 
+        @Bean
+        public FlowExecutor compactFlowExecutor() {
+            val impl = new FlowExecutionImplFactory();
+            val repo = new ClientFlowExecutionRepository();
+            repo.setFlowExecutionFactory(impl);
+            repo.setFlowDefinitionLocator(flowRegistry());
+            repo.setTranscoder(new CompactEncryptedTranscoder(newCipherBean()));
+            impl.setExecutionKeyFactory(repo);
+            return new FlowExecutorImpl(flowRegistry(), impl, repo);
+        }
+
         @Bean
         public FlowDefinitionRegistry flowRegistry() {
             val builder = new FlowDefinitionRegistryBuilder(this.applicationContext, flowBuilder());
@@ -148,5 +186,20 @@ public class ClientFlowExecutionRepositoryTests {
 
             return new EncryptedTranscoder(cipher);
         }
+
+        private static CipherBean newCipherBean() {
+            val keystoreFactory = new KeyStoreFactoryBean();
+            keystoreFactory.setType("JCEKS");
+            keystoreFactory.setPassword("changeit");
+            keystoreFactory.setResource(new ClassPathResource("test-keystore.jceks"));
+
+            val cipher = new AEADBlockCipherBean();
+            cipher.setKeyAlias("aes128");
+            cipher.setKeyPassword("changeit");
+            cipher.setKeyStore(keystoreFactory.newInstance());
+            cipher.setBlockCipherSpec(new AEADBlockCipherSpec("AES", "GCM"));
+            cipher.setNonce(new RBGNonce());
+            return cipher;
+        }
     }
 }
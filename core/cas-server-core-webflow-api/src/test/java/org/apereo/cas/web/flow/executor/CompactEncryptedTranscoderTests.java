@@ -0,0 +1,98 @@
+package org.apereo.cas.web.flow.executor;
+
+import lombok.val;
+import org.apache.commons.lang3.ArrayUtils;
+import org.cryptacular.bean.AEADBlockCipherBean;
+import org.cryptacular.bean.CipherBean;
+import org.cryptacular.bean.KeyStoreFactoryBean;
+import org.cryptacular.generator.sp80038d.RBGNonce;
+import org.cryptacular.io.FileResource;
+import org.cryptacular.spec.AEADBlockCipherSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.webflow.core.collection.LocalAttributeMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test cases for {@link CompactEncryptedTranscoder}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Webflow")
+public class CompactEncryptedTranscoderTests {
+    private CipherBean cipherBean;
+
+    @BeforeEach
+    public void initialize() throws Exception {
+        val ksFactory = new KeyStoreFactoryBean();
+        ksFactory.setResource(new FileResource(new File("src/test/resources/test-keystore.jceks")));
+        ksFactory.setType("JCEKS");
+        ksFactory.setPassword("changeit");
+
+        val cipher = new AEADBlockCipherBean();
+        cipher.setBlockCipherSpec(new AEADBlockCipherSpec("AES", "GCM"));
+        cipher.setKeyStore(ksFactory.newInstance());
+        cipher.setKeyAlias("aes128");
+        cipher.setKeyPassword("changeit");
+        cipher.setNonce(new RBGNonce());
+        this.cipherBean = cipher;
+    }
+
+    @Test
+    public void verifyEncodeDecode() throws Exception {
+        val transcoder = new CompactEncryptedTranscoder(cipherBean);
+        val state = getFlowState();
+        val encoded = transcoder.encode(state);
+        assertEquals(state, transcoder.decode(encoded));
+    }
+
+    @Test
+    public void verifyEncodedStateIsSmaller() throws Exception {
+        val state = getFlowState();
+        val compact = new CompactEncryptedTranscoder(cipherBean).encode(state);
+        val original = new EncryptedTranscoder(cipherBean).encode(state);
+        assertTrue(compact.length < original.length);
+    }
+
+    @Test
+    public void verifyLegacyFormat() throws Exception {
+        val state = getFlowState();
+        val encoded = new EncryptedTranscoder(cipherBean).encode(state);
+        assertEquals(state, new CompactEncryptedTranscoder(cipherBean).decode(encoded));
+    }
+
+    @Test
+    public void verifyUnsupportedFormat() throws Exception {
+        val encoded = new EncryptedTranscoder(cipherBean, false).encode(getFlowState());
+        val transcoder = new CompactEncryptedTranscoder(cipherBean);
+        assertThrows(IOException.class, () -> transcoder.decode(encoded));
+    }
+
+    @Test
+    public void verifyBadEncoding() throws Exception {
+        val transcoder = new CompactEncryptedTranscoder(mock(CipherBean.class));
+        assertNotNull(transcoder.encode(null));
+        assertNull(transcoder.encode(new Object()));
+        assertThrows(IOException.class, () -> transcoder.decode(ArrayUtils.EMPTY_BYTE_ARRAY));
+    }
+
+    private static LocalAttributeMap<Object> getFlowState() {
+        val state = new LocalAttributeMap<Object>();
+        state.put("service", "https://apereo.github.io/cas");
+        state.put("warnCookieValue", Boolean.TRUE);
+        state.put("attempts", 3);
+        state.put("attributes", Map.of("cn", List.of("casuser"), "mail", List.of("casuser@example.org")));
+        state.put("history", new ArrayList<>(List.of("login", "viewLoginForm", "realSubmit")));
+        return state;
+    }
+}
@@ -35,7 +35,6 @@ import org.apereo.cas.ticket.ServiceTicketFactory;
 import org.apereo.cas.ticket.TicketFactory;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.TicketGrantingTicketFactory;
-import org.apereo.cas.ticket.TicketState;
 import org.apereo.cas.ticket.UnrecognizableServiceForServiceTicketValidationException;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicketFactory;
@@ -73,8 +72,6 @@ import java.util.List;
 public class DefaultCentralAuthenticationService extends AbstractCentralAuthenticationService {
     private static final long serialVersionUID = -8943828074939533986L;
 
-    private final transient Object serviceTicketValidationLock = new Object();
-
     public DefaultCentralAuthenticationService(final ApplicationEventPublisher applicationEventPublisher,
                                                final TicketRegistry ticketRegistry,
                                                final ServicesManager servicesManager,
@@ -143,8 +140,7 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
         val principal = latestAuthentication.getPrincipal();
         val factory = (ServiceTicketFactory) this.ticketFactory.get(ServiceTicket.class);
         val serviceTicket = factory.create(ticketGrantingTicket, selectedService, credentialProvided, ServiceTicket.class);
-        this.ticketRegistry.updateTicket(ticketGrantingTicket);
-        this.ticketRegistry.addTicket(serviceTicket);
+        this.ticketRegistry.addAndUpdate(List.of(serviceTicket), List.of(ticketGrantingTicket));
 
         LOGGER.info("Granted service ticket [{}] for service [{}] and principal [{}]",
             serviceTicket.getId(), DigestUtils.abbreviate(selectedService.getId()), principal.getId());
@@ -181,8 +177,7 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
         val factory = (ProxyTicketFactory) this.ticketFactory.get(ProxyTicket.class);
         val proxyTicket = factory.create(proxyGrantingTicketObject, service, ProxyTicket.class);
 
-        this.ticketRegistry.updateTicket(proxyGrantingTicketObject);
-        this.ticketRegistry.addTicket(proxyTicket);
+        this.ticketRegistry.addAndUpdate(List.of(proxyTicket), List.of(proxyGrantingTicketObject));
 
         LOGGER.info("Granted proxy ticket [{}] for service [{}] for user [{}]",
             proxyTicket.getId(), service.getId(), principal.getId());
@@ -247,39 +242,39 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
             throw new InvalidTicketException(serviceTicketId);
         }
 
-        val serviceTicket = this.ticketRegistry.getTicket(serviceTicketId, ServiceTicket.class);
+        val ticket = this.ticketRegistry.getTicket(serviceTicketId, ServiceTicket.class);
 
-        if (serviceTicket == null) {
+        if (ticket == null) {
             LOGGER.warn("Service ticket [{}] does not exist.", serviceTicketId);
             throw new InvalidTicketException(serviceTicketId);
         }
 
-        try {
-            val selectedService = resolveServiceFromAuthenticationRequest(serviceTicket.getService());
-            val resolvedService = resolveServiceFromAuthenticationRequest(service);
-            LOGGER.debug("Resolved service [{}] from the authentication request with service [{}] linked to service ticket [{}]",
-                resolvedService, selectedService, serviceTicket.getId());
-            /*
-             * Synchronization on ticket object in case of cache based registry doesn't serialize
-             * access to critical section. The reason is that cache pulls serialized data and
-             * builds new object, most likely for each pull. Is this synchronization needed here?
-             */
-            synchronized (this.serviceTicketValidationLock) {
-                if (serviceTicket.isExpired()) {
-                    LOGGER.info("ServiceTicket [{}] has expired.", serviceTicketId);
-                    throw new InvalidTicketException(serviceTicketId);
-                }
-
-                if (!this.serviceMatchingStrategy.matches(selectedService, resolvedService)) {
-                    LOGGER.error("Service ticket [{}] with service [{}] does not match supplied service [{}]",
-                        serviceTicketId, serviceTicket.getService().getId(), resolvedService.getId());
-                    throw new UnrecognizableServiceForServiceTicketValidationException(selectedService);
-                }
-                val ticketState = TicketState.class.cast(serviceTicket);
-                ticketState.update();
-            }
+        val selectedService = resolveServiceFromAuthenticationRequest(ticket.getService());
+        val resolvedService = resolveServiceFromAuthenticationRequest(service);
+        LOGGER.debug("Resolved service [{}] from the authentication request with service [{}] linked to service ticket [{}]",
+            resolvedService, selectedService, ticket.getId());
 
+        if (!this.serviceMatchingStrategy.matches(selectedService, resolvedService)) {
+            LOGGER.error("Service ticket [{}] with service [{}] does not match supplied service [{}]",
+                serviceTicketId, ticket.getService().getId(), resolvedService.getId());
+            throw new UnrecognizableServiceForServiceTicketValidationException(selectedService);
+        }
 
+        /*
+         * The ticket registry records the use of the ticket atomically, such that concurrent
+         * validation attempts of the same ticket, on this node or others, cannot both consume it.
+         * A missing result means the ticket is gone or expired; registry failures are thrown instead,
+         * so a ticket that is still valid is never removed because the registry could not be reached.
+         */
+        val consumed = this.ticketRegistry.consumeTicket(serviceTicketId);
+        if (consumed == null) {
+            LOGGER.info("ServiceTicket [{}] has expired.", serviceTicketId);
+            deleteTicket(serviceTicketId);
+            throw new InvalidTicketException(serviceTicketId);
+        }
+        val serviceTicket = (ServiceTicket) consumed;
+
+        try {
             val registeredService = this.servicesManager.findServiceBy(selectedService);
             LOGGER.trace("Located registered service definition [{}] from [{}] to handle validation request", registeredService, selectedService);
             RegisteredServiceAccessStrategyUtils.ensureServiceAccessIsAllowed(selectedService, registeredService);
@@ -327,8 +322,6 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
         } finally {
             if (serviceTicket.isExpired()) {
                 deleteTicket(serviceTicketId);
-            } else {
-                this.ticketRegistry.updateTicket(serviceTicket);
             }
         }
     }
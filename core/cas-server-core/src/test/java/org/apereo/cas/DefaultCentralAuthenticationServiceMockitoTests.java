@@ -221,6 +221,8 @@ public class DefaultCentralAuthenticationServiceMockitoTests extends BaseCasCore
         when(ticketRegMock.getTicket(eq(tgtMock2.getId()), eq(TicketGrantingTicket.class))).thenReturn(tgtMock2);
         when(ticketRegMock.getTicket(eq(stMock.getId()), eq(ServiceTicket.class))).thenReturn(stMock);
         when(ticketRegMock.getTicket(eq(stMock2.getId()), eq(ServiceTicket.class))).thenReturn(stMock2);
+        when(ticketRegMock.consumeTicket(eq(stMock.getId()))).thenReturn(stMock);
+        when(ticketRegMock.consumeTicket(eq(stMock2.getId()))).thenReturn(stMock2);
         when(ticketRegMock.getTickets()).thenReturn((Collection) Arrays.asList(tgtMock, tgtMock2, stMock, stMock2));
         when(ticketRegMock.getTicketsStream()).thenCallRealMethod();
     }
@@ -273,6 +275,22 @@ public class DefaultCentralAuthenticationServiceMockitoTests extends BaseCasCore
             .forEach(i -> assertEquals(assertion.getChainedAuthentications().get(i), authentication));
     }
 
+    @Test
+    public void verifyServiceTicketIsKeptWhenRegistryFails() {
+        val svc = RegisteredServiceTestUtils.getService(SVC2_ID);
+        when(ticketRegMock.consumeTicket(eq(ST2_ID))).thenThrow(new IllegalStateException("Registry is unavailable"));
+        assertThrows(IllegalStateException.class, () -> this.cas.validateServiceTicket(ST2_ID, svc));
+        verify(ticketRegMock, never()).deleteTicket(eq(ST2_ID));
+    }
+
+    @Test
+    public void verifyMissingServiceTicketIsRemoved() {
+        val svc = RegisteredServiceTestUtils.getService(SVC2_ID);
+        when(ticketRegMock.consumeTicket(eq(ST2_ID))).thenReturn(null);
+        assertThrows(InvalidTicketException.class, () -> this.cas.validateServiceTicket(ST2_ID, svc));
+        verify(ticketRegMock).deleteTicket(eq(ST2_ID));
+    }
+
     private TicketGrantingTicket createRootTicketGrantingTicket() {
         val tgtRootMock = mock(TicketGrantingTicket.class);
         when(tgtRootMock.isExpired()).thenReturn(false);
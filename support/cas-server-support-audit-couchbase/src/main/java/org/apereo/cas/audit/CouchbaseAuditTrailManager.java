@@ -15,6 +15,7 @@ import org.apereo.inspektr.audit.AuditActionContext;
 import java.io.StringWriter;
 import java.time.LocalDate;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -52,6 +53,23 @@ public class CouchbaseAuditTrailManager extends AbstractAuditTrailManager {
         }
     }
 
+    @Override
+    protected void saveAuditRecords(final List<AuditActionContext> audits) {
+        val documents = audits
+            .stream()
+            .map(this::toJsonObject)
+            .collect(Collectors.toList());
+        this.couchbase.bucketUpsertDefaultCollection(documents);
+    }
+
+    @SneakyThrows
+    private JsonObject toJsonObject(final AuditActionContext audit) {
+        try (val stringWriter = new StringWriter()) {
+            this.serializer.to(stringWriter, audit);
+            return JsonObject.fromJson(stringWriter.toString());
+        }
+    }
+
     @Override
     public Set<? extends AuditActionContext> getAuditRecordsSince(final LocalDate localDate) {
         val parameters = JsonObject.create().put("whenActionWasPerformed", DateTimeUtils.dateOf(localDate).getTime());
@@ -37,8 +37,10 @@ public class CasSupportCouchbaseAuditConfiguration {
     @Bean
     public AuditTrailManager couchbaseAuditTrailManager() {
         val cb = casProperties.getAudit().getCouchbase();
-        return new CouchbaseAuditTrailManager(auditsCouchbaseClientFactory(),
+        val manager = new CouchbaseAuditTrailManager(auditsCouchbaseClientFactory(),
             new AuditActionContextJsonSerializer(), cb.isAsynchronous());
+        manager.setQueue(casProperties.getAudit().getQueue());
+        return manager;
     }
 
     @Bean
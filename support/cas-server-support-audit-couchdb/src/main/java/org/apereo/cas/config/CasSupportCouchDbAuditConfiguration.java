@@ -6,6 +6,7 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.couchdb.audit.AuditActionContextCouchDbRepository;
 import org.apereo.cas.couchdb.core.CouchDbConnectorFactory;
 
+import lombok.val;
 import org.apereo.inspektr.audit.AuditTrailManager;
 import org.ektorp.impl.ObjectMapperFactory;
 import org.springframework.beans.factory.ObjectProvider;
@@ -54,7 +55,9 @@ public class CasSupportCouchDbAuditConfiguration {
     @RefreshScope
     public AuditTrailManager couchDbAuditTrailManager(@Qualifier("auditActionContextCouchDbRepository") final AuditActionContextCouchDbRepository repository) {
         repository.initStandardDesignDocument();
-        return new CouchDbAuditTrailManager(casProperties.getAudit().getCouchDb().isAsynchronous(), repository);
+        val manager = new CouchDbAuditTrailManager(casProperties.getAudit().getCouchDb().isAsynchronous(), repository);
+        manager.setQueue(casProperties.getAudit().getQueue());
+        return manager;
     }
 
     @ConditionalOnMissingBean(name = "couchDbAuditTrailExecutionPlanConfigurer")
@@ -6,6 +6,7 @@ import org.apereo.cas.util.DateTimeUtils;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
 import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
 import com.amazonaws.services.dynamodbv2.model.Condition;
 import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
@@ -14,10 +15,13 @@ import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
 import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
 import com.amazonaws.services.dynamodbv2.model.KeyType;
 import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
 import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
 import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
 import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.amazonaws.services.dynamodbv2.util.TableUtils;
+import com.google.common.collect.Lists;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -45,6 +49,10 @@ import java.util.stream.Collectors;
 @Getter
 @RequiredArgsConstructor
 public class DynamoDbAuditTrailManagerFacilitator {
+    private static final int MAX_BATCH_WRITE_ITEMS = 25;
+
+    private static final int MAX_BATCH_WRITE_ATTEMPTS = 3;
+
     private final AuditDynamoDbProperties dynamoDbProperties;
 
     private final AmazonDynamoDB amazonDynamoDBClient;
@@ -109,6 +117,32 @@ public class DynamoDbAuditTrailManagerFacilitator {
         LOGGER.debug("Record added with result [{}]", putItemResult);
     }
 
+    /**
+     * Save records in batches of write requests.
+     * Items left unprocessed by the service are resubmitted for a limited number of attempts.
+     *
+     * @param records the records
+     */
+    public void save(final List<AuditActionContext> records) {
+        Lists.partition(records, MAX_BATCH_WRITE_ITEMS).forEach(batch -> {
+            val requests = batch
+                .stream()
+                .map(record -> new WriteRequest(new PutRequest(buildTableAttributeValuesMap(record))))
+                .collect(Collectors.toList());
+            var items = Map.of(dynamoDbProperties.getTableName(), requests);
+            var attempts = 0;
+            while (!items.isEmpty() && attempts++ < MAX_BATCH_WRITE_ATTEMPTS) {
+                val request = new BatchWriteItemRequest(items);
+                LOGGER.debug("Submitting batch write request for [{}] record(s)", requests.size());
+                items = amazonDynamoDBClient.batchWriteItem(request).getUnprocessedItems();
+            }
+            if (!items.isEmpty()) {
+                LOGGER.warn("Unable to save [{}] record(s) after [{}] attempt(s)",
+                    items.values().stream().mapToInt(List::size).sum(), MAX_BATCH_WRITE_ATTEMPTS);
+            }
+        });
+    }
+
     /**
      * Remove all.
      */
@@ -34,7 +34,9 @@ public class CasSupportDynamoDbAuditConfiguration {
     @RefreshScope
     public AuditTrailManager dynamoDbAuditTrailManager() {
         val db = casProperties.getAudit().getDynamoDb();
-        return new DynamoDbAuditTrailManager(dynamoDbAuditTrailManagerFacilitator(), db.isAsynchronous());
+        val manager = new DynamoDbAuditTrailManager(dynamoDbAuditTrailManagerFacilitator(), db.isAsynchronous());
+        manager.setQueue(casProperties.getAudit().getQueue());
+        return manager;
     }
 
     @RefreshScope
@@ -0,0 +1,98 @@
+package org.apereo.cas.audit;
+
+import org.apereo.cas.audit.spi.AbstractAuditTrailManager;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.support.JdbcAuditTrailManager;
+import org.apereo.inspektr.common.Cleanable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link BatchingJdbcAuditTrailManager}. Audit records that are queued asynchronously
+ * are inserted using JDBC batch updates, one transaction per batch.
+ * Records that are saved synchronously, along with queries and cleanup operations,
+ * are handed off to the underlying {@link JdbcAuditTrailManager}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class BatchingJdbcAuditTrailManager extends AbstractAuditTrailManager implements Cleanable {
+    private static final String INSERT_SQL_TEMPLATE = "INSERT INTO %s "
+        + "(AUD_USER, AUD_CLIENT_IP, AUD_SERVER_IP, AUD_RESOURCE, AUD_ACTION, APPLIC_CD, AUD_DATE) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcAuditTrailManager auditTrailManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String tableName;
+
+    private final int columnLength;
+
+    public BatchingJdbcAuditTrailManager(final JdbcAuditTrailManager auditTrailManager,
+                                         final TransactionTemplate transactionTemplate,
+                                         final DataSource dataSource,
+                                         final String tableName,
+                                         final int columnLength,
+                                         final boolean asynchronous) {
+        super(asynchronous);
+        this.auditTrailManager = auditTrailManager;
+        this.auditTrailManager.setAsynchronous(false);
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.tableName = tableName;
+        this.columnLength = columnLength;
+    }
+
+    @Override
+    protected void saveAuditRecord(final AuditActionContext audit) {
+        auditTrailManager.record(audit);
+    }
+
+    @Override
+    protected void saveAuditRecords(final List<AuditActionContext> audits) {
+        val sql = String.format(INSERT_SQL_TEMPLATE, tableName);
+        val args = audits
+            .stream()
+            .map(audit -> new Object[]{
+                StringUtils.substring(audit.getPrincipal(), 0, columnLength),
+                audit.getClientIpAddress(),
+                audit.getServerIpAddress(),
+                StringUtils.substring(audit.getResourceOperatedUpon(), 0, columnLength),
+                StringUtils.substring(audit.getActionPerformed(), 0, columnLength),
+                audit.getApplicationCode(),
+                audit.getWhenActionWasPerformed()
+            })
+            .collect(Collectors.toList());
+        LOGGER.trace("Inserting [{}] audit records into [{}]", args.size(), tableName);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, args));
+    }
+
+    @Override
+    public Set<? extends AuditActionContext> getAuditRecordsSince(final LocalDate localDate) {
+        return auditTrailManager.getAuditRecordsSince(localDate);
+    }
+
+    @Override
+    public void removeAll() {
+        auditTrailManager.removeAll();
+    }
+
+    @Override
+    public void clean() {
+        auditTrailManager.clean();
+    }
+}
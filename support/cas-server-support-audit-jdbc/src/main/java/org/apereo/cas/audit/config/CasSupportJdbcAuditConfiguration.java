@@ -1,6 +1,7 @@
 package org.apereo.cas.audit.config;
 
 import org.apereo.cas.audit.AuditTrailExecutionPlanConfigurer;
+import org.apereo.cas.audit.BatchingJdbcAuditTrailManager;
 import org.apereo.cas.audit.spi.entity.AuditTrailEntity;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.audit.AuditJdbcProperties;
@@ -71,10 +72,12 @@ public class CasSupportJdbcAuditConfiguration {
         val t = new JdbcAuditTrailManager(inspektrAuditTransactionTemplate());
         t.setCleanupCriteria(auditCleanupCriteria());
         t.setDataSource(inspektrAuditTrailDataSource());
-        t.setAsynchronous(jdbc.isAsynchronous());
         t.setColumnLength(jdbc.getColumnLength());
         t.setTableName(getAuditTableNameFrom(jdbc));
-        return t;
+        val manager = new BatchingJdbcAuditTrailManager(t, inspektrAuditTransactionTemplate(),
+            inspektrAuditTrailDataSource(), getAuditTableNameFrom(jdbc), jdbc.getColumnLength(), jdbc.isAsynchronous());
+        manager.setQueue(casProperties.getAudit().getQueue());
+        return manager;
     }
 
     @ConditionalOnMissingBean(name = "jdbcAuditTrailExecutionPlanConfigurer")
@@ -12,8 +12,11 @@ import org.springframework.data.redis.core.RedisTemplate;
 
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -48,6 +51,19 @@ public class RedisAuditTrailManager extends AbstractAuditTrailManager {
         }
     }
 
+    @Override
+    protected void saveAuditRecords(final List<AuditActionContext> audits) {
+        try {
+            val records = audits
+                .stream()
+                .collect(Collectors.toMap(RedisAuditTrailManager::getAuditRedisKey, Function.identity(),
+                    (audit1, audit2) -> audit2, LinkedHashMap::new));
+            this.redisTemplate.opsForValue().multiSet(records);
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
     @Override
     public Set<? extends AuditActionContext> getAuditRecordsSince(final LocalDate localDate) {
         try {
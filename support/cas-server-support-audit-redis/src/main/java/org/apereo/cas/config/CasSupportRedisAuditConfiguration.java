@@ -31,7 +31,9 @@ public class CasSupportRedisAuditConfiguration {
     @ConditionalOnMissingBean(name = "redisAuditTrailManager")
     public AuditTrailManager redisAuditTrailManager() {
         val redis = casProperties.getAudit().getRedis();
-        return new RedisAuditTrailManager(auditRedisTemplate(), redis.isAsynchronous());
+        val manager = new RedisAuditTrailManager(auditRedisTemplate(), redis.isAsynchronous());
+        manager.setQueue(casProperties.getAudit().getQueue());
+        return manager;
     }
 
     @Bean
@@ -31,7 +31,9 @@ public class CasSupportRestAuditConfiguration {
     @RefreshScope
     public AuditTrailManager restAuditTrailManager() {
         val rest = casProperties.getAudit().getRest();
-        return new RestAuditTrailManager(rest);
+        val manager = new RestAuditTrailManager(rest);
+        manager.setQueue(casProperties.getAudit().getQueue());
+        return manager;
     }
 
     @Bean
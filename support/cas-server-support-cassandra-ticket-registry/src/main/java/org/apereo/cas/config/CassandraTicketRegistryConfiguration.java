@@ -52,6 +52,7 @@ public class CassandraTicketRegistryConfiguration {
         val registry = new CassandraTicketRegistry(ticketCatalog, sessionFactory,
             cassandra, ticketSerializationManager.getObject());
         registry.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(cassandra.getCrypto(), "cassandra"));
+        registry.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
         return registry;
     }
 
@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -263,6 +264,25 @@ public class CouchbaseClientFactory {
         return bucketUpsertDefaultCollection(id, document);
     }
 
+    /**
+     * Bucket upsert documents into the default collection, each with a randomly-generated id.
+     * Documents are sent concurrently, and the method returns once all upserts have completed.
+     *
+     * @param documents the documents
+     * @return the mutation results
+     */
+    public List<MutationResult> bucketUpsertDefaultCollection(final List<JsonObject> documents) {
+        val collection = this.cluster.bucket(properties.getBucket()).defaultCollection().async();
+        val results = documents
+            .stream()
+            .map(document -> collection.upsert(UUID.randomUUID().toString(), document, UpsertOptions.upsertOptions()))
+            .collect(Collectors.toList());
+        return results
+            .stream()
+            .map(CompletableFuture::join)
+            .collect(Collectors.toList());
+    }
+
     /**
      * Bucket upsert default collection.
      *
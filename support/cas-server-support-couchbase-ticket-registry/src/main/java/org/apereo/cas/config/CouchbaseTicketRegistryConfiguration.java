@@ -43,6 +43,7 @@ public class CouchbaseTicketRegistryConfiguration {
         val couchbase = casProperties.getTicket().getRegistry().getCouchbase();
         val c = new CouchbaseTicketRegistry(ticketRegistryCouchbaseClientFactory());
         c.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(couchbase.getCrypto(), "couchbase"));
+        c.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
         return c;
     }
 
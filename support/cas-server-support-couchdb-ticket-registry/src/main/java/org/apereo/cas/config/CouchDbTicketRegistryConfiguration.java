@@ -61,6 +61,7 @@ public class CouchDbTicketRegistryConfiguration {
         val couchDb = casProperties.getTicket().getRegistry().getCouchDb();
         val c = new CouchDbTicketRegistry(ticketRegistryCouchDbRepository(), couchDb.getRetries());
         c.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(couchDb.getCrypto(), "couchdb"));
+        c.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
         return c;
     }
 
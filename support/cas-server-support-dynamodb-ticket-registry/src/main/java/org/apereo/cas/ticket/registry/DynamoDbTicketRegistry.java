@@ -8,10 +8,13 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * This is {@link DynamoDbTicketRegistry}.
+ * Batches of tickets that are added and updated together are written using batch write requests.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
@@ -68,6 +71,18 @@ public class DynamoDbTicketRegistry extends AbstractTicketRegistry {
         return ticket;
     }
 
+    @Override
+    public void addAndUpdate(final Collection<Ticket> ticketsToAdd, final Collection<Ticket> ticketsToUpdate) {
+        try {
+            val tickets = new LinkedHashMap<Ticket, Ticket>();
+            Stream.concat(ticketsToUpdate.stream(), ticketsToAdd.stream()).forEach(ticket -> tickets.put(ticket, encodeTicket(ticket)));
+            LOGGER.debug("Adding tickets [{}] and updating tickets [{}]", ticketsToAdd, ticketsToUpdate);
+            this.dbTableService.putAll(tickets);
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
     @Override
     public boolean deleteSingleTicket(final String ticketIdToDelete) {
         val ticketId = encodeTicketId(ticketIdToDelete);
@@ -8,6 +8,7 @@ import org.apereo.cas.util.CollectionUtils;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
 import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
@@ -17,14 +18,18 @@ import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
 import com.amazonaws.services.dynamodbv2.model.KeyType;
 import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
 import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
 import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
 import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.amazonaws.services.dynamodbv2.util.TableUtils;
+import com.google.common.collect.Lists;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.jooq.lambda.Unchecked;
 
 import java.io.ByteArrayInputStream;
@@ -32,6 +37,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -46,6 +52,10 @@ import java.util.stream.Collectors;
 @Getter
 @RequiredArgsConstructor
 public class DynamoDbTicketRegistryFacilitator {
+    private static final int MAX_BATCH_WRITE_ATTEMPTS = 5;
+
+    private static final int MAX_BATCH_WRITE_ITEMS = 25;
+
     private final TicketCatalog ticketCatalog;
     private final DynamoDbTicketRegistryProperties dynamoDbProperties;
     private final AmazonDynamoDB amazonDynamoDBClient;
@@ -160,7 +170,36 @@ public class DynamoDbTicketRegistryFacilitator {
         LOGGER.debug("Submitting put request [{}] for ticket id [{}]", putItemRequest, encodedTicket.getId());
         val putItemResult = amazonDynamoDBClient.putItem(putItemRequest);
         LOGGER.debug("Ticket added with result [{}]", putItemResult);
-        getAll();
+    }
+
+    /**
+     * Put tickets using batch write requests, which carry up to {@value #MAX_BATCH_WRITE_ITEMS} tickets each.
+     * Writes that are not processed by the table, typically due to throttling, are resubmitted.
+     *
+     * @param tickets the tickets, mapped to their encoded form
+     */
+    public void putAll(final Map<Ticket, Ticket> tickets) {
+        val writeRequests = tickets.entrySet()
+            .stream()
+            .map(entry -> {
+                val metadata = this.ticketCatalog.find(entry.getKey());
+                val values = buildTableAttributeValuesMapFromTicket(entry.getKey(), entry.getValue());
+                return Pair.of(metadata.getProperties().getStorageName(), new WriteRequest().withPutRequest(new PutRequest(values)));
+            })
+            .collect(Collectors.toList());
+        Lists.partition(writeRequests, MAX_BATCH_WRITE_ITEMS).forEach(batch -> {
+            Map<String, List<WriteRequest>> requestItems = batch.stream()
+                .collect(Collectors.groupingBy(Pair::getKey, Collectors.mapping(Pair::getValue, Collectors.toList())));
+            for (var attempt = 1; attempt <= MAX_BATCH_WRITE_ATTEMPTS && !requestItems.isEmpty(); attempt++) {
+                LOGGER.debug("Submitting batch write request for tables [{}]", requestItems.keySet());
+                val result = amazonDynamoDBClient.batchWriteItem(new BatchWriteItemRequest(requestItems));
+                LOGGER.debug("Tickets added with result [{}]", result);
+                requestItems = result.getUnprocessedItems() == null ? Map.of() : result.getUnprocessedItems();
+            }
+            if (!requestItems.isEmpty()) {
+                LOGGER.warn("Unable to write tickets to tables [{}] after [{}] attempt(s)", requestItems.keySet(), MAX_BATCH_WRITE_ATTEMPTS);
+            }
+        });
     }
 
     /**
@@ -150,8 +150,10 @@ public class EhcacheTicketRegistryConfiguration {
 
         manager.initializeCaches();
         LOGGER.debug("The following caches are available: [{}]", manager.getCacheNames());
-        return new EhCacheTicketRegistry(ticketCatalog, ehCacheManager,
+        val registry = new EhCacheTicketRegistry(ticketCatalog, ehCacheManager,
             CoreTicketUtils.newTicketRegistryCipherExecutor(crypto, "ehcache"));
+        registry.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
+        return registry;
     }
 
     /**
@@ -0,0 +1,184 @@
+package org.apereo.cas.api;
+
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.util.DateTimeUtils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * This is {@link AuthenticationRiskProfile}, which summarizes the authentication history
+ * of a principal. Authentication events are not kept individually; instead, the profile
+ * keeps histograms of client ip addresses, geolocations and user agents per hour in which
+ * the events were created, so that counts for a window of recent history can be produced
+ * without loading and filtering the events again.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@ToString(of = "principal")
+@RequiredArgsConstructor
+public class AuthenticationRiskProfile {
+    @Getter
+    private final String principal;
+
+    private final NavigableMap<Instant, Histogram> histograms = new TreeMap<>();
+
+    private static String toKey(final String value) {
+        return StringUtils.isBlank(value) ? null : value.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static String toKey(final GeoLocationRequest location) {
+        return location.getLatitude() + "," + location.getLongitude();
+    }
+
+    private static long getCount(final Map<String, Long> counts, final String key) {
+        return key == null ? 0 : counts.getOrDefault(key, 0L);
+    }
+
+    private static void increment(final Map<String, Long> counts, final String key) {
+        if (key != null) {
+            counts.merge(key, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Record the authentication event in the profile.
+     *
+     * @param event the event
+     */
+    public void record(final CasEvent event) {
+        val creationTime = DateTimeUtils.convertToZonedDateTime(event.getCreationTime())
+            .toInstant().truncatedTo(ChronoUnit.HOURS);
+        synchronized (histograms) {
+            val histogram = histograms.computeIfAbsent(creationTime, k -> new Histogram());
+            histogram.total++;
+            increment(histogram.ipAddresses, toKey(event.getClientIpAddress()));
+            increment(histogram.agents, toKey(event.getAgent()));
+            increment(histogram.geoLocations, toKey(event.getGeoLocation()));
+        }
+    }
+
+    /**
+     * Discard the history recorded before the given date.
+     *
+     * @param since the date
+     */
+    public void prune(final Instant since) {
+        synchronized (histograms) {
+            histograms.headMap(since.truncatedTo(ChronoUnit.HOURS), false).clear();
+        }
+    }
+
+    /**
+     * Whether any history is recorded since the given date.
+     *
+     * @param since the date
+     * @return true/false
+     */
+    public boolean isEmpty(final Instant since) {
+        return getTotal(since) == 0;
+    }
+
+    /**
+     * Count the authentication events recorded since the given date.
+     *
+     * @param since the date
+     * @return the count
+     */
+    public long getTotal(final Instant since) {
+        return count(since, h -> h.total);
+    }
+
+    /**
+     * Count the authentication events recorded since the given date from the client ip address.
+     *
+     * @param since     the date
+     * @param ipAddress the ip address
+     * @return the count
+     */
+    public long countIpAddress(final Instant since, final String ipAddress) {
+        val key = toKey(ipAddress);
+        return count(since, h -> getCount(h.ipAddresses, key));
+    }
+
+    /**
+     * Count the authentication events recorded since the given date with the user agent.
+     *
+     * @param since the date
+     * @param agent the agent
+     * @return the count
+     */
+    public long countAgent(final Instant since, final String agent) {
+        val key = toKey(agent);
+        return count(since, h -> getCount(h.agents, key));
+    }
+
+    /**
+     * Count the authentication events recorded since the given date from the geolocation.
+     *
+     * @param since    the date
+     * @param location the location
+     * @return the count
+     */
+    public long countGeoLocation(final Instant since, final GeoLocationRequest location) {
+        val key = toKey(location);
+        return count(since, h -> getCount(h.geoLocations, key));
+    }
+
+    /**
+     * Count the authentication events recorded since the given date whose (UTC) hour of day matches.
+     *
+     * @param since the date
+     * @param hours the hours of the day to count
+     * @return the count
+     */
+    public long countHoursOfDay(final Instant since, final IntPredicate hours) {
+        synchronized (histograms) {
+            return histograms.tailMap(since.truncatedTo(ChronoUnit.HOURS), true)
+                .entrySet()
+                .stream()
+                .filter(entry -> hours.test(entry.getKey().atZone(ZoneOffset.UTC).getHour()))
+                .mapToLong(entry -> entry.getValue().total)
+                .sum();
+        }
+    }
+
+    private long count(final Instant since, final ToLongFunction<Histogram> counter) {
+        synchronized (histograms) {
+            return histograms.tailMap(since.truncatedTo(ChronoUnit.HOURS), true)
+                .values()
+                .stream()
+                .mapToLong(counter)
+                .sum();
+        }
+    }
+
+    /**
+     * Counts of authentication events created within the same hour.
+     */
+    private static class Histogram {
+        private final Map<String, Long> ipAddresses = new HashMap<>();
+
+        private final Map<String, Long> agents = new HashMap<>();
+
+        private final Map<String, Long> geoLocations = new HashMap<>();
+
+        private long total;
+    }
+}
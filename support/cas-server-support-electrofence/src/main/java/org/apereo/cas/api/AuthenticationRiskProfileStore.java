@@ -0,0 +1,41 @@
+package org.apereo.cas.api;
+
+import org.apereo.cas.support.events.CasEventRepositoryListener;
+import org.apereo.cas.support.events.dao.CasEvent;
+
+/**
+ * This is {@link AuthenticationRiskProfileStore}, which keeps track of
+ * the authentication risk profile of each principal. Profiles are kept
+ * up to date as authentication events are saved into the events repository.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+public interface AuthenticationRiskProfileStore extends CasEventRepositoryListener {
+
+    /**
+     * Gets the authentication risk profile of the principal,
+     * covering the recent authentication history.
+     *
+     * @param principal the principal
+     * @return the profile
+     */
+    AuthenticationRiskProfile getProfile(String principal);
+
+    /**
+     * Record the authentication event in the profile of its principal.
+     *
+     * @param event the event
+     */
+    void record(CasEvent event);
+
+    @Override
+    default void onEventSaved(final CasEvent event) {
+        record(event);
+    }
+
+    /**
+     * Discard all profiles.
+     */
+    void invalidate();
+}
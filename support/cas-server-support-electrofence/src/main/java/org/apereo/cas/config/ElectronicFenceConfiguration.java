@@ -5,6 +5,7 @@ import org.apereo.cas.api.AuthenticationRiskContingencyPlan;
 import org.apereo.cas.api.AuthenticationRiskEvaluator;
 import org.apereo.cas.api.AuthenticationRiskMitigator;
 import org.apereo.cas.api.AuthenticationRiskNotifier;
+import org.apereo.cas.api.AuthenticationRiskProfileStore;
 import org.apereo.cas.audit.AuditTrailRecordResolutionPlanConfigurer;
 import org.apereo.cas.authentication.adaptive.geo.GeoLocationService;
 import org.apereo.cas.configuration.CasConfigurationProperties;
@@ -19,6 +20,7 @@ import org.apereo.cas.impl.notify.AuthenticationRiskSmsNotifier;
 import org.apereo.cas.impl.plans.BaseAuthenticationRiskContingencyPlan;
 import org.apereo.cas.impl.plans.BlockAuthenticationContingencyPlan;
 import org.apereo.cas.impl.plans.MultifactorAuthenticationContingencyPlan;
+import org.apereo.cas.impl.profile.DefaultAuthenticationRiskProfileStore;
 import org.apereo.cas.support.events.CasEventRepository;
 import org.apereo.cas.util.io.CommunicationsManager;
 
@@ -116,32 +118,40 @@ public class ElectronicFenceConfiguration {
         return new DefaultAuthenticationRiskMitigator(multifactorAuthenticationContingencyPlan());
     }
 
+    @ConditionalOnMissingBean(name = "authenticationRiskProfileStore")
+    @Bean
+    @RefreshScope
+    public AuthenticationRiskProfileStore authenticationRiskProfileStore() {
+        return new DefaultAuthenticationRiskProfileStore(casEventRepository.getObject(),
+            casProperties.getAuthn().getAdaptive().getRisk());
+    }
+
     @ConditionalOnMissingBean(name = "ipAddressAuthenticationRequestRiskCalculator")
     @Bean
     @RefreshScope
     public AuthenticationRequestRiskCalculator ipAddressAuthenticationRequestRiskCalculator() {
-        return new IpAddressAuthenticationRequestRiskCalculator(casEventRepository.getObject(), casProperties);
+        return new IpAddressAuthenticationRequestRiskCalculator(authenticationRiskProfileStore(), casProperties);
     }
 
     @ConditionalOnMissingBean(name = "userAgentAuthenticationRequestRiskCalculator")
     @Bean
     @RefreshScope
     public AuthenticationRequestRiskCalculator userAgentAuthenticationRequestRiskCalculator() {
-        return new UserAgentAuthenticationRequestRiskCalculator(casEventRepository.getObject(), casProperties);
+        return new UserAgentAuthenticationRequestRiskCalculator(authenticationRiskProfileStore(), casProperties);
     }
 
     @ConditionalOnMissingBean(name = "dateTimeAuthenticationRequestRiskCalculator")
     @Bean
     @RefreshScope
     public AuthenticationRequestRiskCalculator dateTimeAuthenticationRequestRiskCalculator() {
-        return new DateTimeAuthenticationRequestRiskCalculator(casEventRepository.getObject(), casProperties);
+        return new DateTimeAuthenticationRequestRiskCalculator(authenticationRiskProfileStore(), casProperties);
     }
 
     @ConditionalOnMissingBean(name = "geoLocationAuthenticationRequestRiskCalculator")
     @Bean
     @RefreshScope
     public AuthenticationRequestRiskCalculator geoLocationAuthenticationRequestRiskCalculator() {
-        return new GeoLocationAuthenticationRequestRiskCalculator(casEventRepository.getObject(),
+        return new GeoLocationAuthenticationRequestRiskCalculator(authenticationRiskProfileStore(),
             casProperties, geoLocationService.getIfAvailable());
     }
 
@@ -1,13 +1,12 @@
 package org.apereo.cas.impl.calcs;
 
 import org.apereo.cas.api.AuthenticationRequestRiskCalculator;
+import org.apereo.cas.api.AuthenticationRiskProfile;
+import org.apereo.cas.api.AuthenticationRiskProfileStore;
 import org.apereo.cas.api.AuthenticationRiskScore;
 import org.apereo.cas.authentication.Authentication;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.services.RegisteredService;
-import org.apereo.cas.support.events.CasEventRepository;
-import org.apereo.cas.support.events.dao.CasEvent;
-import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,9 +15,9 @@ import lombok.val;
 import javax.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.util.Collection;
 
 /**
  * This is {@link BaseAuthenticationRequestRiskCalculator}.
@@ -32,9 +31,9 @@ public abstract class BaseAuthenticationRequestRiskCalculator implements Authent
 
 
     /**
-     * CAS event repository instance.
+     * Authentication risk profile store.
      */
-    protected final CasEventRepository casEventRepository;
+    protected final AuthenticationRiskProfileStore authenticationRiskProfileStore;
 
     /**
      * CAS settings.
@@ -46,11 +45,12 @@ public abstract class BaseAuthenticationRequestRiskCalculator implements Authent
                                                    final RegisteredService service,
                                                    final HttpServletRequest request) {
         val principal = authentication.getPrincipal();
-        val events = getCasTicketGrantingTicketCreatedEventsFor(principal.getId());
-        if (events.isEmpty()) {
+        val profile = getAuthenticationRiskProfileFor(principal.getId());
+        val since = getRecentHistoryStart();
+        if (profile.isEmpty(since)) {
             return new AuthenticationRiskScore(HIGHEST_RISK_SCORE);
         }
-        val score = new AuthenticationRiskScore(calculateScore(request, authentication, service, events));
+        val score = new AuthenticationRiskScore(calculateScore(request, authentication, service, profile, since));
         LOGGER.debug("Calculated authentication risk score by [{}] is [{}]", getClass().getSimpleName(), score);
         return score;
     }
@@ -61,47 +61,59 @@ public abstract class BaseAuthenticationRequestRiskCalculator implements Authent
      * @param request        the request
      * @param authentication the authentication
      * @param service        the service
-     * @param events         the events
+     * @param profile        the authentication risk profile of the principal
+     * @param since          the start of the recent authentication history
      * @return the authentication risk score
      */
     protected BigDecimal calculateScore(final HttpServletRequest request,
                                         final Authentication authentication,
                                         final RegisteredService service,
-                                        final Collection<? extends CasEvent> events) {
+                                        final AuthenticationRiskProfile profile,
+                                        final Instant since) {
         return HIGHEST_RISK_SCORE;
     }
 
     /**
-     * Gets cas ticket granting ticket created events.
+     * Gets the authentication risk profile for the principal.
      *
      * @param principal the principal
-     * @return the cas ticket granting ticket created events for
+     * @return the authentication risk profile
      */
-    protected Collection<? extends CasEvent> getCasTicketGrantingTicketCreatedEventsFor(final String principal) {
-        val type = CasTicketGrantingTicketCreatedEvent.class.getName();
-        LOGGER.debug("Retrieving events of type [{}] for [{}]", type, principal);
+    protected AuthenticationRiskProfile getAuthenticationRiskProfileFor(final String principal) {
+        LOGGER.debug("Retrieving authentication risk profile for [{}]", principal);
+        return authenticationRiskProfileStore.getProfile(principal);
+    }
 
-        val date = ZonedDateTime.now(ZoneOffset.UTC)
-            .minusDays(casProperties.getAuthn().getAdaptive().getRisk().getDaysInRecentHistory());
-        return casEventRepository.getEventsOfTypeForPrincipal(type, principal, date);
+    /**
+     * Gets the start of the recent authentication history.
+     *
+     * @return the start of the recent authentication history
+     */
+    protected Instant getRecentHistoryStart() {
+        return ZonedDateTime.now(ZoneOffset.UTC)
+            .minusDays(casProperties.getAuthn().getAdaptive().getRisk().getDaysInRecentHistory())
+            .toInstant();
     }
 
     /**
      * Calculate score based on events count big decimal.
      *
      * @param authentication the authentication
-     * @param events         the events
+     * @param profile        the authentication risk profile of the principal
+     * @param since          the start of the recent authentication history
      * @param count          the count
      * @return the big decimal
      */
     protected BigDecimal calculateScoreBasedOnEventsCount(final Authentication authentication,
-                                                          final Collection<? extends CasEvent> events,
+                                                          final AuthenticationRiskProfile profile,
+                                                          final Instant since,
                                                           final long count) {
-        if (count == events.size()) {
+        val total = profile.getTotal(since);
+        if (count == total) {
             LOGGER.debug("Principal [{}] is assigned to the lowest risk score with attempted count of [{}]", authentication.getPrincipal(), count);
             return LOWEST_RISK_SCORE;
         }
-        return getFinalAveragedScore(count, events.size());
+        return getFinalAveragedScore(count, total);
     }
 
     /**
@@ -0,0 +1,109 @@
+package org.apereo.cas.impl.profile;
+
+import org.apereo.cas.api.AuthenticationRiskProfile;
+import org.apereo.cas.api.AuthenticationRiskProfileStore;
+import org.apereo.cas.configuration.model.core.authentication.RiskBasedAuthenticationProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.support.events.CasEventRepository;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * This is {@link DefaultAuthenticationRiskProfileStore}. The profile of a principal is built from
+ * the events repository once, when it is first requested, and is then kept up to date incrementally
+ * as ticket-granting ticket creation events of the principal are saved into the events repository.
+ * Profiles are rebuilt from the events repository once they reach the configured expiration,
+ * so that events recorded by other nodes are eventually accounted for.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class DefaultAuthenticationRiskProfileStore implements AuthenticationRiskProfileStore {
+    private static final long MAX_CACHE_SIZE = 100_000;
+
+    private static final String EVENT_TYPE = CasTicketGrantingTicketCreatedEvent.class.getName();
+
+    private final CasEventRepository casEventRepository;
+
+    private final RiskBasedAuthenticationProperties properties;
+
+    private final Cache<String, AuthenticationRiskProfile> profiles;
+
+    public DefaultAuthenticationRiskProfileStore(final CasEventRepository casEventRepository,
+                                                 final RiskBasedAuthenticationProperties properties) {
+        this.casEventRepository = casEventRepository;
+        this.properties = properties;
+        val expiration = Beans.newDuration(properties.getProfileExpiration()).toNanos();
+        this.profiles = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .expireAfter(new Expiry<String, AuthenticationRiskProfile>() {
+                @Override
+                public long expireAfterCreate(final String key, final AuthenticationRiskProfile value, final long currentTime) {
+                    return expiration;
+                }
+
+                @Override
+                public long expireAfterUpdate(final String key, final AuthenticationRiskProfile value,
+                                              final long currentTime, final long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(final String key, final AuthenticationRiskProfile value,
+                                            final long currentTime, final long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    @Override
+    public AuthenticationRiskProfile getProfile(final String principal) {
+        val profile = profiles.get(principal, this::loadProfile);
+        profile.prune(getRecentHistoryStart());
+        return profile;
+    }
+
+    @Override
+    public void record(final CasEvent event) {
+        if (EVENT_TYPE.equals(event.getType()) && StringUtils.isNotBlank(event.getPrincipalId())) {
+            profiles.asMap().computeIfPresent(event.getPrincipalId(), (principal, profile) -> {
+                LOGGER.trace("Recording authentication event [{}] in the risk profile of [{}]", event.getEventId(), principal);
+                profile.record(event);
+                return profile;
+            });
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        profiles.invalidateAll();
+    }
+
+    private AuthenticationRiskProfile loadProfile(final String principal) {
+        val since = getRecentHistoryStart();
+        LOGGER.debug("Building authentication risk profile for [{}] from events created after [{}]", principal, since);
+        val events = casEventRepository.getEventsOfTypeForPrincipal(EVENT_TYPE, principal,
+            ZonedDateTime.ofInstant(since, ZoneOffset.UTC));
+        val profile = new AuthenticationRiskProfile(principal);
+        events.forEach(profile::record);
+        LOGGER.debug("Built authentication risk profile for [{}] from [{}] event(s)", principal, events.size());
+        return profile;
+    }
+
+    private Instant getRecentHistoryStart() {
+        return ZonedDateTime.now(ZoneOffset.UTC).minusDays(properties.getDaysInRecentHistory()).toInstant();
+    }
+}
@@ -6,6 +6,8 @@ import org.apereo.cas.impl.calcs.IpAddressAuthenticationRequestRiskCalculatorTes
 import org.apereo.cas.impl.calcs.UserAgentAuthenticationRequestRiskCalculatorTests;
 import org.apereo.cas.impl.notify.AuthenticationRiskEmailNotifierTests;
 import org.apereo.cas.impl.notify.AuthenticationRiskSmsNotifierTests;
+import org.apereo.cas.impl.profile.AuthenticationRiskProfileStoreEventTests;
+import org.apereo.cas.impl.profile.DefaultAuthenticationRiskProfileStoreTests;
 import org.apereo.cas.web.flow.RiskAwareAuthenticationWebflowConfigurerTests;
 
 import org.junit.platform.runner.JUnitPlatform;
@@ -25,7 +27,9 @@ import org.junit.runner.RunWith;
     UserAgentAuthenticationRequestRiskCalculatorTests.class,
     RiskAwareAuthenticationWebflowConfigurerTests.class,
     AuthenticationRiskEmailNotifierTests.class,
-    AuthenticationRiskSmsNotifierTests.class
+    AuthenticationRiskSmsNotifierTests.class,
+    DefaultAuthenticationRiskProfileStoreTests.class,
+    AuthenticationRiskProfileStoreEventTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllTestsSuite {
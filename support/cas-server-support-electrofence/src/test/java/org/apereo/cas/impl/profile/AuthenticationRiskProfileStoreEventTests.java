@@ -0,0 +1,65 @@
+package org.apereo.cas.impl.profile;
+
+import org.apereo.cas.api.AuthenticationRiskProfileStore;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.impl.calcs.BaseAuthenticationRequestRiskCalculatorTests;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+
+import lombok.val;
+import org.apereo.inspektr.common.web.ClientInfo;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link AuthenticationRiskProfileStoreEventTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class AuthenticationRiskProfileStoreEventTests extends BaseAuthenticationRequestRiskCalculatorTests {
+    private static final String IP_ADDRESS = "9.9.9.9";
+
+    @Autowired
+    @Qualifier("authenticationRiskProfileStore")
+    private AuthenticationRiskProfileStore authenticationRiskProfileStore;
+
+    @Test
+    public void verifyProfileUpdatedWhenEventIsSaved() throws Exception {
+        val request = new MockHttpServletRequest();
+        request.setRemoteAddr(IP_ADDRESS);
+        request.setLocalAddr("127.0.0.1");
+        ClientInfoHolder.setClientInfo(new ClientInfo(request));
+
+        val since = ZonedDateTime.now(ZoneOffset.UTC).minusDays(1).toInstant();
+        assertEquals(0, authenticationRiskProfileStore.getProfile("casuser").countIpAddress(since, IP_ADDRESS));
+
+        val tgt = mock(TicketGrantingTicket.class);
+        when(tgt.getId()).thenReturn("TGT-1");
+        when(tgt.getCreationTime()).thenReturn(ZonedDateTime.now(ZoneOffset.UTC));
+        when(tgt.getAuthentication()).thenReturn(CoreAuthenticationTestUtils.getAuthentication("casuser"));
+        applicationContext.publishEvent(new CasTicketGrantingTicketCreatedEvent(this, tgt));
+
+        val deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (authenticationRiskProfileStore.getProfile("casuser").countIpAddress(since, IP_ADDRESS) == 0
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, authenticationRiskProfileStore.getProfile("casuser").countIpAddress(since, IP_ADDRESS));
+        assertEquals(1, casEventRepository.getEventsForPrincipal("casuser").stream()
+            .filter(event -> IP_ADDRESS.equals(event.getClientIpAddress()))
+            .count());
+    }
+}
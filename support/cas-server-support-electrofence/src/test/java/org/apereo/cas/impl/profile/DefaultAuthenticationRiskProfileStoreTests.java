@@ -0,0 +1,92 @@
+package org.apereo.cas.impl.profile;
+
+import org.apereo.cas.configuration.model.core.authentication.RiskBasedAuthenticationProperties;
+import org.apereo.cas.support.events.CasEventRepository;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
+
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link DefaultAuthenticationRiskProfileStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class DefaultAuthenticationRiskProfileStoreTests {
+    private CasEventRepository casEventRepository;
+
+    private DefaultAuthenticationRiskProfileStore store;
+
+    private static CasEvent getEvent(final String ipAddress, final ZonedDateTime creationTime) {
+        val event = new CasEvent();
+        event.setType(CasTicketGrantingTicketCreatedEvent.class.getName());
+        event.setPrincipalId("casuser");
+        event.setCreationTime(creationTime.toString());
+        event.putClientIpAddress(ipAddress);
+        event.putAgent("Firefox");
+        return event;
+    }
+
+    private static Instant getRecentHistoryStart() {
+        return ZonedDateTime.now(ZoneOffset.UTC).minusDays(30).toInstant();
+    }
+
+    @BeforeEach
+    public void initialize() {
+        casEventRepository = mock(CasEventRepository.class);
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        doReturn(List.of(getEvent("1.2.3.4", now.minusDays(2)), getEvent("1.2.3.4", now.minusDays(1)), getEvent("5.6.7.8", now)))
+            .when(casEventRepository).getEventsOfTypeForPrincipal(anyString(), eq("casuser"), any(ZonedDateTime.class));
+        store = new DefaultAuthenticationRiskProfileStore(casEventRepository, new RiskBasedAuthenticationProperties());
+    }
+
+    @Test
+    public void verifyProfileBuiltOnce() {
+        val profile = store.getProfile("casuser");
+        val since = getRecentHistoryStart();
+        assertEquals(3, profile.getTotal(since));
+        assertEquals(2, profile.countIpAddress(since, "1.2.3.4"));
+        assertEquals(1, profile.countIpAddress(since, "5.6.7.8"));
+        assertEquals(0, profile.countIpAddress(since, "9.9.9.9"));
+        assertEquals(3, profile.countAgent(since, "firefox"));
+        assertEquals(3, profile.countHoursOfDay(since, hour -> true));
+        assertSame(profile, store.getProfile("casuser"));
+        verify(casEventRepository, times(1)).getEventsOfTypeForPrincipal(anyString(), eq("casuser"), any(ZonedDateTime.class));
+    }
+
+    @Test
+    public void verifyProfileUpdatedIncrementally() {
+        val since = getRecentHistoryStart();
+        assertEquals(3, store.getProfile("casuser").getTotal(since));
+        store.record(getEvent("9.9.9.9", ZonedDateTime.now(ZoneOffset.UTC)));
+        store.record(getEvent("9.9.9.9", ZonedDateTime.now(ZoneOffset.UTC).minusDays(60)));
+        val profile = store.getProfile("casuser");
+        assertEquals(4, profile.getTotal(since));
+        assertEquals(1, profile.countIpAddress(since, "9.9.9.9"));
+        verify(casEventRepository, times(1)).getEventsOfTypeForPrincipal(anyString(), eq("casuser"), any(ZonedDateTime.class));
+
+        store.invalidate();
+        assertEquals(3, store.getProfile("casuser").getTotal(since));
+        verify(casEventRepository, times(2)).getEventsOfTypeForPrincipal(anyString(), eq("casuser"), any(ZonedDateTime.class));
+    }
+
+    @Test
+    public void verifyNoHistory() {
+        doReturn(List.of()).when(casEventRepository).getEventsOfTypeForPrincipal(anyString(), eq("unknown"), any(ZonedDateTime.class));
+        assertTrue(store.getProfile("unknown").isEmpty(getRecentHistoryStart()));
+    }
+}
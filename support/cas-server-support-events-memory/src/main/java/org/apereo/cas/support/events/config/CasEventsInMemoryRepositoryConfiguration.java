@@ -1,21 +1,19 @@
 package org.apereo.cas.support.events.config;
 
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.support.events.CasEventRepository;
 import org.apereo.cas.support.events.CasEventRepositoryFilter;
-import org.apereo.cas.support.events.dao.CasEvent;
 import org.apereo.cas.support.events.dao.InMemoryCasEventRepository;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.time.Duration;
-
 /**
  * This is {@link CasEventsInMemoryRepositoryConfiguration}.
  *
@@ -26,24 +24,17 @@ import java.time.Duration;
 @EnableConfigurationProperties(CasConfigurationProperties.class)
 @Slf4j
 public class CasEventsInMemoryRepositoryConfiguration {
-    
-    private static final int INITIAL_CACHE_SIZE = 50;
-    private static final long MAX_CACHE_SIZE = 1_000_000;
-    private static final long EXPIRATION_TIME = 2;
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
 
     @Bean
     public CasEventRepository casEventRepository() {
-        final LoadingCache<String, CasEvent> storage = Caffeine.newBuilder()
-            .initialCapacity(INITIAL_CACHE_SIZE)
-            .maximumSize(MAX_CACHE_SIZE)
-            .recordStats()
-            .expireAfterWrite(Duration.ofHours(EXPIRATION_TIME))
-            .build(s -> {
-                LOGGER.error("Load operation of the cache is not supported.");
-                return null;
-            });
-        LOGGER.debug("Created an in-memory event repository to store CAS events for [{}] hours", EXPIRATION_TIME);
-        return new InMemoryCasEventRepository(casEventRepositoryFilter(), storage);
+        val memory = casProperties.getEvents().getMemory();
+        val expiration = Beans.newDuration(memory.getExpiration());
+        LOGGER.debug("Created an in-memory event repository to store up to [{}] CAS events for [{}]", memory.getMaxEvents(), expiration);
+        return new InMemoryCasEventRepository(casEventRepositoryFilter(), memory.getMaxEvents(),
+            memory.getMaxEventsPerPrincipal(), expiration);
     }
 
     @ConditionalOnMissingBean(name = "casEventRepositoryFilter")
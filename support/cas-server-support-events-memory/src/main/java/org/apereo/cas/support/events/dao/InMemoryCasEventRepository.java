@@ -1,45 +1,332 @@
 package org.apereo.cas.support.events.dao;
 
 import org.apereo.cas.support.events.CasEventRepositoryFilter;
+import org.apereo.cas.util.DateTimeUtils;
 
-import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.UUID;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * This is {@link InMemoryCasEventRepository}.
+ * This is {@link InMemoryCasEventRepository}. Events are kept in the order in which they are saved,
+ * and are indexed by principal as well as by the hour in which they were created so that queries
+ * for a principal or for a date range do not have to examine every recorded event.
+ * The number of events kept for each principal is capped, and the oldest events of a principal are
+ * evicted once the cap is reached. Events are also evicted once the repository reaches its capacity,
+ * or when they have been kept for longer than the configured expiration.
+ * <p>
+ * Events are stored in a compact form where the creation time is kept as epoch milliseconds and
+ * event properties are packed into a flat array.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
+@Slf4j
 public class InMemoryCasEventRepository extends AbstractCasEventRepository {
-    private final LoadingCache<String, CasEvent> cache;
+    private static final long CREATION_TIME_BUCKET_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String[] EMPTY_PROPERTIES = new String[0];
+
+    private final long maxEvents;
+
+    private final int maxEventsPerPrincipal;
+
+    private final long expirationMillis;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Set<StoredEvent> events = new LinkedHashSet<>();
+
+    private final Map<String, Deque<StoredEvent>> principals = new HashMap<>();
+
+    private final NavigableMap<Long, Set<StoredEvent>> creationTimes = new TreeMap<>();
 
     public InMemoryCasEventRepository(final CasEventRepositoryFilter eventRepositoryFilter,
-                                      final LoadingCache<String, CasEvent> cache) {
+                                      final long maxEvents,
+                                      final int maxEventsPerPrincipal,
+                                      final Duration expiration) {
         super(eventRepositoryFilter);
-        this.cache = cache;
+        this.maxEvents = Math.max(maxEvents, 1);
+        this.maxEventsPerPrincipal = Math.max(maxEventsPerPrincipal, 1);
+        this.expirationMillis = expiration.toMillis();
+    }
+
+    private static String toPrincipalKey(final String principalId) {
+        return StringUtils.defaultString(principalId).toLowerCase(Locale.ENGLISH);
+    }
+
+    private static long toCreationTimeBucket(final long creationTime) {
+        return Math.floorDiv(creationTime, CREATION_TIME_BUCKET_MILLIS);
+    }
+
+    private static long toEpochMillis(final ZonedDateTime dateTime) {
+        return dateTime.toInstant().toEpochMilli();
+    }
+
+    private static Predicate<StoredEvent> createdAfter(final ZonedDateTime dateTime) {
+        val since = toEpochMillis(dateTime);
+        return event -> event.creationTime >= since;
+    }
+
+    private static Predicate<StoredEvent> ofType(final String type) {
+        return event -> StringUtils.equals(event.type, type);
+    }
+
+    private static Collection<? extends CasEvent> toCasEvents(final Stream<StoredEvent> events) {
+        return events.map(StoredEvent::toCasEvent).collect(Collectors.toList());
     }
 
     @Override
     public Collection<? extends CasEvent> load() {
-        return cache.asMap().values();
+        return query(() -> toCasEvents(events.stream()));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> load(final ZonedDateTime dateTime) {
+        return query(() -> toCasEvents(streamCreatedAfter(dateTime)));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal) {
+        return query(() -> toCasEvents(streamForPrincipal(principal).filter(ofType(type))));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal,
+                                                                      final ZonedDateTime dateTime) {
+        return query(() -> toCasEvents(streamForPrincipal(principal).filter(ofType(type)).filter(createdAfter(dateTime))));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsOfType(final String type) {
+        return query(() -> toCasEvents(events.stream().filter(ofType(type))));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsOfType(final String type, final ZonedDateTime dateTime) {
+        return query(() -> toCasEvents(streamCreatedAfter(dateTime).filter(ofType(type))));
     }
 
     @Override
     public Collection<? extends CasEvent> getEventsForPrincipal(final String id) {
-        return cache
-            .asMap()
-            .values()
-            .stream()
-            .filter(e -> e.getPrincipalId().equalsIgnoreCase(id))
-            .collect(Collectors.toSet());
+        return query(() -> toCasEvents(streamForPrincipal(id)));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsForPrincipal(final String id, final ZonedDateTime dateTime) {
+        return query(() -> toCasEvents(streamForPrincipal(id).filter(createdAfter(dateTime))));
     }
 
     @Override
     public void saveInternal(final CasEvent event) {
-        cache.put(UUID.randomUUID().toString(), event);
+        val now = System.currentTimeMillis();
+        val stored = StoredEvent.of(event, now);
+        lock.writeLock().lock();
+        try {
+            expire(now);
+            val principalEvents = principals.get(stored.principalKey);
+            while (principalEvents != null && !principalEvents.isEmpty() && principalEvents.size() >= maxEventsPerPrincipal) {
+                remove(principalEvents.peekFirst());
+            }
+            while (events.size() >= maxEvents) {
+                remove(events.iterator().next());
+            }
+            events.add(stored);
+            principals.computeIfAbsent(stored.principalKey, k -> new ArrayDeque<>()).addLast(stored);
+            creationTimes.computeIfAbsent(toCreationTimeBucket(stored.creationTime), k -> new LinkedHashSet<>()).add(stored);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all events from the repository.
+     */
+    public void removeAll() {
+        lock.writeLock().lock();
+        try {
+            events.clear();
+            principals.clear();
+            creationTimes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of events kept in the repository.
+     *
+     * @return the size
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return events.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<? extends CasEvent> query(final Supplier<Collection<? extends CasEvent>> query) {
+        expire(System.currentTimeMillis());
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Stream<StoredEvent> streamForPrincipal(final String principal) {
+        val principalEvents = principals.get(toPrincipalKey(principal));
+        return principalEvents == null ? Stream.empty() : principalEvents.stream();
+    }
+
+    private Stream<StoredEvent> streamCreatedAfter(final ZonedDateTime dateTime) {
+        val bucket = toCreationTimeBucket(toEpochMillis(dateTime));
+        return creationTimes.tailMap(bucket, true)
+            .values()
+            .stream()
+            .flatMap(Set::stream)
+            .filter(createdAfter(dateTime));
+    }
+
+    private boolean hasExpiredEvents(final long expiredBefore) {
+        lock.readLock().lock();
+        try {
+            return !events.isEmpty() && events.iterator().next().savedAt < expiredBefore;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void expire(final long now) {
+        if (expirationMillis <= 0) {
+            return;
+        }
+        val expiredBefore = now - expirationMillis;
+        if (!hasExpiredEvents(expiredBefore)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            var expired = 0;
+            val iterator = events.iterator();
+            while (iterator.hasNext()) {
+                val event = iterator.next();
+                if (event.savedAt >= expiredBefore) {
+                    break;
+                }
+                iterator.remove();
+                removeFromIndexes(event);
+                expired++;
+            }
+            if (expired > 0) {
+                LOGGER.trace("Removed [{}] expired event(s) from the repository", expired);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(final StoredEvent event) {
+        if (event != null) {
+            events.remove(event);
+            removeFromIndexes(event);
+        }
+    }
+
+    private void removeFromIndexes(final StoredEvent event) {
+        val principalEvents = principals.get(event.principalKey);
+        if (principalEvents != null) {
+            principalEvents.remove(event);
+            if (principalEvents.isEmpty()) {
+                principals.remove(event.principalKey);
+            }
+        }
+        val bucket = toCreationTimeBucket(event.creationTime);
+        val bucketEvents = creationTimes.get(bucket);
+        if (bucketEvents != null) {
+            bucketEvents.remove(event);
+            if (bucketEvents.isEmpty()) {
+                creationTimes.remove(bucket);
+            }
+        }
+    }
+
+    /**
+     * Compact representation of a recorded event.
+     */
+    private static class StoredEvent {
+        private final long id;
+
+        private final long savedAt;
+
+        private final long creationTime;
+
+        private final String creationTimeValue;
+
+        private final String type;
+
+        private final String principalId;
+
+        private final String principalKey;
+
+        private final String[] properties;
+
+        StoredEvent(final long id, final long savedAt, final long creationTime, final String creationTimeValue,
+                    final String type, final String principalId, final String[] properties) {
+            this.id = id;
+            this.savedAt = savedAt;
+            this.creationTime = creationTime;
+            this.creationTimeValue = creationTimeValue;
+            this.type = type;
+            this.principalId = principalId;
+            this.principalKey = toPrincipalKey(principalId);
+            this.properties = properties;
+        }
+
+        static StoredEvent of(final CasEvent event, final long savedAt) {
+            val creationTime = StringUtils.isBlank(event.getCreationTime())
+                ? savedAt
+                : toEpochMillis(DateTimeUtils.convertToZonedDateTime(event.getCreationTime()));
+            val properties = event.getProperties().isEmpty() ? EMPTY_PROPERTIES : new String[event.getProperties().size() * 2];
+            var index = 0;
+            for (val entry : event.getProperties().entrySet()) {
+                properties[index++] = entry.getKey().intern();
+                properties[index++] = entry.getValue();
+            }
+            val type = event.getType() == null ? null : event.getType().intern();
+            return new StoredEvent(event.getId(), savedAt, creationTime, event.getCreationTime(),
+                type, event.getPrincipalId(), properties);
+        }
+
+        CasEvent toCasEvent() {
+            val values = new HashMap<String, String>(properties.length);
+            for (var i = 0; i < properties.length; i += 2) {
+                values.put(properties[i], properties[i + 1]);
+            }
+            return new CasEvent(id, type, principalId, creationTimeValue, values);
+        }
     }
 }
@@ -12,7 +12,8 @@ import org.junit.runner.RunWith;
  */
 @SelectClasses({
     GroovyCasEventRepositoryFilterTests.class,
-    InMemoryCasEventRepositoryTests.class
+    InMemoryCasEventRepositoryTests.class,
+    InMemoryCasEventRepositoryEvictionTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class CasMemoryEventsTestsSuite {
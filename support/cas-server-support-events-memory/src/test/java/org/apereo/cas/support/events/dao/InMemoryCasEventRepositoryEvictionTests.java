@@ -0,0 +1,99 @@
+package org.apereo.cas.support.events.dao;
+
+import org.apereo.cas.support.events.CasEventRepositoryFilter;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link InMemoryCasEventRepositoryEvictionTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class InMemoryCasEventRepositoryEvictionTests {
+    private static final String TYPE = "TicketGrantingTicketCreated";
+
+    private static CasEvent getCasEvent(final String principal, final String eventId, final ZonedDateTime creationTime) {
+        val dto = new CasEvent();
+        dto.setType(TYPE);
+        dto.setPrincipalId(principal);
+        dto.setCreationTime(creationTime.toString());
+        dto.putEventId(eventId);
+        dto.putClientIpAddress("1.2.3.4");
+        return dto;
+    }
+
+    @Test
+    public void verifyEventsIndexedByPrincipal() {
+        val repository = new InMemoryCasEventRepository(CasEventRepositoryFilter.noOp(), 100, 10, Duration.ofHours(1));
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        repository.save(getCasEvent("casuser", "1", now.minusDays(3)));
+        repository.save(getCasEvent("CASUser", "2", now.minusHours(1)));
+        repository.save(getCasEvent("someone", "3", now));
+
+        assertEquals(2, repository.getEventsForPrincipal("casuser").size());
+        assertEquals(2, repository.getEventsOfTypeForPrincipal(TYPE, "CASUSER").size());
+        assertEquals(1, repository.getEventsForPrincipal("casuser", now.minusDays(1)).size());
+        assertEquals(1, repository.getEventsOfTypeForPrincipal(TYPE, "casuser", now.minusDays(1)).size());
+        assertTrue(repository.getEventsOfTypeForPrincipal("Other", "casuser").isEmpty());
+        assertTrue(repository.getEventsForPrincipal("unknown").isEmpty());
+
+        assertEquals(2, repository.load(now.minusDays(1)).size());
+        assertEquals(3, repository.getEventsOfType(TYPE).size());
+        assertEquals(1, repository.getEventsOfType(TYPE, now.minusMinutes(1)).size());
+
+        val event = repository.getEventsForPrincipal("someone").iterator().next();
+        assertEquals("3", event.getEventId());
+        assertEquals("1.2.3.4", event.getClientIpAddress());
+        assertEquals(now.toString(), event.getCreationTime());
+    }
+
+    @Test
+    public void verifyEventsEvictedPerPrincipal() {
+        val repository = new InMemoryCasEventRepository(CasEventRepositoryFilter.noOp(), 100, 3, Duration.ofHours(1));
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        for (var i = 0; i < 5; i++) {
+            repository.save(getCasEvent("casuser", String.valueOf(i), now.minusMinutes(5 - i)));
+        }
+        repository.save(getCasEvent("someone", "other", now));
+        val events = repository.getEventsForPrincipal("casuser");
+        assertEquals(3, events.size());
+        assertTrue(events.stream().noneMatch(e -> "0".equals(e.getEventId()) || "1".equals(e.getEventId())));
+        assertEquals(4, repository.size());
+        assertEquals(4, repository.load(now.minusDays(1)).size());
+    }
+
+    @Test
+    public void verifyEventsEvictedAtCapacity() {
+        val repository = new InMemoryCasEventRepository(CasEventRepositoryFilter.noOp(), 3, 10, Duration.ofHours(1));
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        for (var i = 0; i < 5; i++) {
+            repository.save(getCasEvent("user" + i, String.valueOf(i), now));
+        }
+        assertEquals(3, repository.size());
+        assertTrue(repository.getEventsForPrincipal("user0").isEmpty());
+        assertFalse(repository.getEventsForPrincipal("user4").isEmpty());
+        repository.removeAll();
+        assertTrue(repository.load().isEmpty());
+    }
+
+    @Test
+    public void verifyEventsExpire() throws Exception {
+        val repository = new InMemoryCasEventRepository(CasEventRepositoryFilter.noOp(), 10, 10, Duration.ofMillis(200));
+        repository.save(getCasEvent("casuser", "1", ZonedDateTime.now(ZoneOffset.UTC)));
+        assertEquals(1, repository.load().size());
+        Thread.sleep(500);
+        assertTrue(repository.load().isEmpty());
+        assertTrue(repository.getEventsForPrincipal("casuser").isEmpty());
+        assertEquals(0, repository.size());
+    }
+}
@@ -4,12 +4,16 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.hz.HazelcastConfigurationFactory;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.registry.HazelcastTicketHolder;
 import org.apereo.cas.ticket.registry.HazelcastTicketRegistry;
+import org.apereo.cas.ticket.registry.HazelcastTicketRegistryInvalidationChannel;
 import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
 import org.apereo.cas.util.CoreTicketUtils;
 
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import lombok.extern.slf4j.Slf4j;
@@ -55,7 +59,9 @@ public class HazelcastTicketRegistryConfiguration {
         val hazelcastInstance = casTicketRegistryHazelcastInstance();
         val r = new HazelcastTicketRegistry(hazelcastInstance, ticketCatalog.getObject(), hz.getPageSize());
         r.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(hz.getCrypto(), "hazelcast"));
-        return r;
+        r.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
+        return CoreTicketUtils.newNearCacheTicketRegistry(r, casProperties.getTicket().getRegistry(),
+            () -> new HazelcastTicketRegistryInvalidationChannel(hazelcastInstance));
     }
 
     @ConditionalOnMissingBean(name = "casTicketRegistryHazelcastInstance")
@@ -70,6 +76,8 @@ public class HazelcastTicketRegistryConfiguration {
             .map(TicketDefinition::getProperties)
             .peek(p -> LOGGER.debug("Created Hazelcast map configuration for [{}]", p))
             .map(p -> HazelcastConfigurationFactory.buildMapConfig(hz, p.getStorageName(), p.getStorageTimeout()))
+            .map(m -> m.addIndexConfig(new IndexConfig(IndexType.HASH, HazelcastTicketHolder.ATTRIBUTE_NAME_PRINCIPAL))
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, HazelcastTicketHolder.ATTRIBUTE_NAME_EXPIRATION_TIME)))
             .forEach(m -> hazelcastInstance.getConfig().addMapConfig(m));
         return hazelcastInstance;
     }
@@ -0,0 +1,43 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link HazelcastTicketHolder}, which is the value that is kept in the Hazelcast ticket maps.
+ * Next to the (possibly encoded) ticket, the holder carries the attributes that are indexed by Hazelcast,
+ * so that tickets can be filtered and counted on the members that own them, even if the tickets are encrypted.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "ticket")
+public class HazelcastTicketHolder implements Serializable {
+
+    /**
+     * Attribute name to hold the principal of ticket-granting tickets.
+     */
+    public static final String ATTRIBUTE_NAME_PRINCIPAL = "principal";
+
+    /**
+     * Attribute name to hold the earliest time at which the ticket may be considered expired, in epoch milliseconds.
+     */
+    public static final String ATTRIBUTE_NAME_EXPIRATION_TIME = "expirationTime";
+
+    private static final long serialVersionUID = -3176372461870306235L;
+
+    private final String ticketId;
+
+    private final String principal;
+
+    private final long expirationTime;
+
+    private final Ticket ticket;
+}
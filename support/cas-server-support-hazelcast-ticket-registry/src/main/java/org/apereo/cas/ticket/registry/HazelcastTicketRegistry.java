@@ -1,11 +1,15 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 
+import com.hazelcast.aggregation.Aggregators;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -14,12 +18,14 @@ import org.springframework.beans.factory.DisposableBean;
 
 import javax.annotation.Nonnull;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Hazelcast-based implementation of a {@link TicketRegistry}.
@@ -27,6 +33,12 @@ import java.util.stream.Collectors;
  * which is an extension of the standard Java's {@code ConcurrentMap}.</p>
  * <p>The heavy lifting of distributed data partitioning, network cluster discovery and
  * join, data replication, etc. is done by Hazelcast's Map implementation.</p>
+ * <p>Tickets are consumed while holding the cluster-wide lock of the ticket entry in the map,
+ * so that attempts to consume the same ticket on different members are serialized.</p>
+ * <p>Tickets are kept in the map inside a {@link HazelcastTicketHolder} that carries the principal
+ * and the expiration time of the ticket. These attributes are indexed, and queries for the sessions of a principal,
+ * for tickets that are about to expire, or for ticket counts are evaluated by the members that own the entries.
+ * Members that store tickets directly in the map cannot share the same maps with this implementation.</p>
  *
  * @author Dmitriy Kopylenko
  * @author Jonathan Johnson
@@ -53,19 +65,19 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
         }
 
         LOGGER.debug("Adding ticket [{}] with ttl [{}s]", ticket.getId(), ttl);
-        val encTicket = encodeTicket(ticket);
+        val holder = buildTicketHolder(ticket);
 
         val metadata = this.ticketCatalog.find(ticket);
         val ticketMap = getTicketMapInstanceByMetadata(metadata);
         if (ticketMap != null) {
-            ticketMap.set(encTicket.getId(), encTicket, ttl, TimeUnit.SECONDS);
-            LOGGER.debug("Added ticket [{}] with ttl [{}s]", encTicket.getId(), ttl);
+            ticketMap.set(holder.getTicketId(), holder, ttl, TimeUnit.SECONDS);
+            LOGGER.debug("Added ticket [{}] with ttl [{}s]", holder.getTicketId(), ttl);
         } else {
             LOGGER.warn("Unable to locate ticket map for ticket metadata [{}]", metadata);
         }
     }
 
-    private IMap<String, Ticket> getTicketMapInstanceByMetadata(final TicketDefinition metadata) {
+    private IMap<String, HazelcastTicketHolder> getTicketMapInstanceByMetadata(final TicketDefinition metadata) {
         val mapName = metadata.getProperties().getStorageName();
         LOGGER.debug("Locating map name [{}] for ticket definition [{}]", mapName, metadata);
         return getTicketMapInstance(mapName);
@@ -81,8 +93,7 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
         if (metadata != null) {
             val map = getTicketMapInstanceByMetadata(metadata);
             if (map != null) {
-                val ticket = map.get(encTicketId);
-                val result = decodeTicket(ticket);
+                val result = decodeTicketHolder(map.get(encTicketId));
                 if (predicate.test(result)) {
                     return result;
                 }
@@ -95,6 +106,34 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
         return null;
     }
 
+    @Override
+    public Ticket consumeTicket(final String ticketId) {
+        val encTicketId = encodeTicketId(ticketId);
+        if (StringUtils.isBlank(encTicketId)) {
+            return null;
+        }
+        val metadata = this.ticketCatalog.find(ticketId);
+        if (metadata == null) {
+            LOGGER.warn("No ticket definition could be found in the catalog to match [{}]", ticketId);
+            return null;
+        }
+        val map = getTicketMapInstanceByMetadata(metadata);
+        if (map == null) {
+            throw new IllegalStateException("Unable to locate ticket map for ticket definition " + metadata);
+        }
+        map.lock(encTicketId);
+        try {
+            val ticket = decodeTicketHolder(map.get(encTicketId));
+            if (!consumeTicketState(ticket)) {
+                return null;
+            }
+            map.set(encTicketId, buildTicketHolder(ticket), ticket.getExpirationPolicy().getTimeToLive(), TimeUnit.SECONDS);
+            return ticket;
+        } finally {
+            map.unlock(encTicketId);
+        }
+    }
+
     @Override
     public boolean deleteSingleTicket(final String ticketIdToDelete) {
         val encTicketId = encodeTicketId(ticketIdToDelete);
@@ -129,10 +168,58 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
                 }
                 return new ArrayList<>(tickets).stream();
             })
-            .map(this::decodeTicket)
+            .map(this::decodeTicketHolder)
             .collect(Collectors.toSet());
     }
 
+    /**
+     * {@inheritDoc}
+     * Ticket holders that were stored without an expiration time are always considered candidates.
+     */
+    @Override
+    public Stream<? extends Ticket> getTicketsExpiringBefore(final Instant instant) {
+        return this.ticketCatalog.findAll()
+            .stream()
+            .map(this::getTicketMapInstanceByMetadata)
+            .filter(Objects::nonNull)
+            .flatMap(map -> map.values(Predicates.lessEqual(HazelcastTicketHolder.ATTRIBUTE_NAME_EXPIRATION_TIME, instant.toEpochMilli())).stream())
+            .map(this::decodeTicketHolder);
+    }
+
+    @Override
+    public long sessionCount() {
+        return countTicketsByTicketType(TicketGrantingTicket.class);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTicketsByTicketType(ServiceTicket.class);
+    }
+
+    @Override
+    public long countSessionsFor(final String principalId) {
+        val predicate = Predicates.<String, HazelcastTicketHolder>equal(HazelcastTicketHolder.ATTRIBUTE_NAME_PRINCIPAL,
+            encodePrincipalId(principalId));
+        return this.ticketCatalog.find(TicketGrantingTicket.class)
+            .stream()
+            .map(this::getTicketMapInstanceByMetadata)
+            .filter(Objects::nonNull)
+            .mapToLong(map -> map.aggregate(Aggregators.count(), predicate))
+            .sum();
+    }
+
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        val predicate = Predicates.<String, HazelcastTicketHolder>equal(HazelcastTicketHolder.ATTRIBUTE_NAME_PRINCIPAL,
+            encodePrincipalId(principalId));
+        return this.ticketCatalog.find(TicketGrantingTicket.class)
+            .stream()
+            .map(this::getTicketMapInstanceByMetadata)
+            .filter(Objects::nonNull)
+            .flatMap(map -> map.values(predicate).stream())
+            .map(this::decodeTicketHolder);
+    }
+
     /**
      * Make sure we shutdown HazelCast when the context is destroyed.
      */
@@ -155,9 +242,38 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
         shutdown();
     }
 
-    private IMap<String, Ticket> getTicketMapInstance(@Nonnull final String mapName) {
+    private long countTicketsByTicketType(final Class<? extends Ticket> ticketType) {
+        return this.ticketCatalog.find(ticketType)
+            .stream()
+            .map(this::getTicketMapInstanceByMetadata)
+            .filter(Objects::nonNull)
+            .mapToLong(map -> map.aggregate(Aggregators.count()))
+            .sum();
+    }
+
+    private HazelcastTicketHolder buildTicketHolder(final Ticket ticket) {
+        val encTicket = encodeTicket(ticket);
+        val principal = ticket instanceof TicketGrantingTicket
+            ? encodePrincipalId(getPrincipalId((TicketGrantingTicket) ticket))
+            : null;
+        return new HazelcastTicketHolder(encTicket.getId(), principal, toEpochMilli(getExpirationTime(ticket)), encTicket);
+    }
+
+    private Ticket decodeTicketHolder(final HazelcastTicketHolder holder) {
+        return holder == null ? null : decodeTicket(holder.getTicket());
+    }
+
+    private static long toEpochMilli(final Instant instant) {
+        try {
+            return instant.toEpochMilli();
+        } catch (final ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private IMap<String, HazelcastTicketHolder> getTicketMapInstance(@Nonnull final String mapName) {
         try {
-            val inst = hazelcastInstance.<String, Ticket>getMap(mapName);
+            val inst = hazelcastInstance.<String, HazelcastTicketHolder>getMap(mapName);
             LOGGER.debug("Located Hazelcast map instance [{}]", mapName);
             return inst;
         } catch (final Exception e) {
@@ -0,0 +1,47 @@
+package org.apereo.cas.ticket.registry;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Consumer;
+
+/**
+ * This is {@link HazelcastTicketRegistryInvalidationChannel}, which publishes
+ * ticket invalidation notices on a Hazelcast topic that is shared by all members of the cluster.
+ * Notices published by the local member are not delivered back to it.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class HazelcastTicketRegistryInvalidationChannel implements TicketRegistryInvalidationChannel {
+    /**
+     * Name of the topic that carries invalidation notices.
+     */
+    public static final String TOPIC_NAME = "cas-ticket-registry-invalidations";
+
+    private final ITopic<String> topic;
+
+    public HazelcastTicketRegistryInvalidationChannel(final HazelcastInstance hazelcastInstance) {
+        this.topic = hazelcastInstance.getTopic(TOPIC_NAME);
+    }
+
+    @Override
+    public void publish(final String ticketId) {
+        try {
+            topic.publish(ticketId);
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to publish invalidation notice for ticket [{}]: [{}]", ticketId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(final Consumer<String> listener) {
+        topic.addMessageListener(message -> {
+            if (message.getPublishingMember() == null || !message.getPublishingMember().localMember()) {
+                listener.accept(message.getMessageObject());
+            }
+        });
+    }
+}
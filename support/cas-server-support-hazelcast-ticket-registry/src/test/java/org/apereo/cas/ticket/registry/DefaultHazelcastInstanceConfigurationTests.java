@@ -89,6 +89,7 @@ public class DefaultHazelcastInstanceConfigurationTests {
         assertTrue(config.getNetworkConfig().isPortAutoIncrement());
         assertEquals(5701, config.getNetworkConfig().getPort());
         assertEquals(5, config.getMapConfigs().size());
+        assertTrue(config.getMapConfigs().values().stream().allMatch(map -> map.getIndexConfigs().size() == 2));
     }
 
     @AfterEach
@@ -136,6 +136,7 @@ public class IgniteTicketRegistryConfiguration {
         val igniteConfiguration = igniteConfiguration(ticketCatalog);
         val r = new IgniteTicketRegistry(ticketCatalog, igniteConfiguration, igniteProperties);
         r.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(igniteProperties.getCrypto(), "ignite"));
+        r.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
         r.initialize();
         return r;
     }
@@ -38,6 +38,7 @@ public class InfinispanTicketRegistryConfiguration {
         val span = casProperties.getTicket().getRegistry().getInfinispan();
         val r = new InfinispanTicketRegistry(getCache(span));
         r.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(span.getCrypto(), "infinispan"));
+        r.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
         return r;
     }
 
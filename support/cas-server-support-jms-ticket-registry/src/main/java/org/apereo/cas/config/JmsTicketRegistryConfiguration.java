@@ -114,6 +114,8 @@ public class JmsTicketRegistryConfiguration {
         val cipher = CoreTicketUtils.newTicketRegistryCipherExecutor(jms.getCrypto(), "jms");
         val messageQueueTicketRegistryIdentifier = messageQueueTicketRegistryIdentifier();
         LOGGER.debug("Configuring JMS ticket registry with identifier [{}]", messageQueueTicketRegistryIdentifier);
-        return new JmsTicketRegistry(publisher, messageQueueTicketRegistryIdentifier, cipher);
+        val registry = new JmsTicketRegistry(publisher, messageQueueTicketRegistryIdentifier, cipher);
+        registry.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
+        return registry;
     }
 }
@@ -4,6 +4,7 @@ import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 
 import lombok.RequiredArgsConstructor;
+import lombok.val;
 import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.export.annotation.ManagedResource;
 
@@ -23,9 +24,10 @@ public class TicketRegistryManagedResource {
 
     @ManagedOperation
     public Collection<String> getTickets() {
-        return ticketRegistry
-            .getTicketsStream()
-            .map(Ticket::getId)
-            .collect(Collectors.toSet());
+        try (val tickets = ticketRegistry.getTicketsStream()) {
+            return tickets
+                .map(Ticket::getId)
+                .collect(Collectors.toSet());
+        }
     }
 }
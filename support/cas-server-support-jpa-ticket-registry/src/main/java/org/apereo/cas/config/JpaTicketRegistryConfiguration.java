@@ -113,6 +113,7 @@ public class JpaTicketRegistryConfiguration {
         val jpa = casProperties.getTicket().getRegistry().getJpa();
         val bean = new JpaTicketRegistry(jpa.getTicketLockType(), ticketCatalog);
         bean.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(jpa.getCrypto(), "jpa"));
+        bean.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
         return bean;
     }
 
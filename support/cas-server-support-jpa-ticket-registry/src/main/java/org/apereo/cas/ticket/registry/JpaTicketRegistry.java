@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.AbstractTicket;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
@@ -21,6 +22,9 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
@@ -30,6 +34,9 @@ import java.util.stream.Stream;
 /**
  * JPA implementation of a CAS {@link TicketRegistry}. This implementation of
  * ticket registry is suitable for HA environments.
+ * Tickets are consumed while holding a write lock on the ticket row for the
+ * duration of the transaction, so that attempts to consume the same ticket
+ * on different nodes are serialized by the database.
  *
  * @author Scott Battaglia
  * @author Marvin S. Addison
@@ -53,6 +60,7 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
     public void addTicket(final Ticket ticket) {
         val encodeTicket = encodeTicket(ticket);
         this.entityManager.persist(encodeTicket);
+        recordExpirationTime(ticket);
         LOGGER.debug("Added ticket [{}] to registry.", encodeTicket);
     }
 
@@ -83,6 +91,34 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return null;
     }
 
+    @Override
+    public Ticket consumeTicket(final String ticketId) {
+        try {
+            val encTicketId = encodeTicketId(ticketId);
+            if (StringUtils.isBlank(encTicketId)) {
+                return null;
+            }
+            val tkt = ticketCatalog.find(ticketId);
+            if (tkt == null) {
+                LOGGER.debug("No ticket definition could be found in the catalog to match [{}]", ticketId);
+                return null;
+            }
+            val sql = String.format("SELECT t FROM %s t WHERE t.id = :id", getTicketEntityName(tkt));
+            val query = entityManager.createQuery(sql, getTicketImplementationClass(tkt));
+            query.setParameter("id", encTicketId);
+            query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+            val ticket = decodeTicket(query.getSingleResult());
+            if (!consumeTicketState(ticket)) {
+                return null;
+            }
+            updateTicket(ticket);
+            return ticket;
+        } catch (final NoResultException e) {
+            LOGGER.debug("No record could be found for ticket [{}]", ticketId);
+        }
+        return null;
+    }
+
     @Override
     public long deleteAll() {
         return this.ticketCatalog.findAll()
@@ -124,6 +160,7 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         LOGGER.trace("Updating ticket [{}]", ticket);
         val encodeTicket = this.encodeTicket(ticket);
         this.entityManager.merge(encodeTicket);
+        recordExpirationTime(ticket);
         LOGGER.debug("Updated ticket [{}].", encodeTicket);
         return encodeTicket;
     }
@@ -161,6 +198,36 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
             .map(this::decodeTicket);
     }
 
+    /**
+     * Gets tickets whose recorded expiration time has passed, or those that have
+     * no expiration time recorded, in batches. Just like {@link #getTicketsStream()},
+     * this method purposefully doesn't lock any rows.
+     * Encoded tickets do not carry an expiration time, and are examined entirely.
+     *
+     * @param instant the instant
+     * @return tickets
+     */
+    @Override
+    public Stream<? extends Ticket> getTicketsExpiringBefore(final Instant instant) {
+        if (isCipherExecutorEnabled()) {
+            return super.getTicketsExpiringBefore(instant);
+        }
+        val expirationTime = ZonedDateTime.ofInstant(instant, ZoneOffset.UTC);
+        return this.ticketCatalog.findAll()
+            .stream()
+            .map(t -> {
+                val sql = String.format("SELECT t FROM %s t WHERE t.expirationTime IS NULL OR t.expirationTime <= :expirationTime",
+                    getTicketEntityName(t));
+                val query = (org.hibernate.query.Query<Ticket>) entityManager.createQuery(sql, getTicketImplementationClass(t));
+                query.setParameter("expirationTime", expirationTime);
+                query.setFetchSize(STREAM_BATCH_SIZE);
+                query.setLockOptions(LockOptions.NONE);
+                return query;
+            })
+            .flatMap(org.hibernate.query.Query::stream)
+            .map(this::decodeTicket);
+    }
+
     @Override
     public long sessionCount() {
         if (isCipherExecutorEnabled()) {
@@ -187,6 +254,32 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return countToLong(query.getSingleResult());
     }
 
+    @Override
+    public long countSessionsFor(final String principalId) {
+        if (isCipherExecutorEnabled()) {
+            return super.countSessionsFor(principalId);
+        }
+        val md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
+        val sql = String.format("SELECT COUNT(t) FROM %s t WHERE t.principalId = :principal", getTicketEntityName(md));
+        val query = this.entityManager.createQuery(sql);
+        query.setParameter("principal", encodePrincipalId(principalId));
+        return countToLong(query.getSingleResult());
+    }
+
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        if (isCipherExecutorEnabled()) {
+            return super.getSessionsFor(principalId);
+        }
+        val md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
+        val sql = String.format("SELECT t FROM %s t WHERE t.principalId = :principal", getTicketEntityName(md));
+        val query = (org.hibernate.query.Query<Ticket>) entityManager.createQuery(sql, getTicketImplementationClass(md));
+        query.setParameter("principal", encodePrincipalId(principalId));
+        query.setFetchSize(STREAM_BATCH_SIZE);
+        query.setLockOptions(LockOptions.NONE);
+        return query.stream();
+    }
+
     /**
      * Delete a ticket by its identifier.
      * Simple call to the super method to force a transaction to be started in case of a direct call.
@@ -259,6 +352,25 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return totalCount;
     }
 
+    /**
+     * Record the expiration time of the ticket in its row, so that expired tickets
+     * can be queried for directly. The ticket itself is left untouched.
+     * Encoded tickets do not carry an expiration time.
+     *
+     * @param ticket the ticket
+     */
+    private void recordExpirationTime(final Ticket ticket) {
+        if (isCipherExecutorEnabled() || !(ticket instanceof AbstractTicket)) {
+            return;
+        }
+        val sql = String.format("UPDATE %s t SET t.expirationTime = :expirationTime WHERE t.id = :id",
+            getTicketEntityName(ticketCatalog.find(ticket)));
+        val query = entityManager.createQuery(sql);
+        query.setParameter("expirationTime", ZonedDateTime.ofInstant(getExpirationTime(ticket), ZoneOffset.UTC));
+        query.setParameter("id", ticket.getId());
+        query.executeUpdate();
+    }
+
     private Class<? extends Ticket> getTicketImplementationClass(final TicketDefinition tk) {
         if (isCipherExecutorEnabled()) {
             return EncodedTicket.class;
@@ -58,6 +58,17 @@ public class JpaTicketRegistryTests extends BaseTicketRegistryTests {
         return this.ticketRegistry;
     }
 
+    /**
+     * Concurrent consumers run on their own threads and transactions, and can only see
+     * tickets that are committed; so the test runs outside of the test-managed transaction.
+     */
+    @Override
+    @RepeatedTest(2)
+    @Transactional(transactionManager = "ticketTransactionManager", propagation = Propagation.NOT_SUPPORTED)
+    public void verifyConsumeTicketOnce() throws Exception {
+        super.verifyConsumeTicketOnce();
+    }
+
     @RepeatedTest(2)
     public void verifySecurityTokenTicket() {
         val securityTokenTicketFactory = new DefaultSecurityTokenTicketFactory(
@@ -62,6 +62,7 @@ public class MemcachedTicketRegistryConfiguration {
         val registry = new MemcachedTicketRegistry(factory.getObjectPool());
         val cipherExecutor = CoreTicketUtils.newTicketRegistryCipherExecutor(memcached.getCrypto(), "memcached");
         registry.setCipherExecutor(cipherExecutor);
+        registry.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
         return registry;
     }
 
@@ -15,18 +15,19 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.hjson.JsonValue;
 import org.hjson.Stringify;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.mongodb.core.query.TextCriteria;
-import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.util.StreamUtils;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -34,6 +35,11 @@ import java.util.stream.Stream;
 
 /**
  * A Ticket Registry storage backend based on MongoDB.
+ * Tickets are consumed using optimistic updates that only match the ticket document
+ * if it is still the same as the document that was read, and are retried
+ * if the ticket is modified by another node in the meantime.
+ * Batches of tickets that are added and updated together are submitted
+ * as a single bulk write per ticket collection.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
@@ -41,6 +47,7 @@ import java.util.stream.Stream;
 @Slf4j
 @RequiredArgsConstructor
 public class MongoDbTicketRegistry extends AbstractTicketRegistry {
+    private static final int MAX_CONSUME_ATTEMPTS = 10;
 
     private final TicketCatalog ticketCatalog;
 
@@ -66,6 +73,10 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
             }
             val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(holder.getTicketId()));
             val update = Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson());
+            update.set(TicketHolder.FIELD_NAME_EXPIRATION_TIME, holder.getExpirationTime());
+            if (holder.getPrincipal() != null) {
+                update.set(TicketHolder.FIELD_NAME_PRINCIPAL, holder.getPrincipal());
+            }
             this.mongoTemplate.upsert(query, update, collectionName);
             LOGGER.debug("Updated ticket [{}]", ticket);
         } catch (final Exception e) {
@@ -130,6 +141,65 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         return null;
     }
 
+    @Override
+    public void addAndUpdate(final Collection<Ticket> ticketsToAdd, final Collection<Ticket> ticketsToUpdate) {
+        try {
+            val operations = new LinkedHashMap<String, BulkOperations>();
+            ticketsToUpdate.forEach(ticket -> {
+                val holder = buildTicketAsDocument(ticket);
+                val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(holder.getTicketId()));
+                val update = Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson());
+                update.set(TicketHolder.FIELD_NAME_EXPIRATION_TIME, holder.getExpirationTime());
+                if (holder.getPrincipal() != null) {
+                    update.set(TicketHolder.FIELD_NAME_PRINCIPAL, holder.getPrincipal());
+                }
+                getBulkOperations(operations, ticket).upsert(query, update);
+            });
+            ticketsToAdd.forEach(ticket -> getBulkOperations(operations, ticket).insert(buildTicketAsDocument(ticket)));
+            operations.forEach((collectionName, bulk) -> {
+                val result = bulk.execute();
+                LOGGER.debug("Submitted bulk write to collection [{}] with result [{}]", collectionName, result);
+            });
+        } catch (final Exception e) {
+            LOGGER.error(String.format("Failed adding %s and updating %s", ticketsToAdd, ticketsToUpdate), e);
+        }
+    }
+
+    @Override
+    public Ticket consumeTicket(final String ticketId) {
+        val encTicketId = encodeTicketId(ticketId);
+        val metadata = this.ticketCatalog.find(ticketId);
+        if (encTicketId == null || metadata == null) {
+            LOGGER.debug("Ticket [{}] could not be found", ticketId);
+            return null;
+        }
+        val collectionName = getTicketCollectionInstanceByMetadata(metadata);
+        for (var attempt = 1; attempt <= MAX_CONSUME_ATTEMPTS; attempt++) {
+            val found = this.mongoTemplate.findOne(new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(encTicketId)),
+                TicketHolder.class, collectionName);
+            if (found == null) {
+                LOGGER.debug("Ticket [{}] could not be found", ticketId);
+                return null;
+            }
+            val ticket = decodeTicket(deserializeTicketFromMongoDocument(found));
+            if (!consumeTicketState(ticket)) {
+                return null;
+            }
+            val holder = buildTicketAsDocument(ticket);
+            val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(encTicketId)
+                .and(TicketHolder.FIELD_NAME_JSON).is(found.getJson()));
+            val update = Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson())
+                .set(TicketHolder.FIELD_NAME_EXPIRATION_TIME, holder.getExpirationTime());
+            val result = this.mongoTemplate.updateFirst(query, update, collectionName);
+            if (result.getMatchedCount() > 0) {
+                LOGGER.debug("Consumed ticket [{}]", ticketId);
+                return ticket;
+            }
+            LOGGER.debug("Ticket [{}] was modified while being consumed; attempt [{}] will be retried", ticketId, attempt);
+        }
+        throw new IllegalStateException(String.format("Unable to consume ticket %s after %s attempt(s)", ticketId, MAX_CONSUME_ATTEMPTS));
+    }
+
     @Override
     public Collection<? extends Ticket> getTickets() {
         return this.ticketCatalog.findAll().stream()
@@ -180,6 +250,22 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
             .map(ticket -> decodeTicket(deserializeTicketFromMongoDocument(ticket)));
     }
 
+    /**
+     * {@inheritDoc}
+     * Documents that were stored without an expiration time are always considered candidates.
+     */
+    @Override
+    public Stream<? extends Ticket> getTicketsExpiringBefore(final Instant instant) {
+        val query = new Query(new Criteria().orOperator(
+            Criteria.where(TicketHolder.FIELD_NAME_EXPIRATION_TIME).lte(Date.from(instant)),
+            Criteria.where(TicketHolder.FIELD_NAME_EXPIRATION_TIME).exists(false)));
+        return ticketCatalog.findAll().stream()
+            .map(this::getTicketCollectionInstanceByMetadata)
+            .map(map -> mongoTemplate.stream(query, TicketHolder.class, map))
+            .flatMap(StreamUtils::createStreamFromIterator)
+            .map(ticket -> decodeTicket(deserializeTicketFromMongoDocument(ticket)));
+    }
+
     @Override
     public long serviceTicketCount() {
         return countTicketsByTicketType(ServiceTicket.class);
@@ -192,23 +278,37 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public long countSessionsFor(final String principalId) {
-        if (isCipherExecutorEnabled()) {
-            return super.countSessionsFor(principalId);
-        }
-
-        val ticketDefinitions = ticketCatalog.find(TicketGrantingTicket.class);
-        return ticketDefinitions.stream()
+        val query = getSessionsQuery(principalId);
+        return ticketCatalog.find(TicketGrantingTicket.class).stream()
             .map(this::getTicketCollectionInstanceByMetadata)
-            .mapToLong(map -> {
-                val criteria = TextCriteria.forDefaultLanguage().matchingAny(principalId);
-                val query = TextQuery.queryText(criteria)
-                    .sortByScore()
-                    .with(PageRequest.of(0, 10));
-                return mongoTemplate.count(query, map);
-            })
+            .mapToLong(map -> mongoTemplate.count(query, map))
             .sum();
     }
 
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        val query = getSessionsQuery(principalId);
+        return ticketCatalog.find(TicketGrantingTicket.class).stream()
+            .map(this::getTicketCollectionInstanceByMetadata)
+            .map(map -> mongoTemplate.stream(query, TicketHolder.class, map))
+            .flatMap(StreamUtils::createStreamFromIterator)
+            .map(ticket -> decodeTicket(deserializeTicketFromMongoDocument(ticket)));
+    }
+
+    private BulkOperations getBulkOperations(final Map<String, BulkOperations> operations, final Ticket ticket) {
+        val metadata = this.ticketCatalog.find(ticket);
+        if (metadata == null) {
+            throw new IllegalArgumentException("Could not locate ticket definition in the catalog for ticket " + ticket.getId());
+        }
+        val collectionName = getTicketCollectionInstanceByMetadata(metadata);
+        return operations.computeIfAbsent(collectionName,
+            name -> this.mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, TicketHolder.class, name));
+    }
+
+    private Query getSessionsQuery(final String principalId) {
+        return new Query(Criteria.where(TicketHolder.FIELD_NAME_PRINCIPAL).is(encodePrincipalId(principalId)));
+    }
+
     private long countTicketsByTicketType(final Class<? extends Ticket> ticketType) {
         val ticketDefinitions = ticketCatalog.find(ticketType);
         return ticketDefinitions.stream()
@@ -223,7 +323,11 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         if (StringUtils.isNotBlank(json)) {
             LOGGER.trace("Serialized ticket into a JSON document as \n [{}]", JsonValue.readJSON(json).toString(Stringify.FORMATTED));
             val expireAt = getExpireAt(ticket);
-            return new TicketHolder(json, encTicket.getId(), encTicket.getClass().getName(), expireAt);
+            val principal = ticket instanceof TicketGrantingTicket
+                ? encodePrincipalId(getPrincipalId((TicketGrantingTicket) ticket))
+                : null;
+            val expirationTime = Date.from(getExpirationTime(ticket));
+            return new TicketHolder(json, encTicket.getId(), encTicket.getClass().getName(), expireAt, principal, expirationTime);
         }
         throw new IllegalArgumentException("Ticket " + ticket.getId() + " cannot be serialized to JSON");
     }
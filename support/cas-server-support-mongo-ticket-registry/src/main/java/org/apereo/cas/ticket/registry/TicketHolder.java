@@ -43,6 +43,16 @@ public class TicketHolder implements Serializable {
      */
     public static final String FIELD_NAME_ID = "ticketId";
 
+    /**
+     * Field name to hold the principal of ticket-granting tickets.
+     */
+    public static final String FIELD_NAME_PRINCIPAL = "principal";
+
+    /**
+     * Field name to hold the earliest time at which the ticket may be considered expired.
+     */
+    public static final String FIELD_NAME_EXPIRATION_TIME = "expirationTime";
+
     private static final long serialVersionUID = -4843440028617071224L;
 
     @JsonProperty
@@ -55,4 +65,9 @@ public class TicketHolder implements Serializable {
     private final String type;
 
     private final Date expireAt;
+
+    @JsonProperty
+    private final String principal;
+
+    private final Date expirationTime;
 }
@@ -67,6 +67,14 @@ public class MongoDbTicketRegistryFacilitator {
             .build();
         mongoTemplate.indexOps(collectionName).ensureIndex(textIndex);
 
+        LOGGER.trace("Creating indices on collection [{}] to locate sessions by principal...", collectionName);
+        val principalIndex = new Index().on(TicketHolder.FIELD_NAME_PRINCIPAL, Sort.Direction.ASC).sparse();
+        mongoTemplate.indexOps(collectionName).ensureIndex(principalIndex);
+
+        LOGGER.trace("Creating indices on collection [{}] to locate expired tickets...", collectionName);
+        val expirationIndex = new Index().on(TicketHolder.FIELD_NAME_EXPIRATION_TIME, Sort.Direction.ASC);
+        mongoTemplate.indexOps(collectionName).ensureIndex(expirationIndex);
+
         return collection;
     }
 
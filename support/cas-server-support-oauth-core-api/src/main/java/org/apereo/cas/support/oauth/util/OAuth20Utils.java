@@ -2,6 +2,7 @@ package org.apereo.cas.support.oauth.util;
 
 import org.apereo.cas.CasProtocolConstants;
 import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.services.RegisteredServiceIndex;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.services.UnauthorizedServiceException;
 import org.apereo.cas.support.oauth.OAuth20Constants;
@@ -42,6 +43,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -62,6 +64,11 @@ public class OAuth20Utils {
         .findAndRegisterModules()
         .configure(SerializationFeature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED, true);
 
+    private static final RegisteredServiceIndex CLIENT_ID_INDEX = RegisteredServiceIndex.of("oauthClientId",
+        registeredService -> registeredService instanceof OAuthRegisteredService
+            ? CollectionUtils.wrapList(((OAuthRegisteredService) registeredService).getClientId())
+            : List.of(), true);
+
     /**
      * Write to the output this error.
      *
@@ -89,7 +96,7 @@ public class OAuth20Utils {
         if (StringUtils.isBlank(clientId)) {
             return null;
         }
-        return getRegisteredOAuthServiceByPredicate(servicesManager, s -> s.getClientId().equalsIgnoreCase(clientId));
+        return servicesManager.findServiceByIndex(CLIENT_ID_INDEX, clientId, OAuthRegisteredService.class);
     }
 
     /**
@@ -104,6 +111,12 @@ public class OAuth20Utils {
         if (StringUtils.isBlank(redirectUri)) {
             return null;
         }
+        val registeredService = servicesManager.findServiceBy(redirectUri);
+        if (registeredService == null || registeredService instanceof OAuthRegisteredService) {
+            return (OAuthRegisteredService) registeredService;
+        }
+        LOGGER.trace("Service [{}] matching redirect uri [{}] is not an OAuth service; evaluating OAuth services in order",
+            registeredService.getName(), redirectUri);
         return getRegisteredOAuthServiceByPredicate(servicesManager, s -> s.matches(redirectUri));
     }
 
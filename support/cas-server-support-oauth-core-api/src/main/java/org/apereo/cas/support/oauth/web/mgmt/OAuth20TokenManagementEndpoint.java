@@ -48,9 +48,12 @@ public class OAuth20TokenManagementEndpoint extends BaseCasActuatorEndpoint {
      */
     @ReadOperation
     public Collection<Ticket> getTokens() {
-        return ticketRegistry.getTickets(ticket -> (ticket instanceof OAuth20AccessToken || ticket instanceof OAuth20RefreshToken) && !ticket.isExpired())
-            .sorted(Comparator.comparing(Ticket::getId))
-            .collect(Collectors.toList());
+        try (val tokens = ticketRegistry.getTickets(ticket -> (ticket instanceof OAuth20AccessToken || ticket instanceof OAuth20RefreshToken)
+            && !ticket.isExpired())) {
+            return tokens
+                .sorted(Comparator.comparing(Ticket::getId))
+                .collect(Collectors.toList());
+        }
     }
 
 
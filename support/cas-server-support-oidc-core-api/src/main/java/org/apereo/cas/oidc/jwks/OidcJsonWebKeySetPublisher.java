@@ -0,0 +1,174 @@
+package org.apereo.cas.oidc.jwks;
+
+import org.apereo.cas.services.OidcRegisteredService;
+import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.support.events.service.CasRegisteredServiceDeletedEvent;
+import org.apereo.cas.support.events.service.CasRegisteredServiceSavedEvent;
+import org.apereo.cas.support.events.service.CasRegisteredServicesLoadedEvent;
+import org.apereo.cas.util.DigestUtils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.JsonWebKeySet;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This is {@link OidcJsonWebKeySetPublisher}. It builds the public JSON web keyset
+ * that is published to relying parties from the CAS keystore and the keys of registered
+ * OpenID Connect services once, and keeps serving the same document until the keystore file
+ * is modified, or registered services are loaded, saved or deleted. The published document
+ * carries a strong entity tag calculated from its contents so that clients may
+ * use conditional requests.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class OidcJsonWebKeySetPublisher {
+    private final OidcJsonWebKeystoreGeneratorService generatorService;
+
+    private final ServicesManager servicesManager;
+
+    private final ResourceLoader resourceLoader;
+
+    private final AtomicReference<PublishedJsonWebKeySet> published = new AtomicReference<>();
+
+    private static long getLastModified(final Resource resource) {
+        try {
+            return resource.isFile() ? resource.lastModified() : 0;
+        } catch (final IOException e) {
+            LOGGER.trace(e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Gets the published JSON web keyset, building it if necessary.
+     *
+     * @return the published keyset
+     */
+    public PublishedJsonWebKeySet publish() {
+        val current = published.get();
+        if (current != null && !current.isModified()) {
+            return current;
+        }
+        synchronized (published) {
+            val latest = published.get();
+            if (latest != null && !latest.isModified()) {
+                return latest;
+            }
+            val result = build();
+            published.set(result);
+            return result;
+        }
+    }
+
+    /**
+     * Discard the published keyset so it is rebuilt on the next request.
+     */
+    public void invalidate() {
+        LOGGER.trace("Discarding published JSON web keyset");
+        synchronized (published) {
+            published.set(null);
+        }
+    }
+
+    /**
+     * Handle registered services loaded event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServicesLoadedEvent(final CasRegisteredServicesLoadedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Handle registered service saved event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServiceSavedEvent(final CasRegisteredServiceSavedEvent event) {
+        if (event.getRegisteredService() instanceof OidcRegisteredService) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Handle registered service deleted event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServiceDeletedEvent(final CasRegisteredServiceDeletedEvent event) {
+        if (event.getRegisteredService() instanceof OidcRegisteredService) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Build the public keyset from the keystore and registered services.
+     *
+     * @return the published keyset
+     */
+    @SneakyThrows
+    protected PublishedJsonWebKeySet build() {
+        val resource = generatorService.generate();
+        val lastModified = getLastModified(resource);
+        val jsonJwks = IOUtils.toString(resource.getInputStream(), StandardCharsets.UTF_8);
+        val jsonWebKeySet = new JsonWebKeySet(jsonJwks);
+
+        servicesManager.getAllServices()
+            .stream()
+            .filter(s -> s instanceof OidcRegisteredService)
+            .map(s -> (OidcRegisteredService) s)
+            .filter(s -> StringUtils.isNotBlank(s.getJwks()))
+            .forEach(service -> {
+                val set = OidcJsonWebKeyStoreUtils.getJsonWebKeySet(service, resourceLoader);
+                set.ifPresent(keys -> keys.getJsonWebKeys().forEach(jsonWebKeySet::addJsonWebKey));
+            });
+        val body = jsonWebKeySet.toJson(JsonWebKey.OutputControlLevel.PUBLIC_ONLY);
+        val entityTag = '"' + DigestUtils.sha256(body) + '"';
+        LOGGER.debug("Published JSON web keyset with [{}] key(s) and entity tag [{}]",
+            jsonWebKeySet.getJsonWebKeys().size(), entityTag);
+        return new PublishedJsonWebKeySet(body.getBytes(StandardCharsets.UTF_8), entityTag, resource, lastModified);
+    }
+
+    /**
+     * The published JSON web keyset.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class PublishedJsonWebKeySet {
+        private final byte[] body;
+
+        private final String entityTag;
+
+        private final Resource keystore;
+
+        private final long keystoreLastModified;
+
+        /**
+         * Whether the keystore file has changed since the keyset was published.
+         *
+         * @return true/false
+         */
+        public boolean isModified() {
+            return keystoreLastModified > 0 && getLastModified(keystore) != keystoreLastModified;
+        }
+    }
+}
@@ -1,18 +1,16 @@
 package org.apereo.cas.oidc.web.controllers.jwks;
 
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.oidc.OidcConstants;
-import org.apereo.cas.oidc.jwks.OidcJsonWebKeyStoreUtils;
-import org.apereo.cas.oidc.jwks.OidcJsonWebKeystoreGeneratorService;
-import org.apereo.cas.services.OidcRegisteredService;
+import org.apereo.cas.oidc.jwks.OidcJsonWebKeySetPublisher;
 import org.apereo.cas.support.oauth.web.endpoints.BaseOAuth20Controller;
 import org.apereo.cas.support.oauth.web.endpoints.OAuth20ConfigurationContext;
 
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.jose4j.jwk.JsonWebKey;
-import org.jose4j.jwk.JsonWebKeySet;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +20,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link OidcJwksEndpointController}.
@@ -31,16 +31,18 @@ import java.nio.charset.StandardCharsets;
  */
 @Slf4j
 public class OidcJwksEndpointController extends BaseOAuth20Controller {
-    private final OidcJsonWebKeystoreGeneratorService oidcJsonWebKeystoreGeneratorService;
+    private final OidcJsonWebKeySetPublisher oidcJsonWebKeySetPublisher;
 
     public OidcJwksEndpointController(final OAuth20ConfigurationContext oAuthConfigurationContext,
-                                      final OidcJsonWebKeystoreGeneratorService oidcJsonWebKeystoreGeneratorService) {
+                                      final OidcJsonWebKeySetPublisher oidcJsonWebKeySetPublisher) {
         super(oAuthConfigurationContext);
-        this.oidcJsonWebKeystoreGeneratorService = oidcJsonWebKeystoreGeneratorService;
+        this.oidcJsonWebKeySetPublisher = oidcJsonWebKeySetPublisher;
     }
 
     /**
-     * Handle request for jwk set.
+     * Handle request for jwk set. The published keyset is tagged
+     * with an entity tag, and conditional requests whose entity tag
+     * matches the published keyset receive a {@code 304} response.
      *
      * @param request  the request
      * @param response the response
@@ -49,30 +51,28 @@ public class OidcJwksEndpointController extends BaseOAuth20Controller {
      */
     @GetMapping(value = '/' + OidcConstants.BASE_OIDC_URL + '/' + OidcConstants.JWKS_URL,
         produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> handleRequestInternal(final HttpServletRequest request,
+    public ResponseEntity<byte[]> handleRequestInternal(final HttpServletRequest request,
                                                         final HttpServletResponse response,
                                                         final Model model) {
         try {
-            val resource = oidcJsonWebKeystoreGeneratorService.generate();
-            val jsonJwks = IOUtils.toString(resource.getInputStream(), StandardCharsets.UTF_8);
-            val jsonWebKeySet = new JsonWebKeySet(jsonJwks);
+            val published = oidcJsonWebKeySetPublisher.publish();
+            val maxAge = Beans.newDuration(getOAuthConfigurationContext().getCasProperties()
+                .getAuthn().getOidc().getJwks().getJwksPublicationMaxAge());
+            val headers = ResponseEntity.status(HttpStatus.OK)
+                .eTag(published.getEntityTag())
+                .cacheControl(CacheControl.maxAge(maxAge.getSeconds(), TimeUnit.SECONDS).cachePublic());
 
-            val servicesManager = getOAuthConfigurationContext().getServicesManager();
-            servicesManager.getAllServices()
-                .stream()
-                .filter(s -> s instanceof OidcRegisteredService)
-                .map(s -> (OidcRegisteredService) s)
-                .filter(s -> StringUtils.isNotBlank(s.getJwks()))
-                .forEach(service -> {
-                    val set = OidcJsonWebKeyStoreUtils.getJsonWebKeySet(service, getOAuthConfigurationContext().getResourceLoader());
-                    set.ifPresent(keys -> keys.getJsonWebKeys().forEach(jsonWebKeySet::addJsonWebKey));
-                });
-            val body = jsonWebKeySet.toJson(JsonWebKey.OutputControlLevel.PUBLIC_ONLY);
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            return new ResponseEntity<>(body, HttpStatus.OK);
+            val ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (StringUtils.isNotBlank(ifNoneMatch) && Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> "*".equals(tag) || published.getEntityTag().equals(tag))) {
+                LOGGER.trace("Published JSON web keyset is not modified for entity tag [{}]", ifNoneMatch);
+                return headers.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            return headers.contentType(MediaType.APPLICATION_JSON).body(published.getBody());
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
-            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            return new ResponseEntity<>(StringUtils.defaultString(e.getMessage()).getBytes(StandardCharsets.UTF_8), HttpStatus.BAD_REQUEST);
         }
     }
 }
@@ -34,6 +34,7 @@ import org.apereo.cas.oidc.discovery.webfinger.userinfo.OidcRestfulWebFingerUser
 import org.apereo.cas.oidc.dynareg.OidcClientRegistrationRequest;
 import org.apereo.cas.oidc.dynareg.OidcClientRegistrationRequestSerializer;
 import org.apereo.cas.oidc.jwks.OidcDefaultJsonWebKeystoreCacheLoader;
+import org.apereo.cas.oidc.jwks.OidcJsonWebKeySetPublisher;
 import org.apereo.cas.oidc.jwks.OidcJsonWebKeystoreGeneratorService;
 import org.apereo.cas.oidc.jwks.OidcServiceJsonWebKeystoreCacheExpirationPolicy;
 import org.apereo.cas.oidc.jwks.OidcServiceJsonWebKeystoreCacheLoader;
@@ -496,7 +497,13 @@ public class OidcConfiguration implements WebMvcConfigurer {
     @Bean
     public OidcJwksEndpointController oidcJwksController() {
         val context = buildConfigurationContext();
-        return new OidcJwksEndpointController(context, oidcJsonWebKeystoreGeneratorService());
+        return new OidcJwksEndpointController(context, oidcJsonWebKeySetPublisher());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "oidcJsonWebKeySetPublisher")
+    public OidcJsonWebKeySetPublisher oidcJsonWebKeySetPublisher() {
+        return new OidcJsonWebKeySetPublisher(oidcJsonWebKeystoreGeneratorService(), servicesManager.getObject(), resourceLoader);
     }
 
     @RefreshScope
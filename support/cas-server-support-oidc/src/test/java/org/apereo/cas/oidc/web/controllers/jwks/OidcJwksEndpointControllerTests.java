@@ -0,0 +1,62 @@
+package org.apereo.cas.oidc.web.controllers.jwks;
+
+import org.apereo.cas.oidc.AbstractOidcTests;
+import org.apereo.cas.util.RandomUtils;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.ConcurrentModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link OidcJwksEndpointControllerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("OIDC")
+public class OidcJwksEndpointControllerTests extends AbstractOidcTests {
+    @Autowired
+    @Qualifier("oidcJwksController")
+    protected OidcJwksEndpointController oidcJwksController;
+
+    @Test
+    public void verifyConditionalRequest() {
+        val result = oidcJwksController.handleRequestInternal(new MockHttpServletRequest(),
+            new MockHttpServletResponse(), new ConcurrentModel());
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        val entityTag = result.getHeaders().getETag();
+        assertNotNull(entityTag);
+        assertNotNull(result.getHeaders().getCacheControl());
+
+        val request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, entityTag);
+        val notModified = oidcJwksController.handleRequestInternal(request, new MockHttpServletResponse(), new ConcurrentModel());
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(entityTag, notModified.getHeaders().getETag());
+    }
+
+    @Test
+    public void verifyRebuiltOnServiceChange() {
+        val before = oidcJwksController.handleRequestInternal(new MockHttpServletRequest(),
+            new MockHttpServletResponse(), new ConcurrentModel());
+        val service = getOidcRegisteredService(RandomUtils.randomAlphanumeric(8));
+        service.setId(RandomUtils.nextLong());
+        servicesManager.save(service);
+        val after = oidcJwksController.handleRequestInternal(new MockHttpServletRequest(),
+            new MockHttpServletResponse(), new ConcurrentModel());
+        assertEquals(HttpStatus.OK, after.getStatusCode());
+        assertNotEquals(before.getHeaders().getETag(), after.getHeaders().getETag());
+        servicesManager.delete(service);
+    }
+}
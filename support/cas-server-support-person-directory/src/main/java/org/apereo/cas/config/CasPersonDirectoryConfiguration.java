@@ -15,6 +15,7 @@ import org.apereo.cas.configuration.support.JpaBeans;
 import org.apereo.cas.persondir.DefaultPersonDirectoryAttributeRepositoryPlan;
 import org.apereo.cas.persondir.PersonDirectoryAttributeRepositoryPlan;
 import org.apereo.cas.persondir.PersonDirectoryAttributeRepositoryPlanConfigurer;
+import org.apereo.cas.persondir.support.ParallelMergingPersonAttributeDao;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.LdapUtils;
 import org.apereo.cas.util.ResourceUtils;
@@ -189,16 +190,12 @@ public class CasPersonDirectoryConfiguration {
     @ConditionalOnMissingBean(name = "aggregatingAttributeRepository")
     @RefreshScope
     public IPersonAttributeDao aggregatingAttributeRepository() {
-        val aggregate = getAggregateAttributeRepository();
-
         val properties = casProperties.getAuthn().getAttributeRepository();
         val merger = StringUtils.defaultIfBlank(properties.getMerger(), "replace").trim();
         LOGGER.trace("Configured merging strategy for attribute sources is [{}]", merger);
-        aggregate.setMerger(CoreAuthenticationUtils.getAttributeMerger(merger));
+        val attributeMerger = CoreAuthenticationUtils.getAttributeMerger(merger);
 
         val list = personDirectoryAttributeRepositoryPlan().getAttributeRepositories();
-        aggregate.setPersonAttributeDaos(list);
-
         if (list.isEmpty()) {
             LOGGER.debug("No attribute repository sources are available/defined to merge together.");
         } else {
@@ -208,6 +205,18 @@ public class CasPersonDirectoryConfiguration {
                 .collect(Collectors.joining(","));
             LOGGER.debug("Configured attribute repository sources to merge together: [{}]", names);
         }
+
+        val aggregation = StringUtils.defaultIfBlank(properties.getAggregation(), "merge").trim();
+        if ("parallel".equalsIgnoreCase(aggregation)) {
+            val parallel = properties.getParallel();
+            LOGGER.trace("Attribute repository sources will be queried in parallel with a pool of [{}] thread(s)", parallel.getPoolSize());
+            return new ParallelMergingPersonAttributeDao(list, attributeMerger,
+                Beans.newDuration(parallel.getTimeout()), parallel.getPoolSize(), parallel.getQueueCapacity());
+        }
+
+        val aggregate = getAggregateAttributeRepository();
+        aggregate.setMerger(attributeMerger);
+        aggregate.setPersonAttributeDaos(list);
         return aggregate;
     }
 
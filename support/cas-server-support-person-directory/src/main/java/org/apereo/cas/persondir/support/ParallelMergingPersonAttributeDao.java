@@ -0,0 +1,198 @@
+package org.apereo.cas.persondir.support;
+
+import org.apereo.cas.util.CollectionUtils;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apereo.services.persondir.IPersonAttributeDao;
+import org.apereo.services.persondir.IPersonAttributeDaoFilter;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.BasePersonAttributeDao;
+import org.apereo.services.persondir.support.IUsernameAttributeProvider;
+import org.apereo.services.persondir.support.NamedPersonImpl;
+import org.apereo.services.persondir.support.SimpleUsernameAttributeProvider;
+import org.apereo.services.persondir.support.merger.IAttributeMerger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.support.DataAccessUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link ParallelMergingPersonAttributeDao}. Attribute repositories are queried concurrently
+ * on a dedicated, bounded thread pool, and their results are merged together in the order in which
+ * repositories are defined, using the configured {@link IAttributeMerger}. Merging results in the
+ * same order allows the outcome to remain identical to querying repositories one after another.
+ * <p>
+ * Each repository must produce its results within the configured timeout;
+ * repositories that time out or fail are skipped, and the results of the remaining
+ * repositories are returned. Queries that time out are cancelled and their threads interrupted,
+ * so that a slow repository does not keep holding on to threads of the pool. The time it takes each repository to respond is recorded
+ * as {@code cas.person.directory.attribute.repository} tagged by the repository id and outcome.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+@Getter
+public class ParallelMergingPersonAttributeDao extends BasePersonAttributeDao implements DisposableBean {
+    private final IUsernameAttributeProvider usernameAttributeProvider = new SimpleUsernameAttributeProvider();
+
+    private final List<IPersonAttributeDao> personAttributeDaos;
+
+    private final IAttributeMerger merger;
+
+    private final Duration timeout;
+
+    private final ExecutorService executorService;
+
+    public ParallelMergingPersonAttributeDao(final List<IPersonAttributeDao> personAttributeDaos,
+                                             final IAttributeMerger merger,
+                                             final Duration timeout,
+                                             final int poolSize,
+                                             final int queueCapacity) {
+        this.personAttributeDaos = personAttributeDaos;
+        this.merger = merger;
+        this.timeout = timeout;
+        val threadCount = new AtomicInteger();
+        this.executorService = new ThreadPoolExecutor(poolSize, poolSize, 1, TimeUnit.MINUTES,
+            new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+            r -> {
+                val thread = new Thread(r, "ParallelMergingPersonAttributeDaoThread-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static String getRepositoryId(final IPersonAttributeDao dao) {
+        return Arrays.toString(dao.getId());
+    }
+
+    private static void recordMetrics(final IPersonAttributeDao dao, final String outcome, final long startTime) {
+        Timer.builder("cas.person.directory.attribute.repository")
+            .description("Time it takes an attribute repository to produce results")
+            .tag("id", getRepositoryId(dao))
+            .tag("outcome", outcome)
+            .register(Metrics.globalRegistry)
+            .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public IPersonAttributes getPerson(final String uid, final IPersonAttributeDaoFilter filter) {
+        val query = Map.<String, List<Object>>of(usernameAttributeProvider.getUsernameAttribute(), List.of(uid));
+        val people = getPeopleWithMultivaluedAttributes(query, filter);
+        val person = DataAccessUtils.singleResult(people);
+        if (person != null && person.getName() == null) {
+            return new NamedPersonImpl(uid, person.getAttributes());
+        }
+        return person;
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeople(final Map<String, Object> query, final IPersonAttributeDaoFilter filter) {
+        val attributes = new LinkedHashMap<String, List<Object>>();
+        query.forEach((key, value) -> attributes.put(key, new ArrayList<>(CollectionUtils.toCollection(value))));
+        return getPeopleWithMultivaluedAttributes(attributes, filter);
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query,
+                                                                     final IPersonAttributeDaoFilter filter) {
+        val startTime = System.nanoTime();
+        val queries = personAttributeDaos
+            .stream()
+            .filter(dao -> filter == null || filter.choosePersonAttributeDao(dao))
+            .map(dao -> Pair.of(dao, executorService.submit(() -> getPeopleFrom(dao, query, filter))))
+            .collect(Collectors.toList());
+
+        val deadline = startTime + timeout.toNanos();
+        Set<IPersonAttributes> resultPeople = null;
+        for (val entry : queries) {
+            val dao = entry.getKey();
+            val future = entry.getValue();
+            try {
+                val people = future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                if (people != null) {
+                    resultPeople = resultPeople == null
+                        ? new LinkedHashSet<>(people)
+                        : merger.mergeResults(resultPeople, people);
+                }
+            } catch (final TimeoutException e) {
+                future.cancel(true);
+                recordMetrics(dao, "timeout", startTime);
+                LOGGER.warn("Attribute repository [{}] did not produce results within [{}]; results are skipped",
+                    getRepositoryId(dao), timeout);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while waiting for attribute repository [{}]", getRepositoryId(dao));
+                queries.forEach(pending -> pending.getValue().cancel(true));
+                break;
+            } catch (final ExecutionException e) {
+                LOGGER.warn("Attribute repository [{}] failed to produce results: [{}]", getRepositoryId(dao), e.getMessage());
+                LOGGER.debug(e.getMessage(), e);
+            }
+        }
+        return resultPeople;
+    }
+
+    @Override
+    public Set<String> getPossibleUserAttributeNames(final IPersonAttributeDaoFilter filter) {
+        return personAttributeDaos
+            .stream()
+            .filter(dao -> filter == null || filter.choosePersonAttributeDao(dao))
+            .map(dao -> dao.getPossibleUserAttributeNames(filter))
+            .filter(Objects::nonNull)
+            .flatMap(Set::stream)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public Set<String> getAvailableQueryAttributes(final IPersonAttributeDaoFilter filter) {
+        return personAttributeDaos
+            .stream()
+            .filter(dao -> filter == null || filter.choosePersonAttributeDao(dao))
+            .map(dao -> dao.getAvailableQueryAttributes(filter))
+            .filter(Objects::nonNull)
+            .flatMap(Set::stream)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdownNow();
+    }
+
+    private Set<IPersonAttributes> getPeopleFrom(final IPersonAttributeDao dao,
+                                                 final Map<String, List<Object>> query,
+                                                 final IPersonAttributeDaoFilter filter) {
+        val startTime = System.nanoTime();
+        try {
+            val people = dao.getPeopleWithMultivaluedAttributes(query, filter);
+            recordMetrics(dao, "success", startTime);
+            return people;
+        } catch (final RuntimeException e) {
+            recordMetrics(dao, "failure", startTime);
+            throw e;
+        }
+    }
+}
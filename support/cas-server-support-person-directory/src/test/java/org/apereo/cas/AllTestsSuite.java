@@ -3,6 +3,8 @@ package org.apereo.cas;
 
 import org.apereo.cas.config.CasPersonDirectoryConfigurationCascadeAggregationTests;
 import org.apereo.cas.config.CasPersonDirectoryConfigurationMergeAggregationTests;
+import org.apereo.cas.config.CasPersonDirectoryConfigurationParallelAggregationTests;
+import org.apereo.cas.persondir.support.ParallelMergingPersonAttributeDaoTests;
 
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.platform.suite.api.SelectClasses;
@@ -24,6 +26,8 @@ import org.junit.runner.RunWith;
     CachingAttributeRepositoryTests.class,
     CasPersonDirectoryConfigurationMergeAggregationTests.class,
     CasPersonDirectoryConfigurationCascadeAggregationTests.class,
+    CasPersonDirectoryConfigurationParallelAggregationTests.class,
+    ParallelMergingPersonAttributeDaoTests.class,
     DefaultAttributeDefinitionStoreTests.class,
     JdbcSingleRowAttributeRepositoryPostgresTests.class
 })
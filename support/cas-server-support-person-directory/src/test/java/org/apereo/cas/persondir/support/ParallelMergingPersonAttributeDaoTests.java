@@ -0,0 +1,109 @@
+package org.apereo.cas.persondir.support;
+
+import lombok.val;
+import org.apereo.services.persondir.IPersonAttributeDaoFilter;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.StubPersonAttributeDao;
+import org.apereo.services.persondir.support.merger.MultivaluedAttributeMerger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link ParallelMergingPersonAttributeDaoTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class ParallelMergingPersonAttributeDaoTests {
+
+    private static StubPersonAttributeDao getStubAttributeRepository(final String name, final Object value) {
+        return new StubPersonAttributeDao(Map.of(name, List.of(value)));
+    }
+
+    @Test
+    public void verifyMergedInOrder() {
+        val first = getStubAttributeRepository("eppn", "first");
+        val second = getStubAttributeRepository("eppn", "second");
+        val third = getStubAttributeRepository("uid", "cas");
+        val dao = new ParallelMergingPersonAttributeDao(List.of(first, second, third),
+            new MultivaluedAttributeMerger(), Duration.ofSeconds(5), 2, 1);
+        val person = dao.getPerson("casuser", IPersonAttributeDaoFilter.alwaysChoose());
+        assertNotNull(person);
+        assertEquals("casuser", person.getName());
+        assertEquals(List.of("first", "second"), person.getAttributeValues("eppn"));
+        assertEquals("cas", person.getAttributeValue("uid"));
+        assertEquals(Set.of("eppn", "uid"), dao.getPossibleUserAttributeNames(IPersonAttributeDaoFilter.alwaysChoose()));
+        dao.destroy();
+    }
+
+    @Test
+    public void verifySlowRepositoryIsSkipped() {
+        val slow = new StubPersonAttributeDao(Map.of("slow", List.of("value"))) {
+            @Override
+            public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query,
+                                                                             final IPersonAttributeDaoFilter filter) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getPeopleWithMultivaluedAttributes(query, filter);
+            }
+        };
+        val failing = new StubPersonAttributeDao(Map.of("failing", List.of("value"))) {
+            @Override
+            public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query,
+                                                                             final IPersonAttributeDaoFilter filter) {
+                throw new IllegalArgumentException("failed");
+            }
+        };
+        val fast = getStubAttributeRepository("uid", "cas");
+        val dao = new ParallelMergingPersonAttributeDao(List.of(slow, failing, fast),
+            new MultivaluedAttributeMerger(), Duration.ofMillis(500), 3, 1);
+        val start = System.currentTimeMillis();
+        val person = dao.getPerson("casuser", IPersonAttributeDaoFilter.alwaysChoose());
+        assertTrue(System.currentTimeMillis() - start < 5_000);
+        assertNotNull(person);
+        assertEquals("cas", person.getAttributeValue("uid"));
+        assertNull(person.getAttributeValue("slow"));
+        assertNull(person.getAttributeValue("failing"));
+        dao.destroy();
+    }
+
+    @Test
+    public void verifySlowRepositoryIsInterrupted() throws Exception {
+        val interrupted = new CountDownLatch(1);
+        val slow = new StubPersonAttributeDao(Map.of("slow", List.of("value"))) {
+            @Override
+            public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query,
+                                                                             final IPersonAttributeDaoFilter filter) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (final InterruptedException e) {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+                return super.getPeopleWithMultivaluedAttributes(query, filter);
+            }
+        };
+        val dao = new ParallelMergingPersonAttributeDao(List.of(slow, getStubAttributeRepository("uid", "cas")),
+            new MultivaluedAttributeMerger(), Duration.ofMillis(200), 2, 1);
+        try {
+            val person = dao.getPerson("casuser", IPersonAttributeDaoFilter.alwaysChoose());
+            assertEquals("cas", person.getAttributeValue("uid"));
+            assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+        } finally {
+            dao.destroy();
+        }
+    }
+}
@@ -6,11 +6,13 @@ import org.apereo.cas.authentication.principal.PrincipalFactory;
 import org.apereo.cas.authentication.principal.PrincipalFactoryUtils;
 import org.apereo.cas.authentication.principal.PrincipalNameTransformerUtils;
 import org.apereo.cas.authentication.principal.PrincipalResolver;
+import org.apereo.cas.authentication.principal.cache.PrincipalAttributesRepositoryCacheStore;
 import org.apereo.cas.authentication.support.password.PasswordEncoderUtils;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.persondir.PersonDirectoryAttributeRepositoryPlanConfigurer;
 import org.apereo.cas.redis.RedisAuthenticationHandler;
 import org.apereo.cas.redis.RedisPersonAttributeDao;
+import org.apereo.cas.redis.RedisPrincipalAttributesRepositoryCacheStore;
 import org.apereo.cas.redis.core.RedisObjectFactory;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.util.function.FunctionUtils;
@@ -22,6 +24,7 @@ import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -31,6 +34,7 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -130,4 +134,15 @@ public class RedisAuthenticationConfiguration {
             daos.forEach(plan::registerAttributeRepository);
         };
     }
+
+    @ConditionalOnMissingBean(name = "principalAttributesRepositoryCacheStore")
+    @Bean
+    @ConditionalOnProperty(name = "cas.authn.attribute-repository.cache.redis.host")
+    public PrincipalAttributesRepositoryCacheStore principalAttributesRepositoryCacheStore() {
+        val redis = casProperties.getAuthn().getAttributeRepository().getCache().getRedis();
+        val conn = RedisObjectFactory.newRedisConnectionFactory(redis, true);
+        val template = RedisObjectFactory.<String, Map<String, List<Object>>>newRedisTemplate(conn);
+        template.afterPropertiesSet();
+        return new RedisPrincipalAttributesRepositoryCacheStore(template);
+    }
 }
@@ -0,0 +1,54 @@
+package org.apereo.cas.redis;
+
+import org.apereo.cas.authentication.principal.cache.PrincipalAttributesRepositoryCacheStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * This is {@link RedisPrincipalAttributesRepositoryCacheStore}, which shares
+ * cached principal attributes across nodes via Redis. Failures to reach Redis are logged
+ * and treated as cache misses, so attributes are still fetched from the source.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisPrincipalAttributesRepositoryCacheStore implements PrincipalAttributesRepositoryCacheStore {
+    private static final String CAS_PREFIX = "CAS_PRINCIPAL_ATTRIBUTES:";
+
+    private final RedisTemplate<String, Map<String, List<Object>>> redisTemplate;
+
+    @Override
+    public Optional<Map<String, List<Object>>> get(final String key) {
+        try {
+            return Optional.ofNullable(redisTemplate.boundValueOps(CAS_PREFIX + key).get());
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to fetch cached principal attributes from Redis: [{}]", e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(final String key, final Map<String, List<Object>> attributes, final Duration expiration) {
+        try {
+            val values = new TreeMap<String, List<Object>>(String.CASE_INSENSITIVE_ORDER);
+            attributes.forEach((name, value) -> values.put(name, new ArrayList<>(value)));
+            redisTemplate.boundValueOps(CAS_PREFIX + key).set(values, expiration);
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to share cached principal attributes via Redis: [{}]", e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.redis.core.RedisObjectFactory;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.registry.RedisTicketRegistry;
+import org.apereo.cas.ticket.registry.RedisTicketRegistryInvalidationChannel;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.util.CoreTicketUtils;
 
@@ -47,8 +48,10 @@ public class RedisTicketRegistryConfiguration {
     @RefreshScope
     public TicketRegistry ticketRegistry() {
         val redis = casProperties.getTicket().getRegistry().getRedis();
-        val r = new RedisTicketRegistry(ticketRedisTemplate());
+        val r = new RedisTicketRegistry(ticketRedisTemplate(), redis.getBatchSize());
         r.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(redis.getCrypto(), "redis"));
-        return r;
+        r.setTicketSerializer(CoreTicketUtils.newTicketSerializer(casProperties.getTicket().getRegistry()));
+        return CoreTicketUtils.newNearCacheTicketRegistry(r, casProperties.getTicket().getRegistry(),
+            () -> new RedisTicketRegistryInvalidationChannel(redisTicketConnectionFactory()));
     }
 }
@@ -1,16 +1,34 @@
 package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 
+import com.google.common.collect.Lists;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
@@ -21,17 +39,48 @@ import java.util.stream.StreamSupport;
 
 /**
  * Key-value ticket registry implementation that stores tickets in redis keyed on the ticket ID.
+ * Collective operations over all tickets walk the keyspace using {@code SCAN} one page
+ * at a time, fetching ticket values via {@code MGET} and removing keys via {@code UNLINK}
+ * in batches so that the full set of tickets is never materialized. Only the keys seen
+ * during a scan are remembered, so that keys returned more than once by the scan are processed once.
+ * Keys of ticket-granting tickets are also recorded in a redis set per principal,
+ * which allows single sign-on sessions of a user to be located directly. Members of the set
+ * are removed when tickets are deleted, and the expiration of the set is extended as sessions are added or updated
+ * such that the set expires along with the longest-lived session. Entries of sessions that are removed by redis itself
+ * upon expiry are pruned lazily when sessions are looked up.
+ * Keys of all tickets are also recorded in a redis sorted set scored by their expiration time,
+ * which allows the registry cleaner to only fetch tickets that are candidates for expiration.
+ * Entries of tickets that are removed by redis itself upon expiry are pruned from the sorted set
+ * once they are found to be missing.
+ * Tickets are consumed using optimistic transactions: the ticket key is watched while the ticket
+ * is read and updated, and the update is retried if the ticket is modified by another node in the meantime.
+ * Batches of tickets that are added and updated together are written using a single pipeline.
  *
  * @author serv
  * @since 5.1.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class RedisTicketRegistry extends AbstractTicketRegistry {
     private static final String CAS_TICKET_PREFIX = "CAS_TICKET:";
 
+    private static final String CAS_PRINCIPAL_PREFIX = "CAS_PRINCIPAL:";
+
+    private static final String CAS_TICKET_EXPIRATION_KEY = "CAS_TICKET_EXPIRATION";
+
+    private static final int MAX_CONSUME_ATTEMPTS = 10;
+
     private final RedisTemplate<String, Ticket> client;
 
+    private final int batchSize;
+
+    public RedisTicketRegistry(final RedisTemplate<String, Ticket> client, final long batchSize) {
+        this.client = client;
+        this.batchSize = (int) Math.max(1, Math.min(batchSize, Integer.MAX_VALUE));
+        if (this.batchSize != batchSize) {
+            LOGGER.warn("Batch size [{}] is out of range and is adjusted to [{}]", batchSize, this.batchSize);
+        }
+    }
+
     /**
      * If not time out value is specified, expire the ticket immediately.
      *
@@ -56,24 +105,88 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return CAS_TICKET_PREFIX + '*';
     }
 
+    private static String getPatternPrincipalRedisKey() {
+        return CAS_PRINCIPAL_PREFIX + '*';
+    }
+
+    private static byte[] serializeRedisKey(final String key) {
+        return StringRedisSerializer.UTF_8.serialize(key);
+    }
+
+    private static boolean isTicketGrantingTicketId(final String ticketId) {
+        return ticketId.startsWith(TicketGrantingTicket.PREFIX) || ticketId.startsWith(ProxyGrantingTicket.PROXY_GRANTING_TICKET_PREFIX);
+    }
+
     @Override
-    @SuppressWarnings("java:S2583")
     public long deleteAll() {
-        val redisKeys = this.client.keys(getPatternTicketRedisKey());
-        if (redisKeys == null) {
-            LOGGER.warn("Unable to locate tickets via redis key");
+        try (val pages = getKeyPagesStream(getPatternPrincipalRedisKey())) {
+            pages.forEach(this.client::unlink);
+        }
+        this.client.unlink(CAS_TICKET_EXPIRATION_KEY);
+        try (val pages = getKeyPagesStream(getPatternTicketRedisKey())) {
+            return pages
+                .mapToLong(keys -> {
+                    val count = this.client.unlink(keys);
+                    LOGGER.trace("Removed [{}] ticket(s) from redis", count);
+                    return count == null ? 0 : count;
+                })
+                .sum();
+        }
+    }
+
+    @Override
+    public long countSessionsFor(final String principalId) {
+        val sessions = getSessionKeysFor(principalId);
+        if (sessions.isEmpty()) {
             return 0;
         }
-        val size = redisKeys.size();
-        this.client.delete(redisKeys);
-        return size;
+        val count = this.client.countExistingKeys(sessions);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        val sessions = getSessionKeysFor(principalId);
+        if (sessions.isEmpty()) {
+            return Stream.empty();
+        }
+        val tickets = this.client.opsForValue().multiGet(sessions);
+        if (tickets == null) {
+            return Stream.empty();
+        }
+        val staleSessions = new ArrayList<String>();
+        val results = new ArrayList<Ticket>(tickets.size());
+        for (var i = 0; i < tickets.size(); i++) {
+            if (tickets.get(i) == null) {
+                staleSessions.add(sessions.get(i));
+            } else {
+                results.add(tickets.get(i));
+            }
+        }
+        if (!staleSessions.isEmpty()) {
+            LOGGER.trace("Removing [{}] stale session(s) from the index for [{}]", staleSessions.size(), principalId);
+            val principalKey = serializeRedisKey(getPrincipalRedisKey(principalId));
+            val members = staleSessions.stream().map(RedisTicketRegistry::serializeRedisKey).toArray(byte[][]::new);
+            this.client.execute((RedisCallback<Long>) connection -> connection.sRem(principalKey, members));
+        }
+        return results.stream()
+            .map(this::decodeTicket)
+            .filter(TicketGrantingTicket.class::isInstance);
     }
 
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
         try {
             val redisKey = getTicketRedisKey(encodeTicketId(ticketId));
+            val ticket = isTicketGrantingTicketId(ticketId) ? this.client.boundValueOps(redisKey).get() : null;
             this.client.delete(redisKey);
+            removeFromExpirationIndex(List.of(redisKey));
+            if (ticket != null) {
+                val decoded = decodeTicket(ticket);
+                if (decoded instanceof TicketGrantingTicket) {
+                    removeSessionFromPrincipalIndex(redisKey, (TicketGrantingTicket) decoded);
+                }
+            }
             return true;
         } catch (final Exception e) {
             LOGGER.error("Ticket not found or is already removed. Failed deleting [{}]", ticketId, e);
@@ -89,6 +202,10 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
             val encodeTicket = encodeTicket(ticket);
             val timeout = getTimeout(ticket);
             this.client.boundValueOps(redisKey).set(encodeTicket, timeout, TimeUnit.SECONDS);
+            addToExpirationIndex(redisKey, ticket);
+            if (ticket instanceof TicketGrantingTicket) {
+                addSessionToPrincipalIndex(redisKey, (TicketGrantingTicket) ticket, timeout);
+            }
         } catch (final Exception e) {
             LOGGER.error("Failed to add [{}]", ticket, e);
         }
@@ -123,18 +240,31 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public Stream<? extends Ticket> getTicketsStream() {
-        return getKeysStream()
-            .map(redisKey -> {
-                val ticket = this.client.boundValueOps(redisKey).get();
-                if (ticket == null) {
-                    this.client.delete(redisKey);
-                    return null;
-                }
-                return ticket;
-            })
+        return getKeyPagesStream(getPatternTicketRedisKey())
+            .map(keys -> this.client.opsForValue().multiGet(keys))
+            .filter(Objects::nonNull)
+            .flatMap(List::stream)
             .filter(Objects::nonNull)
             .map(this::decodeTicket);
+    }
 
+    @Override
+    public Stream<? extends Ticket> getTicketsExpiringBefore(final Instant instant) {
+        val expirationKey = serializeRedisKey(CAS_TICKET_EXPIRATION_KEY);
+        val members = this.client.execute((RedisCallback<Set<byte[]>>) connection ->
+            connection.zRangeByScore(expirationKey, Double.NEGATIVE_INFINITY, instant.toEpochMilli()));
+        if (members == null || members.isEmpty()) {
+            return Stream.empty();
+        }
+        val keys = members.stream()
+            .map(StringRedisSerializer.UTF_8::deserialize)
+            .collect(Collectors.toList());
+        LOGGER.trace("Found [{}] ticket(s) in redis as candidates for expiration", keys.size());
+        return Lists.partition(keys, this.batchSize)
+            .stream()
+            .map(this::getTicketsForExpirationCandidates)
+            .flatMap(List::stream)
+            .map(this::decodeTicket);
     }
 
     @Override
@@ -147,6 +277,10 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
 
             val timeout = getTimeout(ticket);
             this.client.boundValueOps(redisKey).set(encodeTicket, timeout, TimeUnit.SECONDS);
+            addToExpirationIndex(redisKey, ticket);
+            if (ticket instanceof TicketGrantingTicket) {
+                addSessionToPrincipalIndex(redisKey, (TicketGrantingTicket) ticket, timeout);
+            }
             return encodeTicket;
         } catch (final Exception e) {
             LOGGER.error("Failed to update [{}]", ticket, e);
@@ -154,20 +288,145 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return null;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public void addAndUpdate(final Collection<Ticket> ticketsToAdd, final Collection<Ticket> ticketsToUpdate) {
+        try {
+            val tickets = Stream.concat(ticketsToUpdate.stream(), ticketsToAdd.stream()).collect(Collectors.toList());
+            LOGGER.debug("Writing tickets [{}]", tickets);
+            val valueSerializer = (RedisSerializer<Ticket>) this.client.getValueSerializer();
+            val expirationKey = serializeRedisKey(CAS_TICKET_EXPIRATION_KEY);
+            this.client.executePipelined((RedisCallback<Object>) connection -> {
+                tickets.forEach(ticket -> {
+                    val redisKey = serializeRedisKey(getTicketRedisKey(encodeTicketId(ticket.getId())));
+                    connection.setEx(redisKey, getTimeout(ticket), valueSerializer.serialize(encodeTicket(ticket)));
+                    connection.zAdd(expirationKey, getExpirationTime(ticket).toEpochMilli(), redisKey);
+                });
+                return null;
+            });
+            tickets.stream()
+                .filter(TicketGrantingTicket.class::isInstance)
+                .forEach(ticket -> addSessionToPrincipalIndex(getTicketRedisKey(encodeTicketId(ticket.getId())),
+                    (TicketGrantingTicket) ticket, getTimeout(ticket)));
+        } catch (final Exception e) {
+            LOGGER.error("Failed to add [{}] and update [{}]", ticketsToAdd, ticketsToUpdate, e);
+        }
+    }
+
+    @Override
+    public Ticket consumeTicket(final String ticketId) {
+        val redisKey = getTicketRedisKey(encodeTicketId(ticketId));
+        for (var attempt = 1; attempt <= MAX_CONSUME_ATTEMPTS; attempt++) {
+            val callback = new ConsumeTicketSessionCallback(redisKey);
+            if (Boolean.TRUE.equals(this.client.execute(callback))) {
+                val ticket = callback.getConsumedTicket();
+                if (ticket != null) {
+                    addToExpirationIndex(redisKey, ticket);
+                }
+                return ticket;
+            }
+            LOGGER.debug("Ticket [{}] was modified while being consumed; attempt [{}] will be retried", ticketId, attempt);
+        }
+        throw new IllegalStateException(String.format("Unable to consume ticket %s after %s attempt(s)", ticketId, MAX_CONSUME_ATTEMPTS));
+    }
+
+    private List<Ticket> getTicketsForExpirationCandidates(final List<String> keys) {
+        val tickets = this.client.opsForValue().multiGet(keys);
+        if (tickets == null) {
+            return List.of();
+        }
+        val missingKeys = new ArrayList<String>();
+        val results = new ArrayList<Ticket>(tickets.size());
+        for (var i = 0; i < tickets.size(); i++) {
+            if (tickets.get(i) == null) {
+                missingKeys.add(keys.get(i));
+            } else {
+                results.add(tickets.get(i));
+            }
+        }
+        removeFromExpirationIndex(missingKeys);
+        return results;
+    }
+
+    private void addToExpirationIndex(final String redisKey, final Ticket ticket) {
+        val expirationKey = serializeRedisKey(CAS_TICKET_EXPIRATION_KEY);
+        val expirationTime = getExpirationTime(ticket).toEpochMilli();
+        this.client.execute((RedisCallback<Boolean>) connection ->
+            connection.zAdd(expirationKey, expirationTime, serializeRedisKey(redisKey)));
+    }
+
+    private void removeFromExpirationIndex(final List<String> redisKeys) {
+        if (redisKeys.isEmpty()) {
+            return;
+        }
+        LOGGER.trace("Removing [{}] ticket(s) from the expiration index", redisKeys.size());
+        val expirationKey = serializeRedisKey(CAS_TICKET_EXPIRATION_KEY);
+        val members = redisKeys.stream().map(RedisTicketRegistry::serializeRedisKey).toArray(byte[][]::new);
+        this.client.execute((RedisCallback<Long>) connection -> connection.zRem(expirationKey, members));
+    }
+
+    private String getPrincipalRedisKey(final String principalId) {
+        return CAS_PRINCIPAL_PREFIX + encodePrincipalId(principalId);
+    }
+
+    private List<String> getSessionKeysFor(final String principalId) {
+        if (StringUtils.isBlank(principalId)) {
+            return List.of();
+        }
+        val principalKey = serializeRedisKey(getPrincipalRedisKey(principalId));
+        val members = this.client.execute((RedisCallback<Set<byte[]>>) connection -> connection.sMembers(principalKey));
+        if (members == null) {
+            return List.of();
+        }
+        return members.stream()
+            .map(StringRedisSerializer.UTF_8::deserialize)
+            .collect(Collectors.toList());
+    }
+
+    private void addSessionToPrincipalIndex(final String redisKey, final TicketGrantingTicket ticket, final long timeout) {
+        val principalId = getPrincipalId(ticket);
+        if (StringUtils.isBlank(principalId)) {
+            return;
+        }
+        val principalKey = serializeRedisKey(getPrincipalRedisKey(principalId));
+        this.client.execute((RedisCallback<Object>) connection -> {
+            connection.sAdd(principalKey, serializeRedisKey(redisKey));
+            val ttl = connection.ttl(principalKey);
+            if (ttl == null || ttl < timeout) {
+                connection.expire(principalKey, timeout);
+            }
+            return null;
+        });
+    }
+
+    private void removeSessionFromPrincipalIndex(final String redisKey, final TicketGrantingTicket ticket) {
+        val principalId = getPrincipalId(ticket);
+        if (StringUtils.isBlank(principalId)) {
+            return;
+        }
+        val principalKey = serializeRedisKey(getPrincipalRedisKey(principalId));
+        this.client.execute((RedisCallback<Long>) connection -> connection.sRem(principalKey, serializeRedisKey(redisKey)));
+    }
+
     /**
-     * Get a stream of all CAS-related keys from Redis DB.
+     * Get a stream of all CAS-related keys from Redis DB, grouped into pages
+     * of the configured batch size. Keys are scanned lazily as pages are consumed,
+     * and each key is included once even if the scan returns it more than once.
+     * The underlying connection is released once the stream is closed, so callers
+     * must close the stream.
      *
-     * @return stream of all CAS-related keys from Redis DB
+     * @param pattern the key pattern to scan
+     * @return stream of pages of CAS-related keys from Redis DB
      */
-    private Stream<String> getKeysStream() {
-        val cursor = client.getConnectionFactory().getConnection()
-                .scan(ScanOptions.scanOptions().match(getPatternTicketRedisKey())
-                .build());
+    private Stream<List<String>> getKeyPagesStream(final String pattern) {
+        val options = ScanOptions.scanOptions()
+            .match(pattern)
+            .count(this.batchSize)
+            .build();
+        val cursor = client.executeWithStickyConnection((RedisCallback<Cursor<byte[]>>) connection -> connection.scan(options));
+        val pages = new KeyPageIterator(cursor);
         return StreamSupport
-            .stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
-            .map(key -> (String) client.getKeySerializer().deserialize(key))
-            .collect(Collectors.toSet())
-            .stream()
+            .stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false)
             .onClose(() -> {
                 try {
                     cursor.close();
@@ -176,4 +435,75 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
                 }
             });
     }
+
+    /**
+     * Consumes the ticket within a transaction that is discarded
+     * if the ticket is modified after it is read.
+     */
+    @RequiredArgsConstructor
+    private class ConsumeTicketSessionCallback implements SessionCallback<Boolean> {
+        private final String redisKey;
+
+        @Getter
+        private Ticket consumedTicket;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <K, V> Boolean execute(final RedisOperations<K, V> redisOperations) {
+            val operations = (RedisOperations<String, Ticket>) redisOperations;
+            operations.watch(redisKey);
+            val found = operations.opsForValue().get(redisKey);
+            val ticket = found == null ? null : decodeTicket(found);
+            if (!consumeTicketState(ticket)) {
+                operations.unwatch();
+                return Boolean.TRUE;
+            }
+            operations.multi();
+            operations.opsForValue().set(redisKey, encodeTicket(ticket), getTimeout(ticket), TimeUnit.SECONDS);
+            val results = operations.exec();
+            if (results == null || results.isEmpty()) {
+                return Boolean.FALSE;
+            }
+            this.consumedTicket = ticket;
+            return Boolean.TRUE;
+        }
+    }
+
+    /**
+     * Groups keys produced by the scan cursor into pages. Since a scan may return
+     * the same key more than once, keys that are already seen during the scan are skipped.
+     */
+    @RequiredArgsConstructor
+    private class KeyPageIterator implements Iterator<List<String>> {
+        private final Cursor<byte[]> cursor;
+
+        private final Set<String> seenKeys = new HashSet<>();
+
+        private List<String> nextPage;
+
+        @Override
+        public boolean hasNext() {
+            if (nextPage == null) {
+                val page = new ArrayList<String>();
+                while (cursor.hasNext() && page.size() < batchSize) {
+                    val key = (String) client.getKeySerializer().deserialize(cursor.next());
+                    if (seenKeys.add(key)) {
+                        page.add(key);
+                    }
+                }
+                nextPage = page.isEmpty() ? null : page;
+            }
+            return nextPage != null;
+        }
+
+        @Override
+        public List<String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            val page = nextPage;
+            nextPage = null;
+            return page;
+        }
+    }
 }
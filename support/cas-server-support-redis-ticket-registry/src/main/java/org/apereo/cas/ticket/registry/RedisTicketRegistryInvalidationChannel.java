@@ -0,0 +1,72 @@
+package org.apereo.cas.ticket.registry;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * This is {@link RedisTicketRegistryInvalidationChannel}, which publishes
+ * ticket invalidation notices on a Redis channel. Each notice is tagged with an identifier
+ * that is unique to the publishing node, so that the node is able to skip its own notices.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class RedisTicketRegistryInvalidationChannel implements TicketRegistryInvalidationChannel, AutoCloseable {
+    /**
+     * Name of the channel that carries invalidation notices.
+     */
+    public static final String CHANNEL_NAME = "cas-ticket-registry-invalidations";
+
+    private static final String SEPARATOR = " ";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisTicketRegistryInvalidationChannel(final RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+    }
+
+    @Override
+    public void publish(final String ticketId) {
+        val connection = connectionFactory.getConnection();
+        try {
+            connection.publish(CHANNEL_NAME.getBytes(StandardCharsets.UTF_8),
+                nodeId.concat(SEPARATOR).concat(ticketId).getBytes(StandardCharsets.UTF_8));
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to publish invalidation notice for ticket [{}]: [{}]", ticketId, e.getMessage());
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Override
+    public void subscribe(final Consumer<String> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            val body = new String(message.getBody(), StandardCharsets.UTF_8);
+            if (!nodeId.equals(StringUtils.substringBefore(body, SEPARATOR))) {
+                listener.accept(StringUtils.substringAfter(body, SEPARATOR));
+            }
+        }, new ChannelTopic(CHANNEL_NAME));
+        listenerContainer.start();
+    }
+
+    @Override
+    public void close() throws Exception {
+        listenerContainer.destroy();
+    }
+}
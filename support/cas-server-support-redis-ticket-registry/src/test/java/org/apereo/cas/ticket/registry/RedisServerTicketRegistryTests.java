@@ -1,12 +1,28 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
 import org.apereo.cas.util.junit.EnabledIfPortOpen;
 
+import lombok.val;
+import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * Unit test for {@link RedisTicketRegistry}.
  *
@@ -22,13 +38,54 @@ import org.springframework.test.context.TestPropertySource;
 @EnabledIfPortOpen(port = 6379)
 @Tag("Redis")
 public class RedisServerTicketRegistryTests extends BaseRedisSentinelTicketRegistryTests {
+    private static final String PRINCIPAL_KEY_PATTERN = "CAS_PRINCIPAL:*";
 
     @Autowired
     @Qualifier("ticketRegistry")
     private TicketRegistry ticketRegistry;
 
+    @Autowired
+    @Qualifier("ticketRedisTemplate")
+    private RedisTemplate<String, Ticket> ticketRedisTemplate;
+
     @Override
     public TicketRegistry getNewTicketRegistry() {
         return this.ticketRegistry;
     }
+
+    @RepeatedTest(2)
+    public void verifyPrincipalIndexFollowsSessions() {
+        val authentication = CoreAuthenticationTestUtils.getAuthentication("casuser");
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId, authentication, new HardTimeoutExpirationPolicy(30)));
+        val principalKeys = ticketRedisTemplate.keys(PRINCIPAL_KEY_PATTERN);
+        assertNotNull(principalKeys);
+        assertEquals(1, principalKeys.size());
+        val principalKey = principalKeys.iterator().next();
+        assertTrue(ticketRedisTemplate.getExpire(principalKey, TimeUnit.SECONDS) <= 30);
+
+        ticketRegistry.updateTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId, authentication, new HardTimeoutExpirationPolicy(300)));
+        assertTrue(ticketRedisTemplate.getExpire(principalKey, TimeUnit.SECONDS) > 30);
+        assertEquals(1, ticketRegistry.countSessionsFor(authentication.getPrincipal().getId()));
+
+        ticketRegistry.deleteTicket(ticketGrantingTicketId);
+        assertTrue(ticketRedisTemplate.keys(PRINCIPAL_KEY_PATTERN).isEmpty());
+    }
+
+    @Test
+    public void verifyTicketsArePagedOnce() {
+        val authentication = CoreAuthenticationTestUtils.getAuthentication();
+        val registry = new RedisTicketRegistry(ticketRedisTemplate, 0);
+        IntStream.range(0, 25).forEach(i -> registry.addTicket(
+            new TicketGrantingTicketImpl("TGT-" + i, authentication, NeverExpiresExpirationPolicy.INSTANCE)));
+
+        try (val tickets = registry.getTicketsStream()) {
+            val ids = tickets.map(Ticket::getId).collect(Collectors.toList());
+            assertEquals(25, ids.size());
+            assertEquals(25, new HashSet<>(ids).size());
+        }
+        val largeBatchRegistry = new RedisTicketRegistry(ticketRedisTemplate, Long.MAX_VALUE);
+        assertEquals(25, largeBatchRegistry.getTickets().size());
+        assertEquals(25, largeBatchRegistry.deleteAll());
+        assertTrue(registry.getTickets().isEmpty());
+    }
 }
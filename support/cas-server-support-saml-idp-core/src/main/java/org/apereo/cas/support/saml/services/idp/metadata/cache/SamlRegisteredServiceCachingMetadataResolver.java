@@ -42,4 +42,11 @@ public interface SamlRegisteredServiceCachingMetadataResolver {
      * @param criteriaSet the criteria set
      */
     void invalidate(SamlRegisteredService service, CriteriaSet criteriaSet);
+
+    /**
+     * Refresh cached metadata that has expired in the background,
+     * while the current copy continues to be served to follow-up requests.
+     */
+    default void refresh() {
+    }
 }
@@ -1,18 +1,37 @@
 package org.apereo.cas.support.saml.services.idp.metadata.cache;
 
 import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.apereo.cas.util.spring.SpringExpressionLanguageValueResolver;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
+import org.apache.commons.lang3.StringUtils;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
 
+import javax.annotation.Nonnull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * An adaptation of metadata resolver which handles the resolution of metadata resources
  * inside a cache. It basically is a fancy wrapper around a cache, and constructs the cache
  * semantics before processing the resolution of metadata for a SAML service.
+ * <p>
+ * When a stale period is defined, expired metadata continues to be served for that period
+ * while {@link #refresh()} reloads it in the background. The delay between the time metadata
+ * became due and the time it was refreshed is recorded as {@code cas.saml.metadata.refresh.lag},
+ * and refresh attempts that fail are counted as {@code cas.saml.metadata.refresh.failures}.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -25,12 +44,34 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
     private final SamlRegisteredServiceMetadataResolverCacheLoader chainingMetadataResolverCacheLoader;
     private final LoadingCache<SamlRegisteredServiceCacheKey, MetadataResolver> cache;
 
+    private final SamlRegisteredServiceMetadataAggregateStore metadataAggregateStore;
+
+    private final Map<SamlRegisteredServiceCacheKey, Long> refreshDeadlines = new ConcurrentHashMap<>();
+
+    private final Duration maxStale;
+
     public SamlRegisteredServiceDefaultCachingMetadataResolver(final long metadataCacheExpirationMinutes,
                                                                final SamlRegisteredServiceMetadataResolverCacheLoader loader) {
+        this(metadataCacheExpirationMinutes, loader, new SamlRegisteredServiceMetadataAggregateStore(metadataCacheExpirationMinutes));
+    }
+
+    public SamlRegisteredServiceDefaultCachingMetadataResolver(final long metadataCacheExpirationMinutes,
+                                                               final SamlRegisteredServiceMetadataResolverCacheLoader loader,
+                                                               final SamlRegisteredServiceMetadataAggregateStore metadataAggregateStore) {
+        this(metadataCacheExpirationMinutes, loader, metadataAggregateStore, Duration.ZERO);
+    }
+
+    public SamlRegisteredServiceDefaultCachingMetadataResolver(final long metadataCacheExpirationMinutes,
+                                                               final SamlRegisteredServiceMetadataResolverCacheLoader loader,
+                                                               final SamlRegisteredServiceMetadataAggregateStore metadataAggregateStore,
+                                                               final Duration maxStale) {
         this.chainingMetadataResolverCacheLoader = loader;
+        this.metadataAggregateStore = metadataAggregateStore;
+        this.maxStale = maxStale.isNegative() ? Duration.ZERO : maxStale;
+        val expirationPolicy = new SamlRegisteredServiceMetadataExpirationPolicy(metadataCacheExpirationMinutes);
         this.cache = Caffeine.newBuilder()
             .maximumSize(MAX_CACHE_SIZE)
-            .expireAfter(new SamlRegisteredServiceMetadataExpirationPolicy(metadataCacheExpirationMinutes))
+            .expireAfter(this.maxStale.isZero() ? expirationPolicy : new StaleWhileRevalidateExpiry(expirationPolicy))
             .build(this.chainingMetadataResolverCacheLoader);
     }
 
@@ -51,6 +92,8 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
     public void invalidate() {
         LOGGER.trace("Invalidating cache, removing all metadata resolvers");
         this.cache.invalidateAll();
+        this.refreshDeadlines.clear();
+        this.metadataAggregateStore.invalidate();
     }
 
     @Override
@@ -58,5 +101,76 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
         LOGGER.trace("Invalidating cache for [{}].", service.getName());
         val k = new SamlRegisteredServiceCacheKey(service, criteriaSet);
         this.cache.invalidate(k);
+        this.refreshDeadlines.remove(k);
+        if (StringUtils.isNotBlank(service.getMetadataLocation())) {
+            val location = SpringExpressionLanguageValueResolver.getInstance().resolve(service.getMetadataLocation());
+            this.metadataAggregateStore.invalidate(location);
+        }
+    }
+
+    @Override
+    public void refresh() {
+        this.refreshDeadlines.keySet().retainAll(this.cache.asMap().keySet());
+        val now = System.nanoTime();
+        this.refreshDeadlines.entrySet()
+            .stream()
+            .filter(entry -> entry.getValue() - now <= 0)
+            .map(Map.Entry::getKey)
+            .forEach(key -> refresh(key, now - this.refreshDeadlines.getOrDefault(key, now)));
+    }
+
+    private void refresh(final SamlRegisteredServiceCacheKey cacheKey, final long lag) {
+        val service = cacheKey.getRegisteredService();
+        val source = StringUtils.defaultString(service.getMetadataLocation());
+        try {
+            LOGGER.debug("Refreshing metadata for [{}] from [{}] in the background", service.getName(), source);
+            val resolver = this.chainingMetadataResolverCacheLoader.load(cacheKey);
+            this.cache.asMap().computeIfPresent(cacheKey, (k, current) -> resolver);
+            Timer.builder("cas.saml.metadata.refresh.lag")
+                .description("Time metadata was served past its expiration before it was refreshed")
+                .tag("source", source)
+                .register(Metrics.globalRegistry)
+                .record(Math.max(lag, 0), TimeUnit.NANOSECONDS);
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to refresh metadata for [{}] from [{}]: [{}]", service.getName(), source, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+            Counter.builder("cas.saml.metadata.refresh.failures")
+                .description("Number of failed attempts to refresh metadata in the background")
+                .tag("source", source)
+                .register(Metrics.globalRegistry)
+                .increment();
+        }
+    }
+
+    /**
+     * Keeps expired entries in the cache for the stale period
+     * and tracks when each entry becomes due for a refresh.
+     */
+    @RequiredArgsConstructor
+    private class StaleWhileRevalidateExpiry implements Expiry<SamlRegisteredServiceCacheKey, MetadataResolver> {
+        private final SamlRegisteredServiceMetadataExpirationPolicy expirationPolicy;
+
+        @Override
+        public long expireAfterCreate(@Nonnull final SamlRegisteredServiceCacheKey cacheKey,
+                                      @Nonnull final MetadataResolver resolver,
+                                      final long currentTime) {
+            val duration = expirationPolicy.expireAfterCreate(cacheKey, resolver, currentTime);
+            refreshDeadlines.put(cacheKey, currentTime + duration);
+            return duration + Math.min(maxStale.toNanos(), Long.MAX_VALUE - duration);
+        }
+
+        @Override
+        public long expireAfterUpdate(@Nonnull final SamlRegisteredServiceCacheKey cacheKey,
+                                      @Nonnull final MetadataResolver resolver,
+                                      final long currentTime, final long currentDuration) {
+            return expireAfterCreate(cacheKey, resolver, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(@Nonnull final SamlRegisteredServiceCacheKey cacheKey,
+                                    @Nonnull final MetadataResolver resolver,
+                                    final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,244 @@
+package org.apereo.cas.support.saml.services.idp.metadata.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.Iterables;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jooq.lambda.Unchecked;
+import org.jooq.lambda.fi.util.function.CheckedSupplier;
+import org.opensaml.saml.metadata.resolver.MetadataResolver;
+import org.opensaml.saml.metadata.resolver.impl.AbstractBatchMetadataResolver;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link SamlRegisteredServiceMetadataAggregateStore}. Metadata sources, such as federation
+ * aggregates, are often shared by many SAML service definitions. The store parses each metadata source
+ * once and hands the same, initialized metadata resolver to every service that points at the source
+ * with identical filtering settings, instead of downloading and parsing a separate copy per service.
+ * Only the latest parsed copy of each source is tracked; a copy is replaced once it expires or once
+ * the source changes.
+ * Batch metadata resolvers index the parsed entity descriptors by entity id, so lookups
+ * against a shared aggregate do not require a scan of the document.
+ * <p>
+ * The time it takes to parse each source is recorded as {@code cas.saml.metadata.aggregate.parse},
+ * and the size of the parsed document and the number of entities it contains are recorded as
+ * {@code cas.saml.metadata.aggregate.size} and {@code cas.saml.metadata.aggregate.entities},
+ * all tagged by the metadata source.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class SamlRegisteredServiceMetadataAggregateStore {
+    private static final int MAX_CACHE_SIZE = 1_000;
+
+    private final Cache<String, Aggregate> aggregates;
+
+    private final Map<String, CompletableFuture<Aggregate>> loading = new ConcurrentHashMap<>();
+
+    public SamlRegisteredServiceMetadataAggregateStore(final long metadataCacheExpirationMinutes) {
+        this(Duration.ofMinutes(Math.max(metadataCacheExpirationMinutes, 0)));
+    }
+
+    public SamlRegisteredServiceMetadataAggregateStore(final Duration retention) {
+        this.aggregates = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .expireAfterWrite(retention.isNegative() ? Duration.ZERO : retention)
+            .build();
+    }
+
+    private static long countEntities(final MetadataResolver resolver) {
+        if (resolver instanceof AbstractBatchMetadataResolver) {
+            return Iterables.size((AbstractBatchMetadataResolver) resolver);
+        }
+        return -1;
+    }
+
+    /**
+     * Resolve the shared metadata resolver for the metadata source, loading and parsing
+     * the source if it is not yet tracked by the store or is older than the given maximum age.
+     *
+     * @param key    the key that identifies the metadata source along with its filtering settings
+     * @param source the metadata source location
+     * @param maxAge the maximum amount of time a parsed metadata source may be shared
+     * @param loader the loader that produces the metadata resolver and the size of the parsed document in bytes
+     * @return the metadata resolver
+     */
+    public MetadataResolver resolve(final String key, final String source, final Duration maxAge,
+                                    final CheckedSupplier<Pair<MetadataResolver, Long>> loader) {
+        return resolve(key, source, null, maxAge, loader);
+    }
+
+    /**
+     * Resolve the shared metadata resolver for the metadata source, loading and parsing
+     * the source if it is not yet tracked by the store, is older than the given maximum age,
+     * or was parsed from a different version of the source. The parsed copy replaces the
+     * copy that is tracked for the same key, so superseded copies are not retained.
+     * The source is loaded outside of any lock held by the store; concurrent requests
+     * for the same key wait for the load that is in progress instead of parsing another copy.
+     *
+     * @param key     the key that identifies the metadata source along with its filtering settings
+     * @param source  the metadata source location
+     * @param version the version of the metadata source, such as its last modified date, if known
+     * @param maxAge  the maximum amount of time a parsed metadata source may be shared
+     * @param loader  the loader that produces the metadata resolver and the size of the parsed document in bytes
+     * @return the metadata resolver
+     */
+    public MetadataResolver resolve(final String key, final String source, final String version, final Duration maxAge,
+                                    final CheckedSupplier<Pair<MetadataResolver, Long>> loader) {
+        val current = aggregates.getIfPresent(key);
+        if (current != null && current.isValid(maxAge, version)) {
+            LOGGER.debug("Sharing parsed metadata from [{}] loaded at [{}]", source, current.getLoadedAt());
+            return current.getResolver();
+        }
+        val pending = new CompletableFuture<Aggregate>();
+        val inProgress = loading.putIfAbsent(key, pending);
+        if (inProgress != null) {
+            LOGGER.debug("Waiting for metadata from [{}] to be loaded", source);
+            return await(inProgress).getResolver();
+        }
+        try {
+            val existing = aggregates.getIfPresent(key);
+            val aggregate = existing != null && existing.isValid(maxAge, version)
+                ? existing
+                : load(source, version, loader);
+            aggregates.put(key, aggregate);
+            pending.complete(aggregate);
+            return aggregate.getResolver();
+        } catch (final RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, pending);
+        }
+    }
+
+    /**
+     * Find the metadata resolver last parsed for the metadata source, regardless of its age.
+     *
+     * @param key the key that identifies the metadata source along with its filtering settings
+     * @return the metadata resolver, if any
+     */
+    public Optional<MetadataResolver> find(final String key) {
+        return Optional.ofNullable(aggregates.getIfPresent(key)).map(Aggregate::getResolver);
+    }
+
+    /**
+     * Remove all parsed copies of the metadata source from the store.
+     *
+     * @param source the metadata source location
+     */
+    public void invalidate(final String source) {
+        aggregates.asMap().values().removeIf(aggregate -> aggregate.getSource().equals(source));
+    }
+
+    /**
+     * Remove all metadata sources from the store.
+     */
+    public void invalidate() {
+        aggregates.invalidateAll();
+    }
+
+    /**
+     * Gets statistics about the metadata sources tracked by the store.
+     *
+     * @return the aggregates keyed by their metadata source
+     */
+    public Map<String, Aggregate> getAggregates() {
+        return aggregates.asMap().values()
+            .stream()
+            .collect(Collectors.toMap(Aggregate::getSource, a -> a, (a, b) -> b.getLoadedAt().isAfter(a.getLoadedAt()) ? b : a));
+    }
+
+    private static Aggregate await(final CompletableFuture<Aggregate> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static Aggregate load(final String source, final String version, final CheckedSupplier<Pair<MetadataResolver, Long>> loader) {
+        LOGGER.debug("Loading and parsing metadata from [{}]", source);
+        val startTime = System.nanoTime();
+        val loaded = Unchecked.supplier(loader).get();
+        val parseTime = System.nanoTime() - startTime;
+        if (loaded == null || loaded.getKey() == null) {
+            throw new IllegalArgumentException("Unable to load metadata from " + source);
+        }
+        val aggregate = new Aggregate(loaded.getKey(), source, version, Instant.now(),
+            Duration.ofNanos(parseTime), loaded.getValue() == null ? -1 : loaded.getValue(), countEntities(loaded.getKey()));
+        Timer.builder("cas.saml.metadata.aggregate.parse")
+            .description("Time it takes to load and parse a metadata source")
+            .tag("source", source)
+            .register(Metrics.globalRegistry)
+            .record(parseTime, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("cas.saml.metadata.aggregate.size")
+            .description("Size of the parsed metadata document")
+            .baseUnit("bytes")
+            .tag("source", source)
+            .register(Metrics.globalRegistry)
+            .record(Math.max(aggregate.getSize(), 0));
+        DistributionSummary.builder("cas.saml.metadata.aggregate.entities")
+            .description("Number of entities found in the parsed metadata document")
+            .tag("source", source)
+            .register(Metrics.globalRegistry)
+            .record(Math.max(aggregate.getEntities(), 0));
+        LOGGER.info("Parsed metadata from [{}] with [{}] byte(s) and [{}] entities in [{}]",
+            source, aggregate.getSize(), aggregate.getEntities(), aggregate.getParseTime());
+        return aggregate;
+    }
+
+    /**
+     * A parsed metadata source that is shared by service definitions.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    @ToString(exclude = "resolver")
+    public static class Aggregate {
+        private final MetadataResolver resolver;
+
+        private final String source;
+
+        private final String version;
+
+        private final Instant loadedAt;
+
+        private final Duration parseTime;
+
+        private final long size;
+
+        private final long entities;
+
+        /**
+         * Whether the parsed metadata source may still be shared.
+         *
+         * @param maxAge  the max age
+         * @param version the current version of the metadata source, if known
+         * @return true/false
+         */
+        public boolean isValid(final Duration maxAge, final String version) {
+            return Instant.now().isBefore(loadedAt.plus(maxAge)) && (version == null || version.equals(this.version));
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package org.apereo.cas.support.saml.services.idp.metadata.cache.resolver;
 
 import org.apereo.cas.configuration.model.support.saml.idp.SamlIdPProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.support.saml.InMemoryResourceMetadataResolver;
 import org.apereo.cas.support.saml.OpenSamlConfigBean;
 import org.apereo.cas.support.saml.SamlUtils;
 import org.apereo.cas.support.saml.services.SamlRegisteredService;
 import org.apereo.cas.support.saml.services.idp.metadata.SamlMetadataDocument;
+import org.apereo.cas.util.DigestUtils;
 import org.apereo.cas.util.RegexUtils;
 import org.apereo.cas.util.ResourceUtils;
 
@@ -91,6 +93,40 @@ public abstract class BaseSamlRegisteredServiceMetadataResolver implements SamlR
         }
     }
 
+    /**
+     * Gets the key that identifies the metadata source of the service along with the settings
+     * that control how metadata is filtered, so that services with identical settings
+     * are able to share the parsed metadata.
+     *
+     * @param service          the service
+     * @param metadataLocation the metadata location
+     * @return the metadata source key
+     */
+    protected static String getMetadataSourceKey(final SamlRegisteredService service, final String metadataLocation) {
+        return DigestUtils.sha256(String.join("|", metadataLocation,
+            StringUtils.defaultString(service.getMetadataSignatureLocation()),
+            String.valueOf(service.isRequireSignedRoot()),
+            String.valueOf(service.getMetadataMaxValidity()),
+            StringUtils.defaultString(service.getMetadataCriteriaRoles()),
+            String.valueOf(service.isMetadataCriteriaRemoveEmptyEntitiesDescriptors()),
+            String.valueOf(service.isMetadataCriteriaRemoveRolelessEntityDescriptors()),
+            StringUtils.defaultString(service.getMetadataCriteriaDirection()),
+            StringUtils.defaultString(service.getMetadataCriteriaPattern())));
+    }
+
+    /**
+     * Gets the maximum amount of time parsed metadata may be shared with the service.
+     *
+     * @param service the service
+     * @return the duration
+     */
+    protected Duration getMetadataSourceMaxAge(final SamlRegisteredService service) {
+        if (StringUtils.isNotBlank(service.getMetadataExpirationDuration())) {
+            return Beans.newDuration(service.getMetadataExpirationDuration());
+        }
+        return Duration.ofMinutes(samlIdPProperties.getMetadata().getCacheExpirationMinutes());
+    }
+
     /**
      * Build metadata resolver from document.
      *
@@ -4,6 +4,7 @@ import org.apereo.cas.configuration.model.support.saml.idp.SamlIdPProperties;
 import org.apereo.cas.support.saml.InMemoryResourceMetadataResolver;
 import org.apereo.cas.support.saml.OpenSamlConfigBean;
 import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.apereo.cas.support.saml.services.idp.metadata.cache.SamlRegisteredServiceMetadataAggregateStore;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.ResourceUtils;
 import org.apereo.cas.util.spring.SpringExpressionLanguageValueResolver;
@@ -12,6 +13,7 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
+import org.apache.commons.lang3.tuple.Pair;
 import org.opensaml.core.xml.persist.FilesystemLoadSaveManager;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
 import org.opensaml.saml.metadata.resolver.impl.AbstractMetadataResolver;
@@ -31,9 +33,19 @@ import java.util.Collection;
  */
 @Slf4j
 public class FileSystemResourceMetadataResolver extends BaseSamlRegisteredServiceMetadataResolver {
+    private final SamlRegisteredServiceMetadataAggregateStore metadataAggregateStore;
+
     public FileSystemResourceMetadataResolver(final SamlIdPProperties samlIdPProperties,
                                               final OpenSamlConfigBean configBean) {
+        this(samlIdPProperties, configBean,
+            new SamlRegisteredServiceMetadataAggregateStore(samlIdPProperties.getMetadata().getCacheExpirationMinutes()));
+    }
+
+    public FileSystemResourceMetadataResolver(final SamlIdPProperties samlIdPProperties,
+                                              final OpenSamlConfigBean configBean,
+                                              final SamlRegisteredServiceMetadataAggregateStore metadataAggregateStore) {
         super(samlIdPProperties, configBean);
+        this.metadataAggregateStore = metadataAggregateStore;
     }
 
     @Override
@@ -44,8 +56,18 @@ public class FileSystemResourceMetadataResolver extends BaseSamlRegisteredServic
             val metadataResource = ResourceUtils.getResourceFrom(metadataLocation);
 
             val metadataFile = metadataResource.getFile();
-            val metadataResolver = getMetadataResolver(metadataResource, metadataFile);
-            configureAndInitializeSingleMetadataResolver(metadataResolver, service);
+            if (metadataFile.isDirectory()) {
+                val metadataResolver = getMetadataResolver(metadataResource, metadataFile);
+                configureAndInitializeSingleMetadataResolver(metadataResolver, service);
+                return CollectionUtils.wrap(metadataResolver);
+            }
+            val key = getMetadataSourceKey(service, metadataLocation);
+            val version = String.valueOf(metadataFile.lastModified());
+            val metadataResolver = metadataAggregateStore.resolve(key, metadataLocation, version, getMetadataSourceMaxAge(service), () -> {
+                val resolver = getMetadataResolver(metadataResource, metadataFile);
+                configureAndInitializeSingleMetadataResolver(resolver, service);
+                return Pair.of(resolver, metadataFile.length());
+            });
             return CollectionUtils.wrap(metadataResolver);
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
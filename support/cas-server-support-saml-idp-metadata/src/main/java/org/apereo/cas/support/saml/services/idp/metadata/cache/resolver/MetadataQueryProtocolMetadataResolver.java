@@ -17,20 +17,16 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpResponse;
 import org.apache.http.util.EntityUtils;
-import org.jooq.lambda.Unchecked;
 import org.opensaml.core.criterion.EntityIdCriterion;
 import org.opensaml.saml.metadata.resolver.impl.AbstractMetadataResolver;
 import org.springframework.http.HttpStatus;
 
 import java.io.File;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.attribute.UserDefinedFileAttributeView;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
 
 /**
  * This is {@link MetadataQueryProtocolMetadataResolver}.
@@ -66,16 +62,9 @@ public class MetadataQueryProtocolMetadataResolver extends UrlResourceMetadataRe
         try (val output = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
             IOUtils.write(result, output);
             output.flush();
-
-            StreamSupport.stream(path.getFileSystem().getFileStores().spliterator(), false)
-                .filter(store -> store.supportsFileAttributeView(UserDefinedFileAttributeView.class))
-                .forEach(Unchecked.consumer(store -> {
-                    val etag = response.getFirstHeader("ETag").getValue();
-                    Files.setAttribute(path, "user:ETag",
-                        ByteBuffer.wrap(etag.getBytes(StandardCharsets.UTF_8)));
-                }));
         }
         EntityUtils.consume(entity);
+        storeMetadataResponseValidators(response, backupFile);
         return new InMemoryResourceMetadataResolver(backupFile, configBean);
     }
 
@@ -85,15 +74,7 @@ public class MetadataQueryProtocolMetadataResolver extends UrlResourceMetadataRe
         val headers = new LinkedHashMap<String, Object>();
         headers.put("Content-Type", metadata.getSupportedContentTypes());
         headers.put("Accept", "*/*");
-        val path = backupFile.toPath();
-        if (Files.exists(path)) {
-            try {
-                val etag = new String((byte[]) Files.getAttribute(path, "user:ETag"), StandardCharsets.UTF_8).trim();
-                headers.put("If-None-Match", etag);
-            } catch (final Exception e) {
-                LOGGER.error("Failed to read ETag Attribute - " + e.getMessage(), e);
-            }
-        }
+        headers.putAll(getConditionalRequestHeaders(backupFile));
 
         LOGGER.trace("Fetching dynamic metadata via MDQ for [{}]", metadataLocation);
         val response = HttpUtils.executeGet(metadataLocation, metadata.getBasicAuthnUsername(),
@@ -7,6 +7,7 @@ import org.apereo.cas.support.saml.OpenSamlConfigBean;
 import org.apereo.cas.support.saml.SamlException;
 import org.apereo.cas.support.saml.SamlUtils;
 import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.apereo.cas.support.saml.services.idp.metadata.cache.SamlRegisteredServiceMetadataAggregateStore;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.DigestUtils;
 import org.apereo.cas.util.HttpRequestUtils;
@@ -28,22 +29,30 @@ import org.apache.commons.io.filefilter.PrefixFileFilter;
 import org.apache.commons.io.filefilter.SuffixFileFilter;
 import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.http.HttpResponse;
 import org.apache.http.util.EntityUtils;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
 import org.opensaml.saml.metadata.resolver.impl.AbstractMetadataResolver;
 import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * This is {@link UrlResourceMetadataResolver}.
@@ -57,12 +66,24 @@ public class UrlResourceMetadataResolver extends BaseSamlRegisteredServiceMetada
 
     private static final String DIRNAME_METADATA_BACKUPS = "metadata-backups";
 
+    private static final String ATTRIBUTE_ETAG = "user:ETag";
+
     private final File metadataBackupDirectory;
 
-    @SneakyThrows
+    private final SamlRegisteredServiceMetadataAggregateStore metadataAggregateStore;
+
     public UrlResourceMetadataResolver(final SamlIdPProperties samlIdPProperties,
                                        final OpenSamlConfigBean configBean) {
+        this(samlIdPProperties, configBean,
+            new SamlRegisteredServiceMetadataAggregateStore(samlIdPProperties.getMetadata().getCacheExpirationMinutes()));
+    }
+
+    @SneakyThrows
+    public UrlResourceMetadataResolver(final SamlIdPProperties samlIdPProperties,
+                                       final OpenSamlConfigBean configBean,
+                                       final SamlRegisteredServiceMetadataAggregateStore metadataAggregateStore) {
         super(samlIdPProperties, configBean);
+        this.metadataAggregateStore = metadataAggregateStore;
 
         val md = samlIdPProperties.getMetadata();
         val location = SpringExpressionLanguageValueResolver.getInstance().resolve(md.getLocation());
@@ -79,34 +100,29 @@ public class UrlResourceMetadataResolver extends BaseSamlRegisteredServiceMetada
 
     @Override
     public Collection<? extends MetadataResolver> resolve(final SamlRegisteredService service, final CriteriaSet criteriaSet) {
-        HttpResponse response = null;
         try {
             val metadataLocation = getMetadataLocationForService(service, criteriaSet);
-            LOGGER.info("Loading SAML metadata from [{}]", metadataLocation);
-            val metadataResource = new UrlResource(metadataLocation);
-
-            val backupFile = getMetadataBackupFile(metadataResource, service);
-            if (backupFile.exists() && samlIdPProperties.getMetadata().isForceMetadataRefresh()) {
-                cleanUpExpiredBackupMetadataFilesFor(metadataResource, service);
-            }
-            val canonicalPath = backupFile.getCanonicalPath();
-            LOGGER.debug("Metadata backup file will be at [{}]", canonicalPath);
-            FileUtils.forceMkdirParent(backupFile);
-
-            response = fetchMetadata(metadataLocation, criteriaSet, backupFile);
-            val status = HttpStatus.valueOf(response.getStatusLine().getStatusCode());
-            if (shouldHttpResponseStatusBeProcessed(status)) {
-                val metadataProvider = getMetadataResolverFromResponse(response, backupFile);
-                configureAndInitializeSingleMetadataResolver(metadataProvider, service);
-                return CollectionUtils.wrap(metadataProvider);
+            val key = getMetadataSourceKey(service, metadataLocation);
+            val resolver = metadataAggregateStore.resolve(key, metadataLocation, getMetadataSourceMaxAge(service), () -> {
+                val result = loadMetadataResolver(service, criteriaSet, metadataLocation);
+                if (result != null && result.getKey() == null) {
+                    val current = metadataAggregateStore.find(key);
+                    if (current.isPresent()) {
+                        LOGGER.debug("Metadata at [{}] is not modified; reusing the parsed copy", metadataLocation);
+                        return Pair.of(current.get(), result.getValue());
+                    }
+                    return loadMetadataResolverFromBackup(service, metadataLocation);
+                }
+                return result;
+            });
+            return CollectionUtils.wrap(resolver);
+        } catch (final SamlException e) {
+            if (e.getCause() instanceof UnauthorizedServiceException) {
+                throw e;
             }
-        } catch (final UnauthorizedServiceException e) {
             LOGGER.error(e.getMessage(), e);
-            throw new SamlException(e.getMessage(), e);
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
-        } finally {
-            HttpUtils.close(response);
         }
         return new ArrayList<>(0);
     }
@@ -134,6 +150,125 @@ public class UrlResourceMetadataResolver extends BaseSamlRegisteredServiceMetada
         return false;
     }
 
+    /**
+     * Fetch and parse the metadata for the service.
+     *
+     * @param service          the service
+     * @param criteriaSet      the criteria set
+     * @param metadataLocation the metadata location
+     * @return the metadata resolver along with the size of the parsed document, or null
+     * @throws Exception the exception
+     */
+    protected Pair<MetadataResolver, Long> loadMetadataResolver(final SamlRegisteredService service,
+                                                                final CriteriaSet criteriaSet,
+                                                                final String metadataLocation) throws Exception {
+        HttpResponse response = null;
+        try {
+            LOGGER.info("Loading SAML metadata from [{}]", metadataLocation);
+            val metadataResource = new UrlResource(metadataLocation);
+
+            val backupFile = getMetadataBackupFile(metadataResource, service);
+            if (backupFile.exists() && samlIdPProperties.getMetadata().isForceMetadataRefresh()) {
+                cleanUpExpiredBackupMetadataFilesFor(metadataResource, service);
+            }
+            val canonicalPath = backupFile.getCanonicalPath();
+            LOGGER.debug("Metadata backup file will be at [{}]", canonicalPath);
+            FileUtils.forceMkdirParent(backupFile);
+
+            response = fetchMetadata(metadataLocation, criteriaSet, backupFile);
+            val status = HttpStatus.valueOf(response.getStatusLine().getStatusCode());
+            if (status == HttpStatus.NOT_MODIFIED && backupFile.exists()) {
+                LOGGER.debug("Metadata at [{}] has not been modified since [{}]", metadataLocation, canonicalPath);
+                EntityUtils.consumeQuietly(response.getEntity());
+                return Pair.of(null, backupFile.length());
+            }
+            if (shouldHttpResponseStatusBeProcessed(status)) {
+                val metadataProvider = getMetadataResolverFromResponse(response, backupFile);
+                configureAndInitializeSingleMetadataResolver(metadataProvider, service);
+                return Pair.of(metadataProvider, backupFile.length());
+            }
+            LOGGER.warn("Unable to fetch metadata from [{}] with status [{}]", metadataLocation, status);
+            return null;
+        } catch (final UnauthorizedServiceException e) {
+            LOGGER.error(e.getMessage(), e);
+            throw new SamlException(e.getMessage(), e);
+        } finally {
+            HttpUtils.close(response);
+        }
+    }
+
+    /**
+     * Parse the metadata for the service from its backup file.
+     *
+     * @param service          the service
+     * @param metadataLocation the metadata location
+     * @return the metadata resolver along with the size of the parsed document
+     * @throws Exception the exception
+     */
+    protected Pair<MetadataResolver, Long> loadMetadataResolverFromBackup(final SamlRegisteredService service,
+                                                                          final String metadataLocation) throws Exception {
+        val backupFile = getMetadataBackupFile(new UrlResource(metadataLocation), service);
+        LOGGER.debug("Parsing metadata for [{}] from backup file [{}]", metadataLocation, backupFile);
+        val metadataProvider = new InMemoryResourceMetadataResolver(backupFile, configBean);
+        configureAndInitializeSingleMetadataResolver(metadataProvider, service);
+        return Pair.of(metadataProvider, backupFile.length());
+    }
+
+    /**
+     * Gets the headers that make the metadata request conditional on the
+     * entity tag and modification date of the metadata backup file, if any.
+     *
+     * @param backupFile the backup file
+     * @return the conditional request headers
+     */
+    protected Map<String, Object> getConditionalRequestHeaders(final File backupFile) {
+        val headers = new LinkedHashMap<String, Object>();
+        val path = backupFile.toPath();
+        if (Files.exists(path)) {
+            headers.put(HttpHeaders.IF_MODIFIED_SINCE,
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(backupFile.lastModified()).atZone(ZoneOffset.UTC)));
+            try {
+                val etag = new String((byte[]) Files.getAttribute(path, ATTRIBUTE_ETAG), StandardCharsets.UTF_8).trim();
+                if (StringUtils.isNotBlank(etag)) {
+                    headers.put(HttpHeaders.IF_NONE_MATCH, etag);
+                }
+            } catch (final Exception e) {
+                LOGGER.trace("Unable to read entity tag of [{}]: [{}]", path, e.getMessage());
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Record the entity tag and modification date of the metadata response
+     * on the backup file, so that follow-up requests may be conditional.
+     *
+     * @param response   the response
+     * @param backupFile the backup file
+     */
+    protected void storeMetadataResponseValidators(final HttpResponse response, final File backupFile) {
+        val path = backupFile.toPath();
+        val etag = response.getFirstHeader(HttpHeaders.ETAG);
+        if (etag != null) {
+            try {
+                Files.setAttribute(path, ATTRIBUTE_ETAG, ByteBuffer.wrap(etag.getValue().getBytes(StandardCharsets.UTF_8)));
+            } catch (final Exception e) {
+                LOGGER.trace("Unable to record entity tag of [{}]: [{}]", path, e.getMessage());
+            }
+        }
+        val lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+        if (lastModified != null) {
+            try {
+                val time = ZonedDateTime.parse(lastModified.getValue(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                if (!backupFile.setLastModified(time.toInstant().toEpochMilli())) {
+                    LOGGER.trace("Unable to record modification date of [{}]", path);
+                }
+            } catch (final Exception e) {
+                LOGGER.trace("Unable to record modification date of [{}]: [{}]", path, e.getMessage());
+            }
+        }
+    }
+
     private void cleanUpExpiredBackupMetadataFilesFor(final AbstractResource metadataResource, final SamlRegisteredService service) {
         val prefix = getBackupMetadataFilenamePrefix(metadataResource, service);
         val backups = FileUtils.listFiles(this.metadataBackupDirectory,
@@ -178,6 +313,7 @@ public class UrlResourceMetadataResolver extends BaseSamlRegisteredServiceMetada
             output.flush();
         }
         EntityUtils.consume(entity);
+        storeMetadataResponseValidators(response, backupFile);
         return new InMemoryResourceMetadataResolver(backupFile, configBean);
     }
 
@@ -191,7 +327,7 @@ public class UrlResourceMetadataResolver extends BaseSamlRegisteredServiceMetada
      */
     protected HttpResponse fetchMetadata(final String metadataLocation, final CriteriaSet criteriaSet, final File backupFile) {
         LOGGER.debug("Fetching metadata from [{}]", metadataLocation);
-        return HttpUtils.executeGet(metadataLocation, new LinkedHashMap<>(0));
+        return HttpUtils.executeGet(metadataLocation, new LinkedHashMap<>(0), getConditionalRequestHeaders(backupFile));
     }
 
     /**
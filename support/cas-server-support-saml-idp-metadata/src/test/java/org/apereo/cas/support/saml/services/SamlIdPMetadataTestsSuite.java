@@ -1,5 +1,7 @@
 package org.apereo.cas.support.saml.services;
 
+import org.apereo.cas.support.saml.services.idp.metadata.cache.SamlRegisteredServiceDefaultCachingMetadataResolverTests;
+import org.apereo.cas.support.saml.services.idp.metadata.cache.SamlRegisteredServiceMetadataAggregateStoreTests;
 import org.apereo.cas.support.saml.services.idp.metadata.cache.resolver.ClasspathResourceMetadataResolverTests;
 import org.apereo.cas.support.saml.services.idp.metadata.cache.resolver.DynamicResourceMetadataResolverTests;
 import org.apereo.cas.support.saml.services.idp.metadata.cache.resolver.GroovyResourceMetadataResolverTests;
@@ -22,7 +24,9 @@ import org.junit.runner.RunWith;
     DynamicResourceMetadataResolverTests.class,
     GroovyResourceMetadataResolverTests.class,
     UrlResourceMetadataResolverTests.class,
-    JsonResourceMetadataResolverTests.class
+    JsonResourceMetadataResolverTests.class,
+    SamlRegisteredServiceMetadataAggregateStoreTests.class,
+    SamlRegisteredServiceDefaultCachingMetadataResolverTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class SamlIdPMetadataTestsSuite {
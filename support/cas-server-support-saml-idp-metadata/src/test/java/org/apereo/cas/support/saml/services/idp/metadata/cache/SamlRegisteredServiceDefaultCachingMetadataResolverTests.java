@@ -0,0 +1,75 @@
+package org.apereo.cas.support.saml.services.idp.metadata.cache;
+
+import org.apereo.cas.configuration.model.support.saml.idp.SamlIdPProperties;
+import org.apereo.cas.support.saml.services.BaseSamlIdPServicesTests;
+import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.apereo.cas.support.saml.services.idp.metadata.cache.resolver.ClasspathResourceMetadataResolver;
+import org.apereo.cas.support.saml.services.idp.metadata.plan.DefaultSamlRegisteredServiceMetadataResolutionPlan;
+import org.apereo.cas.util.http.HttpClient;
+
+import lombok.val;
+import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link SamlRegisteredServiceDefaultCachingMetadataResolverTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("SAML")
+public class SamlRegisteredServiceDefaultCachingMetadataResolverTests extends BaseSamlIdPServicesTests {
+
+    private SamlRegisteredServiceDefaultCachingMetadataResolver getCachingMetadataResolver(final Duration maxStale) throws Exception {
+        val props = new SamlIdPProperties();
+        props.getMetadata().setLocation(new FileSystemResource(FileUtils.getTempDirectory()).getFile().getCanonicalPath());
+        val plan = new DefaultSamlRegisteredServiceMetadataResolutionPlan();
+        plan.registerMetadataResolver(new ClasspathResourceMetadataResolver(props, openSamlConfigBean));
+        val loader = new SamlRegisteredServiceMetadataResolverCacheLoader(openSamlConfigBean, mock(HttpClient.class), plan);
+        return new SamlRegisteredServiceDefaultCachingMetadataResolver(30, loader,
+            new SamlRegisteredServiceMetadataAggregateStore(30), maxStale);
+    }
+
+    private static SamlRegisteredService getSamlRegisteredService() {
+        val service = new SamlRegisteredService();
+        service.setName("SAML");
+        service.setId(1000);
+        service.setServiceId("https://sp.example.org");
+        service.setMetadataLocation("classpath:sample-sp.xml");
+        service.setMetadataExpirationDuration("PT0S");
+        return service;
+    }
+
+    @Test
+    public void verifyExpiredMetadataIsReloaded() throws Exception {
+        val resolver = getCachingMetadataResolver(Duration.ZERO);
+        val service = getSamlRegisteredService();
+        val first = resolver.resolve(service, new CriteriaSet());
+        val second = resolver.resolve(service, new CriteriaSet());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void verifyStaleMetadataIsRefreshedInBackground() throws Exception {
+        val resolver = getCachingMetadataResolver(Duration.ofHours(1));
+        val service = getSamlRegisteredService();
+        val first = resolver.resolve(service, new CriteriaSet());
+        assertSame(first, resolver.resolve(service, new CriteriaSet()));
+
+        resolver.refresh();
+        val refreshed = resolver.resolve(service, new CriteriaSet());
+        assertNotSame(first, refreshed);
+        assertSame(refreshed, resolver.resolve(service, new CriteriaSet()));
+
+        resolver.invalidate();
+        assertNotSame(refreshed, resolver.resolve(service, new CriteriaSet()));
+    }
+}
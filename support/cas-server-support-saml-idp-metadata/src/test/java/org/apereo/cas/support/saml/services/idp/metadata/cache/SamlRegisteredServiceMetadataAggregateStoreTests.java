@@ -0,0 +1,154 @@
+package org.apereo.cas.support.saml.services.idp.metadata.cache;
+
+import org.apereo.cas.configuration.model.support.saml.idp.SamlIdPProperties;
+import org.apereo.cas.support.saml.services.BaseSamlIdPServicesTests;
+import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.apereo.cas.support.saml.services.idp.metadata.cache.resolver.FileSystemResourceMetadataResolver;
+
+import lombok.val;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.opensaml.saml.metadata.resolver.MetadataResolver;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link SamlRegisteredServiceMetadataAggregateStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("SAML")
+public class SamlRegisteredServiceMetadataAggregateStoreTests extends BaseSamlIdPServicesTests {
+
+    @Test
+    public void verifySourceIsSharedAndInvalidated() {
+        val store = new SamlRegisteredServiceMetadataAggregateStore(30);
+        val count = new AtomicInteger();
+        val resolver = mock(MetadataResolver.class);
+        val maxAge = Duration.ofMinutes(5);
+
+        val first = store.resolve("key", "source", maxAge, () -> {
+            count.incrementAndGet();
+            return Pair.of(resolver, 100L);
+        });
+        val second = store.resolve("key", "source", maxAge, () -> {
+            count.incrementAndGet();
+            return Pair.of(mock(MetadataResolver.class), 100L);
+        });
+        assertSame(first, second);
+        assertEquals(1, count.get());
+        assertEquals(100, store.getAggregates().get("source").getSize());
+
+        store.resolve("key", "source", Duration.ZERO, () -> {
+            count.incrementAndGet();
+            return Pair.of(resolver, 100L);
+        });
+        assertEquals(2, count.get());
+
+        store.invalidate("source");
+        assertTrue(store.getAggregates().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> store.resolve("key", "source", maxAge, () -> null));
+    }
+
+    @Test
+    public void verifyServicesShareMetadataFile() throws Exception {
+        val props = new SamlIdPProperties();
+        props.getMetadata().setLocation(new FileSystemResource(FileUtils.getTempDirectory()).getFile().getCanonicalPath());
+        val store = new SamlRegisteredServiceMetadataAggregateStore(30);
+        val resolver = new FileSystemResourceMetadataResolver(props, openSamlConfigBean, store);
+        val location = new ClassPathResource("sample-sp.xml").getFile().getCanonicalPath();
+
+        val service1 = new SamlRegisteredService();
+        service1.setName("Service1");
+        service1.setId(1000);
+        service1.setMetadataLocation(location);
+        val service2 = new SamlRegisteredService();
+        service2.setName("Service2");
+        service2.setId(2000);
+        service2.setMetadataLocation(location);
+
+        val results1 = resolver.resolve(service1);
+        val results2 = resolver.resolve(service2);
+        assertFalse(results1.isEmpty());
+        assertSame(results1.iterator().next(), results2.iterator().next());
+        assertEquals(1, store.getAggregates().size());
+
+        service2.setMetadataCriteriaRoles("IDPSSODescriptor");
+        val results3 = resolver.resolve(service2);
+        assertNotSame(results1.iterator().next(), results3.iterator().next());
+    }
+
+    @Test
+    public void verifySourceIsReplacedWhenChanged() throws Exception {
+        val props = new SamlIdPProperties();
+        props.getMetadata().setLocation(new FileSystemResource(FileUtils.getTempDirectory()).getFile().getCanonicalPath());
+        val store = new SamlRegisteredServiceMetadataAggregateStore(30);
+        val resolver = new FileSystemResourceMetadataResolver(props, openSamlConfigBean, store);
+        val file = File.createTempFile("sample-sp", ".xml");
+        file.deleteOnExit();
+        FileUtils.copyFile(new ClassPathResource("sample-sp.xml").getFile(), file);
+
+        val service = new SamlRegisteredService();
+        service.setName("Service");
+        service.setId(1000);
+        service.setMetadataLocation(file.getCanonicalPath());
+
+        val results1 = resolver.resolve(service);
+        assertFalse(results1.isEmpty());
+        assertTrue(file.setLastModified(file.lastModified() + 10_000));
+        val results2 = resolver.resolve(service);
+        assertFalse(results2.isEmpty());
+        assertNotSame(results1.iterator().next(), results2.iterator().next());
+        assertSame(results2.iterator().next(), resolver.resolve(service).iterator().next());
+        assertEquals(1, store.getAggregates().size());
+        assertEquals(String.valueOf(file.lastModified()), store.getAggregates().values().iterator().next().getVersion());
+    }
+
+    @Test
+    public void verifyConcurrentRequestsLoadOnce() throws Exception {
+        val store = new SamlRegisteredServiceMetadataAggregateStore(30);
+        val count = new AtomicInteger();
+        val started = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val resolver = mock(MetadataResolver.class);
+        val maxAge = Duration.ofMinutes(5);
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            val results = new ArrayList<Future<MetadataResolver>>();
+            results.add(executor.submit(() -> store.resolve("key", "source", maxAge, () -> {
+                count.incrementAndGet();
+                started.countDown();
+                release.await();
+                return Pair.of(resolver, 100L);
+            })));
+            started.await();
+            assertNotNull(store.resolve("other", "other-source", maxAge, () -> Pair.of(mock(MetadataResolver.class), 1L)));
+            IntStream.range(0, 3).forEach(i -> results.add(executor.submit(() -> store.resolve("key", "source", maxAge, () -> {
+                count.incrementAndGet();
+                return Pair.of(mock(MetadataResolver.class), 100L);
+            }))));
+            release.countDown();
+            for (val result : results) {
+                assertSame(resolver, result.get());
+            }
+            assertEquals(1, count.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -3,14 +3,30 @@ package org.apereo.cas.support.saml.services.idp.metadata.cache.resolver;
 import org.apereo.cas.configuration.model.support.saml.idp.SamlIdPProperties;
 import org.apereo.cas.support.saml.services.BaseSamlIdPServicesTests;
 import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.apereo.cas.util.RandomUtils;
 
 import lombok.val;
+import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.TestPropertySource;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -65,4 +81,39 @@ public class UrlResourceMetadataResolverTests extends BaseSamlIdPServicesTests {
         val results = resolver.resolve(service);
         assertFalse(results.isEmpty());
     }
+
+    @Test
+    public void verifyResolverSkipsUnmodifiedMetadata() throws Exception {
+        val props = new SamlIdPProperties();
+        props.getMetadata().setLocation(new FileSystemResource(FileUtils.getTempDirectory()).getFile().getCanonicalPath());
+        props.getMetadata().setForceMetadataRefresh(false);
+        val metadata = IOUtils.toString(new ClassPathResource("sample-sp.xml").getInputStream(), StandardCharsets.UTF_8);
+        val requests = new ArrayList<Map<String, Object>>();
+        val resolver = new UrlResourceMetadataResolver(props, openSamlConfigBean) {
+            @Override
+            protected HttpResponse fetchMetadata(final String metadataLocation, final CriteriaSet criteriaSet, final File backupFile) {
+                val headers = getConditionalRequestHeaders(backupFile);
+                requests.add(headers);
+                if (headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE)) {
+                    return new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.NOT_MODIFIED.value(), "Not Modified"));
+                }
+                val response = new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.OK.value(), "OK"));
+                response.setEntity(new StringEntity(metadata, StandardCharsets.UTF_8));
+                response.addHeader(HttpHeaders.ETAG, "\"v1\"");
+                return response;
+            }
+        };
+        val service = new SamlRegisteredService();
+        service.setName("Conditional");
+        service.setId(2000);
+        service.setMetadataLocation("https://conditional.example.org/" + RandomUtils.randomAlphabetic(8) + "/metadata.xml");
+        service.setMetadataExpirationDuration("PT0S");
+
+        val first = resolver.resolve(service);
+        assertFalse(first.isEmpty());
+        val second = resolver.resolve(service);
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(1).containsKey(HttpHeaders.IF_MODIFIED_SINCE));
+        assertSame(first.iterator().next(), second.iterator().next());
+    }
 }
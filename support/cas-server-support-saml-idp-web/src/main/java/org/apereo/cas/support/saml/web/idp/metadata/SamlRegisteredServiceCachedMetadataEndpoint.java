@@ -4,6 +4,7 @@ import org.apereo.cas.audit.AuditableContext;
 import org.apereo.cas.audit.AuditableExecution;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.services.RegisteredServiceIndex;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.support.saml.OpenSamlConfigBean;
 import org.apereo.cas.support.saml.SamlUtils;
@@ -27,6 +28,7 @@ import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
 import org.springframework.lang.Nullable;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -40,6 +42,11 @@ import java.util.stream.StreamSupport;
 @Slf4j
 @Endpoint(id = "samlIdPRegisteredServiceMetadataCache", enableByDefault = false)
 public class SamlRegisteredServiceCachedMetadataEndpoint extends BaseCasActuatorEndpoint {
+    private static final RegisteredServiceIndex SAML_SERVICE_INDEX = RegisteredServiceIndex.of("samlEntityIdOrName",
+        registeredService -> registeredService instanceof SamlRegisteredService
+            ? CollectionUtils.wrapList(registeredService.getServiceId(), registeredService.getName())
+            : List.of(), true);
+
     private final SamlRegisteredServiceCachingMetadataResolver cachingMetadataResolver;
     private final ServicesManager servicesManager;
     private final AuditableExecution registeredServiceAccessStrategyEnforcer;
@@ -111,8 +118,7 @@ public class SamlRegisteredServiceCachedMetadataEndpoint extends BaseCasActuator
             val id = Long.parseLong(serviceId);
             matchedServices = servicesManager.findServiceBy(svc -> svc instanceof SamlRegisteredService && svc.getId() == id);
         } else {
-            matchedServices = servicesManager.findServiceBy(svc -> svc instanceof SamlRegisteredService
-                && (svc.getName().equalsIgnoreCase(serviceId) || svc.getServiceId().equalsIgnoreCase(serviceId)));
+            matchedServices = servicesManager.findServicesByIndex(SAML_SERVICE_INDEX, serviceId);
         }
         if (matchedServices.isEmpty()) {
             throw new IllegalArgumentException("Unable to locate service " + serviceId);
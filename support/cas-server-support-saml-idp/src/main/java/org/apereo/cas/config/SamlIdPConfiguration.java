@@ -10,6 +10,7 @@ import org.apereo.cas.authentication.principal.ServiceFactory;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.logout.LogoutExecutionPlanConfigurer;
 import org.apereo.cas.logout.slo.SingleLogoutMessageCreator;
+import org.apereo.cas.logout.slo.SingleLogoutMessageDispatcher;
 import org.apereo.cas.logout.slo.SingleLogoutServiceLogoutUrlBuilder;
 import org.apereo.cas.logout.slo.SingleLogoutServiceMessageHandler;
 import org.apereo.cas.services.ServicesManager;
@@ -143,6 +144,10 @@ public class SamlIdPConfiguration {
     @Qualifier("authenticationServiceSelectionPlan")
     private ObjectProvider<AuthenticationServiceSelectionPlan> authenticationServiceSelectionPlan;
 
+    @Autowired
+    @Qualifier("singleLogoutMessageDispatcher")
+    private ObjectProvider<SingleLogoutMessageDispatcher> singleLogoutMessageDispatcher;
+
     @Autowired
     @Qualifier("attributeDefinitionStore")
     private ObjectProvider<AttributeDefinitionStore> attributeDefinitionStore;
@@ -169,7 +174,7 @@ public class SamlIdPConfiguration {
     @ConditionalOnMissingBean(name = "samlSingleLogoutServiceMessageHandler")
     @Bean
     public SingleLogoutServiceMessageHandler samlSingleLogoutServiceMessageHandler() {
-        return new SamlIdPSingleLogoutServiceMessageHandler(httpClient.getObject(),
+        val handler = new SamlIdPSingleLogoutServiceMessageHandler(httpClient.getObject(),
             samlLogoutBuilder(),
             servicesManager.getObject(),
             samlSingleLogoutServiceLogoutUrlBuilder(),
@@ -177,6 +182,10 @@ public class SamlIdPConfiguration {
             authenticationServiceSelectionPlan.getObject(),
             defaultSamlRegisteredServiceCachingMetadataResolver.getObject(),
             velocityEngineFactory.getObject());
+        if (casProperties.getSlo().getDispatcher().isEnabled()) {
+            singleLogoutMessageDispatcher.ifAvailable(handler::setMessageDispatcher);
+        }
+        return handler;
     }
 
     @ConditionalOnMissingBean(name = "samlProfileSamlResponseBuilder")
@@ -5,6 +5,7 @@ import org.apereo.cas.authentication.AuthenticationSystemSupport;
 import org.apereo.cas.authentication.principal.PrincipalFactoryUtils;
 import org.apereo.cas.authentication.principal.ServiceFactory;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.support.saml.OpenSamlConfigBean;
 import org.apereo.cas.support.saml.idp.metadata.generator.FileSystemSamlIdPMetadataGenerator;
@@ -18,6 +19,7 @@ import org.apereo.cas.support.saml.idp.metadata.writer.SamlIdPCertificateAndKeyW
 import org.apereo.cas.support.saml.services.idp.metadata.SamlRegisteredServiceMetadataHealthIndicator;
 import org.apereo.cas.support.saml.services.idp.metadata.cache.SamlRegisteredServiceCachingMetadataResolver;
 import org.apereo.cas.support.saml.services.idp.metadata.cache.SamlRegisteredServiceDefaultCachingMetadataResolver;
+import org.apereo.cas.support.saml.services.idp.metadata.cache.SamlRegisteredServiceMetadataAggregateStore;
 import org.apereo.cas.support.saml.services.idp.metadata.cache.SamlRegisteredServiceMetadataResolverCacheLoader;
 import org.apereo.cas.support.saml.services.idp.metadata.cache.resolver.ClasspathResourceMetadataResolver;
 import org.apereo.cas.support.saml.services.idp.metadata.cache.resolver.FileSystemResourceMetadataResolver;
@@ -39,6 +41,7 @@ import org.apereo.cas.util.crypto.CipherExecutor;
 import org.apereo.cas.util.http.HttpClient;
 import org.apereo.cas.util.spring.SpringExpressionLanguageValueResolver;
 
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -51,6 +54,7 @@ import org.springframework.boot.actuate.autoconfigure.endpoint.condition.Conditi
 import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -59,8 +63,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
 
 import java.net.URL;
+import java.time.Duration;
 
 /**
  * This is {@link SamlIdPMetadataConfiguration}.
@@ -177,6 +183,13 @@ public class SamlIdPMetadataConfiguration {
             samlRegisteredServiceMetadataResolvers());
     }
 
+    @ConditionalOnMissingBean(name = "samlRegisteredServiceMetadataAggregateStore")
+    @Bean
+    public SamlRegisteredServiceMetadataAggregateStore samlRegisteredServiceMetadataAggregateStore() {
+        val expiration = Duration.ofMinutes(casProperties.getAuthn().getSamlIdp().getMetadata().getCacheExpirationMinutes());
+        return new SamlRegisteredServiceMetadataAggregateStore(expiration.plus(getMetadataMaxStale()));
+    }
+
     @ConditionalOnMissingBean(name = "samlRegisteredServiceMetadataResolvers")
     @Bean
     public SamlRegisteredServiceMetadataResolutionPlan samlRegisteredServiceMetadataResolvers() {
@@ -186,8 +199,8 @@ public class SamlIdPMetadataConfiguration {
         val cfgBean = openSamlConfigBean.getObject();
         plan.registerMetadataResolver(new MetadataQueryProtocolMetadataResolver(samlIdp, cfgBean));
         plan.registerMetadataResolver(new JsonResourceMetadataResolver(samlIdp, cfgBean));
-        plan.registerMetadataResolver(new FileSystemResourceMetadataResolver(samlIdp, cfgBean));
-        plan.registerMetadataResolver(new UrlResourceMetadataResolver(samlIdp, cfgBean));
+        plan.registerMetadataResolver(new FileSystemResourceMetadataResolver(samlIdp, cfgBean, samlRegisteredServiceMetadataAggregateStore()));
+        plan.registerMetadataResolver(new UrlResourceMetadataResolver(samlIdp, cfgBean, samlRegisteredServiceMetadataAggregateStore()));
         plan.registerMetadataResolver(new ClasspathResourceMetadataResolver(samlIdp, cfgBean));
         plan.registerMetadataResolver(new GroovyResourceMetadataResolver(samlIdp, cfgBean));
 
@@ -206,10 +219,19 @@ public class SamlIdPMetadataConfiguration {
     public SamlRegisteredServiceCachingMetadataResolver defaultSamlRegisteredServiceCachingMetadataResolver() {
         return new SamlRegisteredServiceDefaultCachingMetadataResolver(
             casProperties.getAuthn().getSamlIdp().getMetadata().getCacheExpirationMinutes(),
-            chainingMetadataResolverCacheLoader()
+            chainingMetadataResolverCacheLoader(),
+            samlRegisteredServiceMetadataAggregateStore(),
+            getMetadataMaxStale()
         );
     }
 
+    @ConditionalOnMissingBean(name = "samlRegisteredServiceMetadataRefreshScheduler")
+    @ConditionalOnProperty(prefix = "cas.authn.saml-idp.metadata.refresh.schedule", name = "enabled", havingValue = "true", matchIfMissing = true)
+    @Bean
+    public SamlRegisteredServiceMetadataRefreshScheduler samlRegisteredServiceMetadataRefreshScheduler() {
+        return new SamlRegisteredServiceMetadataRefreshScheduler(defaultSamlRegisteredServiceCachingMetadataResolver());
+    }
+
     @ConditionalOnMissingBean(name = "samlRegisteredServiceMetadataHealthIndicator")
     @Bean
     @ConditionalOnEnabledHealthIndicator("samlRegisteredServiceMetadataHealthIndicator")
@@ -238,4 +260,28 @@ public class SamlIdPMetadataConfiguration {
             defaultSamlRegisteredServiceCachingMetadataResolver(),
             new NonInflatingSaml20ObjectBuilder(openSamlConfigBean.getObject()));
     }
+
+    private Duration getMetadataMaxStale() {
+        val refresh = casProperties.getAuthn().getSamlIdp().getMetadata().getRefresh();
+        return refresh.getSchedule().isEnabled() ? Beans.newDuration(refresh.getMaxStale()) : Duration.ZERO;
+    }
+
+    /**
+     * The metadata refresh scheduler that refreshes expired metadata
+     * in the background while the cached copy continues to be served.
+     */
+    @RequiredArgsConstructor
+    public static class SamlRegisteredServiceMetadataRefreshScheduler {
+        private final SamlRegisteredServiceCachingMetadataResolver cachingMetadataResolver;
+
+        @Scheduled(initialDelayString = "${cas.authn.saml-idp.metadata.refresh.schedule.start-delay:PT1M}",
+            fixedDelayString = "${cas.authn.saml-idp.metadata.refresh.schedule.repeat-interval:PT1M}")
+        public void run() {
+            try {
+                cachingMetadataResolver.refresh();
+            } catch (final Exception e) {
+                LOGGER.error(e.getMessage(), e);
+            }
+        }
+    }
 }
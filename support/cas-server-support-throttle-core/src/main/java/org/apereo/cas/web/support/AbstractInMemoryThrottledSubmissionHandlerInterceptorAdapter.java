@@ -4,7 +4,6 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import javax.servlet.http.HttpServletRequest;
-import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.concurrent.ConcurrentMap;
 
@@ -19,39 +18,32 @@ import java.util.concurrent.ConcurrentMap;
 public abstract class AbstractInMemoryThrottledSubmissionHandlerInterceptorAdapter extends AbstractThrottledSubmissionHandlerInterceptorAdapter
     implements InMemoryThrottledSubmissionHandlerInterceptor {
 
-    private static final double SUBMISSION_RATE_DIVIDEND = 1000.0;
-
-    private final ConcurrentMap<String, ZonedDateTime> ipMap;
+    private final ThrottledSubmissionStore submissionStore;
 
     public AbstractInMemoryThrottledSubmissionHandlerInterceptorAdapter(
         final ThrottledSubmissionHandlerConfigurationContext configurationContext,
         final ConcurrentMap<String, ZonedDateTime> ipMap) {
-        super(configurationContext);
-        this.ipMap = ipMap;
+        this(configurationContext, new ConcurrentMapThrottledSubmissionStore(ipMap,
+            (double) configurationContext.getFailureThreshold() / configurationContext.getFailureRangeInSeconds()));
     }
 
-    /**
-     * Computes the instantaneous rate in between two given dates corresponding to two submissions.
-     *
-     * @param a First date.
-     * @param b Second date.
-     * @return Instantaneous submission rate in submissions/sec, e.g. {@code a - b}.
-     */
-    private static double submissionRate(final ZonedDateTime a, final ZonedDateTime b) {
-        return SUBMISSION_RATE_DIVIDEND / (a.toInstant().toEpochMilli() - b.toInstant().toEpochMilli());
+    public AbstractInMemoryThrottledSubmissionHandlerInterceptorAdapter(
+        final ThrottledSubmissionHandlerConfigurationContext configurationContext,
+        final ThrottledSubmissionStore submissionStore) {
+        super(configurationContext);
+        this.submissionStore = submissionStore;
     }
 
     @Override
     public boolean exceedsThreshold(final HttpServletRequest request) {
-        val last = this.ipMap.get(constructKey(request));
-        return last != null && submissionRate(ZonedDateTime.now(ZoneOffset.UTC), last) > getThresholdRate();
+        return this.submissionStore.exceedsThreshold(constructKey(request));
     }
 
     @Override
     public void recordSubmissionFailure(final HttpServletRequest request) {
         val key = constructKey(request);
         LOGGER.debug("Recording submission failure [{}]", key);
-        this.ipMap.put(key, ZonedDateTime.now(ZoneOffset.UTC));
+        this.submissionStore.recordSubmissionFailure(key);
     }
 
     /**
@@ -61,8 +53,7 @@ public abstract class AbstractInMemoryThrottledSubmissionHandlerInterceptorAdapt
     @Override
     public void decrement() {
         LOGGER.info("Beginning audit cleanup...");
-        val now = ZonedDateTime.now(ZoneOffset.UTC);
-        this.ipMap.entrySet().removeIf(entry -> submissionRate(now, entry.getValue()) < getThresholdRate());
+        this.submissionStore.decrement();
         LOGGER.debug("Done decrementing count for throttler.");
     }
 }
@@ -0,0 +1,56 @@
+package org.apereo.cas.web.support;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This is {@link ConcurrentMapThrottledSubmissionStore}. It keeps the time of the last failure
+ * per key in a map, which may be backed by a distributed store, and computes the instantaneous
+ * submission rate from the last failure to decide on throttling.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ConcurrentMapThrottledSubmissionStore implements ThrottledSubmissionStore {
+
+    private static final double SUBMISSION_RATE_DIVIDEND = 1000.0;
+
+    private final ConcurrentMap<String, ZonedDateTime> ipMap;
+
+    private final double thresholdRate;
+
+    /**
+     * Computes the instantaneous rate in between two given dates corresponding to two submissions.
+     *
+     * @param a First date.
+     * @param b Second date.
+     * @return Instantaneous submission rate in submissions/sec, e.g. {@code a - b}.
+     */
+    private static double submissionRate(final ZonedDateTime a, final ZonedDateTime b) {
+        return SUBMISSION_RATE_DIVIDEND / (a.toInstant().toEpochMilli() - b.toInstant().toEpochMilli());
+    }
+
+    @Override
+    public void recordSubmissionFailure(final String key) {
+        this.ipMap.put(key, ZonedDateTime.now(ZoneOffset.UTC));
+    }
+
+    @Override
+    public boolean exceedsThreshold(final String key) {
+        val last = this.ipMap.get(key);
+        return last != null && submissionRate(ZonedDateTime.now(ZoneOffset.UTC), last) > thresholdRate;
+    }
+
+    @Override
+    public void decrement() {
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        this.ipMap.entrySet().removeIf(entry -> submissionRate(now, entry.getValue()) < thresholdRate);
+    }
+}
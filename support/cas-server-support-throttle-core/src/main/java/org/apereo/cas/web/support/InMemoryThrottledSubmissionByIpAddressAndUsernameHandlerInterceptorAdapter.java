@@ -23,6 +23,11 @@ public class InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptor
         super(configurationContext, ipMap);
     }
 
+    public InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapter(final ThrottledSubmissionHandlerConfigurationContext configurationContext,
+                                                                                      final ThrottledSubmissionStore submissionStore) {
+        super(configurationContext, submissionStore);
+    }
+
     @Override
     public String constructKey(final HttpServletRequest request) {
         val username = request.getParameter(getConfigurationContext().getUsernameParameter());
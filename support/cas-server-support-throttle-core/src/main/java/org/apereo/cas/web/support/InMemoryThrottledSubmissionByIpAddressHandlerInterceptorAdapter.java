@@ -20,6 +20,11 @@ public class InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapter ext
         super(configurationContext, ipMap);
     }
 
+    public InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapter(final ThrottledSubmissionHandlerConfigurationContext configurationContext,
+                                                                           final ThrottledSubmissionStore submissionStore) {
+        super(configurationContext, submissionStore);
+    }
+
     @Override
     public String constructKey(final HttpServletRequest request) {
         return ClientInfoHolder.getClientInfo().getClientIpAddress();
@@ -0,0 +1,149 @@
+package org.apereo.cas.web.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is {@link SlidingWindowThrottledSubmissionStore}. Failed submissions are counted per key
+ * using a sliding window whose length matches the failure range. The number of failures in the window
+ * is estimated from the count of the current fixed window plus the count of the previous window,
+ * weighted by how much of the previous window still overlaps with the sliding window.
+ * <p>
+ * Just like other throttling components, submissions are throttled once the failure rate exceeds
+ * the threshold rate, that is the threshold divided by the length of the window in failures per second.
+ * The failure rate of a key is the estimated number of failures in the sliding window divided by its length.
+ * A threshold that is not positive does not throttle any submissions.
+ * <p>
+ * The state of each key is packed into a single {@link AtomicLong} that carries the index of
+ * the current window along with both counts, so updates are lock-free and allocate nothing
+ * beyond the entry itself. Entries live in a size-bounded cache, and are evicted lazily once
+ * they have not been touched for two windows, at which point their count has decayed to zero.
+ * Eviction does not require a periodic sweep of all entries.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Slf4j
+public class SlidingWindowThrottledSubmissionStore implements ThrottledSubmissionStore {
+    private static final long MAX_COUNT = 0xFFFFL;
+
+    private static final int COUNT_BITS = 16;
+
+    private static final int WINDOW_BITS = 32;
+
+    private final Cache<String, AtomicLong> submissions;
+
+    private final double thresholdRate;
+
+    private final long windowMillis;
+
+    private final Clock clock;
+
+    public SlidingWindowThrottledSubmissionStore(final int threshold, final int rangeSeconds, final long capacity) {
+        this(threshold, rangeSeconds, capacity, Clock.systemUTC());
+    }
+
+    public SlidingWindowThrottledSubmissionStore(final int threshold, final int rangeSeconds,
+                                                 final long capacity, final Clock clock) {
+        this.windowMillis = TimeUnit.SECONDS.toMillis(Math.max(rangeSeconds, 1));
+        this.thresholdRate = (double) threshold / TimeUnit.MILLISECONDS.toSeconds(this.windowMillis);
+        this.clock = clock;
+        this.submissions = Caffeine.newBuilder()
+            .maximumSize(capacity)
+            .expireAfterAccess(Duration.ofMillis(this.windowMillis * 2))
+            .ticker(() -> TimeUnit.MILLISECONDS.toNanos(this.clock.millis()))
+            .build();
+    }
+
+    private static long getWindow(final long state) {
+        return state >>> WINDOW_BITS;
+    }
+
+    private static long getPreviousCount(final long state) {
+        return (state >>> COUNT_BITS) & MAX_COUNT;
+    }
+
+    private static long getCurrentCount(final long state) {
+        return state & MAX_COUNT;
+    }
+
+    private static long pack(final long window, final long previousCount, final long currentCount) {
+        return (window << WINDOW_BITS) | (previousCount << COUNT_BITS) | currentCount;
+    }
+
+    /**
+     * Move the state forward to the given window, rolling the counts over as windows pass.
+     * State that belongs to a later window, i.e. when the clock moves backwards, is left untouched.
+     */
+    private static long advance(final long state, final long window) {
+        val current = getWindow(state);
+        if (window <= current) {
+            return state;
+        }
+        if (window == current + 1) {
+            return pack(window, getCurrentCount(state), 0);
+        }
+        return pack(window, 0, 0);
+    }
+
+    @Override
+    public void recordSubmissionFailure(final String key) {
+        val now = clock.millis();
+        val window = (now / windowMillis) & 0xFFFFFFFFL;
+        val counter = submissions.get(key, k -> new AtomicLong());
+        counter.updateAndGet(state -> {
+            val advanced = advance(state, window);
+            val count = Math.min(getCurrentCount(advanced) + 1, MAX_COUNT);
+            return pack(getWindow(advanced), getPreviousCount(advanced), count);
+        });
+    }
+
+    @Override
+    public boolean exceedsThreshold(final String key) {
+        val counter = submissions.getIfPresent(key);
+        if (counter == null) {
+            return false;
+        }
+        if (thresholdRate <= 0) {
+            return false;
+        }
+        val rate = getEstimatedCount(counter.get()) / TimeUnit.MILLISECONDS.toSeconds(windowMillis);
+        LOGGER.trace("Failure rate for [{}] is [{}] compared to the threshold rate [{}]", key, rate, thresholdRate);
+        return rate > thresholdRate;
+    }
+
+    @Override
+    public void decrement() {
+        submissions.cleanUp();
+        LOGGER.debug("Tracking failed submissions for [{}] key(s)", submissions.estimatedSize());
+    }
+
+    /**
+     * Estimated number of failures recorded for the key in the sliding window.
+     *
+     * @param key the key
+     * @return the estimated count
+     */
+    public double getEstimatedCount(final String key) {
+        val counter = submissions.getIfPresent(key);
+        return counter == null ? 0 : getEstimatedCount(counter.get());
+    }
+
+    private double getEstimatedCount(final long state) {
+        val now = clock.millis();
+        val window = (now / windowMillis) & 0xFFFFFFFFL;
+        val advanced = advance(state, window);
+        if (getWindow(advanced) != window) {
+            return getCurrentCount(advanced);
+        }
+        val elapsed = (double) (now % windowMillis) / windowMillis;
+        return getPreviousCount(advanced) * (1 - elapsed) + getCurrentCount(advanced);
+    }
+}
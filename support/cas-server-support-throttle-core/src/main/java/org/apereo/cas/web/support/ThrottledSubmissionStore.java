@@ -0,0 +1,31 @@
+package org.apereo.cas.web.support;
+
+/**
+ * This is {@link ThrottledSubmissionStore}. It keeps track of failed submissions
+ * per throttling key and decides whether a key has gone over the failure threshold.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+public interface ThrottledSubmissionStore {
+
+    /**
+     * Record a submission failure for the given key.
+     *
+     * @param key the key
+     */
+    void recordSubmissionFailure(String key);
+
+    /**
+     * Determine whether failed submissions for the given key exceed the threshold.
+     *
+     * @param key the key
+     * @return true if submissions should be throttled.
+     */
+    boolean exceedsThreshold(String key);
+
+    /**
+     * Release records that no longer contribute to throttling decisions.
+     */
+    void decrement();
+}
@@ -8,11 +8,14 @@ import org.apereo.cas.throttle.DefaultAuthenticationThrottlingExecutionPlan;
 import org.apereo.cas.throttle.DefaultThrottledRequestResponseHandler;
 import org.apereo.cas.throttle.ThrottledRequestExecutor;
 import org.apereo.cas.throttle.ThrottledRequestResponseHandler;
+import org.apereo.cas.web.support.ConcurrentMapThrottledSubmissionStore;
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapter;
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapter;
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionCleaner;
+import org.apereo.cas.web.support.SlidingWindowThrottledSubmissionStore;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerConfigurationContext;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerInterceptor;
+import org.apereo.cas.web.support.ThrottledSubmissionStore;
 
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -28,9 +31,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 
-import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
@@ -52,6 +53,10 @@ public class CasThrottlingConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired
+    @Qualifier("throttleSubmissionMap")
+    private ObjectProvider<ConcurrentMap> throttleSubmissionMap;
+
     @RefreshScope
     @Bean
     @ConditionalOnMissingBean(name = "throttledRequestResponseHandler")
@@ -68,10 +73,18 @@ public class CasThrottlingConfiguration {
     }
 
     @RefreshScope
-    @ConditionalOnMissingBean(name = "throttleSubmissionMap")
+    @ConditionalOnMissingBean(name = "throttleSubmissionStore")
     @Bean
-    public ConcurrentMap throttleSubmissionMap() {
-        return new ConcurrentHashMap<String, ZonedDateTime>();
+    public ThrottledSubmissionStore throttleSubmissionStore() {
+        val throttle = casProperties.getAuthn().getThrottle();
+        val failure = throttle.getFailure();
+        val map = throttleSubmissionMap.getIfAvailable();
+        if (map != null) {
+            LOGGER.trace("Tracking failed submissions for throttling in [{}]", map.getClass().getSimpleName());
+            return new ConcurrentMapThrottledSubmissionStore(map, (double) failure.getThreshold() / failure.getRangeSeconds());
+        }
+        return new SlidingWindowThrottledSubmissionStore(failure.getThreshold(),
+            failure.getRangeSeconds(), throttle.getInMemory().getCapacity());
     }
 
     @RefreshScope
@@ -98,10 +111,10 @@ public class CasThrottlingConfiguration {
 
         if (StringUtils.isNotBlank(throttle.getUsernameParameter())) {
             LOGGER.trace("Activating authentication throttling based on IP address and username...");
-            return new InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapter(context, throttleSubmissionMap());
+            return new InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapter(context, throttleSubmissionStore());
         }
         LOGGER.trace("Activating authentication throttling based on IP address...");
-        return new InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapter(context, throttleSubmissionMap());
+        return new InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapter(context, throttleSubmissionStore());
     }
 
     @Autowired
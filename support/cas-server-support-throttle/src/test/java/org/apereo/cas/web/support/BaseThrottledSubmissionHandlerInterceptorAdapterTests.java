@@ -127,7 +127,7 @@ public abstract class BaseThrottledSubmissionHandlerInterceptorAdapterTests {
                 LOGGER.debug("Waiting for [{}] ms", period);
                 Thread.sleep(period);
                 val status = loginUnsuccessfully("mog", "1.2.3.4");
-                if (i == trials) {
+                if (i == trials - 1) {
                     assertEquals(expected, status.getStatus());
                 }
             } catch (final Exception e) {
@@ -0,0 +1,92 @@
+package org.apereo.cas.web.support;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link SlidingWindowThrottledSubmissionStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("Simple")
+public class SlidingWindowThrottledSubmissionStoreTests {
+
+    @Test
+    public void verifyThresholdInWindow() {
+        val clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(100_000L);
+        val store = new SlidingWindowThrottledSubmissionStore(3, 10, 100, clock);
+
+        assertFalse(store.exceedsThreshold("casuser"));
+        IntStream.range(0, 3).forEach(i -> store.recordSubmissionFailure("casuser"));
+        assertFalse(store.exceedsThreshold("casuser"));
+        store.recordSubmissionFailure("casuser");
+        assertTrue(store.exceedsThreshold("casuser"));
+        assertFalse(store.exceedsThreshold("other"));
+    }
+
+    @Test
+    public void verifySlidingWindow() {
+        val clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(100_000L);
+        val store = new SlidingWindowThrottledSubmissionStore(3, 10, 100, clock);
+        IntStream.range(0, 3).forEach(i -> store.recordSubmissionFailure("casuser"));
+
+        when(clock.millis()).thenReturn(115_000L);
+        assertEquals(1.5, store.getEstimatedCount("casuser"), 0.001);
+        assertFalse(store.exceedsThreshold("casuser"));
+        store.recordSubmissionFailure("casuser");
+        store.recordSubmissionFailure("casuser");
+        assertTrue(store.exceedsThreshold("casuser"));
+
+        when(clock.millis()).thenReturn(130_000L);
+        assertEquals(0, store.getEstimatedCount("casuser"), 0.001);
+        assertFalse(store.exceedsThreshold("casuser"));
+    }
+
+    @Test
+    public void verifyExpiredEntries() {
+        val clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(100_000L);
+        val store = new SlidingWindowThrottledSubmissionStore(1, 10, 100, clock);
+        store.recordSubmissionFailure("casuser");
+        assertFalse(store.exceedsThreshold("casuser"));
+        store.recordSubmissionFailure("casuser");
+        assertTrue(store.exceedsThreshold("casuser"));
+
+        when(clock.millis()).thenReturn(200_000L);
+        store.decrement();
+        assertEquals(0, store.getEstimatedCount("casuser"), 0.001);
+        assertFalse(store.exceedsThreshold("casuser"));
+    }
+
+    @Test
+    public void verifyThresholdRate() {
+        val clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(100_000L);
+        val store = new SlidingWindowThrottledSubmissionStore(2, 1, 100, clock);
+        store.recordSubmissionFailure("casuser");
+        store.recordSubmissionFailure("casuser");
+        assertFalse(store.exceedsThreshold("casuser"));
+        store.recordSubmissionFailure("casuser");
+        assertTrue(store.exceedsThreshold("casuser"));
+    }
+
+    @Test
+    public void verifyNonPositiveThreshold() {
+        val clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(100_000L);
+        val store = new SlidingWindowThrottledSubmissionStore(-1, 60, 100, clock);
+        IntStream.range(0, 10).forEach(i -> store.recordSubmissionFailure("casuser"));
+        assertEquals(10, store.getEstimatedCount("casuser"), 0.001);
+        assertFalse(store.exceedsThreshold("casuser"));
+    }
+}
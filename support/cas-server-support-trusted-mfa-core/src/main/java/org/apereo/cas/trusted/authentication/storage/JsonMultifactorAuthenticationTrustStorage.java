@@ -9,25 +9,50 @@ import org.apereo.cas.util.crypto.CipherExecutor;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.lang3.StringUtils;
 import org.hjson.JsonValue;
 import org.springframework.core.io.Resource;
 
+import java.io.File;
 import java.io.InputStreamReader;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This is {@link JsonMultifactorAuthenticationTrustStorage}.
+ * <p>
+ * Records are kept in memory and indexed by principal, id, record date and expiration date.
+ * The JSON resource holds a snapshot of all records, and changes made since the snapshot was taken
+ * are appended to a journal file that sits next to the resource. The journal is replayed on startup,
+ * and is folded back into the snapshot when expired records are removed, which is typically done
+ * on the schedule of the {@link MultifactorAuthenticationTrustStorageCleaner}.
+ * Expired records are never returned, even if they have not been removed yet.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
@@ -36,11 +61,27 @@ import java.util.stream.Collectors;
 public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage {
     private static final int MAP_SIZE = 8;
 
+    private static final int MIN_JOURNAL_ENTRIES_TO_COMPACT = 10_000;
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+
     private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
 
     private final Resource location;
 
-    private Map<String, MultifactorAuthenticationTrustRecord> storage;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, MultifactorAuthenticationTrustRecord> storage = new LinkedHashMap<>(MAP_SIZE);
+
+    private final Map<String, Map<String, MultifactorAuthenticationTrustRecord>> principals = new HashMap<>();
+
+    private final Map<Long, Map<String, MultifactorAuthenticationTrustRecord>> identifiers = new HashMap<>();
+
+    private final NavigableMap<Long, Map<String, MultifactorAuthenticationTrustRecord>> recordDates = new TreeMap<>();
+
+    private final NavigableMap<Long, Map<String, MultifactorAuthenticationTrustRecord>> expirationDates = new TreeMap<>();
+
+    private long journalEntries;
 
     public JsonMultifactorAuthenticationTrustStorage(final TrustedDevicesMultifactorProperties properties,
                                                      final CipherExecutor<Serializable, String> cipherExecutor,
@@ -51,101 +92,285 @@ public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAu
         readTrustedRecordsFromResource();
     }
 
+    private static String toPrincipalKey(final String principal) {
+        return StringUtils.defaultString(principal).toLowerCase(Locale.ENGLISH);
+    }
+
+    private static Long toRecordDateKey(final MultifactorAuthenticationTrustRecord record) {
+        return record.getRecordDate() == null ? null : record.getRecordDate().toInstant().toEpochMilli();
+    }
+
+    private static Long toExpirationDateKey(final MultifactorAuthenticationTrustRecord record) {
+        return record.getExpirationDate() == null ? null : record.getExpirationDate().getTime();
+    }
+
+    private static <K> void addToIndex(final Map<K, Map<String, MultifactorAuthenticationTrustRecord>> index,
+                                       final K key, final MultifactorAuthenticationTrustRecord record) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new LinkedHashMap<>(MAP_SIZE)).put(record.getRecordKey(), record);
+        }
+    }
+
+    private static <K> void removeFromIndex(final Map<K, Map<String, MultifactorAuthenticationTrustRecord>> index,
+                                            final K key, final MultifactorAuthenticationTrustRecord record) {
+        if (key != null) {
+            val records = index.get(key);
+            if (records != null) {
+                records.remove(record.getRecordKey());
+                if (records.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+
+    private static Stream<MultifactorAuthenticationTrustRecord> streamValid(
+        final Collection<Map<String, MultifactorAuthenticationTrustRecord>> records) {
+        return records.stream()
+            .flatMap(entries -> entries.values().stream())
+            .filter(entry -> !entry.isExpired());
+    }
+
     @Override
     public void remove(final String key) {
-        storage.keySet().removeIf(k -> k.equalsIgnoreCase(key));
-        writeTrustedRecordsToResource();
+        lock.writeLock().lock();
+        try {
+            val keys = storage.keySet()
+                .stream()
+                .filter(k -> k.equalsIgnoreCase(key))
+                .collect(Collectors.toList());
+            keys.forEach(k -> {
+                removeRecord(k);
+                appendToJournal(new JournalEntry(k, null));
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
     public void remove(final ZonedDateTime expirationDate) {
-        val results = storage
-            .values()
-            .stream()
-            .filter(entry -> entry.getExpirationDate() != null)
-            .filter(entry -> {
-                val expDate = DateTimeUtils.dateOf(expirationDate);
-                return expDate.compareTo(entry.getExpirationDate()) >= 0;
-            })
-            .sorted()
-            .collect(Collectors.toCollection(LinkedHashSet::new));
-
-        LOGGER.info("Found [{}] expired trusted-device records", results.size());
-        if (!results.isEmpty()) {
-            results.forEach(entry -> storage.remove(entry.getRecordKey()));
-            LOGGER.info("Invalidated and removed [{}] expired records", results.size());
-            writeTrustedRecordsToResource();
+        lock.writeLock().lock();
+        try {
+            val expired = expirationDates.headMap(DateTimeUtils.dateOf(expirationDate).getTime(), true)
+                .values()
+                .stream()
+                .flatMap(entries -> entries.keySet().stream())
+                .collect(Collectors.toList());
+            LOGGER.info("Found [{}] expired trusted-device records", expired.size());
+            expired.forEach(this::removeRecord);
+            if (!expired.isEmpty()) {
+                LOGGER.info("Invalidated and removed [{}] expired records", expired.size());
+            }
+            if (!expired.isEmpty() || journalEntries > 0) {
+                writeTrustedRecordsToResource();
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
     @Override
     public Set<? extends MultifactorAuthenticationTrustRecord> getAll() {
-        remove();
-        return new TreeSet<>(storage.values());
+        lock.readLock().lock();
+        try {
+            return storage.values()
+                .stream()
+                .filter(entry -> !entry.isExpired())
+                .collect(Collectors.toCollection(TreeSet::new));
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public MultifactorAuthenticationTrustRecord get(final long id) {
-        remove();
-        return storage
-            .values()
-            .stream()
-            .filter(entry -> entry.getId() == id)
-            .sorted()
-            .findFirst()
-            .orElse(null);
+        lock.readLock().lock();
+        try {
+            val records = identifiers.get(id);
+            if (records == null) {
+                return null;
+            }
+            return records.values()
+                .stream()
+                .filter(entry -> !entry.isExpired())
+                .sorted()
+                .findFirst()
+                .orElse(null);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public Set<? extends MultifactorAuthenticationTrustRecord> get(final ZonedDateTime onOrAfterDate) {
-        remove();
-        return storage
-            .values()
-            .stream()
-            .filter(entry -> entry.getRecordDate().isEqual(onOrAfterDate) || entry.getRecordDate().isAfter(onOrAfterDate))
-            .sorted()
-            .collect(Collectors.toCollection(LinkedHashSet::new));
+        lock.readLock().lock();
+        try {
+            val records = recordDates.tailMap(onOrAfterDate.toInstant().toEpochMilli(), true).values();
+            return streamValid(records).collect(Collectors.toCollection(LinkedHashSet::new));
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public Set<? extends MultifactorAuthenticationTrustRecord> get(final String principal) {
-        remove();
-        return storage
-            .values()
-            .stream()
-            .filter(entry -> entry.getPrincipal().equalsIgnoreCase(principal))
-            .sorted()
-            .collect(Collectors.toCollection(LinkedHashSet::new));
+        lock.readLock().lock();
+        try {
+            val records = principals.get(toPrincipalKey(principal));
+            if (records == null) {
+                return new LinkedHashSet<>(0);
+            }
+            return records.values()
+                .stream()
+                .filter(entry -> !entry.isExpired())
+                .sorted()
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
-
     @Override
     public MultifactorAuthenticationTrustRecord saveInternal(final MultifactorAuthenticationTrustRecord record) {
-        this.storage.put(record.getRecordKey(), record);
-        writeTrustedRecordsToResource();
-        return record;
+        lock.writeLock().lock();
+        try {
+            putRecord(record);
+            appendToJournal(new JournalEntry(record.getRecordKey(), record));
+            if (journalEntries >= MIN_JOURNAL_ENTRIES_TO_COMPACT && journalEntries > storage.size()) {
+                LOGGER.debug("Journal of [{}] has grown to [{}] entries and will be compacted", location, journalEntries);
+                writeTrustedRecordsToResource();
+            }
+            return record;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putRecord(final MultifactorAuthenticationTrustRecord record) {
+        removeRecord(record.getRecordKey());
+        storage.put(record.getRecordKey(), record);
+        addToIndex(principals, toPrincipalKey(record.getPrincipal()), record);
+        addToIndex(identifiers, record.getId(), record);
+        addToIndex(recordDates, toRecordDateKey(record), record);
+        addToIndex(expirationDates, toExpirationDateKey(record), record);
+    }
+
+    private void removeRecord(final String key) {
+        val record = storage.remove(key);
+        if (record != null) {
+            removeFromIndex(principals, toPrincipalKey(record.getPrincipal()), record);
+            removeFromIndex(identifiers, record.getId(), record);
+            removeFromIndex(recordDates, toRecordDateKey(record), record);
+            removeFromIndex(expirationDates, toExpirationDateKey(record), record);
+        }
+    }
+
+    private void clearRecords() {
+        storage.clear();
+        principals.clear();
+        identifiers.clear();
+        recordDates.clear();
+        expirationDates.clear();
+    }
+
+    @SneakyThrows
+    private File getJournalFile() {
+        val file = location.getFile();
+        return new File(file.getParentFile(), file.getName().concat(JOURNAL_SUFFIX));
     }
 
     @SneakyThrows
     private void readTrustedRecordsFromResource() {
-        this.storage = new LinkedHashMap<>(MAP_SIZE);
+        clearRecords();
         if (ResourceUtils.doesResourceExist(location)) {
             try (val reader = new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8)) {
                 val personList = new TypeReference<Map<String, MultifactorAuthenticationTrustRecord>>() {
                 };
-                this.storage = MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
+                val records = MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
+                records.values().forEach(this::putRecord);
             }
         }
+        replayJournal();
+    }
+
+    private Optional<File> findJournalFile() {
+        try {
+            return Optional.of(getJournalFile()).filter(File::exists);
+        } catch (final Exception e) {
+            LOGGER.trace("No journal can be located for [{}]: [{}]", location, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @SneakyThrows
+    private void replayJournal() {
+        val result = findJournalFile();
+        if (result.isEmpty()) {
+            return;
+        }
+        val journal = result.get();
+        try (val lines = Files.lines(journal.toPath(), StandardCharsets.UTF_8)) {
+            lines.filter(StringUtils::isNotBlank).forEach(line -> {
+                try {
+                    val entry = MAPPER.readValue(line, JournalEntry.class);
+                    if (entry.getRecord() == null) {
+                        removeRecord(entry.getKey());
+                    } else {
+                        putRecord(entry.getRecord());
+                    }
+                    journalEntries++;
+                } catch (final Exception e) {
+                    LOGGER.warn("Skipping unreadable journal entry in [{}]: [{}]", journal, e.getMessage());
+                }
+            });
+        }
+        LOGGER.debug("Replayed [{}] journal entries from [{}]", journalEntries, journal);
     }
 
+    @SneakyThrows
+    private void appendToJournal(final JournalEntry entry) {
+        val journal = getJournalFile();
+        val line = MAPPER.writeValueAsString(entry).concat(System.lineSeparator());
+        Files.write(journal.toPath(), line.getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        journalEntries++;
+    }
+
+    /**
+     * Write a snapshot of all records to the resource and truncate the journal.
+     * The snapshot is written to a temporary file first, which then atomically replaces the resource,
+     * so the resource is never left partially written. Should the journal fail to be truncated,
+     * replaying it on top of the snapshot yields the same records.
+     */
     @SneakyThrows
     private void writeTrustedRecordsToResource() {
-        val file = this.location.getFile();
-        val res = file.createNewFile();
-        if (res) {
-            LOGGER.debug("Created JSON resource @ [{}]", this.location);
+        val file = this.location.getFile().toPath();
+        val temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), this.storage);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
         }
-        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, this.storage);
-        readTrustedRecordsFromResource();
+        val journal = getJournalFile().toPath();
+        if (Files.exists(journal)) {
+            Files.write(journal, new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        LOGGER.debug("Compacted [{}] journal entries into [{}]", journalEntries, this.location);
+        journalEntries = 0;
+    }
+
+    /**
+     * A change recorded in the journal. A missing record indicates the removal of the key.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    private static class JournalEntry {
+        private String key;
+
+        private MultifactorAuthenticationTrustRecord record;
     }
 }
@@ -1,6 +1,8 @@
 package org.apereo.cas.trusted.authentication.storage;
 
+import org.apereo.cas.configuration.model.support.mfa.TrustedDevicesMultifactorProperties;
 import org.apereo.cas.trusted.AbstractMultifactorAuthenticationTrustStorageTests;
+import org.apereo.cas.util.crypto.CipherExecutor;
 
 import lombok.Getter;
 import lombok.SneakyThrows;
@@ -9,12 +11,18 @@ import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.test.context.TestPropertySource;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * This is {@link JsonMultifactorAuthenticationTrustStorageTests}.
@@ -40,10 +48,71 @@ public class JsonMultifactorAuthenticationTrustStorageTests extends AbstractMult
         deleteJsonFile();
     }
 
+    @Test
+    public void verifyJournalReplayedAndCompacted() throws Exception {
+        val file = File.createTempFile("trusted-device-journal", ".json");
+        val journal = new File(file.getParentFile(), file.getName() + ".journal");
+        try {
+            FileUtils.write(file, "{}", StandardCharsets.UTF_8);
+            val storage = newStorage(file);
+            val record = getMultifactorAuthenticationTrustRecord();
+            storage.save(record);
+            assertTrue(journal.exists());
+            assertEquals("{}", FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+            assertEquals(1, newStorage(file).get(record.getPrincipal()).size());
+
+            storage.remove();
+            assertEquals(0, journal.length());
+            val reloaded = newStorage(file);
+            assertEquals(1, reloaded.get(record.getPrincipal()).size());
+            assertNotNull(reloaded.get(record.getId()));
+            assertFalse(reloaded.get(ZonedDateTime.now(ZoneOffset.UTC).minusDays(2)).isEmpty());
+
+            reloaded.remove(reloaded.get(record.getId()).getRecordKey());
+            assertTrue(newStorage(file).get(record.getPrincipal()).isEmpty());
+        } finally {
+            FileUtils.deleteQuietly(file);
+            FileUtils.deleteQuietly(journal);
+        }
+    }
+
+    @Test
+    public void verifyJournalReplayedWithoutSnapshot() throws Exception {
+        val file = File.createTempFile("trusted-device-journal", ".json");
+        val journal = new File(file.getParentFile(), file.getName() + ".journal");
+        try {
+            FileUtils.forceDelete(file);
+            val storage = newStorage(file);
+            val record = getMultifactorAuthenticationTrustRecord();
+            storage.save(record);
+            assertTrue(journal.exists());
+            assertFalse(file.exists());
+
+            val reloaded = newStorage(file);
+            assertEquals(1, reloaded.get(record.getPrincipal()).size());
+            reloaded.remove();
+            assertEquals(0, journal.length());
+            assertTrue(file.exists());
+            assertEquals(1, newStorage(file).get(record.getPrincipal()).size());
+        } finally {
+            FileUtils.deleteQuietly(file);
+            FileUtils.deleteQuietly(journal);
+        }
+    }
+
+    private JsonMultifactorAuthenticationTrustStorage newStorage(final File file) {
+        return new JsonMultifactorAuthenticationTrustStorage(new TrustedDevicesMultifactorProperties(),
+            CipherExecutor.noOpOfSerializableToString(), new FileSystemResource(file), keyGenerationStrategy);
+    }
+
     private static void deleteJsonFile() throws IOException {
         val file = new File("/tmp/trusted-device.json");
         if (file.exists()) {
             FileUtils.forceDelete(file);
         }
+        val journal = new File("/tmp/trusted-device.json.journal");
+        if (journal.exists()) {
+            FileUtils.forceDelete(journal);
+        }
     }
 }
@@ -2,10 +2,16 @@ package org.apereo.cas.adaptors.x509.authentication.revocation.checker;
 
 import org.apereo.cas.adaptors.x509.authentication.CRLFetcher;
 import org.apereo.cas.adaptors.x509.authentication.ResourceCRLFetcher;
+import org.apereo.cas.adaptors.x509.authentication.revocation.policy.AllowRevocationPolicy;
+import org.apereo.cas.adaptors.x509.authentication.revocation.policy.DenyRevocationPolicy;
 import org.apereo.cas.adaptors.x509.authentication.revocation.policy.RevocationPolicy;
+import org.apereo.cas.adaptors.x509.authentication.revocation.policy.ThresholdExpiredCRLRevocationPolicy;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.crypto.CertUtils;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -25,11 +31,22 @@ import java.net.URI;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.cert.X509CRL;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -40,6 +57,14 @@ import java.util.stream.IntStream;
  * implementation.  This implementation caches CRL resources fetched from remote
  * URLs to improve performance by avoiding CRL fetching on every revocation
  * check.
+ * <p>
+ * Fetched CRLs are parsed once and kept as a {@link CompactRevocationList}, which
+ * indexes revoked serial numbers by certificate issuer. Cached CRLs are fetched again
+ * in the background as they approach their next update time, or once their encoded copy
+ * expires from the cache, so that revocation checks do not wait on CRL downloads
+ * other than the very first one for each distribution point. CRLs that remain in use past their
+ * next update time are reported along with the threshold of the expiration policy, and their
+ * staleness is recorded as {@code cas.x509.crl.staleness}.
  *
  * @author Marvin S. Addison
  * @since 3.4.6
@@ -47,12 +72,30 @@ import java.util.stream.IntStream;
 @Slf4j
 public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocationChecker implements DisposableBean, AutoCloseable {
 
+    private static final Duration MIN_REFRESH_AGE = Duration.ofMinutes(5);
+
     private final UserManagedCache<URI, byte[]> crlCache;
 
+    private final Map<URI, CompactRevocationList> revocationLists = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        val thread = new Thread(r, "CRLDistributionPointRefresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final CRLFetcher fetcher;
 
     private final boolean throwOnFetchFailure;
 
+    /**
+     * How often cached CRLs are examined for refresh.
+     */
+    @Setter
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
     public CRLDistributionPointRevocationChecker(
         final UserManagedCache<URI, byte[]> crlCache, final CRLFetcher fetcher, final boolean throwOnFetchFailure) {
         this(false, null, null, crlCache, fetcher, throwOnFetchFailure);
@@ -86,6 +129,7 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
     
     @Override
     public void destroy() {
+        scheduler.shutdownNow();
         try {
             this.crlCache.close();
         } catch (final StateTransitionException e) {
@@ -156,6 +200,199 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
         return addCRL(uri, crl);
     }
 
+    @Override
+    public void check(final X509Certificate cert) throws GeneralSecurityException {
+        if (cert == null) {
+            throw new IllegalArgumentException("Certificate cannot be null.");
+        }
+        LOGGER.debug("Evaluating certificate revocation status for [{}]", CertUtils.toString(cert));
+        val lists = getRevocationLists(cert);
+        if (lists.isEmpty()) {
+            LOGGER.warn("CRL data is not available for [{}]", CertUtils.toString(cert));
+            getUnavailableCRLPolicy().apply(null);
+            return;
+        }
+
+        val now = Instant.now();
+        val validLists = lists.stream().filter(list -> !list.isExpired(now)).collect(Collectors.toList());
+        if (validLists.isEmpty()) {
+            LOGGER.warn("All CRLs retrieved have expired. Applying CRL expiration policy...");
+            for (val list : lists) {
+                reportStaleness(list, now);
+                applyExpiredCRLPolicy(list);
+            }
+            return;
+        }
+        LOGGER.debug("Valid CRLs [{}] found that are not expired yet", validLists);
+        val revocations = validLists
+            .stream()
+            .map(list -> list.getRevocation(cert))
+            .flatMap(Optional::stream)
+            .collect(Collectors.toList());
+        if (revocations.size() == validLists.size()) {
+            val entry = revocations.get(0);
+            LOGGER.warn("All CRL entries have been revoked. Rejecting the first entry [{}]", entry.getMessage());
+            throw entry;
+        }
+    }
+
+    /**
+     * Fetch cached CRLs again if they are close to their next update time,
+     * or if their encoded copy is no longer cached.
+     */
+    public void refresh() {
+        val now = Instant.now();
+        revocationLists.values()
+            .stream()
+            .filter(list -> list.isRefreshDue(now, MIN_REFRESH_AGE) || !crlCache.containsKey(list.getSource()))
+            .map(CompactRevocationList::getSource)
+            .forEach(uri -> {
+                try {
+                    LOGGER.debug("Refreshing CRL from [{}]", uri);
+                    val list = fetchRevocationList(uri);
+                    if (list != null) {
+                        revocationLists.put(uri, list);
+                        LOGGER.debug("Refreshed CRL from [{}] with [{}] entries, valid until [{}]", uri, list.getSize(), list.getNextUpdate());
+                    }
+                } catch (final Exception e) {
+                    LOGGER.warn("Unable to refresh CRL from [{}]: [{}]", uri, e.getMessage());
+                    LOGGER.debug(e.getMessage(), e);
+                }
+                Optional.ofNullable(revocationLists.get(uri)).ifPresent(list -> reportStaleness(list, now));
+            });
+    }
+
+    private List<CompactRevocationList> getRevocationLists(final X509Certificate cert) {
+        val urls = getDistributionPoints(cert);
+        LOGGER.debug("Distribution points for [{}]: [{}].", CertUtils.toString(cert), CollectionUtils.wrap(urls));
+        val lists = new ArrayList<CompactRevocationList>(urls.length);
+        for (var index = 0; index < urls.length && (this.checkAll || lists.isEmpty()); index++) {
+            val url = urls[index];
+            try {
+                val list = getRevocationList(cert, url);
+                if (list != null) {
+                    lists.add(list);
+                }
+            } catch (final Exception e) {
+                LOGGER.error("Error fetching CRL at [{}]", url, e);
+                if (this.throwOnFetchFailure) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+        }
+        LOGGER.debug("Found [{}] CRLs", lists.size());
+        return lists;
+    }
+
+    /**
+     * Gets the cached CRL for the distribution point, or fetches it if it is not cached.
+     * The CRL is fetched outside of the cache, so that lookups of other distribution points
+     * are not held up by the download. Should the CRL be fetched by another thread in the meantime,
+     * the list cached first is kept.
+     *
+     * @param cert the certificate
+     * @param uri  the distribution point
+     * @return the revocation list, or null
+     */
+    private CompactRevocationList getRevocationList(final X509Certificate cert, final URI uri) {
+        val cached = revocationLists.get(uri);
+        if (cached != null) {
+            return cached;
+        }
+        LOGGER.debug("CRL for [{}] is not cached. Fetching and caching...", CertUtils.toString(cert));
+        val list = fetchRevocationList(uri);
+        if (list == null) {
+            return null;
+        }
+        val existing = revocationLists.putIfAbsent(uri, list);
+        return existing != null ? existing : list;
+    }
+
+    @SneakyThrows
+    private CompactRevocationList fetchRevocationList(final URI uri) {
+        val crl = this.fetcher.fetch(uri);
+        if (crl == null) {
+            LOGGER.warn("Could not fetch X509 CRL for [{}]. Returned value is null", uri);
+            return null;
+        }
+        LOGGER.info("Success. Caching fetched CRL at [{}].", uri);
+        cacheEncodedCRL(uri, crl);
+        scheduleRefresh();
+        return CompactRevocationList.of(uri, crl);
+    }
+
+    /**
+     * Apply the expiration policy to an expired CRL. The threshold policy is evaluated against the
+     * next update time of the compact list, and the allow and deny policies do not examine the CRL at all.
+     * Other policies are handed the cached copy of the CRL, if any; the CRL is never fetched here,
+     * since the refresh in the background is responsible for that.
+     *
+     * @param list the expired list
+     * @throws GeneralSecurityException the general security exception
+     */
+    private void applyExpiredCRLPolicy(final CompactRevocationList list) throws GeneralSecurityException {
+        val policy = getExpiredCRLPolicy();
+        if (policy instanceof ThresholdExpiredCRLRevocationPolicy) {
+            ((ThresholdExpiredCRLRevocationPolicy) policy).apply(list.getSource().toString(), list.getNextUpdate());
+            return;
+        }
+        val policyInstance = (Object) policy;
+        if (policyInstance instanceof AllowRevocationPolicy || policyInstance instanceof DenyRevocationPolicy) {
+            policy.apply(null);
+            return;
+        }
+        val crl = getCachedCRL(list.getSource());
+        if (crl == null) {
+            getUnavailableCRLPolicy().apply(null);
+        } else {
+            policy.apply(crl);
+        }
+    }
+
+    private X509CRL getCachedCRL(final URI uri) {
+        try {
+            val item = this.crlCache.get(uri);
+            return item != null ? this.fetcher.fetch(new ByteArrayResource(item)) : null;
+        } catch (final Exception e) {
+            LOGGER.error("Error reading cached CRL from [{}]", uri, e);
+            return null;
+        }
+    }
+
+    private void reportStaleness(final CompactRevocationList list, final Instant now) {
+        val staleness = list.getStaleness(now);
+        DistributionSummary.builder("cas.x509.crl.staleness")
+            .description("Time elapsed since the next update time of a cached CRL")
+            .baseUnit("seconds")
+            .tag("source", list.getSource().toString())
+            .register(Metrics.globalRegistry)
+            .record(staleness.toSeconds());
+        if (staleness.isZero()) {
+            return;
+        }
+        val policy = getExpiredCRLPolicy();
+        if (policy instanceof ThresholdExpiredCRLRevocationPolicy) {
+            val threshold = ((ThresholdExpiredCRLRevocationPolicy) policy).getThreshold();
+            if (staleness.toSeconds() > threshold) {
+                LOGGER.warn("CRL from [{}] expired [{}] ago, beyond the expiration threshold of [{}] seconds; "
+                    + "certificates it covers will be rejected until the CRL is refreshed", list.getSource(), staleness, threshold);
+            } else {
+                LOGGER.warn("CRL from [{}] expired [{}] ago, within the expiration threshold of [{}] seconds",
+                    list.getSource(), staleness, threshold);
+            }
+        } else {
+            LOGGER.warn("CRL from [{}] expired [{}] ago", list.getSource(), staleness);
+        }
+    }
+
+    @SuppressWarnings("FutureReturnValueIgnored")
+    private void scheduleRefresh() {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            val interval = refreshInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
     @Override
     @SneakyThrows
     protected List<X509CRL> getCRLs(final X509Certificate cert) {
@@ -206,16 +443,21 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
     }
 
     @Override
-    @SneakyThrows
     protected boolean addCRL(final Object id, final X509CRL crl) {
-        var uri = (URI) id;
+        val uri = (URI) id;
         if (crl == null) {
             LOGGER.debug("No CRL was passed. Removing [{}] from cache...", id);
             this.crlCache.remove(uri);
+            this.revocationLists.remove(uri);
             return false;
         }
+        cacheEncodedCRL(uri, crl);
+        this.revocationLists.put(uri, CompactRevocationList.of(uri, crl));
+        return this.crlCache.containsKey(uri);
+    }
 
+    @SneakyThrows
+    private void cacheEncodedCRL(final URI uri, final X509CRL crl) {
         this.crlCache.put(uri, crl.getEncoded());
-        return this.crlCache.containsKey(uri);
     }
 }
@@ -0,0 +1,130 @@
+package org.apereo.cas.adaptors.x509.authentication.revocation.checker;
+
+import org.apereo.cas.adaptors.x509.authentication.revocation.RevokedCertificateException;
+import org.apereo.cas.util.DateTimeUtils;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.val;
+
+import javax.security.auth.x500.X500Principal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This is {@link CompactRevocationList}, which keeps the entries of a parsed CRL
+ * as a set of revoked serial numbers keyed by certificate issuer, along with the
+ * validity period of the CRL. Revocation lookups are hash lookups and do not require
+ * the CRL to be parsed again, nor its encoded form to be kept around.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Getter
+@ToString(exclude = "revokedCertificates")
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CompactRevocationList {
+    private final URI source;
+
+    private final X500Principal issuer;
+
+    private final Instant thisUpdate;
+
+    private final Instant nextUpdate;
+
+    private final Instant loadedAt;
+
+    private final int size;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<X500Principal, Map<BigInteger, RevokedCertificate>> revokedCertificates;
+
+    /**
+     * Build the compact revocation list from the CRL.
+     *
+     * @param source the source of the CRL
+     * @param crl    the crl
+     * @return the compact revocation list
+     */
+    public static CompactRevocationList of(final URI source, final X509CRL crl) {
+        val issuer = crl.getIssuerX500Principal();
+        val revoked = new HashMap<X500Principal, Map<BigInteger, RevokedCertificate>>();
+        val entries = crl.getRevokedCertificates();
+        if (entries != null) {
+            for (val entry : entries) {
+                val entryIssuer = Optional.ofNullable(entry.getCertificateIssuer()).orElse(issuer);
+                revoked.computeIfAbsent(entryIssuer, k -> new HashMap<>())
+                    .put(entry.getSerialNumber(), new RevokedCertificate(entry.getRevocationDate().getTime(),
+                        RevokedCertificateException.getReasonFromX509Entry(entry)));
+            }
+        }
+        val nextUpdate = crl.getNextUpdate() == null ? null : crl.getNextUpdate().toInstant();
+        return new CompactRevocationList(source, issuer, crl.getThisUpdate().toInstant(), nextUpdate,
+            Instant.now(), entries == null ? 0 : entries.size(), revoked);
+    }
+
+    /**
+     * Whether the CRL has expired at the given time.
+     *
+     * @param reference the reference time
+     * @return true/false
+     */
+    public boolean isExpired(final Instant reference) {
+        return nextUpdate != null && reference.isAfter(nextUpdate);
+    }
+
+    /**
+     * How long the CRL has been expired at the given time.
+     *
+     * @param reference the reference time
+     * @return the staleness, or zero if the CRL has not expired
+     */
+    public Duration getStaleness(final Instant reference) {
+        return isExpired(reference) ? Duration.between(nextUpdate, reference) : Duration.ZERO;
+    }
+
+    /**
+     * Whether the CRL should be fetched again at the given time. Refresh is due once the CRL
+     * reaches the last tenth of its validity period, but no sooner than the given minimum age.
+     *
+     * @param reference  the reference time
+     * @param minimumAge the minimum age of the CRL before it may be refreshed
+     * @return true/false
+     */
+    public boolean isRefreshDue(final Instant reference, final Duration minimumAge) {
+        if (nextUpdate == null || reference.isBefore(loadedAt.plus(minimumAge))) {
+            return false;
+        }
+        val validity = Duration.between(thisUpdate, nextUpdate);
+        return !reference.isBefore(nextUpdate.minus(validity.dividedBy(10)));
+    }
+
+    /**
+     * Find the revocation entry for the certificate, if any.
+     *
+     * @param certificate the certificate
+     * @return the revoked certificate exception describing the entry
+     */
+    public Optional<RevokedCertificateException> getRevocation(final X509Certificate certificate) {
+        return Optional.ofNullable(revokedCertificates.get(certificate.getIssuerX500Principal()))
+            .map(serials -> serials.get(certificate.getSerialNumber()))
+            .map(entry -> new RevokedCertificateException(
+                DateTimeUtils.zonedDateTimeOf(entry.revocationDate), certificate.getSerialNumber(), entry.reason));
+    }
+
+    @RequiredArgsConstructor
+    private static class RevokedCertificate {
+        private final long revocationDate;
+
+        private final RevokedCertificateException.Reason reason;
+    }
+}
@@ -3,11 +3,13 @@ package org.apereo.cas.adaptors.x509.authentication.revocation.policy;
 import org.apereo.cas.adaptors.x509.authentication.ExpiredCRLException;
 import org.apereo.cas.util.crypto.CertUtils;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import java.security.cert.X509CRL;
+import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
@@ -20,6 +22,7 @@ import java.time.ZonedDateTime;
  */
 @Slf4j
 @RequiredArgsConstructor
+@Getter
 public class ThresholdExpiredCRLRevocationPolicy implements RevocationPolicy<X509CRL> {
     /**
      * Expired threshold period in seconds after which expired CRL data is rejected.
@@ -45,4 +48,27 @@ public class ThresholdExpiredCRLRevocationPolicy implements RevocationPolicy<X50
                 crl.getNextUpdate(), this.threshold));
         }
     }
+
+    /**
+     * Apply the policy to a CRL that is only known by its source and next update time,
+     * such as a CRL that is kept in compact form, without having to parse the CRL again.
+     *
+     * @param source     the source of the CRL
+     * @param nextUpdate the next update time of the CRL, if any
+     * @throws ExpiredCRLException On expired CRL data.
+     */
+    public void apply(final String source, final Instant nextUpdate) throws ExpiredCRLException {
+        if (nextUpdate == null) {
+            return;
+        }
+        val cutoff = ZonedDateTime.now(ZoneOffset.UTC);
+        val expiration = ZonedDateTime.ofInstant(nextUpdate, ZoneOffset.UTC);
+        if (cutoff.isAfter(expiration)) {
+            if (cutoff.minusSeconds(this.threshold).isAfter(expiration)) {
+                throw new ExpiredCRLException(source, cutoff, this.threshold);
+            }
+            LOGGER.info(String.format("CRL from %s expired on %s but is within threshold period, %s seconds.",
+                source, nextUpdate, this.threshold));
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.apereo.cas;
 
 import org.apereo.cas.adaptors.x509.authentication.handler.support.CRLDistributionPointRevocationCheckerTests;
+import org.apereo.cas.adaptors.x509.authentication.handler.support.CompactRevocationListTests;
 import org.apereo.cas.adaptors.x509.authentication.handler.support.ResourceCRLRevocationCheckerTests;
 import org.apereo.cas.adaptors.x509.authentication.handler.support.ThresholdExpiredCRLRevocationPolicyTests;
 import org.apereo.cas.adaptors.x509.authentication.handler.support.X509CredentialsAuthenticationHandlerTests;
@@ -36,7 +37,8 @@ import org.junit.runner.RunWith;
     X509CertificateCredentialTests.class,
     ThresholdExpiredCRLRevocationPolicyTests.class,
     X509CredentialsAuthenticationHandlerTests.class,
-    CRLDistributionPointRevocationCheckerTests.class
+    CRLDistributionPointRevocationCheckerTests.class,
+    CompactRevocationListTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllTestsSuite {
@@ -0,0 +1,111 @@
+package org.apereo.cas.adaptors.x509.authentication.handler.support;
+
+import org.apereo.cas.adaptors.x509.authentication.CRLFetcher;
+import org.apereo.cas.adaptors.x509.authentication.ExpiredCRLException;
+import org.apereo.cas.adaptors.x509.authentication.ResourceCRLFetcher;
+import org.apereo.cas.adaptors.x509.authentication.revocation.RevokedCertificateException;
+import org.apereo.cas.adaptors.x509.authentication.revocation.checker.CRLDistributionPointRevocationChecker;
+import org.apereo.cas.adaptors.x509.authentication.revocation.checker.CompactRevocationList;
+import org.apereo.cas.adaptors.x509.authentication.revocation.policy.ThresholdExpiredCRLRevocationPolicy;
+import org.apereo.cas.util.crypto.CertUtils;
+
+import lombok.val;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.builders.UserManagedCacheBuilder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link CompactRevocationList} class.
+ *
+ * @author Misagh Moayyed
+ * @since 6.3.0
+ */
+@Tag("X509")
+public class CompactRevocationListTests {
+
+    @Test
+    public void verifyRevokedSerials() throws Exception {
+        val crl = new ResourceCRLFetcher().fetch(new ClassPathResource("userCA-valid.crl"));
+        val list = CompactRevocationList.of(new URI("http://localhost:8085/ca.crl"), crl);
+        assertEquals(crl.getIssuerX500Principal(), list.getIssuer());
+        assertEquals(crl.getRevokedCertificates().size(), list.getSize());
+        assertFalse(list.isExpired(Instant.now()));
+        assertTrue(list.getStaleness(Instant.now()).isZero());
+
+        val revoked = CertUtils.readCertificate(new ClassPathResource("user-revoked-distcrl.crt"));
+        assertTrue(list.getRevocation(revoked).isPresent());
+        assertEquals(revoked.getSerialNumber(), list.getRevocation(revoked).get().getSerial());
+
+        val valid = CertUtils.readCertificate(new ClassPathResource("user-valid-distcrl.crt"));
+        assertTrue(list.getRevocation(valid).isEmpty());
+    }
+
+    @Test
+    public void verifyExpiredList() throws Exception {
+        val crl = new ResourceCRLFetcher().fetch(new ClassPathResource("userCA-expired.crl"));
+        val list = CompactRevocationList.of(new URI("http://localhost:8085/ca.crl"), crl);
+        val now = Instant.now();
+        assertTrue(list.isExpired(now));
+        assertFalse(list.getStaleness(now).isZero());
+        assertTrue(list.isRefreshDue(now, Duration.ZERO));
+        assertFalse(list.isRefreshDue(now, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    public void verifyCheckerFetchesOnceAndRefreshes() throws Exception {
+        val crl = new ResourceCRLFetcher().fetch(new ClassPathResource("userCA-valid.crl"));
+        val fetcher = mock(CRLFetcher.class);
+        when(fetcher.fetch(any(URI.class))).thenReturn(crl);
+
+        val cache = UserManagedCacheBuilder.newUserManagedCacheBuilder(URI.class, byte[].class)
+            .withResourcePools(ResourcePoolsBuilder.heap(10)).build();
+        try (val checker = new CRLDistributionPointRevocationChecker(false, null,
+            new ThresholdExpiredCRLRevocationPolicy(0), cache, fetcher, true)) {
+            val valid = CertUtils.readCertificate(new ClassPathResource("user-valid-distcrl.crt"));
+            checker.check(valid);
+            checker.check(valid);
+            verify(fetcher, times(1)).fetch(any(URI.class));
+
+            val revoked = CertUtils.readCertificate(new ClassPathResource("user-revoked-distcrl.crt"));
+            assertThrows(RevokedCertificateException.class, () -> checker.check(revoked));
+            verify(fetcher, times(1)).fetch(any(URI.class));
+
+            checker.refresh();
+            verify(fetcher, times(1)).fetch(any(URI.class));
+            cache.clear();
+            checker.refresh();
+            verify(fetcher, times(2)).fetch(any(URI.class));
+            checker.check(valid);
+        }
+    }
+
+    @Test
+    public void verifyExpiredListIsNotFetchedOnCheck() throws Exception {
+        val crl = new ResourceCRLFetcher().fetch(new ClassPathResource("userCA-expired.crl"));
+        val fetcher = mock(CRLFetcher.class);
+        when(fetcher.fetch(any(URI.class))).thenReturn(crl);
+
+        val cache = UserManagedCacheBuilder.newUserManagedCacheBuilder(URI.class, byte[].class)
+            .withResourcePools(ResourcePoolsBuilder.heap(10)).build();
+        try (val checker = new CRLDistributionPointRevocationChecker(false, null,
+            new ThresholdExpiredCRLRevocationPolicy(0), cache, fetcher, true)) {
+            val cert = CertUtils.readCertificate(new ClassPathResource("user-valid-distcrl.crt"));
+            assertThrows(ExpiredCRLException.class, () -> checker.check(cert));
+            cache.clear();
+            assertThrows(ExpiredCRLException.class, () -> checker.check(cert));
+            verify(fetcher, times(1)).fetch(any(URI.class));
+            verify(fetcher, never()).fetch(any(Resource.class));
+        }
+    }
+}